@@ -0,0 +1,169 @@
+package com.yobel.rickandmortyback.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+import com.yobel.rickandmortyback.model.response.CharacterResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic data shared by the benchmarks: a synthetic catalog shaped like the upstream one
+ * (826 characters in pages of 20) and an in-memory {@link ExchangeFunction} serving it, so the
+ * benchmarks measure this application and never the network.
+ */
+final class BenchmarkFixtures {
+    static final String BASE_URL = "https://rickandmortyapi.com/api";
+    static final int CATALOG_SIZE = 826;
+    static final int PAGE_SIZE = 20;
+
+    private static final String[] STATUSES = {"Alive", "Dead", "unknown"};
+    private static final String[] SPECIES = {"Human", "Alien", "Humanoid", "Poopybutthole", "Mythological Creature",
+            "Animal", "Robot", "Cronenberg", "Disease", "unknown"};
+    private static final String[] TYPES = {"", "", "", "", "", "Parasite", "Genetic experiment", "Superhuman", "Clone"};
+    private static final String[] GENDERS = {"Female", "Male", "Genderless", "unknown"};
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Returns a mapper configured like the one Spring Boot auto-configures, which writes dates as ISO-8601
+     * strings and ignores unknown properties.
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    static int pageCount() {
+        return (CATALOG_SIZE + PAGE_SIZE - 1) / PAGE_SIZE;
+    }
+
+    static List<Character> catalog() {
+        Random random = new Random(42);
+        List<Character> catalog = new ArrayList<>(CATALOG_SIZE);
+        for (int id = 1; id <= CATALOG_SIZE; id++) {
+            int episodeCount = id <= 5 ? 51 : 1 + random.nextInt(random.nextInt(10) == 0 ? 30 : 3);
+            int firstEpisode = 1 + random.nextInt(51 - Math.min(episodeCount, 50));
+            List<String> episodes = new ArrayList<>(episodeCount);
+            for (int i = 0; i < episodeCount; i++) {
+                episodes.add(BASE_URL + "/episode/" + (firstEpisode + i));
+            }
+            int origin = 1 + random.nextInt(126);
+            int location = 1 + random.nextInt(126);
+            catalog.add(new Character(
+                    id,
+                    "Character " + id + " of dimension C-" + random.nextInt(1000),
+                    STATUSES[random.nextInt(STATUSES.length)],
+                    SPECIES[random.nextInt(SPECIES.length)],
+                    TYPES[random.nextInt(TYPES.length)],
+                    GENDERS[random.nextInt(GENDERS.length)],
+                    new Origin("Location " + origin, BASE_URL + "/location/" + origin),
+                    new Location(null, "Location " + location, BASE_URL + "/location/" + location,
+                            null, null, null, null),
+                    BASE_URL + "/character/avatar/" + id + ".jpeg",
+                    episodes,
+                    BASE_URL + "/character/" + id,
+                    LocalDateTime.of(2017, 11, 4, 18, 48).plusSeconds(id * 97L).plusNanos(random.nextInt(1000) * 1_000_000L)));
+        }
+        return catalog;
+    }
+
+    static CharacterResponse page(List<Character> catalog, int page) {
+        int pages = pageCount();
+        int from = (page - 1) * PAGE_SIZE;
+        List<Character> results = catalog.subList(from, Math.min(from + PAGE_SIZE, catalog.size()));
+        return new CharacterResponse(new CharacterResponse.Info(catalog.size(), pages,
+                page < pages ? BASE_URL + "/character?page=" + (page + 1) : null,
+                page > 1 ? BASE_URL + "/character?page=" + (page - 1) : null),
+                results);
+    }
+
+    /**
+     * Serves {@code /character}, {@code /character?page=n}, {@code /character/{id}} and
+     * {@code /character/{ids}} from pre-encoded JSON. Bodies are split into chunks of
+     * {@code chunkSize} bytes to mimic a response arriving over several reads.
+     */
+    static ExchangeFunction upstream(List<Character> catalog, ObjectMapper objectMapper, int chunkSize) {
+        byte[][] pages = new byte[pageCount() + 1][];
+        byte[][] characters = new byte[catalog.size() + 1][];
+        for (int page = 1; page <= pageCount(); page++) {
+            pages[page] = write(objectMapper, page(catalog, page));
+        }
+        for (Character character : catalog) {
+            characters[character.getId()] = write(objectMapper, character);
+        }
+
+        return request -> {
+            URI uri = request.url();
+            String path = uri.getPath();
+            String resource = path.substring(path.lastIndexOf("/character") + "/character".length());
+            if (resource.isEmpty()) {
+                String page = UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst("page");
+                int number = page == null ? 1 : Integer.parseInt(page);
+                return number < pages.length ? ok(pages[number], chunkSize) : notFound();
+            }
+            String[] ids = resource.substring(1).split(",");
+            if (ids.length == 1) {
+                int id = Integer.parseInt(ids[0]);
+                return id < characters.length ? ok(characters[id], chunkSize) : notFound();
+            }
+            List<Character> found = new ArrayList<>(ids.length);
+            for (String id : ids) {
+                int value = Integer.parseInt(id);
+                if (value < characters.length) {
+                    found.add(catalog.get(value - 1));
+                }
+            }
+            return ok(write(objectMapper, found), chunkSize);
+        };
+    }
+
+    static byte[] write(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    static Flux<DataBuffer> chunks(byte[] body, int chunkSize) {
+        return Flux.range(0, (body.length + chunkSize - 1) / chunkSize)
+                .map(i -> {
+                    int from = i * chunkSize;
+                    return DefaultDataBufferFactory.sharedInstance.wrap(
+                            java.nio.ByteBuffer.wrap(body, from, Math.min(chunkSize, body.length - from)).slice());
+                });
+    }
+
+    private static Mono<ClientResponse> ok(byte[] body, int chunkSize) {
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(chunks(body, chunkSize))
+                .build());
+    }
+
+    private static Mono<ClientResponse> notFound() {
+        return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"error\":\"Character not found\"}")
+                .build());
+    }
+}
@@ -0,0 +1,122 @@
+package com.yobel.rickandmortyback.benchmark;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.yobel.rickandmortyback.config.CharacterProtobufEncoder;
+import com.yobel.rickandmortyback.model.Character;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response formats: the time to encode character lists in each negotiable format, alone and followed
+ * by the response compression applied by the server.
+ * <p>
+ * The payload size of every combination is printed once during setup, as {@code payload: ...} lines in
+ * the benchmark output. Gzip runs at the JDK default level and Brotli at quality 4, the levels Netty
+ * uses for response compression.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CharacterFormatBenchmark {
+    /**
+     * Brotli quality used by Netty's response compression
+     */
+    private static final int BROTLI_QUALITY = 4;
+
+    /**
+     * Response format, as negotiated from the {@code Accept} header.
+     */
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    /**
+     * Response compression, as negotiated from the {@code Accept-Encoding} header.
+     */
+    @Param({"identity", "gzip", "br"})
+    public String compression;
+
+    /**
+     * Number of characters encoded: one upstream page or the full catalog.
+     */
+    @Param({"20", "826"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private CharacterProtobufEncoder protobufEncoder;
+    private Encoder.Parameters brotliParameters;
+    private List<Character> characters;
+
+    @Setup
+    public void setup() {
+        objectMapper = switch (format) {
+            case "json" -> BenchmarkFixtures.objectMapper();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            case "protobuf" -> null;
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        protobufEncoder = new CharacterProtobufEncoder();
+        if ("br".equals(compression)) {
+            Brotli4jLoader.ensureAvailability();
+            brotliParameters = new Encoder.Parameters().setQuality(BROTLI_QUALITY);
+        }
+        characters = BenchmarkFixtures.catalog().subList(0, listSize);
+        System.out.printf("%npayload: format=%s compression=%s listSize=%d bytes=%d%n",
+                format, compression, listSize, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        byte[] body = objectMapper == null
+                ? protobufEncoder.toByteArray(characters)
+                : BenchmarkFixtures.write(objectMapper, characters);
+        return switch (compression) {
+            case "gzip" -> gzip(body);
+            case "br" -> brotli(body);
+            default -> body;
+        };
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return output.toByteArray();
+    }
+
+    private byte[] brotli(byte[] body) {
+        try {
+            return Encoder.compress(body, brotliParameters);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.yobel.rickandmortyback.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yobel.rickandmortyback.client.CharacterPageChunk;
+import com.yobel.rickandmortyback.client.CharacterPageDecoder;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.response.CharacterResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON hot paths: binding an upstream page, decoding the same page with the streaming
+ * {@link CharacterPageDecoder}, and writing character lists the way the controllers do.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CharacterJsonBenchmark {
+    /**
+     * Size of each body chunk fed to the streaming decoder, matching a typical socket read
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Number of characters serialized: one upstream page or the full catalog.
+     */
+    @Param({"20", "826"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private CharacterPageDecoder pageDecoder;
+    private byte[] pageJson;
+    private List<Character> characters;
+
+    @Setup
+    public void setup() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        pageDecoder = new CharacterPageDecoder(objectMapper);
+        List<Character> catalog = BenchmarkFixtures.catalog();
+        pageJson = BenchmarkFixtures.write(objectMapper, BenchmarkFixtures.page(catalog, 1));
+        characters = catalog.subList(0, listSize);
+    }
+
+    @Benchmark
+    public CharacterResponse deserializePage() throws IOException {
+        return objectMapper.readValue(pageJson, CharacterResponse.class);
+    }
+
+    @Benchmark
+    public List<CharacterPageChunk> decodePageStreaming() {
+        return pageDecoder.decode(BenchmarkFixtures.chunks(pageJson, CHUNK_SIZE)).collectList().block();
+    }
+
+    @Benchmark
+    public byte[] serializeCharacters() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(characters);
+    }
+}
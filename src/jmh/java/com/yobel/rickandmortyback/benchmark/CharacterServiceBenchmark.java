@@ -0,0 +1,134 @@
+package com.yobel.rickandmortyback.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yobel.rickandmortyback.client.CharacterApiClient;
+import com.yobel.rickandmortyback.client.CharacterBatchLoader;
+import com.yobel.rickandmortyback.client.CharacterPageDecoder;
+import com.yobel.rickandmortyback.client.CharacterPeerClient;
+import com.yobel.rickandmortyback.client.UpstreamHedging;
+import com.yobel.rickandmortyback.client.UpstreamResilience;
+import com.yobel.rickandmortyback.client.UpstreamScheduler;
+import com.yobel.rickandmortyback.config.CharacterBatchProperties;
+import com.yobel.rickandmortyback.config.CharacterCacheProperties;
+import com.yobel.rickandmortyback.config.CharacterCatalogProperties;
+import com.yobel.rickandmortyback.config.CharacterMirrorProperties;
+import com.yobel.rickandmortyback.config.CharacterNegativeCacheProperties;
+import com.yobel.rickandmortyback.config.CharacterPeerProperties;
+import com.yobel.rickandmortyback.config.CharacterSearchProperties;
+import com.yobel.rickandmortyback.config.UpstreamHedgingProperties;
+import com.yobel.rickandmortyback.config.UpstreamResilienceProperties;
+import com.yobel.rickandmortyback.config.UpstreamSchedulerProperties;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.service.CharacterCache;
+import com.yobel.rickandmortyback.service.CharacterMirror;
+import com.yobel.rickandmortyback.service.CharacterNegativeCache;
+import com.yobel.rickandmortyback.service.CharacterPeerCache;
+import com.yobel.rickandmortyback.service.CharacterSearchIndex;
+import com.yobel.rickandmortyback.service.CharacterService;
+import com.yobel.rickandmortyback.service.CharacterSnapshotStore;
+import com.yobel.rickandmortyback.service.StaleFallback;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link CharacterService} pipeline: WebClient, resilience layer, decoding, fallback and
+ * mirror, wired as in the application but against an in-memory upstream.
+ * <p>
+ * The {@code source} parameter selects where reads are answered from: {@code upstream} disables the
+ * cache and the batch window so every call runs the full client pipeline, while {@code mirror} serves
+ * reads from a warmed {@link CharacterMirror} snapshot.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CharacterServiceBenchmark {
+
+    @Param({"upstream", "mirror"})
+    public String source;
+
+    private CharacterService characterService;
+    private int nextId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+        WebClient webClient = WebClient.builder()
+                .baseUrl(BenchmarkFixtures.BASE_URL)
+                .exchangeStrategies(ExchangeStrategies.builder()
+                        .codecs(codecs -> {
+                            codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                            codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                            codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024);
+                        })
+                        .build())
+                .exchangeFunction(BenchmarkFixtures.upstream(BenchmarkFixtures.catalog(), objectMapper, 8192))
+                .build();
+
+        UpstreamResilienceProperties resilienceProperties = new UpstreamResilienceProperties();
+        UpstreamSchedulerProperties schedulerProperties = new UpstreamSchedulerProperties();
+        schedulerProperties.setEnabled(false);
+        CharacterApiClient apiClient = new CharacterApiClient(webClient, new CharacterPageDecoder(objectMapper),
+                new UpstreamResilience(resilienceProperties,
+                        new UpstreamScheduler(schedulerProperties, new SimpleMeterRegistry())),
+                new UpstreamHedging(new UpstreamHedgingProperties(), new SimpleMeterRegistry()));
+        CharacterBatchProperties batchProperties = new CharacterBatchProperties();
+        batchProperties.setEnabled(false);
+        CharacterCacheProperties cacheProperties = new CharacterCacheProperties();
+        cacheProperties.setEnabled(false);
+        CharacterCatalogProperties catalogProperties = new CharacterCatalogProperties();
+        CharacterMirrorProperties mirrorProperties = new CharacterMirrorProperties();
+        mirrorProperties.setEnabled("mirror".equals(source));
+        CharacterMirror characterMirror = new CharacterMirror(apiClient, mirrorProperties, catalogProperties,
+                new CharacterSnapshotStore(mirrorProperties));
+        CharacterSearchIndex searchIndex = new CharacterSearchIndex(characterMirror);
+        CharacterPeerProperties peerProperties = new CharacterPeerProperties();
+        characterService = new CharacterService(apiClient, new CharacterBatchLoader(apiClient, batchProperties),
+                new CharacterCache(cacheProperties), characterMirror, searchIndex, catalogProperties,
+                new CharacterSearchProperties(), new StaleFallback(resilienceProperties),
+                new CharacterPeerCache(new CharacterPeerClient(WebClient.builder(), peerProperties), peerProperties,
+                        new SimpleMeterRegistry()),
+                new CharacterNegativeCache(new CharacterNegativeCacheProperties()));
+
+        if (mirrorProperties.isEnabled()) {
+            characterMirror.refresh().block();
+        }
+    }
+
+    @Benchmark
+    public Character getCharacterById() {
+        nextId = nextId % BenchmarkFixtures.CATALOG_SIZE + 1;
+        return characterService.getCharacterById(nextId).block();
+    }
+
+    @Benchmark
+    public List<Character> getCharactersByPage() {
+        return characterService.getCharactersByPage(1).collectList().block();
+    }
+
+    @Benchmark
+    public List<Character> getAllCharacters() {
+        return characterService.getAllCharacters().collectList().block();
+    }
+}
@@ -0,0 +1,53 @@
+package com.yobel.rickandmortyback.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Records the character pages of the real API into the fixtures directory served by {@link StubUpstream}.
+ * <p>
+ * This is the only part of the harness that needs network access; recordings are taken once and then
+ * replayed offline. Pages are fetched one at a time to stay well within the upstream rate limits.
+ * </p>
+ * <pre>
+ * ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.main=com.yobel.rickandmortyback.loadtest.FixtureRecorder
+ * </pre>
+ */
+public final class FixtureRecorder {
+
+    private FixtureRecorder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadTestProperties.Stub settings = LoadTest.bind(args).getStub();
+        Path directory = Path.of(settings.getFixtures());
+        Files.createDirectories(directory);
+        HttpClient client = HttpClient.create()
+                .baseUrl(settings.getRecordFrom())
+                .responseTimeout(Duration.ofSeconds(10));
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        int pages = 1;
+        for (int page = 1; page <= pages; page++) {
+            byte[] body = client.get()
+                    .uri("/character?page=" + page)
+                    .responseSingle((response, content) -> {
+                        if (response.status().code() != 200) {
+                            throw new IllegalStateException("Upstream answered " + response.status());
+                        }
+                        return content.asByteArray();
+                    })
+                    .block();
+            if (page == 1) {
+                pages = objectMapper.readTree(body).path("info").path("pages").asInt(1);
+            }
+            Files.write(directory.resolve("character-page-" + page + ".json"), body);
+            System.out.printf("Recorded page %d of %d%n", page, pages);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.yobel.rickandmortyback.loadtest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends requests to the application under test and records their outcome in a {@link ScenarioResult}.
+ * <p>
+ * In a closed loop, {@code concurrency} workers each send their next request as soon as the previous
+ * one has completed. In an open loop, requests are scheduled at a fixed rate and their latency is
+ * measured from the time they were scheduled, not sent, so time spent waiting for a free slot while
+ * the application is saturated is counted instead of hidden (coordinated omission).
+ * </p>
+ */
+final class LoadDriver implements AutoCloseable {
+    private static final Duration TICK = Duration.ofMillis(1);
+
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient client;
+    private final int concurrency;
+    private final double rate;
+
+    /**
+     * Constructs a new LoadDriver.
+     *
+     * @param baseUrl     The base URL of the application
+     * @param concurrency The maximum number of requests in flight
+     * @param rate        The open-loop rate in requests per second, or 0 for a closed loop
+     */
+    LoadDriver(String baseUrl, int concurrency, double rate) {
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.connectionProvider = ConnectionProvider.builder("loadtest")
+                .maxConnections(concurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.client = HttpClient.create(connectionProvider).baseUrl(baseUrl);
+    }
+
+    /**
+     * Runs a scenario for a fixed time.
+     *
+     * @param scenario The scenario to run
+     * @param duration How long to run it
+     * @param result   Where outcomes are recorded
+     */
+    void run(Scenario scenario, Duration duration, ScenarioResult result) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        Flux<Integer> requests = rate > 0
+                ? openLoop(scenario, deadline, result)
+                : Flux.range(0, concurrency)
+                .flatMap(worker -> Mono.defer(() -> call(scenario.nextPath(), System.nanoTime(), result))
+                        .repeat(() -> System.nanoTime() < deadline), concurrency);
+        requests.blockLast();
+    }
+
+    private Flux<Integer> openLoop(Scenario scenario, long deadline, ScenarioResult result) {
+        long start = System.nanoTime();
+        double intervalNanos = 1e9 / rate;
+        AtomicLong scheduled = new AtomicLong();
+        return Flux.interval(TICK)
+                .takeWhile(tick -> System.nanoTime() < deadline)
+                .concatMapIterable(tick -> {
+                    long due = (long) ((System.nanoTime() - start) / intervalNanos);
+                    List<Long> intendedStarts = new ArrayList<>();
+                    for (long i = scheduled.get(); i < due; i++) {
+                        intendedStarts.add(start + (long) (i * intervalNanos));
+                    }
+                    scheduled.set(due);
+                    return intendedStarts;
+                })
+                .onBackpressureBuffer()
+                .flatMap(intendedStart -> call(scenario.nextPath(), intendedStart, result), concurrency);
+    }
+
+    private Mono<Integer> call(String path, long startNanos, ScenarioResult result) {
+        return client.get()
+                .uri(path)
+                .responseSingle((response, body) -> body.asByteArray()
+                        .then(Mono.just(response.status().code())))
+                .onErrorResume(ex -> Mono.just(ScenarioResult.TRANSPORT_ERROR))
+                .doOnNext(status -> result.record(status, System.nanoTime() - startNanos));
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.disposeLater().block();
+    }
+}
@@ -0,0 +1,110 @@
+package com.yobel.rickandmortyback.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yobel.rickandmortyback.RickAndMortyBackApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Offline end-to-end load test.
+ * <p>
+ * Starts a {@link StubUpstream}, boots the application with {@code upstream.http.base-url} pointing at
+ * it, then runs each configured {@link Scenario} in turn: a warmup, followed by a measured period. For
+ * every scenario it reports throughput, latency percentiles, response statuses and upstream call
+ * amplification, and exits with status 1 if a service level objective from {@code loadtest.slo.*}
+ * was missed.
+ * </p>
+ * <p>
+ * The stub, the application and the driver share one JVM and its Reactor Netty event loops, so absolute
+ * numbers include the cost of the stub and the driver; compare runs made on the same machine.
+ * </p>
+ * <pre>
+ * ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="--loadtest.concurrency=128 --character.mirror.enabled=true"
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) {
+        LoadTestProperties properties = bind(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        UpstreamFixtures fixtures = UpstreamFixtures.load(properties.getStub(), objectMapper);
+        List<Scenario> scenarios = properties.getScenarios().stream()
+                .map(name -> Scenario.named(name, fixtures))
+                .toList();
+
+        List<ScenarioResult> results = new ArrayList<>();
+        try (StubUpstream stub = StubUpstream.start(fixtures, properties.getStub());
+             ConfigurableApplicationContext application = startApplication(stub, args);
+             LoadDriver driver = new LoadDriver("http://localhost:" + port(application),
+                     properties.getConcurrency(), properties.getRate())) {
+            System.out.printf("Stub upstream at %s serving %s%n", stub.baseUrl(), fixtures.source());
+            for (Scenario scenario : scenarios) {
+                results.add(run(scenario, properties, stub, driver));
+            }
+        }
+
+        LoadTestReport report = new LoadTestReport(properties, results);
+        System.out.println(report.render());
+        List<String> violations = report.violations();
+        violations.forEach(violation -> System.out.println("SLO missed: " + violation));
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    private static ScenarioResult run(Scenario scenario, LoadTestProperties properties, StubUpstream stub,
+                                      LoadDriver driver) {
+        ScenarioResult result = new ScenarioResult(scenario.name());
+        System.out.printf("Running %s: %s warmup, %s measured%n", scenario.name(),
+                properties.getWarmup(), properties.getDuration());
+        if (!properties.getWarmup().isZero()) {
+            driver.run(scenario, properties.getWarmup(), result);
+        }
+        result.reset();
+        stub.resetCalls();
+
+        long start = System.nanoTime();
+        driver.run(scenario, properties.getDuration(), result);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Map<String, Long> calls = stub.callsByRoute();
+        result.complete(elapsed, stub.totalCalls(), calls);
+        return result;
+    }
+
+    /**
+     * Boots the application on a random port, with every argument outside the {@code loadtest}
+     * namespace passed through.
+     */
+    private static ConfigurableApplicationContext startApplication(StubUpstream stub, String[] args) {
+        Stream<String> harnessArgs = Stream.of("--server.port=0", "--upstream.http.base-url=" + stub.baseUrl());
+        String[] applicationArgs = Stream.concat(harnessArgs, Arrays.stream(args)
+                        .filter(arg -> !arg.startsWith("--loadtest.")))
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(RickAndMortyBackApplication.class).run(applicationArgs);
+    }
+
+    private static int port(ConfigurableApplicationContext application) {
+        return ((WebServerApplicationContext) application).getWebServer().getPort();
+    }
+
+    static LoadTestProperties bind(String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        LoadTestProperties properties = new LoadTestProperties();
+        Binder.get(environment).bind("loadtest", Bindable.ofInstance(properties));
+        return properties;
+    }
+}
@@ -0,0 +1,117 @@
+package com.yobel.rickandmortyback.loadtest;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of a load-test run, bound from {@code --loadtest.*} command-line arguments.
+ * <p>
+ * Arguments outside the {@code loadtest} namespace are passed unchanged to the application under
+ * test, so any application setting (e.g. {@code --character.mirror.enabled=true}) can be varied
+ * between runs.
+ * </p>
+ */
+@Data
+public class LoadTestProperties {
+    /**
+     * Scenarios to run, one after the other: by-id, page, search and all
+     */
+    private List<String> scenarios = new ArrayList<>(List.of("by-id", "page", "search", "all"));
+
+    /**
+     * Maximum number of requests in flight against the application
+     */
+    private int concurrency = 64;
+
+    /**
+     * Target request rate per second for an open-loop run; 0 runs a closed loop where each of the
+     * {@code concurrency} workers sends its next request as soon as the previous one completes
+     */
+    private double rate = 0;
+
+    /**
+     * Time each scenario runs before measurement starts
+     */
+    private Duration warmup = Duration.ofSeconds(5);
+
+    /**
+     * Time each scenario is measured
+     */
+    private Duration duration = Duration.ofSeconds(30);
+
+    /**
+     * Stub upstream settings
+     */
+    private Stub stub = new Stub();
+
+    /**
+     * Service level objectives checked at the end of the run
+     */
+    private Slo slo = new Slo();
+
+    /**
+     * Stub upstream settings.
+     */
+    @Data
+    public static class Stub {
+        /**
+         * Directory with recorded {@code character-page-N.json} files; a synthetic catalog is used
+         * when it holds no recordings
+         */
+        private String fixtures = "src/loadtest/fixtures";
+
+        /**
+         * Base URL recordings are taken from by {@link FixtureRecorder}
+         */
+        private String recordFrom = "https://rickandmortyapi.com/api";
+
+        /**
+         * Number of characters of the synthetic catalog
+         */
+        private int syntheticCount = 826;
+
+        /**
+         * Number of characters per page
+         */
+        private int pageSize = 20;
+
+        /**
+         * Median of the log-normal response latency
+         */
+        private Duration latencyMedian = Duration.ofMillis(40);
+
+        /**
+         * 99th percentile of the log-normal response latency; equal to the median for a fixed latency
+         */
+        private Duration latencyP99 = Duration.ofMillis(250);
+
+        /**
+         * Fraction of requests answered with 500 Internal Server Error
+         */
+        private double errorRate = 0;
+
+        /**
+         * Fraction of requests answered with 429 Too Many Requests
+         */
+        private double throttleRate = 0;
+    }
+
+    /**
+     * Service level objectives. A run that misses one exits with a non-zero status.
+     */
+    @Data
+    public static class Slo {
+        /**
+         * Maximum 99th percentile latency of every scenario, or null for no limit
+         */
+        private Duration maxP99;
+
+        /**
+         * Maximum fraction of failed requests (non-2xx or transport errors) of every scenario
+         */
+        private double maxErrorRate = 1.0;
+    }
+}
@@ -0,0 +1,79 @@
+package com.yobel.rickandmortyback.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Text report of a load-test run and the check of its service level objectives.
+ */
+final class LoadTestReport {
+    private final LoadTestProperties properties;
+    private final List<ScenarioResult> results;
+
+    LoadTestReport(LoadTestProperties properties, List<ScenarioResult> results) {
+        this.properties = properties;
+        this.results = results;
+    }
+
+    String render() {
+        StringBuilder report = new StringBuilder();
+        LoadTestProperties.Stub stub = properties.getStub();
+        report.append(String.format(Locale.ROOT, "%nLoad test: %s, %s per scenario%n",
+                properties.getRate() > 0
+                        ? "open loop at " + properties.getRate() + " req/s (max " + properties.getConcurrency() + " in flight)"
+                        : "closed loop with " + properties.getConcurrency() + " workers",
+                properties.getDuration()));
+        report.append(String.format(Locale.ROOT, "Stub upstream: latency p50 %s / p99 %s, %.1f%% errors, %.1f%% throttled%n%n",
+                stub.getLatencyMedian(), stub.getLatencyP99(), stub.getErrorRate() * 100, stub.getThrottleRate() * 100));
+        report.append(String.format(Locale.ROOT, "%-8s %9s %9s %9s %9s %9s %9s %9s %8s %10s%n",
+                "scenario", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors", "err %", "upstream/req"));
+        for (ScenarioResult result : results) {
+            report.append(String.format(Locale.ROOT, "%-8s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9d %8.2f %10.3f%n",
+                    result.name(), result.requests(), result.throughput(),
+                    millis(result.latency(50)), millis(result.latency(99)), millis(result.latency(99.9)),
+                    millis(result.maxLatency()), result.failures(), result.errorRate() * 100, result.amplification()));
+        }
+        report.append(System.lineSeparator());
+        for (ScenarioResult result : results) {
+            report.append(String.format(Locale.ROOT, "%-8s statuses %s, upstream calls %s%n",
+                    result.name(), format(result.statuses()), format(result.upstreamCallsByRoute())));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Checks every scenario against the configured objectives.
+     *
+     * @return A description of each objective that was missed
+     */
+    List<String> violations() {
+        LoadTestProperties.Slo slo = properties.getSlo();
+        List<String> violations = new ArrayList<>();
+        for (ScenarioResult result : results) {
+            if (slo.getMaxP99() != null && result.latency(99).compareTo(slo.getMaxP99()) > 0) {
+                violations.add(String.format(Locale.ROOT, "%s p99 %.2f ms > %.2f ms",
+                        result.name(), millis(result.latency(99)), millis(slo.getMaxP99())));
+            }
+            if (result.errorRate() > slo.getMaxErrorRate()) {
+                violations.add(String.format(Locale.ROOT, "%s error rate %.2f%% > %.2f%%",
+                        result.name(), result.errorRate() * 100, slo.getMaxErrorRate() * 100));
+            }
+        }
+        return violations;
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+
+    private static String format(Map<?, Long> counts) {
+        return counts.entrySet().stream()
+                .map(entry -> (Integer.valueOf(ScenarioResult.TRANSPORT_ERROR).equals(entry.getKey()) ? "io" : entry.getKey())
+                        + "=" + entry.getValue())
+                .collect(Collectors.joining(", ", "{", "}"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.yobel.rickandmortyback.loadtest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * A load-test scenario: a name and a generator of request paths against the application.
+ *
+ * @param name  The scenario name used in the report
+ * @param paths Produces the path of the next request
+ */
+record Scenario(String name, Supplier<String> paths) {
+
+    /**
+     * Resolves a scenario by name. Paths are drawn uniformly from the fixtures, so every character,
+     * page and name is equally likely.
+     *
+     * @param name     One of {@code by-id}, {@code page}, {@code search}, {@code all} or {@code image}
+     * @param fixtures The catalog served by the stub
+     * @return The scenario
+     * @throws IllegalArgumentException if the scenario is unknown
+     */
+    static Scenario named(String name, UpstreamFixtures fixtures) {
+        return switch (name) {
+            case "by-id" -> new Scenario(name, () ->
+                    "/api/characters/" + fixtures.id(random(fixtures.count())));
+            case "page" -> new Scenario(name, () ->
+                    "/api/characters/page/" + (1 + random(fixtures.pageCount())));
+            case "search" -> new Scenario(name, () -> {
+                String firstName = fixtures.name(random(fixtures.count())).split(" ")[0];
+                return "/api/characters/search?name=" + URLEncoder.encode(firstName, StandardCharsets.UTF_8);
+            });
+            case "all" -> new Scenario(name, () -> "/api/characters");
+            case "image" -> new Scenario(name, () ->
+                    "/api/characters/" + fixtures.id(random(fixtures.count())) + "/image");
+            default -> throw new IllegalArgumentException("Unknown load-test scenario: " + name);
+        };
+    }
+
+    String nextPath() {
+        return paths.get();
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+}
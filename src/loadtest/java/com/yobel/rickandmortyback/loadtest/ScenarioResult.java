@@ -0,0 +1,111 @@
+package com.yobel.rickandmortyback.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measurements of one scenario: a latency histogram in microseconds, the number of responses per
+ * status, and the upstream calls made while it ran.
+ */
+final class ScenarioResult {
+    /**
+     * Pseudo-status recorded for requests that failed without an HTTP response
+     */
+    static final int TRANSPORT_ERROR = 0;
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private Duration elapsed = Duration.ZERO;
+    private long upstreamCalls;
+    private Map<String, Long> upstreamCallsByRoute = Map.of();
+
+    ScenarioResult(String name) {
+        this.name = name;
+    }
+
+    void record(int status, long latencyNanos) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latencies.getHighestTrackableValue()));
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Discards everything recorded so far, used at the end of the warmup.
+     */
+    void reset() {
+        latencies.reset();
+        statuses.clear();
+    }
+
+    void complete(Duration elapsed, long upstreamCalls, Map<String, Long> upstreamCallsByRoute) {
+        this.elapsed = elapsed;
+        this.upstreamCalls = upstreamCalls;
+        this.upstreamCallsByRoute = upstreamCallsByRoute;
+    }
+
+    String name() {
+        return name;
+    }
+
+    long requests() {
+        return latencies.getTotalCount();
+    }
+
+    long failures() {
+        return statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum();
+    }
+
+    double errorRate() {
+        return requests() == 0 ? 0 : (double) failures() / requests();
+    }
+
+    double throughput() {
+        return elapsed.isZero() ? 0 : requests() / (elapsed.toNanos() / 1e9);
+    }
+
+    /**
+     * Returns a latency percentile.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The latency at that percentile
+     */
+    Duration latency(double percentile) {
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(latencies.getValueAtPercentile(percentile)));
+    }
+
+    Duration maxLatency() {
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(latencies.getMaxValue()));
+    }
+
+    Map<Integer, Long> statuses() {
+        Map<Integer, Long> snapshot = new TreeMap<>();
+        statuses.forEach((status, count) -> snapshot.put(status, count.sum()));
+        return snapshot;
+    }
+
+    long upstreamCalls() {
+        return upstreamCalls;
+    }
+
+    Map<String, Long> upstreamCallsByRoute() {
+        return upstreamCallsByRoute;
+    }
+
+    /**
+     * Returns the number of upstream calls per application request.
+     */
+    double amplification() {
+        return requests() == 0 ? 0 : (double) upstreamCalls / requests();
+    }
+}
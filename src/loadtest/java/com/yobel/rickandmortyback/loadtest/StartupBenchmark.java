@@ -0,0 +1,253 @@
+package com.yobel.rickandmortyback.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Startup benchmark of the packaged application.
+ * <p>
+ * Starts a {@link StubUpstream} and then, for each variant, launches the application as a separate
+ * process several times. Each run measures the time from launching the process to the first healthy
+ * answer of {@code /actuator/health}, the latency of the first character lookup, the median and 99th
+ * percentile of the lookups that follow, and the resident memory of the process at the end. The variants
+ * are:
+ * </p>
+ * <ul>
+ *   <li>{@code jvm}: the executable jar, as built by {@code ./mvnw package}</li>
+ *   <li>{@code aot}: the same jar using the initializers generated by Spring AOT processing</li>
+ *   <li>{@code cds}: the extracted application of {@code ./mvnw -Pcds package} with its class-data-sharing
+ *   archive and AOT processing</li>
+ *   <li>{@code native}: the GraalVM native executable of {@code ./mvnw -Pnative native:compile}</li>
+ * </ul>
+ * <p>
+ * The {@code aot} and {@code cds} variants need the jar built with the {@code cds} profile, and variants
+ * whose artifact is missing are skipped. Every lookup asks for a different character, so each one goes
+ * through the upstream client and the JSON codecs rather than the cache.
+ * </p>
+ * <pre>
+ * ./mvnw -Pcds package -DskipTests
+ * ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.main=com.yobel.rickandmortyback.loadtest.StartupBenchmark -Dloadtest.args="--startup.runs=10"
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupBenchmarkProperties properties = bind(args);
+        UpstreamFixtures fixtures = UpstreamFixtures.load(properties.getStub(), new ObjectMapper());
+        Path workDirectory = Files.createTempDirectory("startup-benchmark");
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format(Locale.ROOT, "%-8s %5s %10s %12s %10s %10s %9s",
+                "variant", "runs", "ready ms", "first req ms", "p50 ms", "p99 ms", "rss MB"));
+        try (StubUpstream stub = StubUpstream.start(fixtures, properties.getStub())) {
+            System.out.printf("Stub upstream at %s serving %s, application logs in %s%n",
+                    stub.baseUrl(), fixtures.source(), workDirectory);
+            for (String name : properties.getVariants()) {
+                List<String> command = command(name, properties);
+                if (command == null) {
+                    System.out.printf("Skipping %s: artifact not built%n", name);
+                    continue;
+                }
+                List<Run> runs = new ArrayList<>();
+                for (int i = 0; i < properties.getRuns(); i++) {
+                    Run run = run(name + "-" + i, command, stub, fixtures, properties, client, args, workDirectory);
+                    System.out.printf(Locale.ROOT, "%s run %d: ready in %.0f ms, first request %.1f ms%n",
+                            name, i + 1, run.readyMillis(), run.firstRequestMillis());
+                    runs.add(run);
+                }
+                report.add(String.format(Locale.ROOT, "%-8s %5d %10.0f %12.1f %10.2f %10.2f %9.0f",
+                        name, runs.size(), median(runs, Run::readyMillis), median(runs, Run::firstRequestMillis),
+                        median(runs, Run::p50Millis), median(runs, Run::p99Millis), median(runs, Run::rssMegabytes)));
+            }
+        }
+        System.out.printf("%nStartup benchmark: medians of %d runs per variant, %d requests after the first%n",
+                properties.getRuns(), properties.getRequests());
+        report.forEach(System.out::println);
+    }
+
+    /**
+     * Returns the command starting a variant, or null when its artifact has not been built.
+     */
+    static List<String> command(String variant, StartupBenchmarkProperties properties) {
+        Path target = Path.of(properties.getTarget()).toAbsolutePath();
+        Path jar = executableJar(target);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Path cdsJar = jar == null ? null : target.resolve("cds").resolve(jar.getFileName());
+        Path archive = target.resolve("cds").resolve("application.jsa");
+        return switch (variant) {
+            case "jvm" -> jar == null ? null : List.of(java, "-jar", jar.toString());
+            case "aot" -> cdsJar == null || !Files.exists(cdsJar) ? null
+                    : List.of(java, "-Dspring.aot.enabled=true", "-jar", jar.toString());
+            case "cds" -> cdsJar == null || !Files.exists(archive) ? null
+                    : List.of(java, "-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                    "-jar", cdsJar.toString());
+            case "native" -> {
+                Path executable = target.resolve(properties.getNativeImage());
+                yield Files.isExecutable(executable) ? List.of(executable.toString()) : null;
+            }
+            default -> throw new IllegalArgumentException("Unknown variant: " + variant);
+        };
+    }
+
+    private static Run run(String name, List<String> command, StubUpstream stub, UpstreamFixtures fixtures,
+                           StartupBenchmarkProperties properties, HttpClient client, String[] args,
+                           Path workDirectory) throws IOException, InterruptedException {
+        int port = freePort();
+        Path log = workDirectory.resolve(name + ".log");
+        List<String> arguments = Stream.of(command.stream(),
+                        Stream.of("--server.port=" + port, "--upstream.http.base-url=" + stub.baseUrl()),
+                        Arrays.stream(args).filter(arg -> !arg.startsWith("--startup.")))
+                .flatMap(stream -> stream)
+                .toList();
+        URI base = URI.create("http://localhost:" + port);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(arguments)
+                .directory(workDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            awaitHealthy(client, base, process, properties.getTimeout(), log);
+            double ready = (System.nanoTime() - start) / 1e6;
+            double first = get(client, base.resolve("/api/characters/" + fixtures.id(0)), log);
+            double[] latencies = new double[properties.getRequests()];
+            for (int i = 0; i < latencies.length; i++) {
+                int id = fixtures.id((i + 1) % fixtures.count());
+                latencies[i] = get(client, base.resolve("/api/characters/" + id), log);
+            }
+            Arrays.sort(latencies);
+            return new Run(ready, first, percentile(latencies, 50), percentile(latencies, 99), rss(process));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static void awaitHealthy(HttpClient client, URI base, Process process, Duration timeout, Path log)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/actuator/health")).build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + process.exitValue()
+                        + ", see " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        throw new IllegalStateException("Application not healthy after " + timeout + ", see " + log);
+    }
+
+    /**
+     * Sends a request and returns its latency in milliseconds.
+     */
+    private static double get(HttpClient client, URI uri, Path log) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.discarding());
+        double latency = (System.nanoTime() - start) / 1e6;
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(uri + " answered " + response.statusCode() + ", see " + log);
+        }
+        return latency;
+    }
+
+    /**
+     * Returns the resident memory of the process in megabytes, or NaN where /proc is not available.
+     */
+    private static double rss(Process process) {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        try (Stream<String> lines = Files.lines(status)) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .mapToDouble(line -> Double.parseDouble(line.replaceAll("\\D", "")) / 1024)
+                    .findFirst()
+                    .orElse(Double.NaN);
+        } catch (IOException | UncheckedIOException ex) {
+            return Double.NaN;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Path executableJar(Path target) {
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .sorted()
+                    .findFirst()
+                    .orElse(null);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static double percentile(double[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double median(List<Run> runs, ToDoubleFunction<Run> metric) {
+        return percentile(runs.stream().mapToDouble(metric).sorted().toArray(), 50);
+    }
+
+    static StartupBenchmarkProperties bind(String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        StartupBenchmarkProperties properties = new StartupBenchmarkProperties();
+        Binder.get(environment).bind("startup", Bindable.ofInstance(properties));
+        return properties;
+    }
+
+    /**
+     * Measurements of one start of the application, in milliseconds and megabytes.
+     */
+    private record Run(double readyMillis, double firstRequestMillis, double p50Millis, double p99Millis,
+                       double rssMegabytes) {
+    }
+}
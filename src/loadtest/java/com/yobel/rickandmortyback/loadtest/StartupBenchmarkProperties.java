@@ -0,0 +1,60 @@
+package com.yobel.rickandmortyback.loadtest;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of a startup benchmark run, bound from {@code --startup.*} command-line arguments.
+ * <p>
+ * Arguments outside the {@code startup} namespace are passed unchanged to every application process
+ * started, as with {@link LoadTestProperties}.
+ * </p>
+ */
+@Data
+public class StartupBenchmarkProperties {
+    /**
+     * Variants to compare: jvm, aot, cds and native. A variant whose artifact was not built is skipped.
+     */
+    private List<String> variants = new ArrayList<>(List.of("jvm", "aot", "cds", "native"));
+
+    /**
+     * Number of times each variant is started
+     */
+    private int runs = 5;
+
+    /**
+     * Number of requests sent after the first one, whose latencies show how far the variant is from
+     * its steady state
+     */
+    private int requests = 200;
+
+    /**
+     * Maximum time to wait for a process to report healthy
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+
+    /**
+     * Build directory holding the executable jar, the {@code cds} directory and the native executable
+     */
+    private String target = "target";
+
+    /**
+     * File name of the native executable in the build directory
+     */
+    private String nativeImage = "rick-and-morty-back";
+
+    /**
+     * Stub upstream settings; answers are immediate by default so only the application is measured
+     */
+    private LoadTestProperties.Stub stub = immediateStub();
+
+    private static LoadTestProperties.Stub immediateStub() {
+        LoadTestProperties.Stub stub = new LoadTestProperties.Stub();
+        stub.setLatencyMedian(Duration.ZERO);
+        stub.setLatencyP99(Duration.ZERO);
+        return stub;
+    }
+}
@@ -0,0 +1,242 @@
+package com.yobel.rickandmortyback.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the Rick and Morty API, serving the character endpoints from {@link UpstreamFixtures}
+ * and the same generated JPEG as the avatar of every character.
+ * <p>
+ * Every response is delayed by a latency drawn from a log-normal distribution fitted to the configured
+ * median and 99th percentile, and a configurable fraction of requests fails with 500 or 429. Requests
+ * are counted per route so the harness can report how many upstream calls each application request
+ * caused.
+ * </p>
+ */
+final class StubUpstream implements AutoCloseable {
+    private static final String CHARACTER_PATH = "/api/character";
+    private static final String AVATAR_PATH = CHARACTER_PATH + "/avatar/";
+    /**
+     * Standard normal quantile of the 99th percentile
+     */
+    private static final double Z_99 = 2.3263;
+
+    private static final byte[] NOT_FOUND = json("{\"error\":\"Character not found\"}");
+    private static final byte[] NOTHING_HERE = json("{\"error\":\"There is nothing here\"}");
+    private static final byte[] SERVER_ERROR = json("{\"error\":\"Internal Server Error\"}");
+    private static final byte[] TOO_MANY_REQUESTS = json("{\"error\":\"Too Many Requests\"}");
+    private static final byte[] AVATAR = avatar();
+
+    private final UpstreamFixtures fixtures;
+    private final LoadTestProperties.Stub settings;
+    private final double medianMillis;
+    private final double sigma;
+    private final ConcurrentMap<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final DisposableServer server;
+
+    private StubUpstream(UpstreamFixtures fixtures, LoadTestProperties.Stub settings) {
+        this.fixtures = fixtures;
+        this.settings = settings;
+        this.medianMillis = settings.getLatencyMedian().toNanos() / 1e6;
+        double p99Millis = settings.getLatencyP99().toNanos() / 1e6;
+        this.sigma = medianMillis > 0 && p99Millis > medianMillis ? Math.log(p99Millis / medianMillis) / Z_99 : 0;
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle(this::handle)
+                .bindNow();
+    }
+
+    /**
+     * Starts a stub on a random local port.
+     *
+     * @param fixtures The catalog to serve
+     * @param settings The latency and failure settings
+     * @return The running stub
+     */
+    static StubUpstream start(UpstreamFixtures fixtures, LoadTestProperties.Stub settings) {
+        return new StubUpstream(fixtures, settings);
+    }
+
+    /**
+     * Returns the base URL to configure as {@code upstream.http.base-url}.
+     */
+    String baseUrl() {
+        return "http://localhost:" + server.port() + "/api";
+    }
+
+    /**
+     * Returns the total number of requests received since the last reset.
+     */
+    long totalCalls() {
+        return calls.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Returns the number of requests received per route since the last reset.
+     */
+    Map<String, Long> callsByRoute() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        calls.forEach((route, count) -> snapshot.put(route, count.sum()));
+        return snapshot;
+    }
+
+    void resetCalls() {
+        calls.values().forEach(LongAdder::reset);
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        QueryStringDecoder uri = new QueryStringDecoder(request.uri());
+        String path = uri.path();
+        Map<String, List<String>> query = uri.parameters();
+        calls.computeIfAbsent(route(path, query), route -> new LongAdder()).increment();
+
+        Duration latency = sampleLatency();
+        Mono<Void> reply = Mono.defer(() -> reply(path, query, response));
+        return latency.isZero() ? reply : Mono.delay(latency).then(reply);
+    }
+
+    private Mono<Void> reply(String path, Map<String, List<String>> query, HttpServerResponse response) {
+        double failure = ThreadLocalRandom.current().nextDouble();
+        if (failure < settings.getThrottleRate()) {
+            response.header(HttpHeaderNames.RETRY_AFTER, "1");
+            return send(response, HttpResponseStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS);
+        }
+        if (failure < settings.getThrottleRate() + settings.getErrorRate()) {
+            return send(response, HttpResponseStatus.INTERNAL_SERVER_ERROR, SERVER_ERROR);
+        }
+
+        if (path.equals(CHARACTER_PATH)) {
+            if (query.containsKey("name")) {
+                return sendOrNotFound(response, fixtures.search(query.get("name").get(0)), NOTHING_HERE);
+            }
+            int page = query.containsKey("page") ? parse(query.get("page").get(0)) : 1;
+            return sendOrNotFound(response, fixtures.page(page), NOTHING_HERE);
+        }
+        if (path.startsWith(AVATAR_PATH) && path.endsWith(".jpeg")) {
+            int id = parse(path.substring(AVATAR_PATH.length(), path.length() - ".jpeg".length()));
+            return fixtures.character(id) == null
+                    ? send(response, HttpResponseStatus.NOT_FOUND, NOTHING_HERE)
+                    : send(response, HttpResponseStatus.OK, "image/jpeg", AVATAR);
+        }
+        if (path.startsWith(CHARACTER_PATH + "/")) {
+            String[] ids = path.substring(CHARACTER_PATH.length() + 1).split(",");
+            if (ids.length == 1) {
+                return sendOrNotFound(response, fixtures.character(parse(ids[0])), NOT_FOUND);
+            }
+            Set<Integer> requested = new LinkedHashSet<>();
+            for (String id : ids) {
+                requested.add(parse(id));
+            }
+            return send(response, HttpResponseStatus.OK, fixtures.characters(requested));
+        }
+        return send(response, HttpResponseStatus.NOT_FOUND, NOTHING_HERE);
+    }
+
+    private Duration sampleLatency() {
+        if (medianMillis <= 0) {
+            return Duration.ZERO;
+        }
+        double millis = sigma == 0
+                ? medianMillis
+                : medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofNanos((long) (millis * 1e6));
+    }
+
+    private static Mono<Void> sendOrNotFound(HttpServerResponse response, byte[] body, byte[] notFound) {
+        return body == null
+                ? send(response, HttpResponseStatus.NOT_FOUND, notFound)
+                : send(response, HttpResponseStatus.OK, body);
+    }
+
+    private static Mono<Void> send(HttpServerResponse response, HttpResponseStatus status, byte[] body) {
+        return send(response, status, "application/json; charset=utf-8", body);
+    }
+
+    private static Mono<Void> send(HttpServerResponse response, HttpResponseStatus status, String contentType,
+                                   byte[] body) {
+        return response.status(status)
+                .header(HttpHeaderNames.CONTENT_TYPE, contentType)
+                .sendByteArray(Mono.just(body))
+                .then();
+    }
+
+    /**
+     * Normalizes a request into the route it is counted under, e.g. {@code /character/{id}}.
+     */
+    private static String route(String path, Map<String, List<String>> query) {
+        if (path.equals(CHARACTER_PATH)) {
+            return query.containsKey("name") ? "/character?name" : "/character?page";
+        }
+        if (path.startsWith(AVATAR_PATH)) {
+            return "/character/avatar/{id}";
+        }
+        if (path.startsWith(CHARACTER_PATH + "/")) {
+            return path.indexOf(',') >= 0 ? "/character/{ids}" : "/character/{id}";
+        }
+        return "other";
+    }
+
+    private static int parse(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Draws a 300x300 JPEG, the size of the real avatars.
+     */
+    private static byte[] avatar() {
+        BufferedImage image = new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(0x97CE4C));
+        graphics.fillRect(0, 0, 300, 300);
+        graphics.setColor(new Color(0x44281D));
+        graphics.fillOval(60, 60, 180, 180);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "jpeg", out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] json(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,249 @@
+package com.yobel.rickandmortyback.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Character catalog served by the {@link StubUpstream}, pre-encoded as the JSON the real API returns.
+ * <p>
+ * Recorded pages ({@code character-page-N.json}, see {@link FixtureRecorder}) are served byte for byte
+ * when present. Otherwise a deterministic synthetic catalog with the same shape is generated.
+ * </p>
+ */
+final class UpstreamFixtures {
+    static final String UPSTREAM_URL = "https://rickandmortyapi.com/api";
+    private static final Pattern PAGE_FILE = Pattern.compile("character-page-(\\d+)\\.json");
+
+    private static final String[] FIRST_NAMES = {"Rick", "Morty", "Summer", "Beth", "Jerry", "Birdperson", "Squanchy",
+            "Unity", "Evil", "Mr.", "Abradolf", "Krombopulos", "Gearhead", "Scary", "Tammy", "Pencilvester"};
+    private static final String[] LAST_NAMES = {"Sanchez", "Smith", "Poopybutthole", "Meeseeks", "Goldenfold",
+            "Lincler", "Michael", "Nipplehead", "Gueterman", "Terry", "Nimbus", "Plumbus"};
+    private static final String[] STATUSES = {"Alive", "Dead", "unknown"};
+    private static final String[] SPECIES = {"Human", "Alien", "Humanoid", "Poopybutthole", "Mythological Creature",
+            "Animal", "Robot", "Cronenberg", "Disease", "unknown"};
+    private static final String[] GENDERS = {"Female", "Male", "Genderless", "unknown"};
+
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final List<ObjectNode> characters;
+    private final Map<Integer, byte[]> characterJson = new LinkedHashMap<>();
+    private final List<byte[]> pages;
+    private final String source;
+
+    private UpstreamFixtures(ObjectMapper objectMapper, int pageSize, List<ObjectNode> characters,
+                             List<byte[]> recordedPages, String source) {
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+        this.characters = characters;
+        this.source = source;
+        for (ObjectNode character : characters) {
+            characterJson.put(character.get("id").asInt(), write(character));
+        }
+        if (recordedPages != null) {
+            this.pages = recordedPages;
+        } else {
+            this.pages = new ArrayList<>();
+            for (int from = 0; from < characters.size(); from += pageSize) {
+                pages.add(write(page(characters, pages.size() + 1)));
+            }
+        }
+    }
+
+    /**
+     * Loads the recorded pages of a directory, or generates a synthetic catalog if there are none.
+     *
+     * @param settings     The stub settings
+     * @param objectMapper The mapper used to encode responses
+     * @return The fixtures
+     */
+    static UpstreamFixtures load(LoadTestProperties.Stub settings, ObjectMapper objectMapper) {
+        Path directory = Path.of(settings.getFixtures());
+        List<Path> files = recordedPages(directory);
+        if (files.isEmpty()) {
+            return new UpstreamFixtures(objectMapper, settings.getPageSize(),
+                    synthetic(settings.getSyntheticCount(), objectMapper), null,
+                    "synthetic catalog (" + settings.getSyntheticCount() + " characters)");
+        }
+        List<ObjectNode> characters = new ArrayList<>();
+        List<byte[]> pages = new ArrayList<>();
+        int pageSize = settings.getPageSize();
+        for (Path file : files) {
+            try {
+                byte[] body = Files.readAllBytes(file);
+                JsonNode results = objectMapper.readTree(body).path("results");
+                if (pages.isEmpty()) {
+                    pageSize = Math.max(1, results.size());
+                }
+                pages.add(body);
+                for (JsonNode character : results) {
+                    characters.add((ObjectNode) character);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot read fixture " + file, ex);
+            }
+        }
+        return new UpstreamFixtures(objectMapper, pageSize, characters,
+                pages, "recorded fixtures in " + directory + " (" + characters.size() + " characters)");
+    }
+
+    /**
+     * Lists the recorded pages of a directory in page order.
+     *
+     * @param directory The fixtures directory
+     * @return The recorded page files, empty if the directory does not exist
+     */
+    static List<Path> recordedPages(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> PAGE_FILE.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingInt(UpstreamFixtures::pageNumber))
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    String source() {
+        return source;
+    }
+
+    int count() {
+        return characters.size();
+    }
+
+    int pageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Returns the name of the character at an index, used to build search queries.
+     */
+    String name(int index) {
+        return characters.get(index).path("name").asText();
+    }
+
+    /**
+     * Returns the ID of the character at an index.
+     */
+    int id(int index) {
+        return characters.get(index).path("id").asInt();
+    }
+
+    byte[] page(int page) {
+        return page >= 1 && page <= pages.size() ? pages.get(page - 1) : null;
+    }
+
+    byte[] character(int id) {
+        return characterJson.get(id);
+    }
+
+    /**
+     * Encodes the characters with the given IDs as a JSON array, skipping unknown IDs like the real API.
+     */
+    byte[] characters(Collection<Integer> ids) {
+        ArrayNode array = objectMapper.createArrayNode();
+        for (ObjectNode character : characters) {
+            if (ids.contains(character.get("id").asInt())) {
+                array.add(character);
+            }
+        }
+        return write(array);
+    }
+
+    /**
+     * Answers the upstream {@code name} filter: the first page of characters whose name contains the
+     * query, ignoring case.
+     *
+     * @return The page, or null when nothing matches
+     */
+    byte[] search(String name) {
+        String query = name.toLowerCase(Locale.ROOT);
+        List<ObjectNode> matches = characters.stream()
+                .filter(character -> character.path("name").asText().toLowerCase(Locale.ROOT).contains(query))
+                .toList();
+        return matches.isEmpty() ? null : write(page(matches, 1));
+    }
+
+    private ObjectNode page(List<ObjectNode> results, int page) {
+        int pageCount = (results.size() + pageSize - 1) / pageSize;
+        ObjectNode body = objectMapper.createObjectNode();
+        ObjectNode info = body.putObject("info");
+        info.put("count", results.size());
+        info.put("pages", pageCount);
+        info.put("next", page < pageCount ? UPSTREAM_URL + "/character?page=" + (page + 1) : null);
+        info.put("prev", page > 1 ? UPSTREAM_URL + "/character?page=" + (page - 1) : null);
+        int from = (page - 1) * pageSize;
+        body.putArray("results").addAll(results.subList(from, Math.min(from + pageSize, results.size())));
+        return body;
+    }
+
+    private byte[] write(JsonNode node) {
+        try {
+            return objectMapper.writeValueAsBytes(node);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static int pageNumber(Path file) {
+        Matcher matcher = PAGE_FILE.matcher(file.getFileName().toString());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : Integer.MAX_VALUE;
+    }
+
+    private static List<ObjectNode> synthetic(int count, ObjectMapper objectMapper) {
+        Random random = new Random(42);
+        Instant created = Instant.parse("2017-11-04T18:48:46.250Z");
+        List<ObjectNode> characters = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            ObjectNode character = objectMapper.createObjectNode();
+            character.put("id", id);
+            character.put("name", FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            character.put("status", STATUSES[random.nextInt(STATUSES.length)]);
+            character.put("species", SPECIES[random.nextInt(SPECIES.length)]);
+            character.put("type", "");
+            character.put("gender", GENDERS[random.nextInt(GENDERS.length)]);
+            int origin = 1 + random.nextInt(126);
+            int location = 1 + random.nextInt(126);
+            character.putObject("origin")
+                    .put("name", "Location " + origin)
+                    .put("url", UPSTREAM_URL + "/location/" + origin);
+            character.putObject("location")
+                    .put("name", "Location " + location)
+                    .put("url", UPSTREAM_URL + "/location/" + location);
+            character.put("image", UPSTREAM_URL + "/character/avatar/" + id + ".jpeg");
+            ArrayNode episodes = character.putArray("episode");
+            int episodeCount = 1 + random.nextInt(random.nextInt(10) == 0 ? 30 : 3);
+            int firstEpisode = 1 + random.nextInt(51 - episodeCount + 1);
+            for (int i = 0; i < episodeCount; i++) {
+                episodes.add(UPSTREAM_URL + "/episode/" + (firstEpisode + i));
+            }
+            character.put("url", UPSTREAM_URL + "/character/" + id);
+            character.put("created", created.plusSeconds(id * 97L).toString());
+            characters.add(character);
+        }
+        return characters;
+    }
+}
@@ -1,12 +1,17 @@
 package com.yobel.rickandmortyback;
 
+import com.yobel.rickandmortyback.config.CharacterRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.web.reactive.config.CorsRegistry;
 import org.springframework.web.reactive.config.WebFluxConfigurer;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(CharacterRuntimeHints.class)
 public class RickAndMortyBackApplication {
 
     public static void main(String[] args) {
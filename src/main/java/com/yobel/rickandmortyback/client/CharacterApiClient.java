@@ -0,0 +1,255 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.response.CharacterResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Low-level client for the character endpoints of the Rick and Morty API.
+ * <p>
+ * Every upstream call made on behalf of characters goes through this class, so request timeouts,
+ * the {@link UpstreamResilience} layer and the translation of upstream errors into application
+ * exceptions are applied in one place.
+ * Higher-level concerns such as caching or the local mirror are handled by the callers.
+ * </p>
+ * <p>
+ * Lookups by ID are hedged by {@link UpstreamHedging}: a lookup that is slower than the recent
+ * latencies of its route is sent a second time and the first answer is used.
+ * </p>
+ * <p>
+ * The {@code stream*} methods and {@link #searchByName(String)} decode the response body
+ * incrementally with {@link CharacterPageDecoder}, emitting each character as soon as it has been
+ * parsed instead of buffering the whole page.
+ * </p>
+ */
+@Component
+public class CharacterApiClient {
+    private final WebClient webClient;
+    private final CharacterPageDecoder pageDecoder;
+    private final UpstreamResilience resilience;
+    private final UpstreamHedging hedging;
+    /**
+     * Path to the character endpoint in the Rick and Morty API
+     */
+    private static final String CHARACTER_API_PATH = "/character";
+    /**
+     * Path to the avatar of a character in the Rick and Morty API
+     */
+    private static final String AVATAR_API_PATH = CHARACTER_API_PATH + "/avatar/{id}.jpeg";
+    /**
+     * Route of single lookups by ID, whose latencies set their hedging delay
+     */
+    private static final String BY_ID_ROUTE = CHARACTER_API_PATH + "/{id}";
+    /**
+     * Route of multi-ID lookups, whose latencies set their hedging delay
+     */
+    private static final String BY_IDS_ROUTE = CHARACTER_API_PATH + "/{ids}";
+    /**
+     * Timeout duration for API requests
+     */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Constructs a new CharacterApiClient with the provided WebClient.
+     *
+     * @param webClient   The WebClient to use for making API requests
+     * @param pageDecoder The decoder used for streamed pages
+     * @param resilience  The resilience layer wrapped around every call
+     * @param hedging     The hedging applied to lookups by ID
+     */
+    public CharacterApiClient(WebClient webClient, CharacterPageDecoder pageDecoder, UpstreamResilience resilience,
+                              UpstreamHedging hedging) {
+        this.webClient = webClient;
+        this.pageDecoder = pageDecoder;
+        this.resilience = resilience;
+        this.hedging = hedging;
+    }
+
+    /**
+     * Fetches the first page of the character endpoint.
+     *
+     * @return A Mono containing the first CharacterResponse page
+     */
+    public Mono<CharacterResponse> fetchFirstPage() {
+        return webClient.get()
+                .uri(CHARACTER_API_PATH)
+                .retrieve()
+                .bodyToMono(CharacterResponse.class)
+                .timeout(REQUEST_TIMEOUT)
+                .transform(resilience::guard)
+                .onErrorMap(UpstreamErrors::translate);
+    }
+
+    /**
+     * Fetches a specific page of the character endpoint.
+     *
+     * @param page The page number to fetch
+     * @return A Mono containing the requested CharacterResponse page
+     */
+    public Mono<CharacterResponse> fetchPage(int page) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(CHARACTER_API_PATH)
+                        .queryParam("page", page)
+                        .build())
+                .retrieve()
+                .bodyToMono(CharacterResponse.class)
+                .timeout(REQUEST_TIMEOUT)
+                .transform(resilience::guard)
+                .onErrorMap(UpstreamErrors::translate);
+    }
+
+    /**
+     * Streams the first page of the character endpoint.
+     *
+     * @return A Flux of the info block and characters of the first page
+     */
+    public Flux<CharacterPageChunk> streamFirstPage() {
+        return pageDecoder.decode(webClient.get()
+                        .uri(CHARACTER_API_PATH)
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class))
+                .timeout(REQUEST_TIMEOUT)
+                .transform(resilience::guard)
+                .onErrorMap(UpstreamErrors::translate);
+    }
+
+    /**
+     * Streams a specific page of the character endpoint.
+     *
+     * @param page The page number to fetch
+     * @return A Flux of the info block and characters of the requested page
+     */
+    public Flux<CharacterPageChunk> streamPage(int page) {
+        return pageDecoder.decode(webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path(CHARACTER_API_PATH)
+                                .queryParam("page", page)
+                                .build())
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class))
+                .timeout(REQUEST_TIMEOUT)
+                .transform(resilience::guard)
+                .onErrorMap(UpstreamErrors::translate);
+    }
+
+    /**
+     * Fetches a specific character by its ID.
+     *
+     * @param id The ID of the character to fetch
+     * @return A Mono containing the Character if found
+     * @throws ResourceNotFoundException if the character with the given ID is not found
+     */
+    public Mono<Character> fetchCharacterById(int id) {
+        return webClient.get()
+                .uri(BY_ID_ROUTE, id)
+                .retrieve()
+                .bodyToMono(Character.class)
+                .timeout(REQUEST_TIMEOUT)
+                .transform(resilience::guard)
+                .transform(call -> hedging.hedge(BY_ID_ROUTE, call))
+                .onErrorResume(WebClientResponseException.class, ex -> {
+                    if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return Mono.error(new ResourceNotFoundException("Character with ID " + id + " not found"));
+                    }
+                    return Mono.error(ex);
+                })
+                .onErrorMap(UpstreamErrors::translate);
+    }
+
+    /**
+     * Fetches several characters in a single request using the multi-ID form {@code /character/1,2,3}.
+     * <p>
+     * IDs that do not exist are simply absent from the result.
+     * </p>
+     *
+     * @param ids The IDs of the characters to fetch, at least two
+     * @return A Flux containing the characters that were found
+     */
+    public Flux<Character> fetchCharactersByIds(Collection<Integer> ids) {
+        String joinedIds = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return webClient.get()
+                .uri(CHARACTER_API_PATH + "/" + joinedIds)
+                .retrieve()
+                .bodyToFlux(Character.class)
+                .timeout(REQUEST_TIMEOUT)
+                .transform(resilience::guard)
+                .collectList()
+                .transform(call -> hedging.hedge(BY_IDS_ROUTE, call))
+                .flatMapIterable(characters -> characters)
+                .onErrorMap(UpstreamErrors::translate);
+    }
+
+    /**
+     * Searches for characters by name using the upstream {@code name} filter.
+     *
+     * @param name The name to search for
+     * @return A Flux of the info block and characters of the first page of matches
+     * @throws ResourceNotFoundException if no characters are found with the given name
+     */
+    public Flux<CharacterPageChunk> searchByName(String name) {
+        return pageDecoder.decode(webClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path(CHARACTER_API_PATH)
+                                .queryParam("name", name)
+                                .build())
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class))
+                .timeout(REQUEST_TIMEOUT)
+                .transform(resilience::guard)
+                .onErrorResume(WebClientResponseException.class, ex -> {
+                    if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return Mono.error(new ResourceNotFoundException("No characters found with the name: " + name));
+                    }
+                    return Mono.error(ex);
+                })
+                .onErrorMap(UpstreamErrors::translate);
+    }
+
+    /**
+     * Streams the avatar of a character, as served by {@code /character/avatar/{id}.jpeg}.
+     *
+     * @param id The ID of the character
+     * @return A Flux of the raw JPEG bytes
+     * @throws ResourceNotFoundException if the character has no avatar
+     */
+    public Flux<DataBuffer> streamAvatar(int id) {
+        return webClient.get()
+                .uri(AVATAR_API_PATH, id)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .timeout(REQUEST_TIMEOUT)
+                .transform(resilience::guard)
+                .onErrorResume(WebClientResponseException.class, ex -> {
+                    if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return Mono.error(new ResourceNotFoundException("Image of character with ID " + id + " not found"));
+                    }
+                    return Mono.error(ex);
+                })
+                .onErrorMap(UpstreamErrors::translate);
+    }
+
+    /**
+     * Returns the total number of pages advertised by an {@code info} block, defaulting to a single page.
+     *
+     * @param info The {@code info} block of a response, may be null
+     * @return The number of upstream pages
+     */
+    public static int totalPages(CharacterResponse.Info info) {
+        if (info == null || info.getPages() == null) {
+            return 1;
+        }
+        return info.getPages();
+    }
+}
@@ -0,0 +1,228 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.config.CharacterBatchProperties;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.model.Character;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges concurrent lookups by ID into multi-ID upstream requests.
+ * <p>
+ * The first lookup of a batch opens a short window; every lookup arriving before the window closes,
+ * or before {@link CharacterBatchProperties#getMaxSize()} distinct IDs have been collected, joins the
+ * same request. The shared response is then split so that each caller receives its own character, and
+ * callers whose ID is absent from the response fail with {@link ResourceNotFoundException}.
+ * </p>
+ * <p>
+ * A batch containing a single ID is sent to the single-ID endpoint, so isolated lookups behave
+ * exactly as without batching apart from the window delay.
+ * </p>
+ * <p>
+ * The request of a batch runs with the Reactor context of its first caller, so the {@link UpstreamPriority}
+ * and the other request-scoped values it holds reach the upstream call; a batch joined by an interactive
+ * caller is sent as interactive. A cancelled caller leaves its batch, and a batch left by every caller is
+ * not sent, or its request is cancelled if it is already in flight.
+ * </p>
+ */
+@Component
+@Log4j2
+public class CharacterBatchLoader {
+    private final CharacterApiClient apiClient;
+    private final CharacterBatchProperties properties;
+    private final Scheduler scheduler;
+    private final Object lock = new Object();
+    private Batch pending = new Batch();
+    private Disposable scheduledFlush;
+
+    /**
+     * Constructs a new CharacterBatchLoader.
+     *
+     * @param apiClient  The client used to send the merged requests
+     * @param properties The batching configuration
+     */
+    public CharacterBatchLoader(CharacterApiClient apiClient, CharacterBatchProperties properties) {
+        this.apiClient = apiClient;
+        this.properties = properties;
+        this.scheduler = Schedulers.parallel();
+    }
+
+    /**
+     * Loads a character by ID, sharing the upstream request with other lookups in the same window.
+     *
+     * @param id The ID of the character to load
+     * @return A Mono containing the Character if found
+     * @throws ResourceNotFoundException if the character with the given ID is not found
+     */
+    public Mono<Character> load(int id) {
+        if (!properties.isEnabled()) {
+            return apiClient.fetchCharacterById(id);
+        }
+        return Mono.create(sink -> enqueue(id, sink));
+    }
+
+    private void enqueue(int id, MonoSink<Character> sink) {
+        Batch full = null;
+        synchronized (lock) {
+            Batch batch = pending;
+            batch.add(id, sink);
+            sink.onCancel(() -> cancel(batch, id, sink));
+            if (batch.sinks.size() >= properties.getMaxSize()) {
+                full = takePending();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush,
+                        properties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+    }
+
+    private void cancel(Batch batch, int id, MonoSink<Character> sink) {
+        Disposable request = null;
+        synchronized (lock) {
+            if (!batch.remove(id, sink) || !batch.sinks.isEmpty()) {
+                return;
+            }
+            if (batch == pending) {
+                // Nobody is waiting for the open batch any more, so there is nothing to send
+                if (scheduledFlush != null) {
+                    scheduledFlush.dispose();
+                    scheduledFlush = null;
+                }
+            } else {
+                request = batch.request;
+            }
+        }
+        if (request != null) {
+            request.dispose();
+        }
+    }
+
+    private void flush() {
+        Batch batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private Batch takePending() {
+        Batch batch = pending;
+        pending = new Batch();
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Batch batch) {
+        List<Integer> ids;
+        ContextView context;
+        synchronized (lock) {
+            if (batch.sinks.isEmpty()) {
+                return;
+            }
+            ids = List.copyOf(batch.sinks.keySet());
+            context = batch.context;
+        }
+
+        Mono<Map<Integer, Character>> response;
+        if (ids.size() == 1) {
+            int id = ids.get(0);
+            response = apiClient.fetchCharacterById(id).map(character -> Map.of(id, character));
+        } else {
+            log.debug("Fetching {} characters in one batched request", ids.size());
+            response = apiClient.fetchCharactersByIds(ids).collectMap(Character::getId);
+        }
+        Disposable request = response
+                .defaultIfEmpty(Map.of())
+                .contextWrite(context)
+                .subscribe(found -> complete(batch, found), ex -> fail(batch, ex));
+
+        boolean abandoned;
+        synchronized (lock) {
+            batch.request = request;
+            abandoned = batch.sinks.isEmpty();
+        }
+        if (abandoned) {
+            // Every caller left, or the response already arrived, while the request was being sent
+            request.dispose();
+        }
+    }
+
+    private void complete(Batch batch, Map<Integer, Character> found) {
+        drain(batch).forEach((id, sinks) -> {
+            Character character = found.get(id);
+            for (MonoSink<Character> sink : sinks) {
+                if (character != null) {
+                    sink.success(character);
+                } else {
+                    sink.error(new ResourceNotFoundException("Character with ID " + id + " not found"));
+                }
+            }
+        });
+    }
+
+    private void fail(Batch batch, Throwable ex) {
+        drain(batch).values().forEach(sinks -> sinks.forEach(sink -> sink.error(ex)));
+    }
+
+    private Map<Integer, List<MonoSink<Character>>> drain(Batch batch) {
+        synchronized (lock) {
+            Map<Integer, List<MonoSink<Character>>> sinks = new TreeMap<>(batch.sinks);
+            batch.sinks.clear();
+            return sinks;
+        }
+    }
+
+    /**
+     * Callers of one batch, the context its request runs with and, once sent, the request itself.
+     * Guarded by the lock of the loader.
+     */
+    private static final class Batch {
+        private final Map<Integer, List<MonoSink<Character>>> sinks = new TreeMap<>();
+        private ContextView context = Context.empty();
+        private Disposable request;
+
+        void add(int id, MonoSink<Character> sink) {
+            ContextView callerContext = sink.contextView();
+            if (sinks.isEmpty()) {
+                context = callerContext;
+            } else if (context.getOrDefault(UpstreamPriority.class, UpstreamPriority.INTERACTIVE)
+                    == UpstreamPriority.BACKGROUND
+                    && callerContext.getOrDefault(UpstreamPriority.class, UpstreamPriority.INTERACTIVE)
+                    == UpstreamPriority.INTERACTIVE) {
+                // A client is now waiting for this batch, so it must not queue behind background work
+                context = Context.of(context).put(UpstreamPriority.class, UpstreamPriority.INTERACTIVE);
+            }
+            sinks.computeIfAbsent(id, key -> new ArrayList<>(1)).add(sink);
+        }
+
+        boolean remove(int id, MonoSink<Character> sink) {
+            List<MonoSink<Character>> callers = sinks.get(id);
+            if (callers == null || !callers.remove(sink)) {
+                return false;
+            }
+            if (callers.isEmpty()) {
+                sinks.remove(id);
+            }
+            return true;
+        }
+    }
+}
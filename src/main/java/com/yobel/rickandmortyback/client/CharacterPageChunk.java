@@ -0,0 +1,41 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.response.CharacterResponse;
+import reactor.core.publisher.Flux;
+
+/**
+ * Element of a streamed {@link CharacterResponse} page, as emitted by {@link CharacterPageDecoder}.
+ * <p>
+ * A page yields one {@link InfoChunk} for its {@code info} block and one {@link CharacterChunk}
+ * for each element of its {@code results} array, in the order they appear in the upstream JSON.
+ * </p>
+ */
+public sealed interface CharacterPageChunk {
+
+    /**
+     * Extracts the characters from a stream of page chunks.
+     *
+     * @param chunks The streamed page
+     * @return A Flux of the characters of the page, in document order
+     */
+    static Flux<Character> characters(Flux<CharacterPageChunk> chunks) {
+        return chunks.ofType(CharacterChunk.class).map(CharacterChunk::character);
+    }
+
+    /**
+     * The pagination block of the page.
+     *
+     * @param info The decoded {@code info} object
+     */
+    record InfoChunk(CharacterResponse.Info info) implements CharacterPageChunk {
+    }
+
+    /**
+     * A single element of the {@code results} array.
+     *
+     * @param character The decoded character
+     */
+    record CharacterChunk(Character character) implements CharacterPageChunk {
+    }
+}
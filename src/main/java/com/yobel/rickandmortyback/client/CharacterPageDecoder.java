@@ -0,0 +1,168 @@
+package com.yobel.rickandmortyback.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.response.CharacterResponse;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming decoder for {@link CharacterResponse} pages.
+ * <p>
+ * Instead of buffering the whole response body and binding it at once, the decoder feeds each
+ * incoming {@link DataBuffer} to a non-blocking Jackson parser and walks the token stream. The
+ * {@code info} object and every element of the {@code results} array are buffered individually and
+ * emitted as soon as their last token has arrived, so only one character is held in token form at a
+ * time and the first character is available before the rest of the page has been received.
+ * </p>
+ */
+@Component
+public class CharacterPageDecoder {
+    private static final String INFO_FIELD = "info";
+    private static final String RESULTS_FIELD = "results";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs a new CharacterPageDecoder.
+     *
+     * @param objectMapper The mapper used to bind the info block and characters
+     */
+    public CharacterPageDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Decodes a streamed page body into its info block and characters.
+     *
+     * @param body The raw response body
+     * @return A Flux of page chunks in document order
+     */
+    public Flux<CharacterPageChunk> decode(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            PageTokenizer tokenizer = new PageTokenizer();
+            return body.concatMapIterable(tokenizer::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.endOfInput())))
+                    .doFinally(signal -> tokenizer.close());
+        });
+    }
+
+    /**
+     * Per-subscription parsing state.
+     */
+    private final class PageTokenizer {
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private String rootField;
+        private int depth;
+        private TokenBuffer capture;
+        private int captureDepth;
+        private boolean captureIsInfo;
+
+        PageTokenizer() {
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<CharacterPageChunk> feed(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                feeder.feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (IOException ex) {
+                throw new DecodingException("Invalid character page JSON: " + ex.getMessage(), ex);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<CharacterPageChunk> endOfInput() {
+            feeder.endOfInput();
+            try {
+                List<CharacterPageChunk> chunks = drain();
+                if (depth != 0 || capture != null) {
+                    throw new DecodingException("Incomplete character page JSON");
+                }
+                return chunks;
+            } catch (IOException ex) {
+                throw new DecodingException("Invalid character page JSON: " + ex.getMessage(), ex);
+            }
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+        }
+
+        private List<CharacterPageChunk> drain() throws IOException {
+            List<CharacterPageChunk> chunks = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (capture != null) {
+                    capture.copyCurrentEvent(parser);
+                    updateDepth(token);
+                    if (depth == captureDepth) {
+                        chunks.add(bindCapture());
+                    }
+                    continue;
+                }
+
+                if (token.isStructStart()) {
+                    boolean infoObject = depth == 1 && INFO_FIELD.equals(rootField) && token == JsonToken.START_OBJECT;
+                    boolean resultElement = depth == 2 && RESULTS_FIELD.equals(rootField) && token == JsonToken.START_OBJECT;
+                    if (infoObject || resultElement) {
+                        capture = new TokenBuffer(parser);
+                        capture.copyCurrentEvent(parser);
+                        captureDepth = depth;
+                        captureIsInfo = infoObject;
+                    }
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                } else if (token == JsonToken.FIELD_NAME && depth == 1) {
+                    rootField = parser.currentName();
+                }
+            }
+            return chunks;
+        }
+
+        private void updateDepth(JsonToken token) {
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+        }
+
+        private CharacterPageChunk bindCapture() throws IOException {
+            try (JsonParser captured = capture.asParser(objectMapper)) {
+                if (captureIsInfo) {
+                    return new CharacterPageChunk.InfoChunk(objectMapper.readValue(captured, CharacterResponse.Info.class));
+                }
+                return new CharacterPageChunk.CharacterChunk(objectMapper.readValue(captured, Character.class));
+            } finally {
+                capture = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.config.CharacterPeerProperties;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.model.Character;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Client for the internal endpoints other instances of the service expose to their peers.
+ * <p>
+ * It uses its own connection pool and the short {@link CharacterPeerProperties#getRequestTimeout()}
+ * budget, since a slow peer is only an optimization and the caller falls back to the upstream API.
+ * Requests are not wrapped in the upstream resilience layer: peers have nothing to do with the
+ * upstream circuit.
+ * </p>
+ */
+@Component
+public class CharacterPeerClient {
+    /**
+     * Path of the character lookup served to peers, relative to the base URL of a member
+     */
+    public static final String PEER_CHARACTER_PATH = "/internal/peers/characters/{id}";
+
+    /**
+     * Name of the peer connection pool, used as the {@code name} tag of its metrics
+     */
+    private static final String POOL_NAME = "character-peers";
+
+    private final ConnectionProvider connectionProvider = ConnectionProvider.create(POOL_NAME);
+    private final WebClient webClient;
+    private final Duration requestTimeout;
+
+    /**
+     * Constructs a new CharacterPeerClient.
+     *
+     * @param builder    The Boot-managed builder, carrying codecs and observation support
+     * @param properties The peer configuration
+     */
+    public CharacterPeerClient(WebClient.Builder builder, CharacterPeerProperties properties) {
+        this.requestTimeout = properties.getRequestTimeout();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) requestTimeout.toMillis())
+                .responseTimeout(requestTimeout);
+        this.webClient = builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Releases the connections to the peers.
+     */
+    @PreDestroy
+    public void close() {
+        connectionProvider.dispose();
+    }
+
+    /**
+     * Fetches a character from the member that owns it.
+     *
+     * @param member The base URL of the owner
+     * @param id     The ID of the character
+     * @return A Mono containing the character, or failing with {@link ResourceNotFoundException} if the
+     * owner reports that it does not exist, or with the transport or HTTP error otherwise
+     */
+    public Mono<Character> fetchCharacterById(String member, int id) {
+        return webClient.get()
+                .uri(member + PEER_CHARACTER_PATH, id)
+                .retrieve()
+                .bodyToMono(Character.class)
+                .timeout(requestTimeout)
+                .onErrorMap(WebClientResponseException.class, ex -> ex.getStatusCode() == HttpStatus.NOT_FOUND
+                        ? new ResourceNotFoundException("Character with ID " + id + " not found")
+                        : ex);
+    }
+}
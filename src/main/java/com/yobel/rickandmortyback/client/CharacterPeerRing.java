@@ -0,0 +1,68 @@
+package com.yobel.rickandmortyback.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring assigning keys to the members of the cluster.
+ * <p>
+ * Each member takes a number of points on a 64-bit ring, derived from its URL, and a key belongs to
+ * the first member point at or after the hash of the key. Every instance configured with the same
+ * members computes the same owner for every key, without coordination, and adding or removing a
+ * member only moves the keys that member gains or loses.
+ * </p>
+ */
+public final class CharacterPeerRing {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    /**
+     * Builds a ring over the given members.
+     *
+     * @param members      Base URLs of the members, in any order
+     * @param virtualNodes Number of points per member
+     */
+    public CharacterPeerRing(List<String> members, int virtualNodes) {
+        for (String member : members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * Returns the member owning a key.
+     *
+     * @param key The key, such as {@code character:1}
+     * @return The base URL of the owner, or null if the ring is empty
+     */
+    public String owner(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    /**
+     * Hashes a string with 64-bit FNV-1a followed by the MurmurHash3 finalizer, which spreads the
+     * similar member and key strings evenly over the ring.
+     */
+    static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
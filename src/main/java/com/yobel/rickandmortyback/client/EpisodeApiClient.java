@@ -0,0 +1,27 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.model.Episode;
+import com.yobel.rickandmortyback.model.response.EpisodeResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Low-level client for the episode endpoints of the Rick and Morty API.
+ */
+@Component
+public class EpisodeApiClient extends UpstreamResourceClient<Episode, EpisodeResponse> {
+    /**
+     * Path to the episode endpoint in the Rick and Morty API
+     */
+    private static final String EPISODE_API_PATH = "/episode";
+
+    /**
+     * Constructs a new EpisodeApiClient with the provided WebClient.
+     *
+     * @param webClient  The WebClient to use for making API requests
+     * @param resilience The resilience layer wrapped around every call
+     */
+    public EpisodeApiClient(WebClient webClient, UpstreamResilience resilience) {
+        super(webClient, resilience, EPISODE_API_PATH, "Episode", Episode.class, EpisodeResponse.class);
+    }
+}
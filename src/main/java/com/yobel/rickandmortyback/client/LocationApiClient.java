@@ -0,0 +1,27 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.response.LocationResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Low-level client for the location endpoints of the Rick and Morty API.
+ */
+@Component
+public class LocationApiClient extends UpstreamResourceClient<Location, LocationResponse> {
+    /**
+     * Path to the location endpoint in the Rick and Morty API
+     */
+    private static final String LOCATION_API_PATH = "/location";
+
+    /**
+     * Constructs a new LocationApiClient with the provided WebClient.
+     *
+     * @param webClient  The WebClient to use for making API requests
+     * @param resilience The resilience layer wrapped around every call
+     */
+    public LocationApiClient(WebClient webClient, UpstreamResilience resilience) {
+        super(webClient, resilience, LOCATION_API_PATH, "Location", Location.class, LocationResponse.class);
+    }
+}
@@ -0,0 +1,60 @@
+package com.yobel.rickandmortyback.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the number of messages of one kind logged per interval.
+ * <p>
+ * A failing or abused upstream can raise the same error for every request; beyond the first
+ * {@code permits} messages of an interval the rest are only counted, and that count is reported with
+ * the next message that is logged. The interval is a fixed window, so a burst straddling two windows can
+ * log up to twice the permits.
+ * </p>
+ */
+final class LogRateLimiter {
+    private final int permits;
+    private final long intervalNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicLong windowStart;
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    /**
+     * Constructs a new LogRateLimiter.
+     *
+     * @param permits  The number of messages logged per interval
+     * @param interval The length of an interval
+     */
+    LogRateLimiter(int permits, Duration interval) {
+        this(permits, interval, System::nanoTime);
+    }
+
+    LogRateLimiter(int permits, Duration interval, LongSupplier nanoTime) {
+        this.permits = permits;
+        this.intervalNanos = interval.toNanos();
+        this.nanoTime = nanoTime;
+        this.windowStart = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    /**
+     * Takes a permit to log one message.
+     *
+     * @return The number of messages suppressed since the last one logged, or -1 if this message must be
+     * suppressed as well
+     */
+    long tryAcquire() {
+        long now = nanoTime.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() > permits) {
+            suppressed.incrementAndGet();
+            return -1;
+        }
+        return suppressed.getAndSet(0);
+    }
+}
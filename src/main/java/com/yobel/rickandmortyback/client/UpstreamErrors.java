@@ -0,0 +1,58 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.exception.UpstreamUnavailableException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+
+/**
+ * Translation of upstream failures into application exceptions, shared by every API client.
+ * <p>
+ * A 404 from the upstream is an expected answer for unknown IDs and names, so it is only logged at
+ * debug level. Other failures are logged with their stack trace, at most {@value #ERROR_LOG_PERMITS}
+ * times per second, so a failing upstream under heavy traffic does not flood the log.
+ * </p>
+ */
+@Log4j2
+final class UpstreamErrors {
+    /**
+     * Number of upstream failures logged per second
+     */
+    private static final int ERROR_LOG_PERMITS = 10;
+
+    private static final LogRateLimiter ERROR_LOG = new LogRateLimiter(ERROR_LOG_PERMITS, Duration.ofSeconds(1));
+
+    private UpstreamErrors() {
+    }
+
+    /**
+     * Handles API errors and converts them to appropriate exceptions.
+     *
+     * @param ex The throwable that occurred during the API request
+     * @return A transformed throwable with more specific error information
+     */
+    static Throwable translate(Throwable ex) {
+        if (ex instanceof ResourceNotFoundException || ex instanceof UpstreamUnavailableException) {
+            return ex;
+        }
+        if (ex instanceof WebClientResponseException
+                && ((WebClientResponseException) ex).getStatusCode() == HttpStatus.NOT_FOUND) {
+            log.debug("Resource not found in Rick and Morty API");
+            return new ResourceNotFoundException("Resource not found in Rick and Morty API");
+        }
+
+        long suppressed = ERROR_LOG.tryAcquire();
+        if (suppressed >= 0) {
+            if (ex instanceof WebClientResponseException) {
+                WebClientResponseException wcre = (WebClientResponseException) ex;
+                log.error("Error in external API: {}. Response: {}", wcre.getStatusCode(), wcre.getResponseBodyAsString());
+            }
+            log.error("Error consuming Rick and Morty API{}",
+                    suppressed > 0 ? " (" + suppressed + " similar errors not logged)" : "", ex);
+        }
+        return new RuntimeException("Error processing request to external API: " + ex.getMessage());
+    }
+}
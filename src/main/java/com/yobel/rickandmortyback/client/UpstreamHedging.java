@@ -0,0 +1,234 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.config.UpstreamHedgingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedging of idempotent upstream requests, to cut the latency tail caused by occasional slow responses.
+ * <p>
+ * A hedged call is sent once; if it has not answered after an adaptive delay, the recent
+ * {@link UpstreamHedgingProperties#getPercentile() percentile} latency of its route, the same call is
+ * sent again. The first response wins and the other attempt is cancelled; a hedge that fails is
+ * ignored, so the call only fails if the first attempt does. Each attempt goes through the
+ * {@link UpstreamResilience} layer and the {@link UpstreamScheduler} like any other request.
+ * </p>
+ * <p>
+ * Hedges are paid for from a global budget: every hedged call saves
+ * {@link UpstreamHedgingProperties#getBudget()} of a request, up to
+ * {@link UpstreamHedgingProperties#getBurst()} requests, and a hedge spends a whole one. When the upstream
+ * slows down for everyone the budget runs out after a few hedges, so hedging cannot amplify an outage;
+ * calls failing fast, e.g. with an open circuit, are never hedged.
+ * </p>
+ * <p>
+ * Latencies are published under {@code upstream.hedging.latency} and hedges sent, hedges that answered
+ * first and hedges refused for lack of budget under {@code upstream.hedging.*}, all tagged with the route.
+ * </p>
+ */
+@Component
+public class UpstreamHedging {
+    /**
+     * Cost of a hedge in budget units, which are thousandths of a request
+     */
+    private static final long HEDGE_COST = 1000;
+    /**
+     * How often the delay of a route is recomputed from its latencies
+     */
+    private static final long DELAY_REFRESH_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final UpstreamHedgingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private final AtomicLong budget = new AtomicLong();
+    private final long deposit;
+    private final long capacity;
+
+    /**
+     * Constructs a new UpstreamHedging.
+     *
+     * @param properties    The hedging configuration
+     * @param meterRegistry The registry receiving the latencies and hedging counters
+     */
+    public UpstreamHedging(UpstreamHedgingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.deposit = Math.round(properties.getBudget() * HEDGE_COST);
+        this.capacity = properties.getBurst() * HEDGE_COST;
+    }
+
+    /**
+     * Hedges an idempotent upstream call.
+     *
+     * @param route The route of the call, whose latencies determine the hedging delay
+     * @param call  The upstream call, sent again on each subscription
+     * @param <T>   The type of the response
+     * @return The call, hedged when enabled and the route has enough recent latencies
+     */
+    public <T> Mono<T> hedge(String route, Mono<T> call) {
+        if (!properties.isEnabled()) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            Route state = routes.computeIfAbsent(route, this::route);
+            budget.accumulateAndGet(deposit, (saved, added) -> Math.min(capacity, saved + added));
+            Mono<T> primary = state.timed(call, true);
+            long delay = state.delayNanos();
+            if (delay < 0) {
+                return primary;
+            }
+            Mono<T> hedge = Mono.delay(Duration.ofNanos(delay))
+                    .flatMap(tick -> {
+                        if (!spend()) {
+                            state.budgetExhausted.increment();
+                            return Mono.<T>never();
+                        }
+                        state.hedges.increment();
+                        // A failed hedge must not cancel a first attempt that may still succeed
+                        return state.timed(call, false)
+                                .doOnNext(value -> state.wins.increment())
+                                .onErrorResume(ex -> Mono.never());
+                    });
+            return Mono.firstWithSignal(primary, hedge);
+        });
+    }
+
+    private boolean spend() {
+        long saved;
+        do {
+            saved = budget.get();
+            if (saved < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(saved, saved - HEDGE_COST));
+        return true;
+    }
+
+    private Route route(String route) {
+        Timer latency = Timer.builder("upstream.hedging.latency")
+                .description("Latency of hedgeable upstream requests")
+                .tag("route", route)
+                .publishPercentiles(properties.getPercentile())
+                .percentilePrecision(2)
+                .distributionStatisticExpiry(properties.getWindow())
+                .register(meterRegistry);
+        return new Route(latency,
+                counter("upstream.hedging.hedges", "Hedges sent to the upstream", route),
+                counter("upstream.hedging.wins", "Hedges that answered before the first attempt", route),
+                counter("upstream.hedging.budget-exhausted", "Hedges not sent for lack of budget", route),
+                properties.getMinSamples(), properties.getMinDelay().toNanos(), properties.getWindow().toNanos());
+    }
+
+    private Counter counter(String name, String description, String route) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Latencies, hedging delay and counters of one route.
+     * <p>
+     * The percentile of the timer only covers the recent window, while its count covers every call since
+     * startup, so the number of recent latencies is counted separately, in two buckets of half a window:
+     * after an idle period the window is empty and the route is not hedged until it fills up again.
+     * </p>
+     */
+    private static final class Route {
+        private final Timer latency;
+        private final Counter hedges;
+        private final Counter wins;
+        private final Counter budgetExhausted;
+        private final int minSamples;
+        private final long minDelayNanos;
+        private final long bucketNanos;
+        private final LongAdder currentBucket = new LongAdder();
+        private volatile long previousBucket;
+        private volatile long bucketStart = System.nanoTime();
+        private volatile long delayNanos = -1;
+        private volatile long refreshedAt;
+
+        private Route(Timer latency, Counter hedges, Counter wins, Counter budgetExhausted, int minSamples,
+                      long minDelayNanos, long windowNanos) {
+            this.latency = latency;
+            this.hedges = hedges;
+            this.wins = wins;
+            this.budgetExhausted = budgetExhausted;
+            this.minSamples = minSamples;
+            this.minDelayNanos = minDelayNanos;
+            this.bucketNanos = Math.max(1, windowNanos / 2);
+        }
+
+        /**
+         * Returns the delay after which a call is hedged, or -1 while too few recent latencies are known.
+         */
+        long delayNanos() {
+            long now = System.nanoTime();
+            if (delayNanos < 0 || now - refreshedAt >= DELAY_REFRESH_NANOS) {
+                if (recentSamples(now) < minSamples) {
+                    delayNanos = -1;
+                    return -1;
+                }
+                refreshedAt = now;
+                ValueAtPercentile[] percentiles = latency.takeSnapshot().percentileValues();
+                long percentile = percentiles.length == 0 ? 0 : (long) percentiles[0].value(TimeUnit.NANOSECONDS);
+                // An empty histogram reports 0, which is not a latency to hedge after
+                delayNanos = percentile <= 0 ? -1 : Math.max(minDelayNanos, percentile);
+            }
+            return delayNanos;
+        }
+
+        private long recentSamples(long now) {
+            rotate(now);
+            return previousBucket + currentBucket.sum();
+        }
+
+        private void rotate(long now) {
+            if (now - bucketStart < bucketNanos) {
+                return;
+            }
+            synchronized (this) {
+                long elapsed = now - bucketStart;
+                if (elapsed < bucketNanos) {
+                    return;
+                }
+                long current = currentBucket.sumThenReset();
+                previousBucket = elapsed < 2 * bucketNanos ? current : 0;
+                bucketStart = now;
+            }
+        }
+
+        /**
+         * Records the latency of each attempt that answers. A first attempt cancelled because its hedge
+         * won is recorded with the time it had waited, so slow responses are not left out of the
+         * percentile that decides when to hedge.
+         */
+        <T> Mono<T> timed(Mono<T> call, boolean recordCancel) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                AtomicBoolean recorded = new AtomicBoolean();
+                Runnable record = () -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        long end = System.nanoTime();
+                        latency.record(end - start, TimeUnit.NANOSECONDS);
+                        rotate(end);
+                        currentBucket.increment();
+                    }
+                };
+                Mono<T> timed = call.doOnSuccess(value -> record.run());
+                return recordCancel ? timed.doOnCancel(record) : timed;
+            });
+        }
+    }
+}
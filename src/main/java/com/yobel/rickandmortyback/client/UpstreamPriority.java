@@ -0,0 +1,30 @@
+package com.yobel.rickandmortyback.client;
+
+import reactor.util.context.Context;
+
+/**
+ * Priority classes of upstream requests, read by {@link UpstreamScheduler} from the Reactor context of
+ * the call. Requests made without a priority in their context are interactive.
+ */
+public enum UpstreamPriority {
+    /**
+     * Requests a client is waiting for
+     */
+    INTERACTIVE,
+
+    /**
+     * Requests made by background work such as mirror refreshes, prefetches or bulk crawls, sent only
+     * when no interactive request is waiting
+     */
+    BACKGROUND;
+
+    /**
+     * Returns a context assigning this priority to the upstream calls of a pipeline, to be passed to
+     * {@code contextWrite}.
+     *
+     * @return A context holding this priority
+     */
+    public Context context() {
+        return Context.of(UpstreamPriority.class, this);
+    }
+}
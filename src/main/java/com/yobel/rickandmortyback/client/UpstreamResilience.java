@@ -0,0 +1,205 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.config.UpstreamResilienceProperties;
+import com.yobel.rickandmortyback.exception.UpstreamUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.PrematureCloseException;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Resilience layer shared by every upstream call.
+ * <p>
+ * Each call is wrapped, from the inside out, in:
+ * </p>
+ * <ul>
+ *     <li>The caller's own request timeout</li>
+ *     <li>A concurrency bulkhead, which rejects calls immediately once the configured number of
+ *     calls is in flight, instead of queueing them behind a slow upstream</li>
+ *     <li>A circuit breaker, which opens when too many calls fail or are slow and then lets a few
+ *     probe calls through after a wait period before closing again</li>
+ *     <li>A bounded retry with exponential backoff and jitter, applied only to transient failures
+ *     of these idempotent GET requests: 5xx and 429 responses, timeouts and connection errors</li>
+ *     <li>An overall {@link UpstreamResilienceProperties#getDeadline() deadline}, so that retries cannot
+ *     multiply the time a caller waits</li>
+ * </ul>
+ * <p>
+ * Every attempt, retries included, first waits for a token from the {@link UpstreamScheduler}. The wait
+ * happens before the timeout, the circuit breaker and the bulkhead see the attempt, so a queued request
+ * holds no bulkhead slot and its time in the queue is not measured as upstream latency. The deadline
+ * starts once the first attempt is sent.
+ * </p>
+ * <p>
+ * Calls rejected by the bulkhead or the open circuit fail fast with
+ * {@link UpstreamUnavailableException}. Client errors such as 404 and bulkhead rejections are
+ * neither retried nor counted by the circuit breaker, and requests rejected by the {@link UpstreamScheduler} are neither
+ * retried nor seen by it, since they never reached the upstream.
+ * </p>
+ */
+@Component
+@Log4j2
+public class UpstreamResilience {
+    /**
+     * Name of the circuit breaker and bulkhead, used in logs and metrics
+     */
+    private static final String NAME = "rick-and-morty-api";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final UpstreamResilienceProperties.Retry retry;
+    private final Duration deadline;
+    private final UpstreamScheduler scheduler;
+
+    /**
+     * Constructs a new UpstreamResilience.
+     *
+     * @param properties The resilience configuration
+     * @param scheduler  The scheduler every attempt takes a token from before it is sent
+     */
+    public UpstreamResilience(UpstreamResilienceProperties properties, UpstreamScheduler scheduler) {
+        UpstreamResilienceProperties.CircuitBreaker breaker = properties.getCircuitBreaker();
+        this.circuitBreaker = CircuitBreaker.of(NAME, CircuitBreakerConfig.custom()
+                .failureRateThreshold(breaker.getFailureRateThreshold())
+                .slowCallRateThreshold(breaker.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(breaker.getSlowCallDuration())
+                .slidingWindowSize(breaker.getSlidingWindowSize())
+                .minimumNumberOfCalls(breaker.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(breaker.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(breaker.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(false)
+                .recordException(UpstreamResilience::isTransient)
+                // Calls rejected by the bulkhead never reached the upstream
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        this.bulkhead = Bulkhead.of(NAME, BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getBulkhead().getMaxConcurrentCalls())
+                .maxWaitDuration(properties.getBulkhead().getMaxWait())
+                .build());
+        this.retry = properties.getRetry();
+        this.deadline = properties.getDeadline();
+        this.scheduler = scheduler;
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Upstream circuit breaker {}", event.getStateTransition()));
+    }
+
+    /**
+     * Protects a single-value upstream call.
+     *
+     * @param call The upstream call
+     * @param <T>  The type of the response
+     * @return The protected call
+     */
+    public <T> Mono<T> guard(Mono<T> call) {
+        Mono<T> protectedCall = call
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+        return scheduler.acquire()
+                .then(protectedCall
+                        .retryWhen(retrySpec(ex -> true))
+                        .timeout(deadline))
+                .onErrorMap(UpstreamResilience::isRejection, UpstreamResilience::unavailable);
+    }
+
+    /**
+     * Protects a streamed upstream call. The bulkhead slot is held until the stream terminates, and
+     * the call is only retried if it failed before emitting its first element, so subscribers never
+     * receive duplicates. The deadline bounds the time until the first element; the call's own timeout
+     * bounds the gaps between the following ones.
+     *
+     * @param call The upstream call
+     * @param <T>  The type of the elements
+     * @return The protected call
+     */
+    public <T> Flux<T> guard(Flux<T> call) {
+        return Flux.defer(() -> {
+                    AtomicBoolean emitted = new AtomicBoolean();
+                    Flux<T> protectedCall = call
+                            .transformDeferred(BulkheadOperator.of(bulkhead))
+                            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+                    return scheduler.acquire()
+                            .thenMany(protectedCall
+                                    .doOnNext(element -> emitted.set(true))
+                                    .retryWhen(retrySpec(ex -> !emitted.get()))
+                                    .timeout(Mono.delay(deadline)));
+                })
+                .onErrorMap(UpstreamResilience::isRejection, UpstreamResilience::unavailable);
+    }
+
+    /**
+     * Returns the circuit breaker protecting the upstream.
+     *
+     * @return The circuit breaker
+     */
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Returns the bulkhead limiting concurrent upstream calls.
+     *
+     * @return The bulkhead
+     */
+    public Bulkhead bulkhead() {
+        return bulkhead;
+    }
+
+    private Retry retrySpec(Predicate<Throwable> allowed) {
+        return Retry.backoff(retry.getMaxRetries(), retry.getMinBackoff())
+                .maxBackoff(retry.getMaxBackoff())
+                .jitter(retry.getJitter())
+                .filter(ex -> isTransient(ex) && allowed.test(ex))
+                .doBeforeRetry(signal -> log.debug("Retrying upstream call (attempt {}) after {}",
+                        signal.totalRetries() + 1, signal.failure().toString()))
+                // Retries wait for a token like first attempts, after the backoff
+                .doAfterRetryAsync(signal -> scheduler.acquire())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    /**
+     * Indicates whether a failure is transient, i.e. worth retrying and counted by the circuit breaker.
+     *
+     * @param ex The failure of an upstream call
+     * @return true for 5xx and 429 responses, timeouts and connection errors
+     */
+    static boolean isTransient(Throwable ex) {
+        if (ex instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError()
+                    || response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return ex instanceof WebClientRequestException
+                || ex instanceof TimeoutException
+                || ex instanceof PrematureCloseException
+                || ex instanceof io.netty.handler.timeout.TimeoutException
+                || ex instanceof IOException;
+    }
+
+    private static boolean isRejection(Throwable ex) {
+        return ex instanceof CallNotPermittedException || ex instanceof BulkheadFullException;
+    }
+
+    private static Throwable unavailable(Throwable ex) {
+        String reason = ex instanceof CallNotPermittedException
+                ? "Rick and Morty API circuit is open"
+                : "Too many concurrent requests to the Rick and Morty API";
+        return new UpstreamUnavailableException(reason, ex);
+    }
+}
@@ -0,0 +1,137 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Base client for a paginated resource of the Rick and Morty API, such as {@code /episode} or {@code /location}.
+ * <p>
+ * Every call is bounded by {@value #REQUEST_TIMEOUT_SECONDS} seconds, goes through the
+ * {@link UpstreamResilience} layer and has its failures translated by {@link UpstreamErrors}.
+ * </p>
+ *
+ * @param <T> The type of the resource
+ * @param <P> The type of a page of the resource
+ */
+public abstract class UpstreamResourceClient<T, P> {
+    /**
+     * Timeout of API requests, in seconds
+     */
+    private static final long REQUEST_TIMEOUT_SECONDS = 10;
+    /**
+     * Timeout duration for API requests
+     */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(REQUEST_TIMEOUT_SECONDS);
+
+    private final WebClient webClient;
+    private final UpstreamResilience resilience;
+    private final String path;
+    private final String resourceName;
+    private final Class<T> resourceType;
+    private final Class<P> pageType;
+
+    /**
+     * Constructs a new UpstreamResourceClient.
+     *
+     * @param webClient    The WebClient to use for making API requests
+     * @param resilience   The resilience layer wrapped around every call
+     * @param path         Path to the resource endpoint, such as {@code /episode}
+     * @param resourceName Name of the resource in error messages, such as {@code Episode}
+     * @param resourceType The type of the resource
+     * @param pageType     The type of a page of the resource
+     */
+    protected UpstreamResourceClient(WebClient webClient, UpstreamResilience resilience, String path,
+                                     String resourceName, Class<T> resourceType, Class<P> pageType) {
+        this.webClient = webClient;
+        this.resilience = resilience;
+        this.path = path;
+        this.resourceName = resourceName;
+        this.resourceType = resourceType;
+        this.pageType = pageType;
+    }
+
+    /**
+     * Fetches a specific page of the resource endpoint.
+     *
+     * @param page The page number to fetch
+     * @return A Mono containing the requested page
+     * @throws ResourceNotFoundException if the page does not exist
+     */
+    public Mono<P> fetchPage(int page) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(path)
+                        .queryParam("page", page)
+                        .build())
+                .retrieve()
+                .bodyToMono(pageType)
+                .timeout(REQUEST_TIMEOUT)
+                .transform(resilience::guard)
+                .onErrorResume(WebClientResponseException.class,
+                        ex -> notFound(ex, resourceName + " page " + page + " not found"))
+                .onErrorMap(UpstreamErrors::translate);
+    }
+
+    /**
+     * Fetches a specific resource by its ID.
+     *
+     * @param id The ID of the resource to fetch
+     * @return A Mono containing the resource if found
+     * @throws ResourceNotFoundException if the resource with the given ID is not found
+     */
+    public Mono<T> fetchById(int id) {
+        return webClient.get()
+                .uri(path + "/{id}", id)
+                .retrieve()
+                .bodyToMono(resourceType)
+                .timeout(REQUEST_TIMEOUT)
+                .transform(resilience::guard)
+                .onErrorResume(WebClientResponseException.class,
+                        ex -> notFound(ex, resourceName + " with ID " + id + " not found"))
+                .onErrorMap(UpstreamErrors::translate);
+    }
+
+    /**
+     * Fetches several resources in a single request using the multi-ID form, such as {@code /episode/1,2,3}.
+     * <p>
+     * IDs that do not exist are simply absent from the result. A single ID is sent to the single-ID
+     * endpoint, because the upstream API answers {@code /episode/1} with an object instead of an array.
+     * </p>
+     *
+     * @param ids The IDs of the resources to fetch
+     * @return A Flux containing the resources that were found
+     */
+    public Flux<T> fetchByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        if (ids.size() == 1) {
+            return fetchById(ids.iterator().next())
+                    .onErrorResume(ResourceNotFoundException.class, ex -> Mono.empty())
+                    .flux();
+        }
+        String joinedIds = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return webClient.get()
+                .uri(path + "/" + joinedIds)
+                .retrieve()
+                .bodyToFlux(resourceType)
+                .timeout(REQUEST_TIMEOUT)
+                .transform(resilience::guard)
+                .onErrorMap(UpstreamErrors::translate);
+    }
+
+    private static <R> Mono<R> notFound(WebClientResponseException ex, String message) {
+        if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
+            return Mono.error(new ResourceNotFoundException(message));
+        }
+        return Mono.error(ex);
+    }
+}
@@ -0,0 +1,397 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.config.UpstreamSchedulerProperties;
+import com.yobel.rickandmortyback.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler through which every request to the upstream API is sent.
+ * <p>
+ * {@link UpstreamResilience} takes a token before each attempt, ahead of the bulkhead, the circuit breaker
+ * and the request timeout, so time spent queueing is neither counted as upstream latency nor holds a
+ * bulkhead slot. The scheduler is also registered as a filter of the upstream {@code WebClient}, where it
+ * only observes the responses.
+ * </p>
+ * <p>
+ * Requests take a token from a bucket holding up to {@link UpstreamSchedulerProperties#getBurst()} tokens
+ * and refilled at the current rate. When the bucket is empty, requests wait in one bounded queue per
+ * {@link UpstreamPriority}, and each new token goes to the oldest interactive request before any
+ * background request. A request that finds its queue full, or waits longer than the queue allows, fails
+ * immediately with {@link UpstreamUnavailableException}, which is neither retried nor counted by the
+ * circuit breaker, and may be answered by the stale fallback.
+ * </p>
+ * <p>
+ * The scheduler follows the upstream's own limits. A 429 response pauses every request for its
+ * {@code Retry-After} delay and halves the rate, once per pause, which then climbs back linearly over
+ * {@link UpstreamSchedulerProperties#getRecoveryTime()}. A response announcing that no requests remain
+ * ({@code RateLimit-Remaining} or {@code X-RateLimit-Remaining} at 0) pauses requests until the
+ * announced reset without lowering the rate.
+ * </p>
+ * <p>
+ * Queue depths are published as {@code upstream.scheduler.queue.depth}, time spent waiting for a token
+ * as {@code upstream.scheduler.wait}, rejections as {@code upstream.scheduler.rejections}, all tagged by
+ * {@code priority}, and the current rate as {@code upstream.scheduler.rate}.
+ * </p>
+ */
+@Component
+@Log4j2
+public class UpstreamScheduler implements ExchangeFilterFunction {
+    private static final String RATE_LIMIT_REMAINING = "RateLimit-Remaining";
+    private static final String RATE_LIMIT_RESET = "RateLimit-Reset";
+    private static final String X_RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+    private static final String X_RATE_LIMIT_RESET = "X-RateLimit-Reset";
+    /**
+     * Reset values above this are epoch seconds rather than a number of seconds to wait
+     */
+    private static final long EPOCH_SECONDS_THRESHOLD = 1_000_000_000L;
+
+    private final UpstreamSchedulerProperties properties;
+    private final Scheduler timer = Schedulers.parallel();
+    private final Map<UpstreamPriority, ArrayDeque<Waiter>> queues = new EnumMap<>(UpstreamPriority.class);
+    private final Map<UpstreamPriority, Timer> waitTimers = new EnumMap<>(UpstreamPriority.class);
+    private final Map<UpstreamPriority, Counter> rejections = new EnumMap<>(UpstreamPriority.class);
+
+    // Token bucket state, guarded by this
+    private double tokens;
+    private double rate;
+    private long refilledAt;
+    private long pausedUntil;
+    private boolean drainScheduled;
+
+    /**
+     * A request waiting for a token.
+     */
+    private record Waiter(MonoSink<Void> sink, UpstreamPriority priority, long enqueuedAt) {
+    }
+
+    /**
+     * Constructs a new UpstreamScheduler with a full bucket.
+     *
+     * @param properties    The scheduler configuration
+     * @param meterRegistry The registry receiving the scheduler metrics
+     */
+    public UpstreamScheduler(UpstreamSchedulerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.tokens = properties.getBurst();
+        this.rate = properties.getRate();
+        this.refilledAt = System.nanoTime();
+        this.pausedUntil = refilledAt;
+        for (UpstreamPriority priority : UpstreamPriority.values()) {
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            queues.put(priority, new ArrayDeque<>());
+            Gauge.builder("upstream.scheduler.queue.depth", this, scheduler -> scheduler.depth(priority))
+                    .description("Upstream requests waiting for a token")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            waitTimers.put(priority, Timer.builder("upstream.scheduler.wait")
+                    .description("Time upstream requests waited for a token")
+                    .tag("priority", tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            rejections.put(priority, Counter.builder("upstream.scheduler.rejections")
+                    .description("Upstream requests rejected because their queue was full or they waited too long")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("upstream.scheduler.rate", this, UpstreamScheduler::currentRate)
+                .description("Current upstream request rate, in requests per second")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return next.exchange(request).doOnNext(this::onResponse);
+    }
+
+    /**
+     * Waits for a token, with the {@link UpstreamPriority} found in the subscriber context, interactive
+     * by default.
+     *
+     * @return A Mono completing when the request may be sent, or failing with
+     * {@link UpstreamUnavailableException} if it is rejected
+     */
+    public Mono<Void> acquire() {
+        return Mono.deferContextual(context ->
+                acquire(context.getOrDefault(UpstreamPriority.class, UpstreamPriority.INTERACTIVE)));
+    }
+
+    /**
+     * Waits for a token.
+     *
+     * @param priority The priority of the request
+     * @return A Mono completing when the request may be sent, or failing with
+     * {@link UpstreamUnavailableException} if it is rejected
+     */
+    Mono<Void> acquire(UpstreamPriority priority) {
+        if (!properties.isEnabled()) {
+            return Mono.empty();
+        }
+        UpstreamSchedulerProperties.Queue settings = settings(priority);
+        Mono<Void> turn = Mono.create(sink -> {
+            long now = System.nanoTime();
+            Waiter waiter = new Waiter(sink, priority, now);
+            boolean granted = false;
+            boolean rejected = false;
+            synchronized (this) {
+                refill(now);
+                if (tokens >= 1 && !isPaused(now) && !hasWaitersFrom(priority)) {
+                    tokens -= 1;
+                    granted = true;
+                } else if (queues.get(priority).size() >= settings.getCapacity()) {
+                    rejected = true;
+                } else {
+                    queues.get(priority).addLast(waiter);
+                    scheduleDrain(now);
+                }
+            }
+            if (granted) {
+                waitTimers.get(priority).record(0, TimeUnit.NANOSECONDS);
+                sink.success();
+            } else if (rejected) {
+                sink.error(reject(priority, "queue is full"));
+            } else {
+                sink.onCancel(() -> remove(waiter));
+            }
+        });
+        if (settings.getMaxWait().isZero()) {
+            return turn;
+        }
+        return turn.timeout(settings.getMaxWait(),
+                Mono.error(() -> reject(priority, "request waited more than " + settings.getMaxWait())));
+    }
+
+    /**
+     * Returns the current rate, lowered after 429 responses.
+     *
+     * @return The number of requests per second currently allowed
+     */
+    synchronized double currentRate() {
+        refill(System.nanoTime());
+        return rate;
+    }
+
+    private synchronized int depth(UpstreamPriority priority) {
+        return queues.get(priority).size();
+    }
+
+    private void onResponse(ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        if (response.statusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            Duration retryAfter = retryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER), Instant.now());
+            throttle(retryAfter != null ? retryAfter : properties.getDefaultRetryAfter(), true);
+            return;
+        }
+        String remaining = headers.getFirst(RATE_LIMIT_REMAINING) != null
+                ? headers.getFirst(RATE_LIMIT_REMAINING)
+                : headers.getFirst(X_RATE_LIMIT_REMAINING);
+        if (remaining != null && remaining.trim().equals("0")) {
+            String reset = headers.getFirst(RATE_LIMIT_RESET) != null
+                    ? headers.getFirst(RATE_LIMIT_RESET)
+                    : headers.getFirst(X_RATE_LIMIT_RESET);
+            Duration untilReset = resetDelay(reset, Instant.now());
+            if (untilReset != null) {
+                throttle(untilReset, false);
+            }
+        }
+    }
+
+    private void throttle(Duration pause, boolean slowDown) {
+        Duration bounded = pause.compareTo(properties.getMaxPause()) > 0 ? properties.getMaxPause() : pause;
+        double lowered;
+        boolean wasPaused;
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            wasPaused = isPaused(now);
+            long until = now + bounded.toNanos();
+            if (until - pausedUntil > 0) {
+                pausedUntil = until;
+            }
+            tokens = 0;
+            // Responses to requests sent before the pause report the same limit, so the rate is
+            // lowered once per pause
+            if (slowDown && !wasPaused) {
+                rate = Math.max(properties.getMinRate(), rate / 2);
+            }
+            lowered = rate;
+        }
+        if (!wasPaused) {
+            log.warn("Upstream rate limit reached, pausing requests for {} at {} requests/s", bounded,
+                    String.format("%.1f", lowered));
+        }
+    }
+
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (this) {
+            drainScheduled = false;
+            refill(now);
+            while (tokens >= 1 && !isPaused(now)) {
+                Waiter waiter = poll();
+                if (waiter == null) {
+                    break;
+                }
+                tokens -= 1;
+                granted.add(waiter);
+            }
+            if (hasWaiters()) {
+                scheduleDrain(now);
+            }
+        }
+        for (Waiter waiter : granted) {
+            waitTimers.get(waiter.priority()).record(now - waiter.enqueuedAt(), TimeUnit.NANOSECONDS);
+            waiter.sink().success();
+        }
+    }
+
+    /**
+     * Schedules the next drain for when a token becomes available. Must be called while holding the lock.
+     */
+    private void scheduleDrain(long now) {
+        if (drainScheduled) {
+            return;
+        }
+        long untilToken = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / rate * 1e9);
+        long delay = Math.max(untilToken, pausedUntil - now);
+        drainScheduled = true;
+        timer.schedule(this::drain, Math.max(0, delay), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Adds the tokens earned since the last refill, none being earned while paused, and lets a lowered
+     * rate recover. Must be called while holding the lock.
+     */
+    private void refill(long now) {
+        long earningSince = refilledAt - pausedUntil < 0 ? pausedUntil : refilledAt;
+        double elapsedSeconds = Math.max(0, now - earningSince) / 1e9;
+        double configuredRate = properties.getRate();
+        if (rate < configuredRate) {
+            double recoverySeconds = Math.max(1e-3, properties.getRecoveryTime().toNanos() / 1e9);
+            rate = Math.min(configuredRate, rate + configuredRate * (Math.max(0, now - refilledAt) / 1e9) / recoverySeconds);
+        }
+        tokens = Math.min(properties.getBurst(), tokens + elapsedSeconds * rate);
+        refilledAt = now;
+    }
+
+    private boolean isPaused(long now) {
+        return pausedUntil - now > 0;
+    }
+
+    /**
+     * Indicates whether requests of the given priority or above are waiting, in which case a new request
+     * of that priority must queue behind them. Must be called while holding the lock.
+     */
+    private boolean hasWaitersFrom(UpstreamPriority priority) {
+        for (UpstreamPriority other : UpstreamPriority.values()) {
+            if (!queues.get(other).isEmpty()) {
+                return true;
+            }
+            if (other == priority) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasWaiters() {
+        return queues.values().stream().anyMatch(queue -> !queue.isEmpty());
+    }
+
+    private Waiter poll() {
+        for (UpstreamPriority priority : UpstreamPriority.values()) {
+            Waiter waiter = queues.get(priority).pollFirst();
+            if (waiter != null) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void remove(Waiter waiter) {
+        queues.get(waiter.priority()).remove(waiter);
+    }
+
+    private UpstreamSchedulerProperties.Queue settings(UpstreamPriority priority) {
+        return priority == UpstreamPriority.INTERACTIVE ? properties.getInteractive() : properties.getBackground();
+    }
+
+    private UpstreamUnavailableException reject(UpstreamPriority priority, String reason) {
+        rejections.get(priority).increment();
+        return new UpstreamUnavailableException("Rick and Morty API request not sent: " + reason);
+    }
+
+    /**
+     * Parses a {@code Retry-After} value, either a number of seconds or an HTTP date.
+     *
+     * @param value The header value, may be null
+     * @param now   The current time
+     * @return The delay to wait, or null if the value is missing or malformed
+     */
+    static Duration retryAfter(String value, Instant now) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException ex) {
+            try {
+                Instant at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return at.isAfter(now) ? Duration.between(now, at) : Duration.ZERO;
+            } catch (DateTimeParseException dateEx) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Parses a rate-limit reset value, either a number of seconds or, for large values, epoch seconds.
+     *
+     * @param value The header value, may be null
+     * @param now   The current time
+     * @return The delay until the reset, or null if the value is missing or malformed
+     */
+    static Duration resetDelay(String value, Instant now) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            long seconds = Long.parseLong(value.trim());
+            if (seconds > EPOCH_SECONDS_THRESHOLD) {
+                Instant at = Instant.ofEpochSecond(seconds);
+                return at.isAfter(now) ? Duration.between(now, at) : Duration.ZERO;
+            }
+            return Duration.ofSeconds(Math.max(0, seconds));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for batching lookups by ID.
+ * <p>
+ * Bound from the {@code character.batch.*} namespace. Lookups arriving within the same window are
+ * merged into a single multi-ID upstream request such as {@code /character/1,2,3}.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.batch")
+public class CharacterBatchProperties {
+    /**
+     * Whether concurrent lookups by ID are merged into multi-ID requests
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long the first lookup of a batch waits for others to join
+     */
+    private Duration window = Duration.ofMillis(3);
+
+    /**
+     * Number of distinct IDs that triggers an immediate request without waiting for the window
+     */
+    private int maxSize = 20;
+}
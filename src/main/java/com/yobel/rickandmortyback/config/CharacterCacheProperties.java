@@ -0,0 +1,32 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-memory character cache.
+ * <p>
+ * Bound from the {@code character.cache.*} namespace. The cache is backed by Caffeine,
+ * which uses a size-capped W-TinyLFU eviction policy.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.cache")
+public class CharacterCacheProperties {
+    /**
+     * Whether lookups by ID are served through the cache
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of characters kept in memory
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Time a cached character stays valid after it was fetched
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
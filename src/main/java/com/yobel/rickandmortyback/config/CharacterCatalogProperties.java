@@ -0,0 +1,25 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for walking the full character catalog.
+ * <p>
+ * Bound from the {@code character.catalog.*} namespace and used when every upstream page
+ * of {@code /character} has to be fetched, e.g. for {@code GET /api/characters}.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.catalog")
+public class CharacterCatalogProperties {
+    /**
+     * Maximum number of upstream pages fetched at the same time
+     */
+    private int pageConcurrency = 4;
+
+    /**
+     * Whether characters are emitted in page order by default instead of as pages arrive
+     */
+    private boolean ordered = false;
+}
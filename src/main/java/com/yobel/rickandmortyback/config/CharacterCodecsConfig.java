@@ -0,0 +1,57 @@
+package com.yobel.rickandmortyback.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Configuration of the formats the endpoints can be negotiated to.
+ * <p>
+ * Registers CBOR, Smile and Protocol Buffers (see {@link CharacterMediaTypes}) on the server codecs only;
+ * the upstream client keeps speaking JSON. The CBOR and Smile mappers are built from the Boot-managed
+ * {@link Jackson2ObjectMapperBuilder}, so they share the modules and {@code spring.jackson.*} settings of
+ * the JSON mapper and every format carries the same fields.
+ * </p>
+ * <p>
+ * Every response encoder applies the {@link CharacterProjection} requested with {@code fields}, JSON
+ * included, through {@link CharacterJackson2Encoders}.
+ * </p>
+ */
+@Configuration
+public class CharacterCodecsConfig implements WebFluxConfigurer {
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public CharacterCodecsConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        // The builder is a prototype, so this instance is not shared and can switch factories between
+        // builds. Media types are passed explicitly: without them the Jackson codecs fall back to JSON
+        CharacterProjection.configure(objectMapperBuilder);
+
+        // Boot's own configurer also sets the default JSON encoder and may run after this one, so the
+        // projecting encoder is registered as a custom codec, which takes precedence over the defaults
+        ObjectMapper jsonMapper = objectMapperBuilder.build();
+        configurer.customCodecs().register(new CharacterJackson2Encoders.Json(jsonMapper));
+
+        ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+        configurer.defaultCodecs().jackson2SmileEncoder(new CharacterJackson2Encoders.Smile(smileMapper));
+        configurer.defaultCodecs().jackson2SmileDecoder(
+                new Jackson2SmileDecoder(smileMapper, CharacterMediaTypes.APPLICATION_SMILE));
+
+        ObjectMapper cborMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+        configurer.customCodecs().register(new CharacterJackson2Encoders.Cbor(cborMapper));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+
+        configurer.customCodecs().register(new CharacterProtobufEncoder());
+    }
+}
@@ -0,0 +1,26 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for expanding character relationships.
+ * <p>
+ * Bound from the {@code character.expand.*} namespace. Episodes and locations referenced by a response
+ * are resolved with multi-ID requests such as {@code /episode/1,2,3}; these settings bound the size and
+ * parallelism of those requests.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.expand")
+public class CharacterExpandProperties {
+    /**
+     * Maximum number of IDs sent in one multi-ID upstream request
+     */
+    private int maxIdsPerRequest = 100;
+
+    /**
+     * Maximum number of multi-ID requests of the same resource in flight at the same time
+     */
+    private int concurrency = 2;
+}
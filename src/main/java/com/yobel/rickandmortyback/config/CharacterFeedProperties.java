@@ -0,0 +1,78 @@
+package com.yobel.rickandmortyback.config;
+
+import com.yobel.rickandmortyback.exception.BadRequestException;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the change feed of the character mirror.
+ * <p>
+ * Bound from the {@code character.feed.*} namespace. The feed streams the difference between
+ * consecutive mirror snapshots as server-sent events, so it only carries data while
+ * {@code character.mirror.enabled} is set.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.feed")
+public class CharacterFeedProperties {
+    /**
+     * Number of recent changes kept to resume subscribers reconnecting with {@code Last-Event-ID};
+     * older versions receive the whole catalog again
+     */
+    private int history = 32;
+
+    /**
+     * Policy applied to a subscriber that reads slower than changes are published, unless it asks for
+     * another one with the {@code overflow} query parameter
+     */
+    private Overflow overflow = Overflow.COALESCE;
+
+    /**
+     * Number of changes buffered for a slow subscriber under {@link Overflow#DROP} before the oldest
+     * ones are dropped
+     */
+    private int bufferSize = 16;
+
+    /**
+     * Interval of the comments sent to keep idle connections open through proxies
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /**
+     * Policies for subscribers that cannot keep up with the feed.
+     */
+    public enum Overflow {
+        /**
+         * Pending changes are merged into a single change, so the subscriber always ends up with the
+         * latest catalog
+         */
+        COALESCE,
+
+        /**
+         * Changes beyond the buffer are dropped, oldest first; the subscriber detects the gap from the
+         * versions and reconnects with {@code Last-Event-ID} to catch up
+         */
+        DROP;
+
+        /**
+         * Parses the {@code overflow} query parameter, ignoring case.
+         *
+         * @param value The parameter value, or null
+         * @return The selected policy, or null if none was given
+         * @throws BadRequestException if the value names no policy
+         */
+        public static Overflow parse(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            for (Overflow overflow : values()) {
+                if (overflow.name().equalsIgnoreCase(value.trim())) {
+                    return overflow;
+                }
+            }
+            throw new BadRequestException("Unknown overflow value: " + value);
+        }
+    }
+}
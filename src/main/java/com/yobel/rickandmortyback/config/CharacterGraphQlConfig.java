@@ -0,0 +1,106 @@
+package com.yobel.rickandmortyback.config;
+
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Episode;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.service.CharacterService;
+import com.yobel.rickandmortyback.service.EpisodeService;
+import com.yobel.rickandmortyback.service.LocationService;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+
+import java.util.Collection;
+
+/**
+ * DataLoaders of the GraphQL API and limits applied to every GraphQL query before it is executed.
+ * <p>
+ * Each request gets its own loaders from the {@link BatchLoaderRegistry} declared here: the IDs requested
+ * by all the fields of one level are deduplicated and resolved together with multi-ID calls, and what was
+ * loaded is reused by deeper levels of the same query.
+ * </p>
+ * <p>
+ * Spring Boot registers the instrumentations declared here with the GraphQL engine. A query deeper than
+ * {@link CharacterGraphQlProperties#getMaxDepth()} or more complex than
+ * {@link CharacterGraphQlProperties#getMaxComplexity()} is rejected as a whole with a validation error,
+ * so no upstream request is made for it.
+ * </p>
+ * <p>
+ * Complexity is computed bottom-up: a field counts one plus the complexity of its selection, multiplied
+ * by the expected number of elements when the field returns a list. That number is the size of the
+ * {@code ids} argument, or the number of results a {@code limit} argument lets through, capped and
+ * defaulted as the search does, and {@link CharacterGraphQlProperties#getListSize()} for other lists, so
+ * the score grows with the fan-out of nested lists as the upstream work does.
+ * </p>
+ */
+@Configuration
+public class CharacterGraphQlConfig {
+    private final CharacterGraphQlProperties properties;
+    private final CharacterSearchProperties searchProperties;
+
+    public CharacterGraphQlConfig(CharacterGraphQlProperties properties, CharacterSearchProperties searchProperties) {
+        this.properties = properties;
+        this.searchProperties = searchProperties;
+    }
+
+    @Bean
+    public BatchLoaderRegistry batchLoaderRegistry(CharacterService characterService, EpisodeService episodeService,
+                                                   LocationService locationService) {
+        BatchLoaderRegistry registry = new DefaultBatchLoaderRegistry();
+        registry.forTypePair(Integer.class, Character.class)
+                .registerMappedBatchLoader((ids, environment) ->
+                        characterService.getCharactersByIds(ids).collectMap(Character::getId));
+        registry.forTypePair(Integer.class, Episode.class)
+                .registerMappedBatchLoader((ids, environment) ->
+                        episodeService.getEpisodesByIds(ids).collectMap(Episode::getId));
+        registry.forTypePair(Integer.class, Location.class)
+                .registerMappedBatchLoader((ids, environment) ->
+                        locationService.getLocationsByIds(ids).collectMap(Location::getId));
+        return registry;
+    }
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation() {
+        return new MaxQueryDepthInstrumentation(properties.getMaxDepth());
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation() {
+        return new MaxQueryComplexityInstrumentation(properties.getMaxComplexity(), this::complexity);
+    }
+
+    /**
+     * Computes the complexity of a field.
+     *
+     * @param environment     The field being scored
+     * @param childComplexity The complexity of its selection
+     * @return The complexity of the field, saturated at {@link Integer#MAX_VALUE}
+     */
+    private int complexity(FieldComplexityEnvironment environment, int childComplexity) {
+        if (!(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()) instanceof GraphQLList)) {
+            return 1 + childComplexity;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, 1L + (long) listSize(environment) * childComplexity);
+    }
+
+    /**
+     * Returns the number of elements expected from a list field.
+     */
+    private int listSize(FieldComplexityEnvironment environment) {
+        if (environment.getArguments().get("ids") instanceof Collection<?> ids) {
+            return ids.size();
+        }
+        if (environment.getFieldDefinition().getArgument("limit") != null) {
+            Object limit = environment.getArguments().get("limit");
+            return Math.min(limit instanceof Integer value ? value : searchProperties.getDefaultLimit(),
+                    searchProperties.getMaxLimit());
+        }
+        return properties.getListSize();
+    }
+}
@@ -0,0 +1,38 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the GraphQL API.
+ * <p>
+ * Bound from the {@code character.graphql.*} namespace. A single GraphQL query can walk from characters
+ * to their episodes, to the characters of those episodes and so on, so these limits bound the upstream
+ * work one request can cause. Queries over a limit are rejected before any field is fetched.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.graphql")
+public class CharacterGraphQlProperties {
+    /**
+     * Maximum nesting depth of a query
+     */
+    private int maxDepth = 6;
+
+    /**
+     * Maximum complexity of a query, where every field counts one and the fields below a list count
+     * once per expected element
+     */
+    private int maxComplexity = 2000;
+
+    /**
+     * Number of elements assumed for list fields whose size is not given by an {@code ids} or {@code limit}
+     * argument
+     */
+    private int listSize = 20;
+
+    /**
+     * Maximum number of IDs accepted by the {@code ids} argument of a query
+     */
+    private int maxIds = 100;
+}
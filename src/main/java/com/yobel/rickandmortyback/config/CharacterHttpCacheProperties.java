@@ -0,0 +1,69 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for HTTP caching of the character endpoints.
+ * <p>
+ * Bound from the {@code character.http-cache.*} namespace. Each route has its own
+ * {@code Cache-Control} policy, keyed by route name: {@code all}, {@code page}, {@code by-id}
+ * and {@code search}. Routes without a policy are sent without {@code Cache-Control}, but still
+ * carry validators.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.http-cache")
+public class CharacterHttpCacheProperties {
+    /**
+     * Whether entity tags and {@code Cache-Control} are sent
+     */
+    private boolean enabled = true;
+
+    /**
+     * Cache-Control policy per route
+     */
+    private Map<String, Policy> routes = new LinkedHashMap<>(Map.of(
+            "all", new Policy(Duration.ofMinutes(5), Duration.ofHours(1)),
+            "page", new Policy(Duration.ofMinutes(5), Duration.ofHours(1)),
+            "by-id", new Policy(Duration.ofMinutes(5), Duration.ofHours(1)),
+            "search", new Policy(Duration.ofMinutes(1), Duration.ofMinutes(10))));
+
+    /**
+     * Cache-Control policy of a route.
+     */
+    @Data
+    public static class Policy {
+        /**
+         * Time a response is fresh, sent as {@code max-age}
+         */
+        private Duration maxAge = Duration.ofMinutes(5);
+
+        /**
+         * Time a stale response may still be served while it is revalidated in the background
+         */
+        private Duration staleWhileRevalidate = Duration.ofHours(1);
+
+        /**
+         * Time a stale response may still be served when revalidation fails; zero omits the directive
+         */
+        private Duration staleIfError = Duration.ofDays(1);
+
+        /**
+         * Whether shared caches such as CDNs may store the response ({@code public})
+         */
+        private boolean shared = true;
+
+        public Policy() {
+        }
+
+        Policy(Duration maxAge, Duration staleWhileRevalidate) {
+            this.maxAge = maxAge;
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for the character image proxy.
+ * <p>
+ * Bound from the {@code character.images.*} namespace. Avatars are fetched from the upstream API once,
+ * stored with their thumbnails in {@link #directory} and served from there until they are evicted.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.images")
+public class CharacterImageProperties {
+    /**
+     * Directory holding the cached avatars; it is created if missing and its content survives restarts
+     */
+    private Path directory = Path.of("data/images");
+
+    /**
+     * Maximum disk space used by the cached avatars and thumbnails; the least recently used are deleted
+     * beyond it
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    /**
+     * Time the files of an evicted avatar are kept before they are deleted, so that responses which
+     * already resolved them can still open them
+     */
+    private Duration evictionGrace = Duration.ofMinutes(1);
+
+    /**
+     * Widths, in pixels, of the thumbnails generated alongside each avatar and selectable with the
+     * {@code size} parameter; empty to serve the original only
+     */
+    private List<Integer> thumbnailSizes = new ArrayList<>(List.of(64, 128));
+
+    /**
+     * Time clients and shared caches may keep an image, sent as {@code max-age} with {@code immutable}
+     */
+    private Duration maxAge = Duration.ofDays(30);
+}
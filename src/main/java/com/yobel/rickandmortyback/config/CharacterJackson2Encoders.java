@@ -0,0 +1,142 @@
+package com.yobel.rickandmortyback.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Hints;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jackson encoders of the responses, applying the {@link CharacterProjection} requested with
+ * {@code fields}.
+ * <p>
+ * The binary encoders also write streams as a single array. {@link Jackson2CborEncoder} does not encode
+ * streams at all, and {@link Jackson2SmileEncoder} joins the elements of a non-streaming media type with
+ * textual JSON brackets and commas, which is not valid Smile. These encoders collect the stream into a
+ * list and write it as one array, which is what the endpoints return in any case: their streams are
+ * bounded and, with validators enabled, already collected to compute the entity tag.
+ * </p>
+ */
+public final class CharacterJackson2Encoders {
+
+    private CharacterJackson2Encoders() {
+    }
+
+    /**
+     * JSON encoder, writing streams element by element like the default one.
+     */
+    public static class Json extends Jackson2JsonEncoder {
+
+        public Json(ObjectMapper mapper) {
+            super(mapper);
+        }
+
+        @Override
+        public Map<String, Object> getEncodeHints(@Nullable ResolvableType actualType, ResolvableType elementType,
+                                                  @Nullable MediaType mediaType, ServerHttpRequest request,
+                                                  ServerHttpResponse response) {
+            return projectionHints(super.getEncodeHints(actualType, elementType, mediaType, request, response),
+                    elementType, request);
+        }
+
+        @Override
+        protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable MimeType mimeType,
+                                               ResolvableType elementType, @Nullable Map<String, Object> hints) {
+            return CharacterProjection.customize(super.customizeWriter(writer, mimeType, elementType, hints), hints);
+        }
+    }
+
+    /**
+     * CBOR encoder writing streams as a CBOR array.
+     */
+    public static class Cbor extends Jackson2CborEncoder {
+
+        public Cbor(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            return collect(this, inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+
+        @Override
+        public Map<String, Object> getEncodeHints(@Nullable ResolvableType actualType, ResolvableType elementType,
+                                                  @Nullable MediaType mediaType, ServerHttpRequest request,
+                                                  ServerHttpResponse response) {
+            return projectionHints(super.getEncodeHints(actualType, elementType, mediaType, request, response),
+                    elementType, request);
+        }
+
+        @Override
+        protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable MimeType mimeType,
+                                               ResolvableType elementType, @Nullable Map<String, Object> hints) {
+            return CharacterProjection.customize(super.customizeWriter(writer, mimeType, elementType, hints), hints);
+        }
+    }
+
+    /**
+     * Smile encoder writing streams as a Smile array.
+     */
+    public static class Smile extends Jackson2SmileEncoder {
+
+        public Smile(ObjectMapper mapper) {
+            super(mapper, CharacterMediaTypes.APPLICATION_SMILE);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            return collect(this, inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+
+        @Override
+        public Map<String, Object> getEncodeHints(@Nullable ResolvableType actualType, ResolvableType elementType,
+                                                  @Nullable MediaType mediaType, ServerHttpRequest request,
+                                                  ServerHttpResponse response) {
+            return projectionHints(super.getEncodeHints(actualType, elementType, mediaType, request, response),
+                    elementType, request);
+        }
+
+        @Override
+        protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable MimeType mimeType,
+                                               ResolvableType elementType, @Nullable Map<String, Object> hints) {
+            return CharacterProjection.customize(super.customizeWriter(writer, mimeType, elementType, hints), hints);
+        }
+    }
+
+    private static Map<String, Object> projectionHints(Map<String, Object> hints, ResolvableType elementType,
+                                                       ServerHttpRequest request) {
+        return Hints.merge(hints, CharacterProjection.hints(elementType, request));
+    }
+
+    private static Flux<DataBuffer> collect(AbstractJackson2Encoder encoder, Publisher<?> inputStream,
+                                            DataBufferFactory bufferFactory, ResolvableType elementType,
+                                            MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono<?> mono) {
+            return mono.map(value -> encoder.encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+        return Flux.from(inputStream)
+                .collectList()
+                .map(list -> encoder.encodeValue(list, bufferFactory, listType, mimeType, hints))
+                .flux();
+    }
+}
@@ -0,0 +1,93 @@
+package com.yobel.rickandmortyback.config;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Media types the character endpoints can be negotiated to.
+ * <p>
+ * JSON stays the default: it is listed first, so it is selected for {@code Accept: *}{@code /*} and for
+ * requests without an {@code Accept} header. The binary formats are only served to clients that ask for
+ * them explicitly.
+ * </p>
+ */
+public final class CharacterMediaTypes {
+    /**
+     * Smile, Jackson's binary JSON
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    /**
+     * Protocol Buffers, following the schema in {@code src/main/proto/character.proto}
+     */
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType(APPLICATION_PROTOBUF_VALUE);
+
+    /**
+     * Media types of routes returning characters, in order of preference
+     */
+    public static final List<MediaType> CHARACTER_TYPES = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE, APPLICATION_PROTOBUF);
+
+    /**
+     * Media types of routes returning expanded characters, which have no Protocol Buffers schema
+     */
+    public static final List<MediaType> EXPANDED_CHARACTER_TYPES = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private CharacterMediaTypes() {
+    }
+
+    /**
+     * Selects the media type a response will be written in.
+     * <p>
+     * Mirrors the selection WebFlux makes when writing the body: acceptable types sorted by quality and
+     * specificity, matched against the producible ones, and the most specific compatible type wins. It
+     * is needed upfront because each representation gets its own entity tag.
+     * </p>
+     *
+     * @param accept     The media types of the {@code Accept} header, empty if absent
+     * @param producible The media types the route produces, in order of preference
+     * @return The selected media type, or the first producible one if none is acceptable
+     */
+    public static MediaType negotiate(List<MediaType> accept, List<MediaType> producible) {
+        List<MediaType> acceptable = new ArrayList<>(accept.isEmpty() ? List.of(MediaType.ALL) : accept);
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        List<MediaType> compatible = new ArrayList<>();
+        for (MediaType acceptableType : acceptable) {
+            for (MediaType producibleType : producible) {
+                if (acceptableType.isCompatibleWith(producibleType)) {
+                    MediaType candidate = producibleType.copyQualityValue(acceptableType);
+                    if (!compatible.contains(candidate)) {
+                        compatible.add(candidate);
+                    }
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(compatible);
+        return compatible.isEmpty() ? producible.get(0) : compatible.get(0).removeQualityValue();
+    }
+
+    /**
+     * Returns the suffix distinguishing the entity tags of a representation.
+     *
+     * @param mediaType The media type of the response
+     * @return An empty string for JSON, otherwise a short name of the format
+     */
+    public static String variant(MediaType mediaType) {
+        if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(mediaType)) {
+            return "cbor";
+        }
+        if (APPLICATION_SMILE.equalsTypeAndSubtype(mediaType)) {
+            return "smile";
+        }
+        if (APPLICATION_PROTOBUF.equalsTypeAndSubtype(mediaType)) {
+            return "protobuf";
+        }
+        return "";
+    }
+}
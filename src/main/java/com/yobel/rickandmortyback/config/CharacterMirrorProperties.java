@@ -0,0 +1,47 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for the local character mirror.
+ * <p>
+ * Bound from the {@code character.mirror.*} namespace. When enabled, the whole character
+ * catalog is kept in memory and refreshed in the background, and character requests are
+ * answered from it without calling the upstream API.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.mirror")
+public class CharacterMirrorProperties {
+    /**
+     * Whether the mirror is built and used to answer requests
+     */
+    private boolean enabled = false;
+
+    /**
+     * Delay between the end of one background refresh and the start of the next
+     */
+    private Duration refreshInterval = Duration.ofMinutes(5);
+
+    /**
+     * Maximum time between two refreshes that refetch every page, so that edits to characters beyond
+     * the first page are picked up even when the count does not change
+     */
+    private Duration fullRefreshInterval = Duration.ofHours(1);
+
+    /**
+     * File the catalog is persisted to after each refresh and restored from on startup, or null to
+     * always start cold
+     */
+    private Path snapshotPath;
+
+    /**
+     * Maximum age of a saved snapshot that is restored on startup; older snapshots are ignored and the
+     * mirror starts cold
+     */
+    private Duration snapshotMaxAge = Duration.ofDays(1);
+}
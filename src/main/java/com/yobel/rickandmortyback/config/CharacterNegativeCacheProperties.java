@@ -0,0 +1,44 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the cache of lookups known to find nothing.
+ * <p>
+ * Bound from the {@code character.negative-cache.*} namespace. The TTL bounds how long a character
+ * added upstream can keep being reported as missing, so it is kept much shorter than the one of the
+ * character cache.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.negative-cache")
+public class CharacterNegativeCacheProperties {
+    /**
+     * Whether lookups known to find nothing are answered without calling the upstream API
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of missing IDs, and separately of names without matches, kept in memory
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Time a missing ID or a name without matches is remembered
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+
+    /**
+     * Time the character count of the last upstream page is trusted to reject IDs above it
+     */
+    private Duration countTtl = Duration.ofHours(1);
+
+    /**
+     * Number of IDs above the last known character count that are still looked up upstream, so characters
+     * added since the count was seen are found
+     */
+    private int countMargin = 20;
+}
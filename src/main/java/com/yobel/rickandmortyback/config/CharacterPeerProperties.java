@@ -0,0 +1,53 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for the cache shared between service instances.
+ * <p>
+ * Bound from the {@code character.peers.*} namespace. When enabled, every instance is given the same
+ * static list of members, and each character ID is owned by one of them through consistent hashing.
+ * Lookups by ID that miss the local cache are sent to the owner, which loads them from the upstream
+ * API once for the whole cluster.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.peers")
+public class CharacterPeerProperties {
+    /**
+     * Whether lookups by ID are routed to the owning instance
+     */
+    private boolean enabled = false;
+
+    /**
+     * Base URL under which the other members reach this instance, such as {@code http://10.0.0.1:8080};
+     * it must appear in {@link #members} exactly as written there
+     */
+    private String self;
+
+    /**
+     * Base URLs of every instance of the cluster, this one included
+     */
+    private List<String> members = new ArrayList<>();
+
+    /**
+     * Number of points each member takes on the hash ring; more points spread keys more evenly
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Time allowed for a request to the owner before falling back to the upstream API
+     */
+    private Duration requestTimeout = Duration.ofMillis(500);
+
+    /**
+     * How long a member that failed a request is skipped, its keys being loaded from the upstream
+     * API directly
+     */
+    private Duration downCooldown = Duration.ofSeconds(10);
+}
@@ -0,0 +1,143 @@
+package com.yobel.rickandmortyback.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.ExpandedCharacter;
+import com.yobel.rickandmortyback.service.CharacterField;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Hints;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Field projection of character responses, selected with the {@code fields} query parameter.
+ * <p>
+ * The response encoders read the parameter into an encoding hint when the body holds characters. The
+ * Jackson encoders turn the hint into a property filter on the writer, so unselected properties are
+ * skipped while the characters are serialized, and the Protocol Buffers encoder leaves their fields
+ * out. Controllers parse the parameter before the body is written, so an unknown field is rejected
+ * with a 400 instead of failing the encoding, and {@link #select(ServerHttpRequest, Set) select} the
+ * parsed fields for the encoders.
+ * </p>
+ */
+public final class CharacterProjection {
+    /**
+     * Query parameter selecting the fields
+     */
+    public static final String PARAMETER = "fields";
+
+    /**
+     * Encoding hint holding the selected {@link CharacterField}s
+     */
+    public static final String FIELDS_HINT = CharacterProjection.class.getName() + ".FIELDS";
+
+    /**
+     * Request attribute holding the {@link CharacterField}s already parsed by the controller
+     */
+    private static final String FIELDS_ATTRIBUTE = CharacterProjection.class.getName() + ".SELECTED";
+
+    private static final String FILTER_ID = "characterProjection";
+
+    private static final SimpleFilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+
+    private CharacterProjection() {
+    }
+
+    /**
+     * Registers the property filter of characters on a mapper builder. Without a projection, every
+     * property is written.
+     *
+     * @param builder The builder of a response mapper
+     * @return The builder
+     */
+    public static Jackson2ObjectMapperBuilder configure(Jackson2ObjectMapperBuilder builder) {
+        return builder.mixIn(Character.class, FilterMixIn.class).filters(SERIALIZE_ALL);
+    }
+
+    /**
+     * Records the fields parsed from the request, so the encoders use them instead of parsing the
+     * parameter again.
+     *
+     * @param request The current request
+     * @param fields  The selected fields, empty for every field
+     * @return The selected fields
+     */
+    public static Set<CharacterField> select(ServerHttpRequest request, Set<CharacterField> fields) {
+        request.getAttributes().put(FIELDS_ATTRIBUTE, fields);
+        return fields;
+    }
+
+    /**
+     * Computes the encoding hints of a response.
+     *
+     * @param elementType The type of the body, or of its elements
+     * @param request     The current request
+     * @return A hint with the selected fields, or no hints if the body holds no characters or every
+     * field is selected
+     */
+    public static Map<String, Object> hints(ResolvableType elementType, ServerHttpRequest request) {
+        Class<?> type = elementType.toClass();
+        if (type != Character.class && type != ExpandedCharacter.class) {
+            return Hints.none();
+        }
+        Set<CharacterField> fields = selected(request);
+        if (fields == null || fields.isEmpty() || fields.size() == CharacterField.values().length) {
+            return Hints.none();
+        }
+        return Hints.from(FIELDS_HINT, fields);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<CharacterField> selected(ServerHttpRequest request) {
+        Set<CharacterField> fields = (Set<CharacterField>) request.getAttributes().get(FIELDS_ATTRIBUTE);
+        if (fields != null) {
+            return fields;
+        }
+        List<String> values = request.getQueryParams().get(PARAMETER);
+        return values == null ? null : CharacterField.parse(String.join(",", values));
+    }
+
+    /**
+     * Returns the fields selected by the hints.
+     *
+     * @param hints The encoding hints, may be null
+     * @return The selected fields, or null to write every field
+     */
+    @SuppressWarnings("unchecked")
+    public static Set<CharacterField> fields(Map<String, Object> hints) {
+        return hints == null ? null : (Set<CharacterField>) hints.get(FIELDS_HINT);
+    }
+
+    /**
+     * Applies the projection in the hints to a writer.
+     *
+     * @param writer The writer of a response mapper
+     * @param hints  The encoding hints, may be null
+     * @return The writer, filtering character properties if a projection is requested
+     */
+    public static ObjectWriter customize(ObjectWriter writer, Map<String, Object> hints) {
+        Set<CharacterField> fields = fields(hints);
+        if (fields == null) {
+            return writer;
+        }
+        Set<String> names = new HashSet<>();
+        for (CharacterField field : fields) {
+            names.add(field.propertyName());
+        }
+        return writer.with(new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+    }
+
+    @JsonFilter(FILTER_ID)
+    private interface FilterMixIn {
+    }
+}
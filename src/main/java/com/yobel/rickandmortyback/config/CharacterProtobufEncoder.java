@@ -0,0 +1,321 @@
+package com.yobel.rickandmortyback.config;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+import com.yobel.rickandmortyback.service.CharacterField;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Encoder writing characters as Protocol Buffers, following {@code src/main/proto/character.proto}.
+ * <p>
+ * A single character is written as a {@code Character} message. A stream of characters is written as a
+ * {@code CharacterList}: each element becomes one length-delimited {@code characters} field, which is
+ * exactly the encoding of the repeated field, so elements are sent as they are emitted without
+ * collecting the list first.
+ * </p>
+ * <p>
+ * The messages are written directly from the model with {@link CodedOutputStream} instead of generated
+ * classes, which avoids copying every character into a second object graph. Sizes of nested messages
+ * are computed first, so each message is written into an exactly sized array in one pass.
+ * </p>
+ * <p>
+ * Fields left out by the {@link CharacterProjection} are not written, as if they were empty.
+ * </p>
+ */
+public class CharacterProtobufEncoder extends AbstractEncoder<Character> implements HttpMessageEncoder<Character> {
+    private static final Set<CharacterField> ALL_FIELDS = EnumSet.allOf(CharacterField.class);
+
+    private static final int CHARACTER_LIST_CHARACTERS = 1;
+
+    private static final int CHARACTER_ID = 1;
+    private static final int CHARACTER_NAME = 2;
+    private static final int CHARACTER_STATUS = 3;
+    private static final int CHARACTER_SPECIES = 4;
+    private static final int CHARACTER_TYPE = 5;
+    private static final int CHARACTER_GENDER = 6;
+    private static final int CHARACTER_ORIGIN = 7;
+    private static final int CHARACTER_LOCATION = 8;
+    private static final int CHARACTER_IMAGE = 9;
+    private static final int CHARACTER_EPISODE = 10;
+    private static final int CHARACTER_URL = 11;
+    private static final int CHARACTER_CREATED = 12;
+
+    private static final int PLACE_NAME = 1;
+    private static final int PLACE_URL = 2;
+
+    private static final int TIMESTAMP_SECONDS = 1;
+    private static final int TIMESTAMP_NANOS = 2;
+
+    public CharacterProtobufEncoder() {
+        super(CharacterMediaTypes.APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return Character.class.isAssignableFrom(elementType.toClass()) && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return List.of();
+    }
+
+    @Override
+    public Map<String, Object> getEncodeHints(@Nullable ResolvableType actualType, ResolvableType elementType,
+                                              @Nullable MediaType mediaType, ServerHttpRequest request,
+                                              ServerHttpResponse response) {
+        return CharacterProjection.hints(elementType, request);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends Character> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono<? extends Character> mono) {
+            return mono.map(character -> encodeValue(character, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        Set<CharacterField> fields = fields(hints);
+        return Flux.from(inputStream).map(character -> bufferFactory.wrap(toListElement(character, fields)));
+    }
+
+    @Override
+    public DataBuffer encodeValue(Character character, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        return bufferFactory.wrap(toByteArray(character, fields(hints)));
+    }
+
+    /**
+     * Encodes a character as a {@code Character} message.
+     *
+     * @param character The character
+     * @return The serialized message
+     */
+    public byte[] toByteArray(Character character) {
+        return toByteArray(character, ALL_FIELDS);
+    }
+
+    /**
+     * Encodes the selected fields of a character as a {@code Character} message.
+     *
+     * @param character The character
+     * @param fields    The fields to write
+     * @return The serialized message
+     */
+    public byte[] toByteArray(Character character, Set<CharacterField> fields) {
+        byte[] bytes = new byte[characterSize(character, fields)];
+        write(bytes, output -> writeCharacter(output, character, fields));
+        return bytes;
+    }
+
+    /**
+     * Encodes characters as a {@code CharacterList} message.
+     *
+     * @param characters The characters, in response order
+     * @return The serialized message
+     */
+    public byte[] toByteArray(List<Character> characters) {
+        return toByteArray(characters, ALL_FIELDS);
+    }
+
+    /**
+     * Encodes the selected fields of characters as a {@code CharacterList} message.
+     *
+     * @param characters The characters, in response order
+     * @param fields     The fields to write
+     * @return The serialized message
+     */
+    public byte[] toByteArray(List<Character> characters, Set<CharacterField> fields) {
+        int[] sizes = new int[characters.size()];
+        int size = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = characterSize(characters.get(i), fields);
+            size += listElementSize(sizes[i]);
+        }
+        byte[] bytes = new byte[size];
+        write(bytes, output -> {
+            for (int i = 0; i < sizes.length; i++) {
+                writeListElement(output, characters.get(i), fields, sizes[i]);
+            }
+        });
+        return bytes;
+    }
+
+    private static Set<CharacterField> fields(Map<String, Object> hints) {
+        Set<CharacterField> fields = CharacterProjection.fields(hints);
+        return fields == null ? ALL_FIELDS : fields;
+    }
+
+    private byte[] toListElement(Character character, Set<CharacterField> fields) {
+        int characterSize = characterSize(character, fields);
+        byte[] bytes = new byte[listElementSize(characterSize)];
+        write(bytes, output -> writeListElement(output, character, fields, characterSize));
+        return bytes;
+    }
+
+    private static int listElementSize(int characterSize) {
+        return CodedOutputStream.computeTagSize(CHARACTER_LIST_CHARACTERS)
+                + CodedOutputStream.computeUInt32SizeNoTag(characterSize) + characterSize;
+    }
+
+    private static void writeListElement(CodedOutputStream output, Character character,
+                                         Set<CharacterField> fields, int characterSize) throws IOException {
+        output.writeTag(CHARACTER_LIST_CHARACTERS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(characterSize);
+        writeCharacter(output, character, fields);
+    }
+
+    private static int characterSize(Character character, Set<CharacterField> fields) {
+        int size = 0;
+        if (fields.contains(CharacterField.ID) && character.getId() != null && character.getId() != 0) {
+            size += CodedOutputStream.computeInt32Size(CHARACTER_ID, character.getId());
+        }
+        size += stringSize(fields, CharacterField.NAME, CHARACTER_NAME, character.getName());
+        size += stringSize(fields, CharacterField.STATUS, CHARACTER_STATUS, character.getStatus());
+        size += stringSize(fields, CharacterField.SPECIES, CHARACTER_SPECIES, character.getSpecies());
+        size += stringSize(fields, CharacterField.TYPE, CHARACTER_TYPE, character.getType());
+        size += stringSize(fields, CharacterField.GENDER, CHARACTER_GENDER, character.getGender());
+        Origin origin = character.getOrigin();
+        if (fields.contains(CharacterField.ORIGIN) && origin != null) {
+            size += messageSize(CHARACTER_ORIGIN, placeSize(origin.getName(), origin.getUrl()));
+        }
+        Location location = character.getLocation();
+        if (fields.contains(CharacterField.LOCATION) && location != null) {
+            size += messageSize(CHARACTER_LOCATION, placeSize(location.getName(), location.getUrl()));
+        }
+        size += stringSize(fields, CharacterField.IMAGE, CHARACTER_IMAGE, character.getImage());
+        if (fields.contains(CharacterField.EPISODE) && character.getEpisode() != null) {
+            for (String episode : character.getEpisode()) {
+                size += CodedOutputStream.computeStringSize(CHARACTER_EPISODE, episode == null ? "" : episode);
+            }
+        }
+        size += stringSize(fields, CharacterField.URL, CHARACTER_URL, character.getUrl());
+        if (fields.contains(CharacterField.CREATED) && character.getCreated() != null) {
+            size += messageSize(CHARACTER_CREATED, timestampSize(character.getCreated()));
+        }
+        return size;
+    }
+
+    private static void writeCharacter(CodedOutputStream output, Character character, Set<CharacterField> fields)
+            throws IOException {
+        if (fields.contains(CharacterField.ID) && character.getId() != null && character.getId() != 0) {
+            output.writeInt32(CHARACTER_ID, character.getId());
+        }
+        writeString(output, fields, CharacterField.NAME, CHARACTER_NAME, character.getName());
+        writeString(output, fields, CharacterField.STATUS, CHARACTER_STATUS, character.getStatus());
+        writeString(output, fields, CharacterField.SPECIES, CHARACTER_SPECIES, character.getSpecies());
+        writeString(output, fields, CharacterField.TYPE, CHARACTER_TYPE, character.getType());
+        writeString(output, fields, CharacterField.GENDER, CHARACTER_GENDER, character.getGender());
+        Origin origin = character.getOrigin();
+        if (fields.contains(CharacterField.ORIGIN) && origin != null) {
+            writePlace(output, CHARACTER_ORIGIN, origin.getName(), origin.getUrl());
+        }
+        // Characters only embed the name and URL of their location, which is all a Place carries
+        Location location = character.getLocation();
+        if (fields.contains(CharacterField.LOCATION) && location != null) {
+            writePlace(output, CHARACTER_LOCATION, location.getName(), location.getUrl());
+        }
+        writeString(output, fields, CharacterField.IMAGE, CHARACTER_IMAGE, character.getImage());
+        if (fields.contains(CharacterField.EPISODE) && character.getEpisode() != null) {
+            for (String episode : character.getEpisode()) {
+                // Repeated strings keep their positions, so null elements are written as empty strings
+                output.writeString(CHARACTER_EPISODE, episode == null ? "" : episode);
+            }
+        }
+        writeString(output, fields, CharacterField.URL, CHARACTER_URL, character.getUrl());
+        LocalDateTime created = character.getCreated();
+        if (fields.contains(CharacterField.CREATED) && created != null) {
+            output.writeTag(CHARACTER_CREATED, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(timestampSize(created));
+            long seconds = created.toEpochSecond(ZoneOffset.UTC);
+            if (seconds != 0) {
+                output.writeInt64(TIMESTAMP_SECONDS, seconds);
+            }
+            if (created.getNano() != 0) {
+                output.writeInt32(TIMESTAMP_NANOS, created.getNano());
+            }
+        }
+    }
+
+    private static int placeSize(String name, String url) {
+        return stringSize(PLACE_NAME, name) + stringSize(PLACE_URL, url);
+    }
+
+    private static void writePlace(CodedOutputStream output, int field, String name, String url) throws IOException {
+        output.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(placeSize(name, url));
+        writeString(output, PLACE_NAME, name);
+        writeString(output, PLACE_URL, url);
+    }
+
+    private static int timestampSize(LocalDateTime created) {
+        long seconds = created.toEpochSecond(ZoneOffset.UTC);
+        return (seconds == 0 ? 0 : CodedOutputStream.computeInt64Size(TIMESTAMP_SECONDS, seconds))
+                + (created.getNano() == 0 ? 0 : CodedOutputStream.computeInt32Size(TIMESTAMP_NANOS, created.getNano()));
+    }
+
+    private static int messageSize(int field, int size) {
+        return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+
+    /**
+     * Proto3 does not tell empty strings from missing ones, so both are omitted.
+     */
+    private static int stringSize(int field, String value) {
+        return value == null || value.isEmpty() ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static void writeString(CodedOutputStream output, int field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            output.writeString(field, value);
+        }
+    }
+
+    private static int stringSize(Set<CharacterField> fields, CharacterField selector, int field, String value) {
+        return fields.contains(selector) ? stringSize(field, value) : 0;
+    }
+
+    private static void writeString(CodedOutputStream output, Set<CharacterField> fields, CharacterField selector,
+                                    int field, String value) throws IOException {
+        if (fields.contains(selector)) {
+            writeString(output, field, value);
+        }
+    }
+
+    private static void write(byte[] bytes, MessageWriter writer) {
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            writer.write(output);
+            output.checkNoSpaceLeft();
+        } catch (IOException | IllegalStateException ex) {
+            throw new EncodingException("Could not write Protocol Buffers message", ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface MessageWriter {
+        void write(CodedOutputStream output) throws IOException;
+    }
+}
@@ -0,0 +1,49 @@
+package com.yobel.rickandmortyback.config;
+
+import com.yobel.rickandmortyback.exception.ApiError;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Episode;
+import com.yobel.rickandmortyback.model.ExpandedCharacter;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+import com.yobel.rickandmortyback.model.response.CharacterResponse;
+import com.yobel.rickandmortyback.model.response.EpisodeResponse;
+import com.yobel.rickandmortyback.model.response.LocationResponse;
+import com.yobel.rickandmortyback.service.CharacterMirror;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for the types that Jackson and GraphQL bind by reflection.
+ * <p>
+ * A native image only keeps the constructors, fields and accessors that are known at build time. Spring's
+ * AOT processing infers them for the types returned by controller methods, but not for the types decoded
+ * from upstream responses with {@code bodyToMono}/{@code bodyToFlux} or the {@link
+ * com.fasterxml.jackson.databind.ObjectMapper}, nor for the properties that GraphQL reads from the models.
+ * Those types are registered here, together with the types they reference, so the Lombok generated
+ * accessors and constructors are kept.
+ * </p>
+ */
+public class CharacterRuntimeHints implements RuntimeHintsRegistrar {
+    /**
+     * The types read or written as JSON outside of the controller signatures
+     */
+    private static final Class<?>[] BOUND_TYPES = {
+            Character.class,
+            Origin.class,
+            Location.class,
+            Episode.class,
+            ExpandedCharacter.class,
+            CharacterResponse.class,
+            EpisodeResponse.class,
+            LocationResponse.class,
+            ApiError.class,
+            CharacterMirror.Change.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), BOUND_TYPES);
+    }
+}
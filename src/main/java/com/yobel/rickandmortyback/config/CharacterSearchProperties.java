@@ -0,0 +1,30 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for searching characters by name.
+ * <p>
+ * Bound from the {@code character.search.*} namespace. These defaults apply when the request
+ * does not specify its own values.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "character.search")
+public class CharacterSearchProperties {
+    /**
+     * Number of results returned when no limit is requested
+     */
+    private int defaultLimit = 20;
+
+    /**
+     * Upper bound for the limit a client may request
+     */
+    private int maxLimit = 100;
+
+    /**
+     * Whether typo-tolerant matching is used when not requested explicitly
+     */
+    private boolean fuzzy = false;
+}
@@ -0,0 +1,44 @@
+package com.yobel.rickandmortyback.config;
+
+import com.yobel.rickandmortyback.service.StalenessMarker;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Web filter adding a staleness warning to responses that were served from remembered data.
+ * <p>
+ * Each request receives a {@link StalenessMarker} in its Reactor context. If the marker was set by the
+ * time the response is committed, the response carries {@code Warning: 110 - "Response is Stale"} and
+ * an {@code Age} header with the number of seconds since the oldest stale data was fetched.
+ * </p>
+ */
+@Component
+public class StaleResponseWebFilter implements WebFilter {
+    /**
+     * Warning value defined for stale responses by RFC 7234
+     */
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        StalenessMarker marker = new StalenessMarker();
+        exchange.getResponse().beforeCommit(() -> {
+            if (marker.isStale()) {
+                HttpHeaders headers = exchange.getResponse().getHeaders();
+                headers.set(HttpHeaders.WARNING, STALE_WARNING);
+                headers.set(HttpHeaders.AGE, Long.toString(
+                        Math.max(0, Duration.between(marker.oldestFetchedAt(), Instant.now()).toSeconds())));
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(StalenessMarker.class, marker));
+    }
+}
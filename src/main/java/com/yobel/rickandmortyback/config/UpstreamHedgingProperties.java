@@ -0,0 +1,54 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for hedged upstream requests.
+ * <p>
+ * Bound from the {@code upstream.hedging.*} namespace. A lookup by ID that has not been answered after
+ * the {@link #percentile} of the recent latencies of its route is sent a second time, and the first
+ * answer wins. Hedges are paid for from a budget that grows by {@link #budget} with every hedgeable
+ * request, so they never add more than that fraction of extra load on the upstream.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "upstream.hedging")
+public class UpstreamHedgingProperties {
+    /**
+     * Whether slow lookups by ID are hedged
+     */
+    private boolean enabled = false;
+
+    /**
+     * Percentile of the recent latencies of a route after which a hedge is sent
+     */
+    private double percentile = 0.95;
+
+    /**
+     * Lower bound of the hedging delay, so that noise on fast responses does not cause hedges
+     */
+    private Duration minDelay = Duration.ofMillis(10);
+
+    /**
+     * Number of responses a route must have received within the {@link #window} before its requests are hedged
+     */
+    private int minSamples = 50;
+
+    /**
+     * Period over which the latencies of a route are observed
+     */
+    private Duration window = Duration.ofMinutes(1);
+
+    /**
+     * Maximum number of extra requests, as a fraction of the hedgeable requests
+     */
+    private double budget = 0.05;
+
+    /**
+     * Maximum number of hedges that can be sent in a row from the budget saved while fast
+     */
+    private int burst = 10;
+}
@@ -0,0 +1,133 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for the HTTP client used to call the Rick and Morty API.
+ * <p>
+ * Bound from the {@code upstream.http.*} namespace and applied by {@link WebClientConfig} to the
+ * Reactor Netty {@code HttpClient} and its {@code ConnectionProvider}.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "upstream.http")
+public class UpstreamHttpProperties {
+    /**
+     * Base URL for the Rick and Morty API
+     */
+    private String baseUrl = "https://rickandmortyapi.com/api";
+
+    /**
+     * Maximum size of a response body buffered in memory by the codecs
+     */
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(16);
+
+    /**
+     * HTTP protocols offered to the upstream, e.g. HTTP11, H2 or H2C
+     */
+    private List<HttpProtocol> protocols = new ArrayList<>(List.of(HttpProtocol.HTTP11));
+
+    /**
+     * Maximum time to establish a TCP connection
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Maximum time between sending the request and receiving the response headers
+     */
+    private Duration responseTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum time without reading any data on an open connection
+     */
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Maximum time for a write operation on an open connection
+     */
+    private Duration writeTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Fraction of upstream exchanges logged at DEBUG level, between 0 and 1
+     */
+    private double logSampleRate = 0.01;
+
+    /**
+     * Connection pool settings
+     */
+    private Pool pool = new Pool();
+
+    /**
+     * TCP socket options
+     */
+    private Tcp tcp = new Tcp();
+
+    /**
+     * Connection pool settings.
+     */
+    @Data
+    public static class Pool {
+        /**
+         * Maximum number of connections per upstream host
+         */
+        private int maxConnections = 500;
+
+        /**
+         * Maximum number of requests waiting for a connection; -1 means unbounded
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        /**
+         * Maximum time a request waits for a connection from the pool
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Time after which an idle connection is closed
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * Maximum lifetime of a connection, regardless of activity
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * Interval of the background task closing idle and expired connections; zero disables it
+         */
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        /**
+         * Whether the most recently used connection is leased first, letting the others go idle
+         */
+        private boolean lifo = false;
+
+        /**
+         * Whether active, idle and pending connection gauges are published to Micrometer
+         */
+        private boolean metrics = true;
+    }
+
+    /**
+     * TCP socket options.
+     */
+    @Data
+    public static class Tcp {
+        /**
+         * Whether SO_KEEPALIVE is enabled on upstream connections
+         */
+        private boolean keepAlive = true;
+
+        /**
+         * Whether TCP_NODELAY is enabled, disabling Nagle's algorithm
+         */
+        private boolean noDelay = true;
+    }
+}
@@ -0,0 +1,55 @@
+package com.yobel.rickandmortyback.config;
+
+import io.micrometer.common.KeyValue;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientRequestObservationContext;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
+
+import java.util.regex.Pattern;
+
+/**
+ * Observation convention for upstream requests that tags them with a normalized path.
+ * <p>
+ * The default convention tags requests with their URI template, which is missing for requests built
+ * with a {@code UriBuilder} and would carry every ID of a multi-ID request. This convention derives the
+ * {@code uri} tag from the request path instead, replacing numeric segments with {@code {id}} and
+ * comma-separated ID lists with {@code {ids}}, so {@code /api/character/1,2,3} and
+ * {@code /api/character/4,5} share the tag {@code /api/character/{ids}}. Query strings are dropped.
+ * </p>
+ */
+public class UpstreamObservationConvention extends DefaultClientRequestObservationConvention {
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final Pattern IDS_SEGMENT = Pattern.compile("/\\d+(,\\d+)+(?=/|$)");
+
+    /**
+     * Constructs a new UpstreamObservationConvention.
+     *
+     * @param name The name of the observation, e.g. {@code http.client.requests}
+     */
+    public UpstreamObservationConvention(String name) {
+        super(name);
+    }
+
+    @Override
+    protected KeyValue uri(ClientRequestObservationContext context) {
+        ClientRequest request = context.getRequest();
+        if (request == null) {
+            return super.uri(context);
+        }
+        return KeyValue.of("uri", normalize(request.url().getRawPath()));
+    }
+
+    /**
+     * Replaces IDs in a request path with placeholders.
+     *
+     * @param path The raw request path
+     * @return The path with {@code {id}} and {@code {ids}} placeholders
+     */
+    static String normalize(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        String ids = IDS_SEGMENT.matcher(path).replaceAll("/{ids}");
+        return ID_SEGMENT.matcher(ids).replaceAll("/{id}");
+    }
+}
@@ -0,0 +1,155 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the resilience layer around upstream calls.
+ * <p>
+ * Bound from the {@code upstream.resilience.*} namespace. Every call made by the API clients goes
+ * through a concurrency bulkhead, a circuit breaker and a bounded retry, in that order from the
+ * inside out; while the circuit is open, the last successful response is served when available.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "upstream.resilience")
+public class UpstreamResilienceProperties {
+    /**
+     * Circuit breaker settings
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * Bulkhead settings
+     */
+    private Bulkhead bulkhead = new Bulkhead();
+
+    /**
+     * Retry settings
+     */
+    private Retry retry = new Retry();
+
+    /**
+     * Stale fallback settings
+     */
+    private Stale stale = new Stale();
+
+    /**
+     * Maximum total time of a call once it was first sent, every attempt and backoff included; for
+     * streamed calls, the maximum time until the first element
+     */
+    private Duration deadline = Duration.ofSeconds(15);
+
+    /**
+     * Circuit breaker settings.
+     */
+    @Data
+    public static class CircuitBreaker {
+        /**
+         * Percentage of failed calls in the sliding window that opens the circuit
+         */
+        private float failureRateThreshold = 50;
+
+        /**
+         * Percentage of slow calls in the sliding window that opens the circuit
+         */
+        private float slowCallRateThreshold = 80;
+
+        /**
+         * Duration above which a call counts as slow
+         */
+        private Duration slowCallDuration = Duration.ofSeconds(3);
+
+        /**
+         * Number of most recent calls used to compute the failure and slow call rates
+         */
+        private int slidingWindowSize = 50;
+
+        /**
+         * Minimum number of calls in the window before the rates are evaluated
+         */
+        private int minimumNumberOfCalls = 20;
+
+        /**
+         * Time the circuit stays open before letting probe calls through
+         */
+        private Duration waitInOpenState = Duration.ofSeconds(10);
+
+        /**
+         * Number of probe calls allowed while half-open
+         */
+        private int permittedCallsInHalfOpenState = 5;
+    }
+
+    /**
+     * Bulkhead settings.
+     */
+    @Data
+    public static class Bulkhead {
+        /**
+         * Maximum number of upstream calls in flight at the same time
+         */
+        private int maxConcurrentCalls = 200;
+
+        /**
+         * Maximum time a call waits for a free slot; zero rejects excess calls immediately
+         */
+        private Duration maxWait = Duration.ZERO;
+    }
+
+    /**
+     * Retry settings. Only transient failures are retried: 5xx and 429 responses, timeouts and
+     * connection errors. Streamed responses are retried only before their first element.
+     */
+    @Data
+    public static class Retry {
+        /**
+         * Maximum number of retries after the first attempt; zero disables retries
+         */
+        private int maxRetries = 2;
+
+        /**
+         * Backoff before the first retry, doubled for every following retry
+         */
+        private Duration minBackoff = Duration.ofMillis(100);
+
+        /**
+         * Upper bound of the backoff
+         */
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Random jitter applied to each backoff, as a fraction between 0 and 1
+         */
+        private double jitter = 0.5;
+    }
+
+    /**
+     * Stale fallback settings.
+     */
+    @Data
+    public static class Stale {
+        /**
+         * Whether the last successful response is served while the circuit is open
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of remembered responses
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Maximum age of a remembered response that may still be served
+         */
+        private Duration maxAge = Duration.ofHours(24);
+
+        /**
+         * Maximum number of elements of a streamed response that are remembered; longer responses are
+         * not remembered at all
+         */
+        private int maxElements = 100;
+    }
+}
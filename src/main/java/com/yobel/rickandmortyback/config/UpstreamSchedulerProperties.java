@@ -0,0 +1,88 @@
+package com.yobel.rickandmortyback.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the scheduler pacing upstream requests.
+ * <p>
+ * Bound from the {@code upstream.scheduler.*} namespace. Every request to the upstream API takes a
+ * token from a bucket refilled at {@link #rate} per second. Requests that find the bucket empty wait
+ * in one queue per priority, interactive requests always being served before background ones. The rate
+ * is lowered when the upstream answers 429 and recovers over {@link #recoveryTime}.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "upstream.scheduler")
+public class UpstreamSchedulerProperties {
+    /**
+     * Whether upstream requests are paced; when disabled they are sent as soon as they are made
+     */
+    private boolean enabled = true;
+
+    /**
+     * Sustained number of requests per second sent to the upstream
+     */
+    private double rate = 100;
+
+    /**
+     * Number of requests that may be sent at once after an idle period
+     */
+    private int burst = 100;
+
+    /**
+     * Lowest rate the scheduler falls to after repeated 429 responses
+     */
+    private double minRate = 1;
+
+    /**
+     * Time for a lowered rate to climb back to {@link #rate}
+     */
+    private Duration recoveryTime = Duration.ofSeconds(30);
+
+    /**
+     * Pause applied after a 429 response without a usable {@code Retry-After} header
+     */
+    private Duration defaultRetryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound of any pause requested by the upstream through {@code Retry-After} or rate-limit headers
+     */
+    private Duration maxPause = Duration.ofMinutes(1);
+
+    /**
+     * Queue of requests made on behalf of API clients
+     */
+    private Queue interactive = new Queue(500, Duration.ofSeconds(2));
+
+    /**
+     * Queue of requests made by background work, such as mirror refreshes
+     */
+    private Queue background = new Queue(1000, Duration.ZERO);
+
+    /**
+     * Settings of the queue of one priority.
+     */
+    @Data
+    public static class Queue {
+        /**
+         * Maximum number of waiting requests; further requests are rejected immediately
+         */
+        private int capacity;
+
+        /**
+         * Maximum time a request waits for its turn before it is rejected; zero waits indefinitely
+         */
+        private Duration maxWait;
+
+        public Queue() {
+        }
+
+        Queue(int capacity, Duration maxWait) {
+            this.capacity = capacity;
+            this.maxWait = maxWait;
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package com.yobel.rickandmortyback.config;
 
+import com.yobel.rickandmortyback.client.UpstreamScheduler;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
-import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration class for setting up a WebClient instance to interact with the Rick and Morty API.
@@ -19,63 +28,137 @@ import reactor.core.publisher.Mono;
  *     <li>Base URL for the API</li>
  *     <li>Default headers</li>
  *     <li>Memory allocation for responses</li>
- *     <li>Request and response logging</li>
+ *     <li>Connection pool, timeouts, protocols and TCP options of the underlying Reactor Netty client</li>
+ *     <li>Observation of the upstream's rate-limit responses by the {@link UpstreamScheduler}</li>
+ *     <li>Sampled request logging</li>
  * </ul>
  * </p>
+ * <p>
+ * All settings are read from {@link UpstreamHttpProperties} ({@code upstream.http.*}). The WebClient is
+ * built from the Boot-managed {@link WebClient.Builder}, so every upstream call is observed and recorded
+ * in the {@code http.client.requests} timer, tagged by normalized path, method, status and outcome.
+ * </p>
  */
 @Configuration
 @Log4j2
 public class WebClientConfig {
     /**
-     * Base URL for the Rick and Morty API
+     * Name of the upstream connection pool, used as the {@code name} tag of its metrics
      */
-    private static final String BASE_URL = "https://rickandmortyapi.com/api";
+    private static final String POOL_NAME = "rick-and-morty-api";
+    /**
+     * Name of the timer recording upstream requests
+     */
+    private static final String CLIENT_REQUESTS_METRIC = "http.client.requests";
+
+    /**
+     * Creates the observation convention used for upstream requests.
+     *
+     * @return A convention tagging requests by normalized path
+     */
+    @Bean
+    public UpstreamObservationConvention upstreamObservationConvention() {
+        return new UpstreamObservationConvention(CLIENT_REQUESTS_METRIC);
+    }
+
+    /**
+     * Creates the connection pool shared by all upstream requests.
+     * <p>
+     * When pool metrics are enabled, Reactor Netty publishes the
+     * {@code reactor.netty.connection.provider.*} gauges (active, idle, pending and total
+     * connections) to the global Micrometer registry.
+     * </p>
+     *
+     * @param properties The upstream HTTP configuration
+     * @return A configured ConnectionProvider
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(UpstreamHttpProperties properties) {
+        UpstreamHttpProperties.Pool pool = properties.getPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .metrics(pool.isMetrics());
+        if (!pool.getEvictionInterval().isZero()) {
+            builder.evictInBackground(pool.getEvictionInterval());
+        }
+        if (pool.isLifo()) {
+            builder.lifo();
+        } else {
+            builder.fifo();
+        }
+        return builder.build();
+    }
 
     /**
      * Creates and configures a WebClient bean for making HTTP requests to the Rick and Morty API.
      *
+     * @param builder            The Boot-managed builder, carrying codecs and observation support
+     * @param properties         The upstream HTTP configuration
+     * @param connectionProvider The connection pool shared by all upstream requests
+     * @param scheduler          The scheduler observing the upstream's rate-limit responses
      * @return A configured WebClient instance ready for making API requests
      */
     @Bean
-    public WebClient webClient() {
-        final int size = 16 * 1024 * 1024;
+    public WebClient webClient(WebClient.Builder builder, UpstreamHttpProperties properties,
+                               ConnectionProvider connectionProvider, UpstreamScheduler scheduler) {
+        final int size = (int) properties.getMaxInMemorySize().toBytes();
 
-        ExchangeStrategies strategies = ExchangeStrategies.builder()
-                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(size))
-                .build();
-
-        return WebClient.builder()
-                .baseUrl(BASE_URL)
+        return builder
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient(properties, connectionProvider)))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .exchangeStrategies(strategies)
-                .filter(logRequest())
-                .filter(logResponse())
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(size))
+                .filter(scheduler)
+                .filter(sampledLogging(properties.getLogSampleRate()))
                 .build();
     }
 
     /**
-     * Creates a filter function that logs details about outgoing HTTP requests.
+     * Creates the Reactor Netty HttpClient with the configured timeouts, protocols and TCP options.
      *
-     * @return An ExchangeFilterFunction that logs request information
+     * @param properties         The upstream HTTP configuration
+     * @param connectionProvider The connection pool to use
+     * @return A configured HttpClient
      */
-    private ExchangeFilterFunction logRequest() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            log.info("Making {} request to {}", clientRequest.method(), clientRequest.url());
-            clientRequest.headers().forEach((name, values) ->
-                    values.forEach(value -> log.debug("{}={}", name, value)));
-            return Mono.just(clientRequest);
-        });
+    private HttpClient httpClient(UpstreamHttpProperties properties, ConnectionProvider connectionProvider) {
+        long readTimeoutMillis = properties.getReadTimeout().toMillis();
+        long writeTimeoutMillis = properties.getWriteTimeout().toMillis();
+
+        return HttpClient.create(connectionProvider)
+                .protocol(properties.getProtocols().toArray(HttpProtocol[]::new))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, properties.getTcp().isKeepAlive())
+                .option(ChannelOption.TCP_NODELAY, properties.getTcp().isNoDelay())
+                .responseTimeout(properties.getResponseTimeout())
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(writeTimeoutMillis, TimeUnit.MILLISECONDS)));
     }
 
     /**
-     * Creates a filter function that logs details about incoming HTTP responses.
+     * Creates a filter function that logs a sample of upstream exchanges at DEBUG level.
+     * <p>
+     * Only a fraction of the exchanges is logged, and nothing is done at all unless DEBUG is enabled,
+     * so the filter costs a single level check per request in production. Latency and status of every
+     * request are available from the {@code http.client.requests} metrics instead.
+     * </p>
      *
-     * @return An ExchangeFilterFunction that logs response information
+     * @param sampleRate Fraction of the exchanges to log, between 0 and 1
+     * @return An ExchangeFilterFunction that logs sampled request and response information
      */
-    private ExchangeFilterFunction logResponse() {
-        return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
-            log.info("Response received with status: {}", clientResponse.statusCode());
-            return Mono.just(clientResponse);
-        });
+    private ExchangeFilterFunction sampledLogging(double sampleRate) {
+        return (request, next) -> {
+            if (!log.isDebugEnabled() || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                return next.exchange(request);
+            }
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnNext(response -> log.debug("{} {} -> {} in {} ms", request.method(), request.url(),
+                            response.statusCode().value(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        };
     }
-}
\ No newline at end of file
+}
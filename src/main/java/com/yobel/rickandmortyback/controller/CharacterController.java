@@ -1,41 +1,247 @@
 package com.yobel.rickandmortyback.controller;
 
+import com.yobel.rickandmortyback.config.CharacterFeedProperties;
+import com.yobel.rickandmortyback.config.CharacterHttpCacheProperties;
+import com.yobel.rickandmortyback.config.CharacterMediaTypes;
+import com.yobel.rickandmortyback.config.CharacterProjection;
+import com.yobel.rickandmortyback.model.ExpandedCharacter;
+import com.yobel.rickandmortyback.service.CharacterExpander;
+import com.yobel.rickandmortyback.service.CharacterFeed;
+import com.yobel.rickandmortyback.service.CharacterField;
+import com.yobel.rickandmortyback.service.CharacterQuery;
 import com.yobel.rickandmortyback.service.CharacterService;
+import com.yobel.rickandmortyback.service.CharacterValidators;
+import com.yobel.rickandmortyback.service.Expansion;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import com.yobel.rickandmortyback.model.Character;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/characters")
 @CrossOrigin(origins = "*")
 @RequiredArgsConstructor
 public class CharacterController {
     private final CharacterService characterService;
+    private final CharacterExpander characterExpander;
+    private final CharacterValidators characterValidators;
+    private final CharacterHttpCacheProperties httpCacheProperties;
+    private final CharacterFeed characterFeed;
+
+    @GetMapping(params = "!expand", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            CharacterMediaTypes.APPLICATION_SMILE_VALUE, CharacterMediaTypes.APPLICATION_PROTOBUF_VALUE})
+    public Mono<ResponseEntity<Flux<Character>>> getAllCharacters(@RequestParam(required = false) Boolean ordered,
+                                                                  @Valid @ModelAttribute CharacterListParams params,
+                                                                  ServerHttpRequest request) {
+        CharacterQuery query = params.query();
+        Set<CharacterField> projection = project(params.projection(), request);
+        Flux<Character> characters = query.apply(allCharacters(ordered));
+        // Without the mirror the catalog is streamed page by page, so no validator is known upfront
+        return characterService.isServedFromMirror()
+                ? conditional("all", characters, projection, request)
+                : Mono.just(ok("all").body(characters));
+    }
 
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public Flux<Character> getAllCharacters() {
-        return characterService.getAllCharacters();
+    @GetMapping(params = "expand", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            CharacterMediaTypes.APPLICATION_SMILE_VALUE})
+    public Flux<ExpandedCharacter> getAllCharactersExpanded(@RequestParam(required = false) Boolean ordered,
+                                                            @Valid @ModelAttribute CharacterListParams params,
+                                                            @RequestParam String expand,
+                                                            ServerHttpRequest request) {
+        CharacterQuery query = params.query();
+        project(params.projection(), request);
+        // Filtering first spares the expansion of characters that are dropped anyway
+        return characterExpander.expand(query.apply(allCharacters(ordered)), Expansion.parse(expand));
     }
 
-    @GetMapping(path = "/page/{page}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Flux<Character> getCharactersByPage(@PathVariable int page) {
-        return characterService.getCharactersByPage(page);
+    @GetMapping(path = "/page/{page}", params = "!expand", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            CharacterMediaTypes.APPLICATION_SMILE_VALUE, CharacterMediaTypes.APPLICATION_PROTOBUF_VALUE})
+    public Mono<ResponseEntity<Flux<Character>>> getCharactersByPage(@PathVariable int page,
+                                                                     @Valid @ModelAttribute CharacterListParams params,
+                                                                     ServerHttpRequest request) {
+        CharacterQuery query = params.query();
+        Set<CharacterField> projection = project(params.projection(), request);
+        return conditional("page", query.apply(characterService.getCharactersByPage(page)), projection, request);
     }
 
-    @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ResponseEntity<Character>> getCharacterById(@PathVariable int id) {
+    @GetMapping(path = "/page/{page}", params = "expand", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            CharacterMediaTypes.APPLICATION_SMILE_VALUE})
+    public Flux<ExpandedCharacter> getCharactersByPageExpanded(@PathVariable int page,
+                                                               @Valid @ModelAttribute CharacterListParams params,
+                                                               @RequestParam String expand,
+                                                               ServerHttpRequest request) {
+        CharacterQuery query = params.query();
+        project(params.projection(), request);
+        return characterExpander.expand(query.apply(characterService.getCharactersByPage(page)),
+                Expansion.parse(expand));
+    }
+
+    @GetMapping(path = "/{id}", params = "!expand", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            CharacterMediaTypes.APPLICATION_SMILE_VALUE, CharacterMediaTypes.APPLICATION_PROTOBUF_VALUE})
+    public Mono<ResponseEntity<Character>> getCharacterById(@PathVariable int id,
+                                                            @RequestParam(required = false) String fields,
+                                                            ServerHttpRequest request) {
+        Set<CharacterField> projection = project(CharacterField.parse(fields), request);
         return characterService.getCharacterById(id)
-                .map(ResponseEntity::ok)
+                .map(character -> validated(ok("by-id"), characterValidators.of(character), projection, request)
+                        .body(character))
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
-    @GetMapping(path = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Flux<Character> searchCharactersByName(@RequestParam String name) {
-        return characterService.getCharactersByName(name);
+    @GetMapping(path = "/{id}", params = "expand", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            CharacterMediaTypes.APPLICATION_SMILE_VALUE})
+    public Mono<ExpandedCharacter> getCharacterByIdExpanded(@PathVariable int id,
+                                                            @RequestParam(required = false) String fields,
+                                                            @RequestParam String expand,
+                                                            ServerHttpRequest request) {
+        project(CharacterField.parse(fields), request);
+        return characterExpander.expand(characterService.getCharacterById(id), Expansion.parse(expand));
+    }
+
+    @GetMapping(path = "/search", params = "!expand", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            CharacterMediaTypes.APPLICATION_SMILE_VALUE, CharacterMediaTypes.APPLICATION_PROTOBUF_VALUE})
+    public Mono<ResponseEntity<Flux<Character>>> searchCharactersByName(@RequestParam String name,
+                                                                        @RequestParam(required = false) Boolean fuzzy,
+                                                                        @Valid @ModelAttribute CharacterListParams params,
+                                                                        ServerHttpRequest request) {
+        CharacterQuery query = params.query();
+        Set<CharacterField> projection = project(params.projection(), request);
+        // limit bounds the matches of the search; applied again after the filters it drops nothing more
+        Flux<Character> characters = query.apply(characterService.getCharactersByName(name, params.limit(), fuzzy));
+        return conditional("search", characters, projection, request);
+    }
+
+    @GetMapping(path = "/search", params = "expand", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            CharacterMediaTypes.APPLICATION_SMILE_VALUE})
+    public Flux<ExpandedCharacter> searchCharactersByNameExpanded(@RequestParam String name,
+                                                                  @RequestParam(required = false) Boolean fuzzy,
+                                                                  @Valid @ModelAttribute CharacterListParams params,
+                                                                  @RequestParam String expand,
+                                                                  ServerHttpRequest request) {
+        CharacterQuery query = params.query();
+        project(params.projection(), request);
+        return characterExpander.expand(
+                query.apply(characterService.getCharactersByName(name, params.limit(), fuzzy)),
+                Expansion.parse(expand));
+    }
+
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamCharacterChanges(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String overflow) {
+        // Events are serialized once by the feed and written as is to every subscriber
+        return characterFeed.changes(lastEventId, CharacterFeedProperties.Overflow.parse(overflow));
+    }
+
+    private static Set<CharacterField> project(Set<CharacterField> projection, ServerHttpRequest request) {
+        // Validated before the body is written, and handed to the encoders so they do not parse it again
+        return CharacterProjection.select(request, projection);
+    }
+
+    private Flux<Character> allCharacters(Boolean ordered) {
+        return ordered == null
+                ? characterService.getAllCharacters()
+                : characterService.getAllCharacters(ordered);
+    }
+
+    private Mono<ResponseEntity<Flux<Character>>> conditional(String route, Flux<Character> characters,
+                                                              Set<CharacterField> projection,
+                                                              ServerHttpRequest request) {
+        // Validators must be known before the response is committed. On a matching If-None-Match,
+        // WebFlux answers 304 from them without serializing the body
+        if (!httpCacheProperties.isEnabled()) {
+            return Mono.just(ResponseEntity.ok().body(characters));
+        }
+        return characters.collectList()
+                .map(list -> validated(ok(route), characterValidators.of(list), projection, request)
+                        .body(Flux.fromIterable(list)));
+    }
+
+    private ResponseEntity.BodyBuilder ok(String route) {
+        // The representation depends on the negotiated format and compression
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        CharacterHttpCacheProperties.Policy policy = httpCacheProperties.getRoutes().get(route);
+        if (!httpCacheProperties.isEnabled() || policy == null) {
+            return builder;
+        }
+        CacheControl cacheControl = CacheControl.maxAge(policy.getMaxAge())
+                .staleWhileRevalidate(policy.getStaleWhileRevalidate());
+        if (!policy.getStaleIfError().isZero()) {
+            cacheControl = cacheControl.staleIfError(policy.getStaleIfError());
+        }
+        return builder.cacheControl(policy.isShared() ? cacheControl.cachePublic() : cacheControl.cachePrivate());
+    }
+
+    private ResponseEntity.BodyBuilder validated(ResponseEntity.BodyBuilder builder,
+                                                 CharacterValidators.Validators validators,
+                                                 Set<CharacterField> projection,
+                                                 ServerHttpRequest request) {
+        if (!httpCacheProperties.isEnabled()) {
+            return builder;
+        }
+        // Each format and each projection is a different representation, so it needs its own strong
+        // entity tag
+        MediaType mediaType = CharacterMediaTypes.negotiate(request.getHeaders().getAccept(),
+                CharacterMediaTypes.CHARACTER_TYPES);
+        CharacterValidators.Validators variant = validators.forVariant(CharacterMediaTypes.variant(mediaType))
+                .forVariant(CharacterField.variant(projection));
+        // The server compresses the body after the tag is set, without changing it, so a response that may
+        // be compressed only gets a weak tag: its bytes are not the ones of the uncompressed representation
+        if (acceptsCompression(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING))) {
+            variant = variant.weak();
+        }
+        builder.eTag(variant.etag());
+        return builder;
+    }
+
+    private static boolean acceptsCompression(List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String header : acceptEncoding) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (name.isEmpty() || name.equalsIgnoreCase("identity")) {
+                    continue;
+                }
+                boolean refused = false;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                        try {
+                            refused = Double.parseDouble(parameter.substring(2).trim()) <= 0;
+                        } catch (NumberFormatException ex) {
+                            refused = true;
+                        }
+                    }
+                }
+                if (!refused) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 }
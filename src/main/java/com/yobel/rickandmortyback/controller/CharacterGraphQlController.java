@@ -0,0 +1,149 @@
+package com.yobel.rickandmortyback.controller;
+
+import com.yobel.rickandmortyback.config.CharacterGraphQlProperties;
+import com.yobel.rickandmortyback.exception.BadRequestException;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Episode;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.service.CharacterExpander;
+import com.yobel.rickandmortyback.service.CharacterService;
+import com.yobel.rickandmortyback.service.EpisodeService;
+import com.yobel.rickandmortyback.service.LocationService;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+@Controller
+public class CharacterGraphQlController {
+    private final CharacterService characterService;
+    private final EpisodeService episodeService;
+    private final LocationService locationService;
+    private final CharacterGraphQlProperties graphQlProperties;
+
+    public CharacterGraphQlController(CharacterService characterService, EpisodeService episodeService,
+                                      LocationService locationService, CharacterGraphQlProperties graphQlProperties) {
+        this.characterService = characterService;
+        this.episodeService = episodeService;
+        this.locationService = locationService;
+        this.graphQlProperties = graphQlProperties;
+    }
+
+    @QueryMapping
+    public Mono<Character> character(@Argument int id) {
+        return characterService.getCharacterById(id);
+    }
+
+    @QueryMapping
+    public CompletableFuture<List<Character>> characters(@Argument List<Integer> ids,
+                                                         DataLoader<Integer, Character> characterLoader) {
+        return loadAll(characterLoader, checked(ids));
+    }
+
+    @QueryMapping
+    public Flux<Character> charactersPage(@Argument int page) {
+        return characterService.getCharactersByPage(page);
+    }
+
+    @QueryMapping
+    public Flux<Character> searchCharacters(@Argument String name, @Argument Integer limit,
+                                            @Argument Boolean fuzzy) {
+        // No match is an empty list in GraphQL rather than an error
+        return characterService.getCharactersByName(name, limit, fuzzy)
+                .onErrorResume(ResourceNotFoundException.class, ex -> Flux.empty());
+    }
+
+    @QueryMapping
+    public Mono<Episode> episode(@Argument int id) {
+        return episodeService.getEpisodeById(id);
+    }
+
+    @QueryMapping
+    public CompletableFuture<List<Episode>> episodes(@Argument List<Integer> ids,
+                                                     DataLoader<Integer, Episode> episodeLoader) {
+        return loadAll(episodeLoader, checked(ids));
+    }
+
+    @QueryMapping
+    public Flux<Episode> episodesPage(@Argument int page) {
+        return episodeService.getEpisodesByPage(page);
+    }
+
+    @QueryMapping
+    public Mono<Location> location(@Argument int id) {
+        return locationService.getLocationById(id);
+    }
+
+    @QueryMapping
+    public CompletableFuture<List<Location>> locations(@Argument List<Integer> ids,
+                                                       DataLoader<Integer, Location> locationLoader) {
+        return loadAll(locationLoader, checked(ids));
+    }
+
+    @QueryMapping
+    public Flux<Location> locationsPage(@Argument int page) {
+        return locationService.getLocationsByPage(page);
+    }
+
+    @SchemaMapping(typeName = "Character")
+    public CompletableFuture<List<Episode>> episodes(Character character, DataLoader<Integer, Episode> episodeLoader) {
+        return loadAll(episodeLoader, idsOf(character.getEpisode()));
+    }
+
+    @SchemaMapping(typeName = "Character")
+    public CompletableFuture<Location> originDetails(Character character,
+                                                     DataLoader<Integer, Location> locationLoader) {
+        return load(locationLoader, character.getOrigin() == null ? null : character.getOrigin().getUrl());
+    }
+
+    @SchemaMapping(typeName = "Character")
+    public CompletableFuture<Location> locationDetails(Character character,
+                                                       DataLoader<Integer, Location> locationLoader) {
+        return load(locationLoader, character.getLocation() == null ? null : character.getLocation().getUrl());
+    }
+
+    @SchemaMapping(typeName = "Episode")
+    public CompletableFuture<List<Character>> characters(Episode episode,
+                                                         DataLoader<Integer, Character> characterLoader) {
+        return loadAll(characterLoader, idsOf(episode.getCharacters()));
+    }
+
+    @SchemaMapping(typeName = "Location")
+    public CompletableFuture<List<Character>> residents(Location location,
+                                                        DataLoader<Integer, Character> characterLoader) {
+        return loadAll(characterLoader, idsOf(location.getResidents()));
+    }
+
+    private List<Integer> checked(List<Integer> ids) {
+        if (ids.size() > graphQlProperties.getMaxIds()) {
+            throw new BadRequestException("At most " + graphQlProperties.getMaxIds() + " ids can be requested");
+        }
+        return ids;
+    }
+
+    private static List<Integer> idsOf(List<String> urls) {
+        if (urls == null) {
+            return List.of();
+        }
+        return urls.stream().map(CharacterExpander::idOf).filter(Objects::nonNull).toList();
+    }
+
+    private static <T> CompletableFuture<T> load(DataLoader<Integer, T> loader, String url) {
+        // Unknown origins and locations have an empty URL
+        Integer id = CharacterExpander.idOf(url);
+        return id == null ? CompletableFuture.completedFuture(null) : loader.load(id);
+    }
+
+    private static <T> CompletableFuture<List<T>> loadAll(DataLoader<Integer, T> loader, List<Integer> ids) {
+        // IDs that do not exist resolve to null and are left out, as with the expand option
+        return loader.loadMany(ids).thenApply(values -> values.stream().filter(Objects::nonNull).toList());
+    }
+}
@@ -0,0 +1,34 @@
+package com.yobel.rickandmortyback.controller;
+
+import com.yobel.rickandmortyback.config.CharacterImageProperties;
+import com.yobel.rickandmortyback.service.CharacterImageStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/characters")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class CharacterImageController {
+    private final CharacterImageStore imageStore;
+    private final CharacterImageProperties imageProperties;
+
+    @GetMapping(path = "/{id}/image", produces = MediaType.IMAGE_JPEG_VALUE)
+    public Mono<ResponseEntity<Resource>> getCharacterImage(@PathVariable int id,
+                                                            @RequestParam(required = false) Integer size) {
+        // A file resource is written with ZeroCopyHttpOutputMessage, which Reactor Netty sends with a
+        // FileRegion (sendfile) as JPEG is not in the compressed media types
+        return imageStore.get(id, size)
+                .map(image -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(imageProperties.getMaxAge()).cachePublic().immutable())
+                        .lastModified(image.lastModified())
+                        .contentLength(image.length())
+                        .body(new FileSystemResource(image.path())));
+    }
+}
@@ -0,0 +1,42 @@
+package com.yobel.rickandmortyback.controller;
+
+import com.yobel.rickandmortyback.exception.BadRequestException;
+import com.yobel.rickandmortyback.service.CharacterField;
+import com.yobel.rickandmortyback.service.CharacterQuery;
+import jakarta.validation.constraints.Min;
+
+import java.util.Set;
+
+/**
+ * Query parameters shared by the routes returning lists of characters, bound from the request.
+ *
+ * @param status  Comma-separated accepted statuses, may be null
+ * @param species Comma-separated accepted species, may be null
+ * @param gender  Comma-separated accepted genders, may be null
+ * @param sort    Comma-separated sort keys, may be null
+ * @param limit   The maximum number of results, at least 1, may be null
+ * @param fields  Comma-separated fields to return, may be null for every field
+ */
+public record CharacterListParams(String status, String species, String gender, String sort,
+                                  @Min(1) Integer limit, String fields) {
+
+    /**
+     * Parses the filters, ordering and limit.
+     *
+     * @return The query
+     * @throws BadRequestException if a sort key is unknown or the limit is not positive
+     */
+    public CharacterQuery query() {
+        return CharacterQuery.of(status, species, gender, sort, limit);
+    }
+
+    /**
+     * Parses the selected fields.
+     *
+     * @return The selected fields, empty for every field
+     * @throws BadRequestException if a field is unknown
+     */
+    public Set<CharacterField> projection() {
+        return CharacterField.parse(fields);
+    }
+}
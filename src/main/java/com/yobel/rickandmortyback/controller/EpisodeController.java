@@ -0,0 +1,27 @@
+package com.yobel.rickandmortyback.controller;
+
+import com.yobel.rickandmortyback.model.Episode;
+import com.yobel.rickandmortyback.service.EpisodeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/episodes")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class EpisodeController {
+    private final EpisodeService episodeService;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<Episode> getEpisodes(@RequestParam(defaultValue = "1") int page) {
+        return episodeService.getEpisodesByPage(page);
+    }
+
+    @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Episode> getEpisodeById(@PathVariable int id) {
+        return episodeService.getEpisodeById(id);
+    }
+}
@@ -0,0 +1,27 @@
+package com.yobel.rickandmortyback.controller;
+
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.service.LocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/locations")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class LocationController {
+    private final LocationService locationService;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<Location> getLocations(@RequestParam(defaultValue = "1") int page) {
+        return locationService.getLocationsByPage(page);
+    }
+
+    @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Location> getLocationById(@PathVariable int id) {
+        return locationService.getLocationById(id);
+    }
+}
@@ -0,0 +1,21 @@
+package com.yobel.rickandmortyback.controller;
+
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.service.CharacterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+// Internal endpoints called by the other instances of the cluster, see CharacterPeerCache
+@RestController
+@RequestMapping("/internal/peers")
+@RequiredArgsConstructor
+public class PeerController {
+    private final CharacterService characterService;
+
+    @GetMapping(path = "/characters/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Character> getCharacterById(@PathVariable int id) {
+        return characterService.getOwnedCharacterById(id);
+    }
+}
@@ -0,0 +1,21 @@
+package com.yobel.rickandmortyback.exception;
+
+/**
+ * Exception thrown when a request parameter sent by the client is invalid.
+ * <p>
+ * This covers unknown fields, sort keys and expansions, and limits or image sizes out of range. It is
+ * answered with a 400, while any other {@link IllegalArgumentException} is a fault of the application
+ * and answered with a 500.
+ * </p>
+ */
+public class BadRequestException extends RuntimeException {
+
+    /**
+     * Constructs a new BadRequestException with the specified detail message.
+     *
+     * @param message the detail message, returned to the client
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -1,13 +1,20 @@
 package com.yobel.rickandmortyback.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.stream.Collectors;
 
 /**
  * Global exception handler for the Rick and Morty backend application.
@@ -16,9 +23,36 @@ import java.time.LocalDateTime;
  * in the application. It translates various exceptions into appropriate HTTP
  * responses with standardized error payloads.
  * </p>
+ * <p>
+ * Every handled exception is counted in the {@code api.errors} meter, tagged with the
+ * exception type and the HTTP status of the response.
+ * </p>
+ * <p>
+ * Error payloads are always JSON, including for requests that negotiated a binary format.
+ * </p>
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    /**
+     * Name of the counter recording handled errors
+     */
+    private static final String ERRORS_METRIC = "api.errors";
+
+    private final MeterRegistry meterRegistry;
+    /**
+     * Counter of the most frequent error, registered once rather than looked up on every request
+     */
+    private final Counter notFoundErrors;
+
+    /**
+     * Constructs a new GlobalExceptionHandler.
+     *
+     * @param meterRegistry The registry receiving the error counters
+     */
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.notFoundErrors = errorCounter(ResourceNotFoundException.class, HttpStatus.NOT_FOUND);
+    }
 
     /**
      * Handles ResourceNotFoundException and returns a NOT_FOUND response.
@@ -33,7 +67,69 @@ public class GlobalExceptionHandler {
                 ex.getMessage(),
                 LocalDateTime.now()
         );
-        return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(apiError));
+        notFoundErrors.increment();
+        return respond(HttpStatus.NOT_FOUND, apiError);
+    }
+
+    /**
+     * Handles UpstreamUnavailableException and returns a SERVICE_UNAVAILABLE response.
+     * <p>
+     * Raised when the upstream API is not called because its circuit breaker is open or too many
+     * requests are already in flight, and no previous response can be served instead.
+     * </p>
+     *
+     * @param ex The UpstreamUnavailableException that was thrown
+     * @return A Mono containing a ResponseEntity with ApiError details
+     */
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public Mono<ResponseEntity<ApiError>> handleUpstreamUnavailableException(UpstreamUnavailableException ex) {
+        ApiError apiError = new ApiError(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        countError(ex, HttpStatus.SERVICE_UNAVAILABLE);
+        return respond(HttpStatus.SERVICE_UNAVAILABLE, apiError);
+    }
+
+    /**
+     * Handles BadRequestException, raised for invalid request parameters, and returns a BAD_REQUEST response.
+     *
+     * @param ex The BadRequestException that was thrown
+     * @return A Mono containing a ResponseEntity with ApiError details
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public Mono<ResponseEntity<ApiError>> handleBadRequestException(BadRequestException ex) {
+        ApiError apiError = new ApiError(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        countError(ex, HttpStatus.BAD_REQUEST);
+        return respond(HttpStatus.BAD_REQUEST, apiError);
+    }
+
+    /**
+     * Handles ServerWebInputException, raised for missing, malformed or invalid request parameters, and
+     * returns a BAD_REQUEST response.
+     *
+     * @param ex The ServerWebInputException that was thrown
+     * @return A Mono containing a ResponseEntity with ApiError details
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public Mono<ResponseEntity<ApiError>> handleServerWebInputException(ServerWebInputException ex) {
+        String message = ex instanceof WebExchangeBindException bindException
+                ? bindException.getFieldErrors().stream()
+                        .map(error -> error.getField() + " " + error.getDefaultMessage())
+                        .collect(Collectors.joining(", "))
+                : ex.getReason();
+        ApiError apiError = new ApiError(
+                HttpStatus.BAD_REQUEST.value(),
+                message,
+                LocalDateTime.now()
+        );
+        countError(ex, HttpStatus.BAD_REQUEST);
+        return respond(HttpStatus.BAD_REQUEST, apiError);
     }
 
     /**
@@ -64,7 +160,8 @@ public class GlobalExceptionHandler {
                 message + ": " + ex.getMessage(),
                 LocalDateTime.now()
         );
-        return Mono.just(ResponseEntity.status(ex.getStatusCode()).body(apiError));
+        countError(ex, ex.getStatusCode());
+        return respond(ex.getStatusCode(), apiError);
     }
 
     /**
@@ -84,6 +181,47 @@ public class GlobalExceptionHandler {
                 "Internal server error: " + ex.getMessage(),
                 LocalDateTime.now()
         );
-        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(apiError));
+        countError(ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, apiError);
+    }
+
+    /**
+     * Builds an error response.
+     * <p>
+     * The content type is set explicitly: once a handler has failed, its {@code produces} no longer
+     * applies and the format would otherwise be chosen among every registered encoder.
+     * </p>
+     *
+     * @param status   The HTTP status of the response
+     * @param apiError The error payload
+     * @return A Mono containing a ResponseEntity with ApiError details
+     */
+    private static Mono<ResponseEntity<ApiError>> respond(HttpStatusCode status, ApiError apiError) {
+        return Mono.just(ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(apiError));
+    }
+
+    /**
+     * Increments the error counter for the given exception and response status.
+     *
+     * @param ex     The handled exception
+     * @param status The HTTP status returned to the client
+     */
+    private void countError(Throwable ex, HttpStatusCode status) {
+        errorCounter(ex.getClass(), status).increment();
+    }
+
+    /**
+     * Returns the error counter for the given exception type and response status, registering it if needed.
+     *
+     * @param exceptionType The type of the handled exception
+     * @param status        The HTTP status returned to the client
+     * @return The counter
+     */
+    private Counter errorCounter(Class<? extends Throwable> exceptionType, HttpStatusCode status) {
+        return Counter.builder(ERRORS_METRIC)
+                .description("Errors returned to API clients")
+                .tag("exception", exceptionType.getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.yobel.rickandmortyback.exception;
+
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Translates exceptions raised while fetching GraphQL fields into GraphQL errors.
+ * <p>
+ * This is the GraphQL counterpart of {@link GlobalExceptionHandler}: the same exceptions map to the
+ * matching error classification, with the exception message, and are counted in the same
+ * {@code api.errors} meter, tagged with the HTTP status the REST API would have returned. The field
+ * that failed resolves to null while the rest of the response is still returned.
+ * </p>
+ */
+@Component
+public class GraphQlExceptionResolver extends DataFetcherExceptionResolverAdapter {
+    /**
+     * Name of the counter recording handled errors
+     */
+    private static final String ERRORS_METRIC = "api.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs a new GraphQlExceptionResolver.
+     *
+     * @param meterRegistry The registry receiving the error counters
+     */
+    public GraphQlExceptionResolver(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+        if (ex instanceof ResourceNotFoundException) {
+            return error(ex, env, ErrorType.NOT_FOUND, HttpStatus.NOT_FOUND);
+        }
+        if (ex instanceof BadRequestException) {
+            return error(ex, env, ErrorType.BAD_REQUEST, HttpStatus.BAD_REQUEST);
+        }
+        if (ex instanceof UpstreamUnavailableException) {
+            return error(ex, env, ErrorType.INTERNAL_ERROR, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        // Anything else gets the generic internal error of Spring for GraphQL, without the message
+        countError(ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        return null;
+    }
+
+    private GraphQLError error(Throwable ex, DataFetchingEnvironment env, ErrorType errorType, HttpStatus status) {
+        countError(ex, status);
+        return GraphqlErrorBuilder.newError(env)
+                .errorType(errorType)
+                .message(ex.getMessage())
+                .build();
+    }
+
+    private void countError(Throwable ex, HttpStatus status) {
+        Counter.builder(ERRORS_METRIC)
+                .description("Errors returned to API clients")
+                .tag("exception", ex.getClass().getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -11,6 +11,11 @@ package com.yobel.rickandmortyback.exception;
  * It extends RuntimeException, making it an unchecked exception that does not
  * require explicit declaration in method signatures.
  * </p>
+ * <p>
+ * Not finding a resource is an expected outcome rather than a fault, and unknown IDs can be requested
+ * at a high rate, so no stack trace is captured and suppression is disabled: creating one costs no more
+ * than its message.
+ * </p>
  */
 public class ResourceNotFoundException extends RuntimeException {
 
@@ -21,7 +26,7 @@ public class ResourceNotFoundException extends RuntimeException {
      *                by the {@link #getMessage()} method)
      */
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     /**
@@ -34,6 +39,6 @@ public class ResourceNotFoundException extends RuntimeException {
      *                and indicates that the cause is nonexistent or unknown.
      */
     public ResourceNotFoundException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.yobel.rickandmortyback.exception;
+
+/**
+ * Exception thrown when a request to the Rick and Morty API is not attempted.
+ * <p>
+ * This happens when the circuit breaker protecting the upstream is open, when the
+ * bulkhead limiting concurrent upstream calls is full, or when the request scheduler's
+ * queue is full or the request waited too long for its turn. Callers fail fast instead of
+ * waiting for an upstream that is known to be degraded.
+ * </p>
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    /**
+     * Constructs a new UpstreamUnavailableException with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause   the rejection raised by the circuit breaker or bulkhead
+     */
+    public UpstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Constructs a new UpstreamUnavailableException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
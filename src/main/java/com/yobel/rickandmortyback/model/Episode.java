@@ -1,11 +1,20 @@
 package com.yobel.rickandmortyback.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
 public class Episode {
     private Integer id;
     private String name;
+    @JsonProperty("air_date")
     private String airDate;
     private String episode;
     private List<String> characters;
@@ -0,0 +1,21 @@
+package com.yobel.rickandmortyback.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpandedCharacter {
+    @JsonUnwrapped
+    private Character character;
+    private List<Episode> episodes;
+    private Location originDetails;
+    private Location locationDetails;
+}
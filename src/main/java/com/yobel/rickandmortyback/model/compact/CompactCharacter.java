@@ -0,0 +1,92 @@
+package com.yobel.rickandmortyback.model.compact;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Memory-compact, immutable form of a {@link com.yobel.rickandmortyback.model.Character}.
+ * <p>
+ * Instances are produced and read back by {@link CompactCharacterCodec}. Categorical fields are
+ * dictionary codes, origin and location are references into a shared place table, URLs that follow
+ * the upstream {@code .../{id}} pattern are stored as template codes, episode URLs are stored as
+ * primitive episode IDs and the creation timestamp is stored as epoch nanoseconds.
+ * </p>
+ */
+public final class CompactCharacter {
+    final int id;
+    final String name;
+    final short status;
+    final short species;
+    final short type;
+    final short gender;
+    final int origin;
+    final int location;
+    final int imageTemplate;
+    final String rawImage;
+    final int urlTemplate;
+    final String rawUrl;
+    final short episodePrefix;
+    final int[] episodes;
+    final String[] rawEpisodes;
+    final long created;
+
+    CompactCharacter(int id, String name, short status, short species, short type, short gender,
+                     int origin, int location, int imageTemplate, String rawImage, int urlTemplate, String rawUrl,
+                     short episodePrefix, int[] episodes, String[] rawEpisodes, long created) {
+        this.id = id;
+        this.name = name;
+        this.status = status;
+        this.species = species;
+        this.type = type;
+        this.gender = gender;
+        this.origin = origin;
+        this.location = location;
+        this.imageTemplate = imageTemplate;
+        this.rawImage = rawImage;
+        this.urlTemplate = urlTemplate;
+        this.rawUrl = rawUrl;
+        this.episodePrefix = episodePrefix;
+        this.episodes = episodes;
+        this.rawEpisodes = rawEpisodes;
+        this.created = created;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the IDs of the episodes the character appears in, when they were stored as IDs.
+     *
+     * @return A copy of the episode IDs, or null if the episode URLs did not follow the upstream pattern
+     */
+    public int[] getEpisodeIds() {
+        return episodes == null ? null : episodes.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactCharacter other)) {
+            return false;
+        }
+        return id == other.id && status == other.status && species == other.species && type == other.type
+                && gender == other.gender && origin == other.origin && location == other.location
+                && imageTemplate == other.imageTemplate && urlTemplate == other.urlTemplate
+                && episodePrefix == other.episodePrefix && created == other.created
+                && Objects.equals(name, other.name) && Objects.equals(rawImage, other.rawImage)
+                && Objects.equals(rawUrl, other.rawUrl) && Arrays.equals(episodes, other.episodes)
+                && Arrays.equals(rawEpisodes, other.rawEpisodes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Integer.hashCode(id) + Long.hashCode(created);
+    }
+}
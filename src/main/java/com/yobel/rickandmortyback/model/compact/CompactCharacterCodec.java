@@ -0,0 +1,201 @@
+package com.yobel.rickandmortyback.model.compact;
+
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts characters to and from their {@link CompactCharacter} form.
+ * <p>
+ * The codec owns the dictionaries shared by every compact character it produces: categorical values
+ * ({@code status}, {@code species}, {@code type}, {@code gender}), origin and location names and URLs,
+ * and URL prefixes and suffixes. Dictionaries only grow, so one codec instance should be reused for all
+ * snapshots of the same catalog, which also keeps codes comparable between snapshots.
+ * </p>
+ * <p>
+ * Decoding always creates fresh {@link Character}, {@link Origin} and {@link Location} objects, so the
+ * compact data cannot be modified through a materialized character.
+ * </p>
+ */
+public final class CompactCharacterCodec {
+    private static final int NO_VALUE = -1;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final int SHORT_CODES = Short.MAX_VALUE;
+    private static final int PACKED_CODES = 0xFFFE;
+
+    private final StringTable categories = new StringTable(SHORT_CODES);
+    private final StringTable places = new StringTable(PACKED_CODES);
+    private final StringTable urlParts = new StringTable(PACKED_CODES);
+
+    /**
+     * Encodes a character.
+     *
+     * @param character The character to encode; its ID must not be null
+     * @return The compact form of the character
+     */
+    public CompactCharacter encode(Character character) {
+        int id = character.getId();
+        List<String> episodeUrls = character.getEpisode();
+
+        short episodePrefix = NO_VALUE;
+        int[] episodes = null;
+        String[] rawEpisodes = null;
+        if (episodeUrls != null) {
+            episodes = new int[episodeUrls.size()];
+            for (int i = 0; episodes != null && i < episodes.length; i++) {
+                String url = episodeUrls.get(i);
+                int slash = url == null ? -1 : url.lastIndexOf('/');
+                Integer episodeId = slash < 0 ? null : parseId(url, slash + 1);
+                short prefix = episodeId == null ? NO_VALUE : (short) categories.encode(url.substring(0, slash + 1));
+                if (episodeId == null || (i > 0 && prefix != episodePrefix)) {
+                    episodes = null;
+                } else {
+                    episodePrefix = prefix;
+                    episodes[i] = episodeId;
+                }
+            }
+            if (episodes == null) {
+                episodePrefix = NO_VALUE;
+                rawEpisodes = episodeUrls.toArray(String[]::new);
+            }
+        }
+
+        int imageTemplate = template(character.getImage(), id);
+        int urlTemplate = template(character.getUrl(), id);
+
+        return new CompactCharacter(
+                id,
+                character.getName(),
+                (short) categories.encode(character.getStatus()),
+                (short) categories.encode(character.getSpecies()),
+                (short) categories.encode(character.getType()),
+                (short) categories.encode(character.getGender()),
+                character.getOrigin() == null ? NO_VALUE
+                        : place(character.getOrigin().getName(), character.getOrigin().getUrl()),
+                character.getLocation() == null ? NO_VALUE
+                        : place(character.getLocation().getName(), character.getLocation().getUrl()),
+                imageTemplate,
+                imageTemplate == NO_VALUE ? character.getImage() : null,
+                urlTemplate,
+                urlTemplate == NO_VALUE ? character.getUrl() : null,
+                episodePrefix,
+                episodes,
+                rawEpisodes,
+                character.getCreated() == null ? NO_TIMESTAMP : toEpochNanos(character.getCreated()));
+    }
+
+    /**
+     * Materializes a compact character back into the public {@link Character} shape.
+     *
+     * @param compact The compact character
+     * @return A new Character equal to the one that was encoded
+     */
+    public Character decode(CompactCharacter compact) {
+        List<String> episodeUrls = null;
+        if (compact.episodes != null) {
+            String prefix = categories.decode(compact.episodePrefix);
+            episodeUrls = new ArrayList<>(compact.episodes.length);
+            for (int episode : compact.episodes) {
+                episodeUrls.add(prefix + episode);
+            }
+        } else if (compact.rawEpisodes != null) {
+            episodeUrls = new ArrayList<>(List.of(compact.rawEpisodes));
+        }
+
+        return new Character(
+                compact.id,
+                compact.name,
+                categories.decode(compact.status),
+                categories.decode(compact.species),
+                categories.decode(compact.type),
+                categories.decode(compact.gender),
+                compact.origin == NO_VALUE ? null
+                        : new Origin(places.decode(highCode(compact.origin)), places.decode(lowCode(compact.origin))),
+                compact.location == NO_VALUE ? null
+                        : new Location(null, places.decode(highCode(compact.location)),
+                        places.decode(lowCode(compact.location)), null, null, null, null),
+                compact.imageTemplate == NO_VALUE ? compact.rawImage : expand(compact.imageTemplate, compact.id),
+                episodeUrls,
+                compact.urlTemplate == NO_VALUE ? compact.rawUrl : expand(compact.urlTemplate, compact.id),
+                compact.created == NO_TIMESTAMP ? null : fromEpochNanos(compact.created));
+    }
+
+    /**
+     * Packs a place into one int made of two 16-bit codes, using 0xFFFF for null parts. A place whose
+     * name and URL are both null packs to {@link #NO_VALUE} and is decoded as an absent place.
+     */
+    private int place(String name, String url) {
+        return (packedCode(places.encode(name)) << 16) | packedCode(places.encode(url));
+    }
+
+    /**
+     * Encodes a URL of the form {@code prefix + id + suffix} as two 16-bit codes.
+     *
+     * @return The packed template, or {@link #NO_VALUE} if the URL does not contain the ID after a slash
+     */
+    private int template(String url, int id) {
+        if (url == null) {
+            return NO_VALUE;
+        }
+        String idText = Integer.toString(id);
+        int position = url.lastIndexOf('/' + idText);
+        if (position < 0) {
+            return NO_VALUE;
+        }
+        int end = position + 1 + idText.length();
+        if (end < url.length() && java.lang.Character.isDigit(url.charAt(end))) {
+            return NO_VALUE;
+        }
+        return (urlParts.encode(url.substring(0, position + 1)) << 16) | urlParts.encode(url.substring(end));
+    }
+
+    private String expand(int template, int id) {
+        return urlParts.decode(template >>> 16) + id + urlParts.decode(template & 0xFFFF);
+    }
+
+    private static int packedCode(int code) {
+        return code == NO_VALUE ? 0xFFFF : code;
+    }
+
+    private static int highCode(int packed) {
+        int code = packed >>> 16;
+        return code == 0xFFFF ? NO_VALUE : code;
+    }
+
+    private static int lowCode(int packed) {
+        int code = packed & 0xFFFF;
+        return code == 0xFFFF ? NO_VALUE : code;
+    }
+
+    private static Integer parseId(String url, int start) {
+        if (start >= url.length() || url.length() - start > 9) {
+            return null;
+        }
+        int value = 0;
+        for (int i = start; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            value = value * 10 + (c - '0');
+        }
+        // Reject leading zeros, which would not survive the round trip
+        return url.charAt(start) == '0' && url.length() - start > 1 ? null : value;
+    }
+
+    private static long toEpochNanos(LocalDateTime dateTime) {
+        Instant instant = dateTime.toInstant(ZoneOffset.UTC);
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    private static LocalDateTime fromEpochNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,64 @@
+package com.yobel.rickandmortyback.model.compact;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only dictionary mapping repeated strings to small integer codes.
+ * <p>
+ * Codes are assigned in insertion order and never reused, so a code stays valid for the lifetime of
+ * the table. Writers are serialized; readers access the published array without locking.
+ * </p>
+ */
+final class StringTable {
+    private final int maxSize;
+    private final Map<String, Integer> codes = new HashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    StringTable(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the code of a string, assigning a new one on first use.
+     *
+     * @param value The string to encode, may be null
+     * @return The code, or -1 for null
+     */
+    synchronized int encode(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == maxSize) {
+            throw new IllegalStateException("String table is full (" + maxSize + " entries)");
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = value;
+        values = current;
+        codes.put(value, size);
+        return size++;
+    }
+
+    /**
+     * Returns the string for a code.
+     *
+     * @param code A code returned by {@link #encode(String)}, or -1
+     * @return The string, or null for -1
+     */
+    String decode(int code) {
+        return code < 0 ? null : values[code];
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,16 @@
+package com.yobel.rickandmortyback.model.response;
+
+import com.yobel.rickandmortyback.model.Episode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EpisodeResponse {
+    private CharacterResponse.Info info;
+    private List<Episode> results;
+}
@@ -0,0 +1,16 @@
+package com.yobel.rickandmortyback.model.response;
+
+import com.yobel.rickandmortyback.model.Location;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LocationResponse {
+    private CharacterResponse.Info info;
+    private List<Location> results;
+}
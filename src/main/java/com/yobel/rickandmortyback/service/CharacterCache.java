@@ -0,0 +1,83 @@
+package com.yobel.rickandmortyback.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.yobel.rickandmortyback.config.CharacterCacheProperties;
+import com.yobel.rickandmortyback.model.Character;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.function.IntFunction;
+
+/**
+ * Bounded in-process cache for characters looked up by ID.
+ * <p>
+ * The cache stores in-flight lookups rather than finished values, so concurrent misses for the
+ * same ID share a single upstream request. Failed or empty lookups are discarded automatically
+ * and retried on the next call. Hit, miss and eviction counters are published to Micrometer
+ * under the {@code cache.*} meters with the tag {@code cache=characters}.
+ * </p>
+ */
+@Component
+@Log4j2
+public class CharacterCache implements MeterBinder {
+    /**
+     * Name under which the cache metrics are published
+     */
+    private static final String CACHE_NAME = "characters";
+
+    private final AsyncCache<Integer, Character> cache;
+    private final boolean enabled;
+
+    /**
+     * Constructs a new CharacterCache sized and timed according to the given properties.
+     *
+     * @param properties The cache configuration
+     */
+    public CharacterCache(CharacterCacheProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached character for the given ID, loading it when absent.
+     * <p>
+     * Cancelling the returned Mono does not cancel the shared load, so other callers waiting
+     * on the same ID still receive the result.
+     * </p>
+     *
+     * @param id     The ID of the character
+     * @param loader Function that fetches the character from the upstream API
+     * @return A Mono containing the cached or freshly loaded character
+     */
+    public Mono<Character> get(int id, IntFunction<Mono<Character>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    /**
+     * Returns a snapshot of the cache statistics.
+     *
+     * @return The current hit, miss, load and eviction counters
+     */
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME, Collections.emptyList());
+    }
+}
@@ -0,0 +1,150 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Episode;
+import com.yobel.rickandmortyback.model.ExpandedCharacter;
+import com.yobel.rickandmortyback.model.Location;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Resolves the episodes and locations referenced by characters for the {@code expand} option.
+ * <p>
+ * References are collected across the whole response, deduplicated and resolved with multi-ID
+ * requests through {@link EpisodeService} and {@link LocationService}. Expanding a response therefore
+ * costs a small number of upstream calls that depends on the number of distinct episodes and locations,
+ * not on the number of characters times their episodes. Because all references must be known first,
+ * the characters are collected before the expanded response is emitted.
+ * </p>
+ */
+@Service
+@Log4j2
+public class CharacterExpander {
+    private final EpisodeService episodeService;
+    private final LocationService locationService;
+
+    /**
+     * Constructs a new CharacterExpander.
+     *
+     * @param episodeService  The service used to resolve episodes
+     * @param locationService The service used to resolve origins and locations
+     */
+    public CharacterExpander(EpisodeService episodeService, LocationService locationService) {
+        this.episodeService = episodeService;
+        this.locationService = locationService;
+    }
+
+    /**
+     * Expands the requested relationships of every character.
+     *
+     * @param characters The characters to expand
+     * @param expansions The relationships to resolve
+     * @return A Flux of expanded characters, in the order of the input
+     */
+    public Flux<ExpandedCharacter> expand(Flux<Character> characters, Set<Expansion> expansions) {
+        return characters.collectList().flatMapMany(list -> {
+            Set<Integer> episodeIds = new TreeSet<>();
+            Set<Integer> locationIds = new TreeSet<>();
+            for (Character character : list) {
+                if (expansions.contains(Expansion.EPISODES) && character.getEpisode() != null) {
+                    character.getEpisode().forEach(url -> addId(episodeIds, url));
+                }
+                if (expansions.contains(Expansion.ORIGIN) && character.getOrigin() != null) {
+                    addId(locationIds, character.getOrigin().getUrl());
+                }
+                if (expansions.contains(Expansion.LOCATION) && character.getLocation() != null) {
+                    addId(locationIds, character.getLocation().getUrl());
+                }
+            }
+            log.debug("Expanding {} characters with {} episodes and {} locations",
+                    list.size(), episodeIds.size(), locationIds.size());
+
+            Mono<Map<Integer, Episode>> episodes = episodeService.getEpisodesByIds(episodeIds)
+                    .collectMap(Episode::getId);
+            Mono<Map<Integer, Location>> locations = locationService.getLocationsByIds(locationIds)
+                    .collectMap(Location::getId);
+            return Mono.zip(episodes, locations)
+                    .flatMapIterable(resolved -> list.stream()
+                            .map(character -> expand(character, expansions, resolved.getT1(), resolved.getT2()))
+                            .toList());
+        });
+    }
+
+    /**
+     * Expands a single character.
+     *
+     * @param character  The character to expand
+     * @param expansions The relationships to resolve
+     * @return A Mono containing the expanded character
+     */
+    public Mono<ExpandedCharacter> expand(Mono<Character> character, Set<Expansion> expansions) {
+        return expand(character.flux(), expansions).next();
+    }
+
+    private static ExpandedCharacter expand(Character character, Set<Expansion> expansions,
+                                            Map<Integer, Episode> episodes, Map<Integer, Location> locations) {
+        ExpandedCharacter expanded = new ExpandedCharacter();
+        expanded.setCharacter(character);
+        if (expansions.contains(Expansion.EPISODES)) {
+            List<Episode> resolved = new ArrayList<>();
+            if (character.getEpisode() != null) {
+                for (String url : character.getEpisode()) {
+                    Episode episode = lookup(episodes, url);
+                    if (episode != null) {
+                        resolved.add(episode);
+                    }
+                }
+            }
+            expanded.setEpisodes(resolved);
+        }
+        if (expansions.contains(Expansion.ORIGIN) && character.getOrigin() != null) {
+            expanded.setOriginDetails(lookup(locations, character.getOrigin().getUrl()));
+        }
+        if (expansions.contains(Expansion.LOCATION) && character.getLocation() != null) {
+            expanded.setLocationDetails(lookup(locations, character.getLocation().getUrl()));
+        }
+        return expanded;
+    }
+
+    private static void addId(Set<Integer> ids, String url) {
+        Integer id = idOf(url);
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private static <T> T lookup(Map<Integer, T> resolved, String url) {
+        Integer id = idOf(url);
+        return id == null ? null : resolved.get(id);
+    }
+
+    /**
+     * Extracts the trailing numeric ID of a resource URL such as {@code .../episode/12}.
+     *
+     * @param url The resource URL, may be null or empty for unknown references
+     * @return The ID, or null if the URL does not end with one
+     */
+    public static Integer idOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        int start = url.lastIndexOf('/') + 1;
+        if (start == 0 || start == url.length() || url.length() - start > 9) {
+            return null;
+        }
+        for (int i = start; i < url.length(); i++) {
+            if (!java.lang.Character.isDigit(url.charAt(i))) {
+                return null;
+            }
+        }
+        return Integer.parseInt(url.substring(start));
+    }
+}
@@ -0,0 +1,292 @@
+package com.yobel.rickandmortyback.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yobel.rickandmortyback.config.CharacterFeedProperties;
+import com.yobel.rickandmortyback.config.CharacterMirrorProperties;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams the changes of the {@link CharacterMirror} to any number of subscribers as server-sent events.
+ * <p>
+ * Every change is serialized once when the mirror publishes it and the same payload is written to every
+ * subscriber, so the cost of a refresh does not grow with the audience. Events are named
+ * {@value #CHANGE_EVENT}, carrying the characters added, changed and removed since the previous version,
+ * or {@value #RESET_EVENT}, carrying the whole catalog, which replaces whatever the subscriber held. The
+ * ID of each event is the mirror version it leads to.
+ * </p>
+ * <p>
+ * A subscriber reconnecting with {@code Last-Event-ID} receives the changes published since that version
+ * if they are still among the last {@link CharacterFeedProperties#getHistory()} ones, and a reset
+ * otherwise. New subscribers start with a reset, served from a payload shared by every subscriber of the
+ * same version.
+ * </p>
+ * <p>
+ * Each subscriber gets its own overflow policy, so a slow reader never delays the others:
+ * </p>
+ * <ul>
+ *     <li>{@link CharacterFeedProperties.Overflow#COALESCE}: changes waiting to be written are merged
+ *     into one</li>
+ *     <li>{@link CharacterFeedProperties.Overflow#DROP}: changes beyond
+ *     {@link CharacterFeedProperties#getBufferSize()} are dropped, oldest first</li>
+ * </ul>
+ * <p>
+ * The number of open subscriptions is exposed as {@code character.feed.subscribers}, and merged and
+ * dropped changes are counted in {@code character.feed.coalesced} and {@code character.feed.dropped}.
+ * </p>
+ */
+@Component
+@Log4j2
+public class CharacterFeed {
+    /**
+     * Name of the events carrying the difference between two versions
+     */
+    public static final String CHANGE_EVENT = "change";
+
+    /**
+     * Name of the events carrying the whole catalog
+     */
+    public static final String RESET_EVENT = "reset";
+
+    private final CharacterMirror mirror;
+    private final CharacterMirrorProperties mirrorProperties;
+    private final CharacterFeedProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Sinks.Many<Entry> changes;
+    private final Deque<Long> retainedVersions = new ArrayDeque<>();
+    private final AtomicReference<Entry> reset = new AtomicReference<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter coalesced;
+    private final Counter dropped;
+    private volatile long oldestResumableVersion = -1;
+
+    /**
+     * Constructs a new CharacterFeed and registers it with the mirror.
+     *
+     * @param mirror           The mirror whose changes are streamed
+     * @param mirrorProperties The mirror configuration
+     * @param properties       The feed configuration
+     * @param objectMapper     The mapper serializing the events
+     * @param meterRegistry    The registry receiving the feed meters
+     */
+    public CharacterFeed(CharacterMirror mirror, CharacterMirrorProperties mirrorProperties,
+                         CharacterFeedProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.mirror = mirror;
+        this.mirrorProperties = mirrorProperties;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        // The replay buffer hands each new subscriber the retained changes and then the live ones,
+        // without a window in which a change could be missed
+        this.changes = Sinks.many().replay().limit(properties.getHistory());
+        Gauge.builder("character.feed.subscribers", subscribers, AtomicInteger::get)
+                .description("Open subscriptions to the character change feed")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("character.feed.coalesced")
+                .description("Changes merged into a later one for a slow subscriber")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("character.feed.dropped")
+                .description("Changes dropped for a slow subscriber")
+                .register(meterRegistry);
+        mirror.onChange(this::publish);
+    }
+
+    /**
+     * Streams the changes of the catalog.
+     *
+     * @param lastEventId The {@code Last-Event-ID} sent by a reconnecting subscriber, or null
+     * @param overflow    The policy for this subscriber, or null for the configured one
+     * @return An endless Flux of events and heartbeat comments
+     * @throws ResourceNotFoundException if the mirror is disabled, as the feed would never emit
+     */
+    public Flux<ServerSentEvent<String>> changes(String lastEventId, CharacterFeedProperties.Overflow overflow) {
+        if (!mirrorProperties.isEnabled()) {
+            return Flux.error(new ResourceNotFoundException(
+                    "The character change feed requires character.mirror.enabled"));
+        }
+        CharacterFeedProperties.Overflow policy = overflow == null ? properties.getOverflow() : overflow;
+        Flux<Entry> entries = Flux.defer(() -> {
+            Long version = parseVersion(lastEventId);
+            CharacterMirror.Snapshot snapshot = mirror.current();
+            if (snapshot == null) {
+                // The first refresh publishes the whole catalog as a change from version 0
+                return live(0, policy);
+            }
+            if (version != null && canResume(version, snapshot.version())) {
+                return live(version, policy);
+            }
+            return Mono.fromCallable(() -> reset(snapshot)).concatWith(live(snapshot.version(), policy));
+        });
+        Flux<ServerSentEvent<String>> heartbeats = Flux.interval(properties.getHeartbeat())
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<String>builder().comment("heartbeat").build());
+        // A prefetch of one keeps pending changes in the overflow policy rather than in the merge queue
+        return Flux.merge(1, entries.map(this::event), heartbeats)
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    /**
+     * Serializes a change and hands it to the subscribers.
+     *
+     * @param change The change published by the mirror
+     */
+    private synchronized void publish(CharacterMirror.Change change) {
+        retainedVersions.addLast(change.fromVersion());
+        while (retainedVersions.size() > properties.getHistory()) {
+            retainedVersions.removeFirst();
+        }
+        oldestResumableVersion = retainedVersions.getFirst();
+        Sinks.EmitResult result = changes.tryEmitNext(new Entry(change, encode(change)));
+        if (result.isFailure()) {
+            log.warn("Character change to version {} was not published to the feed: {}",
+                    change.toVersion(), result);
+        }
+    }
+
+    /**
+     * Indicates whether the retained changes lead from a version to the current one.
+     *
+     * @param version        The last version received by the subscriber
+     * @param currentVersion The version of the current snapshot
+     * @return true if the subscriber can be resumed without a reset
+     */
+    private boolean canResume(long version, long currentVersion) {
+        return version == currentVersion
+                || (oldestResumableVersion >= 0 && version >= oldestResumableVersion && version < currentVersion);
+    }
+
+    /**
+     * Returns the live changes following a version, under the overflow policy of a subscriber.
+     *
+     * @param version The last version already held by the subscriber
+     * @param policy  The overflow policy of the subscriber
+     * @return A Flux of the changes leading past the version
+     */
+    private Flux<Entry> live(long version, CharacterFeedProperties.Overflow policy) {
+        Flux<Entry> following = changes.asFlux().skipWhile(entry -> entry.change().toVersion() <= version);
+        return switch (policy) {
+            case COALESCE -> coalesce(following);
+            case DROP -> following.onBackpressureBuffer(properties.getBufferSize(),
+                    entry -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST);
+        };
+    }
+
+    /**
+     * Merges the changes a subscriber has not requested yet into a single change.
+     * <p>
+     * The source is consumed as fast as it emits and at most one merged change is held, so a slow
+     * subscriber costs the size of the difference rather than one payload per missed version.
+     * </p>
+     *
+     * @param source The changes to deliver
+     * @return A Flux emitting, on each request, everything received since the previous emission
+     */
+    private Flux<Entry> coalesce(Flux<Entry> source) {
+        return Flux.create(sink -> {
+            AtomicReference<Entry> pending = new AtomicReference<>();
+            AtomicInteger wip = new AtomicInteger();
+            AtomicBoolean done = new AtomicBoolean();
+            Runnable drain = () -> {
+                if (wip.getAndIncrement() != 0) {
+                    return;
+                }
+                do {
+                    while (sink.requestedFromDownstream() > 0) {
+                        Entry next = pending.getAndSet(null);
+                        if (next == null) {
+                            break;
+                        }
+                        sink.next(next);
+                    }
+                    if (done.get() && pending.get() == null) {
+                        sink.complete();
+                    }
+                } while (wip.decrementAndGet() != 0);
+            };
+            Disposable upstream = source.subscribe(entry -> {
+                // The shared payload no longer matches once changes are merged, so it is encoded on emission
+                if (pending.getAndAccumulate(entry, (held, next) -> held == null
+                        ? next
+                        : new Entry(held.change().then(next.change()), null)) != null) {
+                    coalesced.increment();
+                }
+                drain.run();
+            }, sink::error, () -> {
+                done.set(true);
+                drain.run();
+            });
+            sink.onRequest(requested -> drain.run());
+            sink.onDispose(upstream);
+        });
+    }
+
+    /**
+     * Returns the whole catalog of a snapshot as a change from version 0, built once per version.
+     *
+     * @param snapshot The current snapshot
+     * @return The reset entry of the snapshot
+     */
+    private Entry reset(CharacterMirror.Snapshot snapshot) {
+        Entry current = reset.get();
+        if (current != null && current.change().toVersion() == snapshot.version()) {
+            return current;
+        }
+        CharacterMirror.Change change = CharacterMirror.Change.between(null, snapshot);
+        Entry built = new Entry(change, encode(change));
+        reset.set(built);
+        return built;
+    }
+
+    private ServerSentEvent<String> event(Entry entry) {
+        CharacterMirror.Change change = entry.change();
+        return ServerSentEvent.builder(entry.data() != null ? entry.data() : encode(change))
+                .id(Long.toString(change.toVersion()))
+                .event(change.fromVersion() == 0 ? RESET_EVENT : CHANGE_EVENT)
+                .build();
+    }
+
+    private String encode(CharacterMirror.Change change) {
+        try {
+            return objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize character change to version " + change.toVersion(), ex);
+        }
+    }
+
+    private static Long parseVersion(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * A change and its serialized payload.
+     *
+     * @param change The change
+     * @param data   The JSON payload shared by every subscriber, or null if it is encoded on emission
+     */
+    private record Entry(CharacterMirror.Change change, String data) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.exception.BadRequestException;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Properties of a character, as named in responses, that can be selected with the {@code fields} query
+ * parameter and ordered by with {@code sort}.
+ */
+public enum CharacterField {
+    ID,
+    NAME,
+    STATUS,
+    SPECIES,
+    TYPE,
+    GENDER,
+    ORIGIN,
+    LOCATION,
+    IMAGE,
+    EPISODE,
+    URL,
+    CREATED;
+
+    /**
+     * Returns the name of the property in responses.
+     *
+     * @return The property name
+     */
+    public String propertyName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses a comma-separated list such as {@code id,name,image}.
+     *
+     * @param value The raw parameter value, may be null or blank
+     * @return The selected fields, empty if none, which stands for every field
+     * @throws BadRequestException if a value is not a known field
+     */
+    public static Set<CharacterField> parse(String value) {
+        Set<CharacterField> fields = EnumSet.noneOf(CharacterField.class);
+        if (value == null) {
+            return fields;
+        }
+        for (String part : value.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            fields.add(of(name, "fields"));
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the suffix distinguishing the entity tags of a projection.
+     *
+     * @param fields The selected fields, empty for every field
+     * @return An empty string for every field, otherwise a short name of the selection
+     */
+    public static String variant(Set<CharacterField> fields) {
+        if (fields.isEmpty() || fields.size() == values().length) {
+            return "";
+        }
+        int mask = 0;
+        for (CharacterField field : fields) {
+            mask |= 1 << field.ordinal();
+        }
+        return "f" + Integer.toHexString(mask);
+    }
+
+    static CharacterField of(String name, String parameter) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unknown " + parameter + " value: " + name);
+        }
+    }
+}
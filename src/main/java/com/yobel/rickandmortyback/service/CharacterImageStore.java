@@ -0,0 +1,298 @@
+package com.yobel.rickandmortyback.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yobel.rickandmortyback.client.CharacterApiClient;
+import com.yobel.rickandmortyback.config.CharacterImageProperties;
+import com.yobel.rickandmortyback.exception.BadRequestException;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Bounded on-disk cache of character avatars and their thumbnails.
+ * <p>
+ * An avatar is downloaded from the upstream API the first time it is requested, written to
+ * {@link CharacterImageProperties#getDirectory()} through a temporary file, and every configured
+ * thumbnail size is generated from it at the same time. All files are written to temporary files first
+ * and only moved into place once every one of them was written, so a failure leaves no partial avatar
+ * behind. Concurrent first requests for the same character share one download. Once stored, the files are served as they are and the upstream is not called again.
+ * </p>
+ * <p>
+ * Disk usage is bounded by {@link CharacterImageProperties#getMaxSize()}: each avatar weighs the bytes of
+ * all its files, and the files of evicted avatars are deleted after
+ * {@link CharacterImageProperties#getEvictionGrace()}, since {@link #get(int, Integer)} only returns their
+ * path and the response opens them later; they are kept if the avatar was downloaded again meanwhile.
+ * Files found in the directory at startup
+ * are indexed again, so a restart does not download the avatars again. Hit, miss and eviction counters
+ * are published to Micrometer under the {@code cache.*} meters with the tag
+ * {@code cache=character-images}.
+ * </p>
+ */
+@Component
+@Log4j2
+public class CharacterImageStore implements MeterBinder {
+    /**
+     * Name under which the cache metrics are published
+     */
+    private static final String CACHE_NAME = "character-images";
+    /**
+     * Variant key of the original avatar
+     */
+    private static final int ORIGINAL = 0;
+    /**
+     * Suffix of files being written, removed once they are complete
+     */
+    private static final String TEMP_SUFFIX = ".tmp";
+    /**
+     * Names of stored files: {@code 1.jpeg} for an avatar, {@code 1-128.jpeg} for one of its thumbnails
+     */
+    private static final Pattern FILE_NAME = Pattern.compile("(\\d+)(?:-(\\d+))?\\.jpeg");
+
+    private final CharacterApiClient apiClient;
+    private final Path directory;
+    private final List<Integer> thumbnailSizes;
+    private final Duration evictionGrace;
+    private final AsyncCache<Integer, Avatar> cache;
+
+    /**
+     * A stored image file.
+     *
+     * @param path         The file
+     * @param length       The size of the file in bytes
+     * @param lastModified The time the file was written
+     */
+    public record Image(Path path, long length, Instant lastModified) {
+    }
+
+    /**
+     * The files stored for a character, keyed by thumbnail width, the original being under 0.
+     */
+    record Avatar(Map<Integer, Image> variants) {
+        long bytes() {
+            return variants.values().stream().mapToLong(Image::length).sum();
+        }
+    }
+
+    /**
+     * Constructs a new CharacterImageStore and indexes the avatars already present on disk.
+     *
+     * @param apiClient  The client used to download avatars
+     * @param properties The image cache configuration
+     */
+    public CharacterImageStore(CharacterApiClient apiClient, CharacterImageProperties properties) {
+        this.apiClient = apiClient;
+        this.directory = properties.getDirectory();
+        this.thumbnailSizes = List.copyOf(properties.getThumbnailSizes());
+        this.evictionGrace = properties.getEvictionGrace();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .<Integer, Avatar>weigher((id, avatar) -> (int) Math.min(Integer.MAX_VALUE, avatar.bytes()))
+                .evictionListener((id, avatar, cause) -> {
+                    if (id != null && avatar != null) {
+                        Schedulers.boundedElastic().schedule(() -> deleteEvicted(id, avatar),
+                                evictionGrace.toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        restore();
+    }
+
+    /**
+     * Returns the stored avatar of a character, or one of its thumbnails, downloading it when absent.
+     * <p>
+     * Cancelling the returned Mono does not cancel the shared download, so other callers waiting on the
+     * same character still receive the result.
+     * </p>
+     *
+     * @param id   The ID of the character
+     * @param size The width of the thumbnail, or null for the original avatar
+     * @return A Mono containing the stored file
+     * @throws BadRequestException       if the size is not one of the configured thumbnail sizes
+     * @throws ResourceNotFoundException if the character has no avatar
+     */
+    public Mono<Image> get(int id, Integer size) {
+        if (size != null && !thumbnailSizes.contains(size)) {
+            return Mono.error(new BadRequestException(
+                    "Unsupported image size: " + size + ", expected one of " + thumbnailSizes));
+        }
+        int variant = size != null ? size : ORIGINAL;
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> download(key).toFuture()), true)
+                .map(avatar -> avatar.variants().get(variant));
+    }
+
+    /**
+     * Runs pending evictions, deleting the files of evicted avatars.
+     */
+    void cleanUp() {
+        cache.synchronous().cleanUp();
+    }
+
+    /**
+     * Deletes the files of an evicted avatar, unless the character was requested again since. The check
+     * and the deletion run atomically with respect to new downloads of the same character, which write
+     * to the same file names.
+     */
+    private void deleteEvicted(int id, Avatar avatar) {
+        cache.asMap().compute(id, (key, current) -> {
+            if (current == null) {
+                avatar.variants().values().forEach(image -> deleteQuietly(image.path()));
+            }
+            return current;
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME, Collections.emptyList());
+    }
+
+    private Mono<Avatar> download(int id) {
+        // Downloads are coalesced per character, so the temporary name cannot be used twice at once
+        Path temp = directory.resolve(id + ".jpeg" + TEMP_SUFFIX);
+        return DataBufferUtils.write(apiClient.streamAvatar(id), temp,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)
+                .then(Mono.fromCallable(() -> store(id, temp)).subscribeOn(Schedulers.boundedElastic()))
+                .doOnError(ex -> deleteQuietly(temp));
+    }
+
+    private Avatar store(int id, Path temp) throws IOException {
+        BufferedImage source = ImageIO.read(temp.toFile());
+        if (source == null) {
+            throw new IOException("Avatar of character " + id + " is not a readable image");
+        }
+        // Thumbnails first and the original last, so the avatar is complete once the original is in place
+        Map<Integer, Path> written = new LinkedHashMap<>();
+        Map<Integer, Image> variants = new HashMap<>();
+        try {
+            for (int width : thumbnailSizes) {
+                Path thumbnailTemp = directory.resolve(fileName(id, width) + TEMP_SUFFIX);
+                written.put(width, thumbnailTemp);
+                if (!ImageIO.write(thumbnail(source, width), "jpeg", thumbnailTemp.toFile())) {
+                    throw new IOException("No JPEG writer available");
+                }
+            }
+            written.put(ORIGINAL, temp);
+            for (Map.Entry<Integer, Path> file : written.entrySet()) {
+                variants.put(file.getKey(), publish(file.getValue(), fileName(id, file.getKey())));
+            }
+        } catch (IOException ex) {
+            written.values().forEach(CharacterImageStore::deleteQuietly);
+            variants.values().forEach(image -> deleteQuietly(image.path()));
+            throw ex;
+        }
+        log.debug("Stored avatar of character {} ({} files)", id, variants.size());
+        return new Avatar(Map.copyOf(variants));
+    }
+
+    private Image publish(Path temp, String fileName) throws IOException {
+        Path path = Files.move(temp, directory.resolve(fileName),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return image(path);
+    }
+
+    /**
+     * Scales an image down to the given width, keeping its aspect ratio. Images narrower than the width
+     * are kept at their own size.
+     */
+    static BufferedImage thumbnail(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void restore() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create the image directory " + directory, ex);
+        }
+        Map<Integer, Map<Integer, Image>> found = new HashMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                Matcher matcher = FILE_NAME.matcher(name);
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    deleteQuietly(path);
+                } else if (matcher.matches()) {
+                    int variant = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : ORIGINAL;
+                    found.computeIfAbsent(Integer.parseInt(matcher.group(1)), id -> new HashMap<>())
+                            .put(variant, image(path));
+                }
+            }
+        } catch (IOException | NumberFormatException ex) {
+            log.warn("Could not index the image directory {}: {}", directory, ex.toString());
+            return;
+        }
+        int restored = 0;
+        for (Map.Entry<Integer, Map<Integer, Image>> entry : found.entrySet()) {
+            Map<Integer, Image> variants = entry.getValue();
+            // Avatars stored under another thumbnail configuration are downloaded again
+            if (variants.containsKey(ORIGINAL) && variants.size() == thumbnailSizes.size() + 1
+                    && thumbnailSizes.stream().allMatch(variants::containsKey)) {
+                cache.put(entry.getKey(), CompletableFuture.completedFuture(new Avatar(Map.copyOf(variants))));
+                restored++;
+            } else {
+                variants.values().forEach(image -> deleteQuietly(image.path()));
+            }
+        }
+        if (restored > 0) {
+            log.info("Indexed {} cached avatars from {}", restored, directory);
+        }
+    }
+
+    private static Image image(Path path) throws IOException {
+        return new Image(path, Files.size(path), Files.getLastModifiedTime(path).toInstant());
+    }
+
+    private static String fileName(int id, int variant) {
+        return variant == ORIGINAL ? id + ".jpeg" : id + "-" + variant + ".jpeg";
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete {}: {}", path, ex.toString());
+        }
+    }
+}
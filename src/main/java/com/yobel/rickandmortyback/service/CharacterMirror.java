@@ -0,0 +1,472 @@
+package com.yobel.rickandmortyback.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.yobel.rickandmortyback.client.CharacterApiClient;
+import com.yobel.rickandmortyback.client.UpstreamPriority;
+import com.yobel.rickandmortyback.config.CharacterCatalogProperties;
+import com.yobel.rickandmortyback.config.CharacterMirrorProperties;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.compact.CompactCharacter;
+import com.yobel.rickandmortyback.model.compact.CompactCharacterCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * In-memory mirror of the full character catalog.
+ * <p>
+ * When {@link CharacterMirrorProperties#isEnabled() enabled}, the mirror is built once the
+ * application is ready and then refreshed in the background. Each refresh fetches the first
+ * upstream page and compares its {@code info.count} and the full content of its characters with the
+ * current snapshot:
+ * </p>
+ * <ul>
+ *     <li>If nothing changed, no further pages are fetched</li>
+ *     <li>If only new characters were appended, the last known page and the new pages are refetched</li>
+ *     <li>Otherwise the whole catalog is refetched</li>
+ * </ul>
+ * <p>
+ * The upstream does not expose when a character was last edited, so an edit beyond the first page
+ * leaves the count and the first page unchanged. The whole catalog is therefore also refetched once
+ * {@link CharacterMirrorProperties#getFullRefreshInterval()} has passed since the last full refresh,
+ * and every page is compared with the snapshot; a new version is only published if one of them differs.
+ * </p>
+ * <p>
+ * A refresh builds a complete new {@link Snapshot} and publishes it with a single atomic swap,
+ * so readers never observe a partially built catalog. Listeners registered with
+ * {@link #onChange(Consumer)} receive the {@link Change} between two snapshots just before the
+ * new snapshot is published.
+ * </p>
+ * <p>
+ * Snapshots store characters as {@link CompactCharacter} values produced by a single
+ * {@link CompactCharacterCodec} shared by every snapshot of the mirror, so repeated strings are held
+ * once for the whole catalog. Public {@link Character} objects are materialized only when read.
+ * </p>
+ * <p>
+ * When a snapshot path is configured, each published snapshot is saved in the background by the
+ * {@link CharacterSnapshotStore}. On startup the saved snapshot is restored once every bean is created,
+ * before the server accepts requests, so listeners receive it like any other change and the instance
+ * serves the catalog immediately, unless it is older than
+ * {@link CharacterMirrorProperties#getSnapshotMaxAge()}. The first background refresh then compares
+ * every page with the upstream, since edits made while the instance was down may be on any page.
+ * </p>
+ */
+@Component
+@Log4j2
+public class CharacterMirror implements SmartInitializingSingleton {
+    private final CharacterApiClient apiClient;
+    private final CharacterMirrorProperties properties;
+    private final CharacterCatalogProperties catalogProperties;
+    private final CharacterSnapshotStore snapshotStore;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final List<Consumer<Change>> listeners = new CopyOnWriteArrayList<>();
+    private final CompactCharacterCodec codec = new CompactCharacterCodec();
+    /**
+     * When every page was last compared with the upstream, or null before the first full refresh
+     */
+    private volatile Instant fullRefreshedAt;
+    private Disposable refreshLoop;
+
+    /**
+     * Constructs a new CharacterMirror.
+     *
+     * @param apiClient         The client used to fetch catalog pages
+     * @param properties        The mirror configuration
+     * @param catalogProperties The settings used when fetching several pages
+     * @param snapshotStore     The store persisting snapshots across restarts
+     */
+    public CharacterMirror(CharacterApiClient apiClient, CharacterMirrorProperties properties,
+                           CharacterCatalogProperties catalogProperties, CharacterSnapshotStore snapshotStore) {
+        this.apiClient = apiClient;
+        this.properties = properties;
+        this.catalogProperties = catalogProperties;
+        this.snapshotStore = snapshotStore;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        restore();
+    }
+
+    /**
+     * Publishes the saved snapshot, if the mirror is enabled, holds no snapshot yet and a valid one was
+     * saved recently enough. The next refresh is a full one.
+     *
+     * @return true if a snapshot was restored
+     */
+    public boolean restore() {
+        if (!properties.isEnabled() || !snapshotStore.isEnabled() || snapshot.get() != null) {
+            return false;
+        }
+        long start = System.nanoTime();
+        CharacterSnapshotStore.Contents contents = snapshotStore.load();
+        if (contents == null) {
+            return false;
+        }
+        Duration age = Duration.between(contents.refreshedAt(), Instant.now());
+        if (age.compareTo(properties.getSnapshotMaxAge()) > 0) {
+            log.info("Ignoring character snapshot version {} refreshed at {}: older than {}",
+                    contents.version(), contents.refreshedAt(), properties.getSnapshotMaxAge());
+            return false;
+        }
+        List<List<CompactCharacter>> pages = new ArrayList<>(contents.pages().size());
+        contents.pages().forEach(page -> pages.add(encode(page)));
+        Snapshot restored = Snapshot.of(contents.version(), contents.count(), pages, codec, contents.refreshedAt());
+        // Edits made while the instance was down may be on any page, so the next refresh is a full one
+        fullRefreshedAt = null;
+        publish(restored);
+        snapshotStore.restored(restored.version());
+        log.info("Character mirror restored version {} ({} characters, refreshed at {}) in {} ms",
+                restored.version(), restored.count(), restored.refreshedAt(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return true;
+    }
+
+    /**
+     * Starts the background refresh loop once the application is ready, if the mirror is enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled() || refreshLoop != null) {
+            return;
+        }
+        // The interval runs from the end of one refresh to the start of the next
+        refreshLoop = Mono.defer(this::refresh)
+                .doOnError(ex -> log.warn("Character mirror refresh failed, keeping previous snapshot", ex))
+                .onErrorResume(ex -> Mono.empty())
+                .then(Mono.delay(properties.getRefreshInterval()))
+                .repeat()
+                // Refresh pages only go upstream when no client request is waiting
+                .contextWrite(UpstreamPriority.BACKGROUND.context())
+                .subscribe();
+    }
+
+    /**
+     * Stops the background refresh loop.
+     */
+    @PreDestroy
+    public void stop() {
+        if (refreshLoop != null) {
+            refreshLoop.dispose();
+            refreshLoop = null;
+        }
+    }
+
+    /**
+     * Indicates whether the mirror is enabled and holds a complete snapshot.
+     *
+     * @return true if requests can be answered from the mirror
+     */
+    public boolean isReady() {
+        return properties.isEnabled() && snapshot.get() != null;
+    }
+
+    /**
+     * Returns the current snapshot.
+     *
+     * @return The latest published snapshot, or null if none has been built yet
+     */
+    public Snapshot current() {
+        return snapshot.get();
+    }
+
+    /**
+     * Registers a listener notified whenever a refresh changes the catalog.
+     *
+     * @param listener The listener receiving the change between two snapshots
+     */
+    public void onChange(Consumer<Change> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Refreshes the mirror from the upstream API, fetching only the pages that may have changed.
+     *
+     * @return A Mono containing the snapshot that is current after the refresh
+     */
+    public Mono<Snapshot> refresh() {
+        Snapshot previous = snapshot.get();
+        Instant started = Instant.now();
+        Instant lastFullRefresh = fullRefreshedAt;
+        boolean fullRefreshDue = lastFullRefresh == null
+                || !started.isBefore(lastFullRefresh.plus(properties.getFullRefreshInterval()));
+        return apiClient.fetchFirstPage()
+                .flatMap(first -> {
+                    int pages = CharacterApiClient.totalPages(first.getInfo());
+                    int count = first.getInfo() != null && first.getInfo().getCount() != null
+                            ? first.getInfo().getCount()
+                            : first.getResults().size();
+                    List<CompactCharacter> firstPage = encode(first.getResults());
+
+                    int firstStalePage;
+                    if (previous == null || fullRefreshDue || count < previous.count()
+                            || !samePage(previous, 1, firstPage)) {
+                        firstStalePage = 2;
+                    } else if (count == previous.count()) {
+                        log.debug("Character mirror is up to date at version {}", previous.version());
+                        return Mono.just(previous);
+                    } else {
+                        // New characters are appended, so only the last known page and the new pages change
+                        firstStalePage = Math.max(2, previous.pageCount());
+                    }
+
+                    return Flux.range(firstStalePage, Math.max(0, pages - firstStalePage + 1))
+                            .flatMapSequential(apiClient::fetchPage, catalogProperties.getPageConcurrency())
+                            .map(response -> encode(response.getResults()))
+                            .collectList()
+                            .map(fetched -> {
+                                List<List<CompactCharacter>> pageList = new ArrayList<>(pages);
+                                pageList.add(firstPage);
+                                for (int page = 2; page < firstStalePage; page++) {
+                                    pageList.add(previous.pages().get(page - 1));
+                                }
+                                pageList.addAll(fetched);
+                                if (firstStalePage == 2) {
+                                    fullRefreshedAt = started;
+                                }
+                                if (previous != null && count == previous.count()
+                                        && pageList.equals(previous.pages())) {
+                                    log.debug("Character mirror is up to date at version {} after a full refresh",
+                                            previous.version());
+                                    return previous;
+                                }
+                                long version = previous == null ? 1 : previous.version() + 1;
+                                log.info("Character mirror refreshed to version {} ({} characters, {} pages fetched)",
+                                        version, count, fetched.size() + 1);
+                                return Snapshot.of(version, count, pageList, codec, Instant.now());
+                            });
+                })
+                .doOnNext(this::publish)
+                .doOnNext(this::save);
+    }
+
+    /**
+     * Encodes a fetched page into its compact form.
+     *
+     * @param characters The characters of the page
+     * @return An unmodifiable list of compact characters
+     */
+    private List<CompactCharacter> encode(List<Character> characters) {
+        return characters.stream().map(codec::encode).toList();
+    }
+
+    /**
+     * Saves a snapshot off the refresh pipeline. The store skips snapshots it already holds, so an
+     * unchanged or restored catalog is not written again.
+     *
+     * @param saved The snapshot that is current after a refresh
+     */
+    private void save(Snapshot saved) {
+        if (!snapshotStore.isEnabled()) {
+            return;
+        }
+        Mono.fromRunnable(() -> snapshotStore.save(saved))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe();
+    }
+
+    /**
+     * Notifies listeners of the change and then swaps in the new snapshot.
+     *
+     * @param next The snapshot to publish
+     */
+    private void publish(Snapshot next) {
+        Snapshot previous = snapshot.get();
+        if (next == previous) {
+            return;
+        }
+        Change change = Change.between(previous, next);
+        for (Consumer<Change> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException ex) {
+                log.error("Character mirror listener failed for version {}", next.version(), ex);
+            }
+        }
+        snapshot.set(next);
+    }
+
+    /**
+     * Compares a page of a snapshot with a page just fetched, field by field.
+     *
+     * @param known   The current snapshot
+     * @param page    The 1-based page number
+     * @param fetched The page just fetched from upstream, encoded with the mirror's codec
+     * @return true if both pages contain the same characters with the same content
+     */
+    private static boolean samePage(Snapshot known, int page, List<CompactCharacter> fetched) {
+        return page <= known.pageCount() && known.pages().get(page - 1).equals(fetched);
+    }
+
+    /**
+     * Immutable view of the full character catalog at a point in time.
+     * <p>
+     * Characters are held in compact form; every accessor returning {@link Character} materializes
+     * new objects, so callers may modify them freely.
+     * </p>
+     *
+     * @param version     Monotonically increasing version, bumped whenever the catalog changes
+     * @param count       Total number of characters advertised by the upstream API
+     * @param pages       Compact characters grouped by upstream page, in page order
+     * @param byId        Compact characters indexed by ID
+     * @param codec       The codec that encoded the characters
+     * @param refreshedAt When this snapshot was built
+     */
+    public record Snapshot(long version, int count, List<List<CompactCharacter>> pages,
+                           Map<Integer, CompactCharacter> byId, CompactCharacterCodec codec, Instant refreshedAt) {
+
+        static Snapshot of(long version, int count, List<List<CompactCharacter>> pages, CompactCharacterCodec codec,
+                           Instant refreshedAt) {
+            Map<Integer, CompactCharacter> byId = new HashMap<>(count * 2);
+            pages.forEach(page -> page.forEach(character -> byId.put(character.getId(), character)));
+            return new Snapshot(version, count, Collections.unmodifiableList(pages),
+                    Collections.unmodifiableMap(byId), codec, refreshedAt);
+        }
+
+        /**
+         * Returns the number of upstream pages held by this snapshot.
+         *
+         * @return The page count
+         */
+        public int pageCount() {
+            return pages.size();
+        }
+
+        /**
+         * Returns the characters of a page.
+         *
+         * @param page The 1-based page number
+         * @return The characters of the page, or null if the page does not exist
+         */
+        public List<Character> page(int page) {
+            if (page < 1 || page > pages.size()) {
+                return null;
+            }
+            return pages.get(page - 1).stream().map(codec::decode).toList();
+        }
+
+        /**
+         * Returns a character by ID.
+         *
+         * @param id The ID of the character
+         * @return The character, or null if it is not part of the catalog
+         */
+        public Character get(int id) {
+            CompactCharacter compact = byId.get(id);
+            return compact == null ? null : codec.decode(compact);
+        }
+
+        /**
+         * Returns every character in page order.
+         *
+         * @return A Flux over the full catalog
+         */
+        public Flux<Character> all() {
+            return Flux.fromIterable(pages).flatMapIterable(page -> page).map(codec::decode);
+        }
+    }
+
+    /**
+     * Difference between two consecutive snapshots, keyed by character ID.
+     *
+     * @param fromVersion Version of the previous snapshot, or 0 for the first snapshot
+     * @param toVersion   Version of the new snapshot
+     * @param added       Characters present only in the new snapshot
+     * @param changed     Characters present in both snapshots whose content differs
+     * @param removed     IDs of characters present only in the previous snapshot
+     */
+    public record Change(long fromVersion, long toVersion, List<Character> added,
+                         List<Character> changed, List<Integer> removed) {
+
+        static Change between(Snapshot previous, Snapshot next) {
+            Map<Integer, CompactCharacter> before = previous == null ? Map.of() : previous.byId();
+            List<Character> added = new ArrayList<>();
+            List<Character> changed = new ArrayList<>();
+            List<Integer> removed = new ArrayList<>();
+            for (List<CompactCharacter> page : next.pages()) {
+                for (CompactCharacter character : page) {
+                    CompactCharacter old = before.get(character.getId());
+                    if (old == null) {
+                        added.add(next.codec().decode(character));
+                    } else if (!old.equals(character)) {
+                        changed.add(next.codec().decode(character));
+                    }
+                }
+            }
+            before.keySet().forEach(id -> {
+                if (!next.byId().containsKey(id)) {
+                    removed.add(id);
+                }
+            });
+            return new Change(previous == null ? 0 : previous.version(), next.version(), added, changed, removed);
+        }
+
+        /**
+         * Combines this change with the change that follows it into a single change between the
+         * previous snapshot of this one and the new snapshot of the next one.
+         *
+         * @param next The change published right after this one
+         * @return The combined change; a character added and then removed appears in neither list
+         */
+        public Change then(Change next) {
+            Map<Integer, Character> addedById = new LinkedHashMap<>();
+            Map<Integer, Character> changedById = new LinkedHashMap<>();
+            Set<Integer> removedIds = new LinkedHashSet<>(removed);
+            added.forEach(character -> addedById.put(character.getId(), character));
+            changed.forEach(character -> changedById.put(character.getId(), character));
+            for (Character character : next.added()) {
+                if (removedIds.remove(character.getId())) {
+                    changedById.put(character.getId(), character);
+                } else {
+                    addedById.put(character.getId(), character);
+                }
+            }
+            for (Character character : next.changed()) {
+                if (addedById.containsKey(character.getId())) {
+                    addedById.put(character.getId(), character);
+                } else {
+                    changedById.put(character.getId(), character);
+                }
+            }
+            for (Integer id : next.removed()) {
+                if (addedById.remove(id) == null) {
+                    changedById.remove(id);
+                    removedIds.add(id);
+                }
+            }
+            return new Change(fromVersion, next.toVersion(), new ArrayList<>(addedById.values()),
+                    new ArrayList<>(changedById.values()), new ArrayList<>(removedIds));
+        }
+
+        /**
+         * Indicates whether the change carries no difference.
+         *
+         * @return true if nothing was added, changed or removed
+         */
+        @JsonIgnore
+        public boolean isEmpty() {
+            return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.yobel.rickandmortyback.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yobel.rickandmortyback.config.CharacterNegativeCacheProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process cache of character lookups known to find nothing.
+ * <p>
+ * IDs the upstream API answered with 404 and names its filter found no match for are remembered for
+ * {@link CharacterNegativeCacheProperties#getTtl()}, so repeated probes for them are answered as not
+ * found without an upstream call. IDs below one, and IDs more than
+ * {@link CharacterNegativeCacheProperties#getCountMargin()} above the character count advertised by the
+ * last upstream page seen within {@link CharacterNegativeCacheProperties#getCountTtl()}, are rejected
+ * without being remembered, since the upstream numbers its characters from one without gaps. IDs within
+ * the margin are looked up upstream, and one that is found raises the known count, so characters added
+ * after the count was seen are not reported as missing.
+ * </p>
+ * <p>
+ * Hit and miss counters are published to Micrometer under the {@code cache.*} meters with the tags
+ * {@code cache=characters-missing} and {@code cache=characters-no-match}, and IDs rejected by range under
+ * {@code character.negative-cache.out-of-range}.
+ * </p>
+ */
+@Component
+public class CharacterNegativeCache implements MeterBinder {
+    /**
+     * Name under which the metrics of missing IDs are published
+     */
+    private static final String MISSING_IDS_NAME = "characters-missing";
+    /**
+     * Name under which the metrics of names without matches are published
+     */
+    private static final String NO_MATCH_NAME = "characters-no-match";
+
+    private final Cache<Integer, Boolean> missingIds;
+    private final Cache<String, Boolean> namesWithoutMatch;
+    private final boolean enabled;
+    private final long countTtlNanos;
+    private final int countMargin;
+    private final LongAdder outOfRange = new LongAdder();
+    private volatile KnownCount knownCount;
+
+    /**
+     * Constructs a new CharacterNegativeCache sized and timed according to the given properties.
+     *
+     * @param properties The negative cache configuration
+     */
+    public CharacterNegativeCache(CharacterNegativeCacheProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.countTtlNanos = properties.getCountTtl().toNanos();
+        this.countMargin = properties.getCountMargin();
+        this.missingIds = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.namesWithoutMatch = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Indicates whether a character is known not to exist.
+     *
+     * @param id The ID of the character
+     * @return true if the ID is out of range or was recently not found upstream
+     */
+    public boolean isMissing(int id) {
+        if (!enabled) {
+            return false;
+        }
+        KnownCount count = knownCount;
+        if (id < 1 || (count != null && id - countMargin > count.count()
+                && System.nanoTime() - count.observedAt() < countTtlNanos)) {
+            outOfRange.increment();
+            return true;
+        }
+        return missingIds.getIfPresent(id) != null;
+    }
+
+    /**
+     * Remembers that the upstream API found no character with the given ID.
+     *
+     * @param id The ID of the character
+     */
+    public void recordMissing(int id) {
+        if (enabled) {
+            missingIds.put(id, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Records that the upstream API returned a character, raising the known character count if the ID is
+     * above it.
+     *
+     * @param id The ID of the character
+     */
+    public void recordFound(int id) {
+        KnownCount count = knownCount;
+        if (count != null && id > count.count()) {
+            knownCount = new KnownCount(id, System.nanoTime());
+        }
+    }
+
+    /**
+     * Indicates whether a name search is known to have no match.
+     *
+     * @param name The name searched for
+     * @return true if the same search, ignoring case, recently found nothing upstream
+     */
+    public boolean hasNoMatch(String name) {
+        return enabled && namesWithoutMatch.getIfPresent(normalizedName(name)) != null;
+    }
+
+    /**
+     * Remembers that the upstream name filter found no character for the given name.
+     *
+     * @param name The name searched for
+     */
+    public void recordNoMatch(String name) {
+        if (enabled) {
+            namesWithoutMatch.put(normalizedName(name), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Records the character count advertised by the {@code info} block of an upstream page.
+     *
+     * @param count The total number of characters, ignored when null
+     */
+    public void recordCount(Integer count) {
+        if (count != null && count > 0) {
+            knownCount = new KnownCount(count, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, missingIds, MISSING_IDS_NAME, Collections.emptyList());
+        CaffeineCacheMetrics.monitor(registry, namesWithoutMatch, NO_MATCH_NAME, Collections.emptyList());
+        FunctionCounter.builder("character.negative-cache.out-of-range", outOfRange, LongAdder::sum)
+                .description("Character lookups rejected because the ID is outside the upstream range")
+                .register(registry);
+    }
+
+    /**
+     * Returns the key under which results of a name search are remembered. The upstream name filter
+     * ignores case, so searches differing only by case share their key.
+     *
+     * @param name The name searched for
+     * @return The name in lower case
+     */
+    static String normalizedName(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Character count of an upstream page together with the time it was seen.
+     */
+    private record KnownCount(int count, long observedAt) {
+    }
+}
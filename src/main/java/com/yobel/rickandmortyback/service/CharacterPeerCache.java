@@ -0,0 +1,134 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.client.CharacterPeerClient;
+import com.yobel.rickandmortyback.client.CharacterPeerRing;
+import com.yobel.rickandmortyback.config.CharacterPeerProperties;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.model.Character;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Routes lookups by ID to the instance that owns them, so the cluster loads each character from the
+ * upstream API once instead of once per instance.
+ * <p>
+ * Ownership is decided by a {@link CharacterPeerRing} over {@link CharacterPeerProperties#getMembers()}.
+ * Keys owned by this instance, and every key while the peer layer is disabled, are loaded locally.
+ * Other keys are requested from the owner, which answers from its own {@link CharacterCache}: concurrent
+ * requests for the same ID, from any number of peers, share one in-flight load there, and misses for
+ * different IDs are merged by its {@link CharacterBatchLoader}.
+ * </p>
+ * <p>
+ * A peer that cannot be reached or times out is marked down for
+ * {@link CharacterPeerProperties#getDownCooldown()}; its keys are loaded from the upstream API directly
+ * meanwhile, so a failed instance costs one timeout per cooldown rather than one per request. An error
+ * response from a reachable owner falls back the same way for that request only. A not found answer is
+ * authoritative and is returned as is.
+ * </p>
+ * <p>
+ * Loads are counted in {@code character.peer.loads}, tagged with {@code source} {@code local},
+ * {@code peer} or {@code fallback}.
+ * </p>
+ */
+@Component
+@Log4j2
+public class CharacterPeerCache {
+    /**
+     * Name of the counter recording loads by source
+     */
+    private static final String LOADS_METRIC = "character.peer.loads";
+
+    private final CharacterPeerClient peerClient;
+    private final CharacterPeerProperties properties;
+    private final CharacterPeerRing ring;
+    private final String self;
+    private final Map<String, Long> downUntil = new ConcurrentHashMap<>();
+    private final Counter localLoads;
+    private final Counter peerLoads;
+    private final Counter fallbackLoads;
+
+    /**
+     * Constructs a new CharacterPeerCache.
+     *
+     * @param peerClient    The client used to reach the owners
+     * @param properties    The peer configuration
+     * @param meterRegistry The registry receiving the load counters
+     * @throws IllegalStateException if the peer layer is enabled and this instance is not a member
+     */
+    public CharacterPeerCache(CharacterPeerClient peerClient, CharacterPeerProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.peerClient = peerClient;
+        this.properties = properties;
+        this.self = properties.getSelf();
+        List<String> members = new ArrayList<>(properties.getMembers());
+        if (properties.isEnabled() && !members.contains(self)) {
+            throw new IllegalStateException("character.peers.self (" + self
+                    + ") must be one of character.peers.members " + members);
+        }
+        this.ring = new CharacterPeerRing(members, properties.getVirtualNodes());
+        this.localLoads = loads("local", meterRegistry);
+        this.peerLoads = loads("peer", meterRegistry);
+        this.fallbackLoads = loads("fallback", meterRegistry);
+    }
+
+    private static Counter loads(String source, MeterRegistry meterRegistry) {
+        return Counter.builder(LOADS_METRIC)
+                .description("Character loads by ID, by where they were served from")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads a character from its owner, or locally if this instance owns it.
+     *
+     * @param id    The ID of the character
+     * @param local Function loading the character from the upstream API
+     * @return A Mono containing the character
+     */
+    public Mono<Character> load(int id, IntFunction<Mono<Character>> local) {
+        String owner = properties.isEnabled() ? ring.owner("character:" + id) : null;
+        if (owner == null || owner.equals(self) || isDown(owner)) {
+            localLoads.increment();
+            return local.apply(id);
+        }
+        return peerClient.fetchCharacterById(owner, id)
+                .doOnNext(character -> peerLoads.increment())
+                .onErrorResume(ex -> !(ex instanceof ResourceNotFoundException), ex -> {
+                    if (!(ex instanceof WebClientResponseException)) {
+                        markDown(owner, ex);
+                    }
+                    fallbackLoads.increment();
+                    return local.apply(id);
+                });
+    }
+
+    private boolean isDown(String member) {
+        Long until = downUntil.get(member);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        downUntil.remove(member, until);
+        return false;
+    }
+
+    private void markDown(String member, Throwable ex) {
+        long until = System.nanoTime() + properties.getDownCooldown().toNanos();
+        if (downUntil.put(member, until) == null) {
+            log.warn("Peer {} is unreachable, loading its characters from the upstream API for {}: {}",
+                    member, properties.getDownCooldown(), ex.toString());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.exception.BadRequestException;
+import com.yobel.rickandmortyback.model.Character;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Filters, ordering and limit requested on a list of characters.
+ * <p>
+ * The query is applied to the character stream itself: filters drop elements as they are emitted and a
+ * limit without ordering cancels the source once enough characters went through, so an unmirrored
+ * catalog stops fetching pages. Ordering has to see every matching character, and is applied after the
+ * filters so only those are buffered.
+ * </p>
+ *
+ * @param statuses Accepted statuses, compared ignoring case, empty to accept any
+ * @param species  Accepted species, compared ignoring case, empty to accept any
+ * @param genders  Accepted genders, compared ignoring case, empty to accept any
+ * @param order    The ordering of the results, or null to keep the source order
+ * @param limit    The maximum number of results, or null for no limit
+ */
+public record CharacterQuery(List<String> statuses, List<String> species, List<String> genders,
+                             Comparator<Character> order, Integer limit) {
+
+    /**
+     * Parses the query parameters of a list route.
+     *
+     * @param status  Comma-separated accepted statuses, may be null
+     * @param species Comma-separated accepted species, may be null
+     * @param gender  Comma-separated accepted genders, may be null
+     * @param sort    Comma-separated sort keys such as {@code name,-id}, a leading minus sorting in
+     *                descending order, may be null
+     * @param limit   The maximum number of results, may be null
+     * @return The query
+     * @throws BadRequestException if a sort key is unknown or the limit is not positive
+     */
+    public static CharacterQuery of(String status, String species, String gender, String sort, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new BadRequestException("limit must be greater than zero");
+        }
+        return new CharacterQuery(values(status), values(species), values(gender), order(sort), limit);
+    }
+
+    /**
+     * Applies the query to a stream of characters.
+     *
+     * @param characters The characters, in source order
+     * @return The matching characters, ordered and limited as requested
+     */
+    public Flux<Character> apply(Flux<Character> characters) {
+        if (!statuses.isEmpty() || !species.isEmpty() || !genders.isEmpty()) {
+            characters = characters.filter(this::matches);
+        }
+        if (order != null) {
+            characters = characters.sort(order);
+        }
+        return limit == null ? characters : characters.take(limit);
+    }
+
+    boolean matches(Character character) {
+        return accepts(statuses, character.getStatus())
+                && accepts(species, character.getSpecies())
+                && accepts(genders, character.getGender());
+    }
+
+    private static boolean accepts(List<String> accepted, String value) {
+        if (accepted.isEmpty()) {
+            return true;
+        }
+        for (String candidate : accepted) {
+            if (candidate.equalsIgnoreCase(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> values(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .toList();
+    }
+
+    private static Comparator<Character> order(String sort) {
+        Comparator<Character> order = null;
+        for (String part : values(sort)) {
+            boolean descending = part.startsWith("-");
+            CharacterField field = CharacterField.of(descending ? part.substring(1) : part, "sort");
+            Comparator<Character> key = comparator(field, descending);
+            order = order == null ? key : order.thenComparing(key);
+        }
+        return order;
+    }
+
+    /**
+     * Orders by one field. Missing values sort last in either direction, and strings ignore case.
+     */
+    private static Comparator<Character> comparator(CharacterField field, boolean descending) {
+        return switch (field) {
+            case ID -> key(Character::getId, Comparator.<Integer>naturalOrder(), descending);
+            case NAME -> key(Character::getName, String.CASE_INSENSITIVE_ORDER, descending);
+            case STATUS -> key(Character::getStatus, String.CASE_INSENSITIVE_ORDER, descending);
+            case SPECIES -> key(Character::getSpecies, String.CASE_INSENSITIVE_ORDER, descending);
+            case TYPE -> key(Character::getType, String.CASE_INSENSITIVE_ORDER, descending);
+            case GENDER -> key(Character::getGender, String.CASE_INSENSITIVE_ORDER, descending);
+            case CREATED -> key(Character::getCreated, Comparator.naturalOrder(), descending);
+            default -> throw new BadRequestException("Cannot sort by " + field.propertyName());
+        };
+    }
+
+    private static <T> Comparator<Character> key(Function<Character, T> getter, Comparator<T> order,
+                                                 boolean descending) {
+        return Comparator.comparing(getter, Comparator.nullsLast(descending ? order.reversed() : order));
+    }
+}
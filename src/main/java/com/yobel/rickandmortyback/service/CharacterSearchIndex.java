@@ -0,0 +1,364 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.model.Character;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Local full-text index over character names.
+ * <p>
+ * Names are normalized (accents removed, lower-cased, punctuation collapsed to spaces) and indexed
+ * in two structures:
+ * </p>
+ * <ul>
+ *     <li>A prefix trie over name tokens, answering "starts with" queries as the user types</li>
+ *     <li>Trigram postings over the whole normalized name, answering substring queries</li>
+ * </ul>
+ * <p>
+ * Optionally, query tokens are also matched against indexed tokens within a small edit distance to
+ * tolerate typos. Results are ranked by match quality: exact name, name prefix, token prefix,
+ * substring and finally fuzzy matches.
+ * </p>
+ * <p>
+ * The index is fed by {@link CharacterMirror} change events and updated incrementally: only added,
+ * changed and removed characters are touched. Reads and updates are guarded by a read-write lock.
+ * </p>
+ * <p>
+ * Only IDs and normalized names are retained; callers resolve the returned IDs against the current
+ * mirror snapshot, so the index does not keep a second copy of the catalog.
+ * </p>
+ */
+@Component
+@Log4j2
+public class CharacterSearchIndex {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private static final int SCORE_EXACT = 100;
+    private static final int SCORE_NAME_PREFIX = 90;
+    private static final int SCORE_TOKEN_PREFIX = 70;
+    private static final int SCORE_SUBSTRING = 50;
+    private static final int SCORE_FUZZY = 30;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final TrieNode root = new TrieNode();
+    private final Map<String, Set<Integer>> trigrams = new HashMap<>();
+    private volatile long version;
+
+    /**
+     * Constructs a new CharacterSearchIndex kept up to date by the given mirror.
+     *
+     * @param characterMirror The mirror whose changes are indexed
+     */
+    public CharacterSearchIndex(CharacterMirror characterMirror) {
+        characterMirror.onChange(this::apply);
+    }
+
+    /**
+     * Indicates whether the index has been built from at least one mirror snapshot.
+     *
+     * @return true if searches can be answered from the index
+     */
+    public boolean isReady() {
+        return version > 0;
+    }
+
+    /**
+     * Applies a mirror change to the index, touching only the affected characters.
+     *
+     * @param change The change between two mirror snapshots
+     */
+    public void apply(CharacterMirror.Change change) {
+        lock.writeLock().lock();
+        try {
+            change.removed().forEach(this::remove);
+            change.changed().forEach(this::upsert);
+            change.added().forEach(this::upsert);
+            version = change.toVersion();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Character search index updated to version {} ({} added, {} changed, {} removed)",
+                change.toVersion(), change.added().size(), change.changed().size(), change.removed().size());
+    }
+
+    /**
+     * Searches for characters whose name matches the query, ranked by match quality.
+     *
+     * @param query The text typed by the user
+     * @param limit Maximum number of results to return
+     * @param fuzzy Whether tokens within a small edit distance also match
+     * @return The IDs of the matching characters, best match first
+     */
+    public List<Integer> search(String query, int limit, boolean fuzzy) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String[] queryTokens = normalized.split(" ");
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = new HashMap<>();
+            collectPrefixMatches(queryTokens, scores);
+            collectSubstringMatches(normalized, scores);
+            if (fuzzy) {
+                collectFuzzyMatches(queryTokens, scores);
+            }
+            scores.replaceAll((id, score) -> score < SCORE_TOKEN_PREFIX ? score : rankPrefix(entries.get(id), normalized, score));
+
+            List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Comparator.<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                    .thenComparingInt(e -> entries.get(e.getKey()).normalizedName.length())
+                    .thenComparingInt(Map.Entry::getKey));
+
+            List<Integer> results = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                results.add(ranked.get(i).getKey());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalizes text for indexing and querying.
+     *
+     * @param text The raw text
+     * @return The text without accents, lower-cased, with non-alphanumeric runs replaced by a single space
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private void collectPrefixMatches(String[] queryTokens, Map<Integer, Integer> scores) {
+        Set<Integer> matches = null;
+        for (String token : queryTokens) {
+            TrieNode node = root.find(token);
+            if (node == null) {
+                return;
+            }
+            if (matches == null) {
+                matches = new HashSet<>(node.prefixIds);
+            } else {
+                matches.retainAll(node.prefixIds);
+            }
+        }
+        if (matches != null) {
+            matches.forEach(id -> scores.merge(id, SCORE_TOKEN_PREFIX, Math::max));
+        }
+    }
+
+    private void collectSubstringMatches(String normalized, Map<Integer, Integer> scores) {
+        Iterable<Integer> candidates;
+        if (normalized.length() < 3) {
+            candidates = entries.keySet();
+        } else {
+            Set<Integer> intersection = null;
+            for (String trigram : trigramsOf(normalized)) {
+                Set<Integer> postings = trigrams.getOrDefault(trigram, Set.of());
+                if (intersection == null) {
+                    intersection = new HashSet<>(postings);
+                } else {
+                    intersection.retainAll(postings);
+                }
+                if (intersection.isEmpty()) {
+                    return;
+                }
+            }
+            candidates = intersection;
+        }
+        for (Integer id : candidates) {
+            if (entries.get(id).normalizedName.contains(normalized)) {
+                scores.merge(id, SCORE_SUBSTRING, Math::max);
+            }
+        }
+    }
+
+    private void collectFuzzyMatches(String[] queryTokens, Map<Integer, Integer> scores) {
+        Map<Integer, Integer> distances = null;
+        for (String token : queryTokens) {
+            int maxEdits = token.length() < 3 ? 0 : token.length() < 6 ? 1 : 2;
+            Map<Integer, Integer> tokenMatches = new HashMap<>();
+            root.collectWithinDistance(token, maxEdits, tokenMatches);
+            if (distances == null) {
+                distances = tokenMatches;
+            } else {
+                Map<Integer, Integer> previous = distances;
+                tokenMatches.keySet().retainAll(previous.keySet());
+                tokenMatches.replaceAll((id, distance) -> distance + previous.get(id));
+                distances = tokenMatches;
+            }
+        }
+        if (distances != null) {
+            distances.forEach((id, distance) -> scores.merge(id, SCORE_FUZZY - 5 * distance, Math::max));
+        }
+    }
+
+    /**
+     * Promotes prefix matches whose whole name equals or starts with the query.
+     */
+    private static int rankPrefix(Entry entry, String normalized, int score) {
+        if (entry.normalizedName.equals(normalized)) {
+            return SCORE_EXACT;
+        }
+        if (entry.normalizedName.startsWith(normalized)) {
+            return SCORE_NAME_PREFIX;
+        }
+        return score;
+    }
+
+    private void upsert(Character character) {
+        if (character.getId() == null) {
+            return;
+        }
+        remove(character.getId());
+        Entry entry = new Entry(normalize(character.getName()));
+        entries.put(character.getId(), entry);
+        for (String token : entry.tokens()) {
+            root.insert(token, character.getId());
+        }
+        for (String trigram : trigramsOf(entry.normalizedName)) {
+            trigrams.computeIfAbsent(trigram, key -> new HashSet<>()).add(character.getId());
+        }
+    }
+
+    private void remove(Integer id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String token : entry.tokens()) {
+            root.delete(token, id);
+        }
+        for (String trigram : trigramsOf(entry.normalizedName)) {
+            Set<Integer> postings = trigrams.get(trigram);
+            if (postings != null) {
+                postings.remove(id);
+                if (postings.isEmpty()) {
+                    trigrams.remove(trigram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> trigramsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(text.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    /**
+     * Normalized name of an indexed character.
+     */
+    private record Entry(String normalizedName) {
+        String[] tokens() {
+            return normalizedName.isEmpty() ? new String[0] : normalizedName.split(" ");
+        }
+    }
+
+    /**
+     * Node of the token prefix trie. Each node keeps the IDs of all characters having a token
+     * under it, so prefix lookups do not need to walk the subtree.
+     */
+    private static final class TrieNode {
+        private final Map<java.lang.Character, TrieNode> children = new HashMap<>();
+        private final Set<Integer> prefixIds = new HashSet<>();
+        private final Set<Integer> terminalIds = new HashSet<>();
+
+        void insert(String token, int id) {
+            TrieNode node = this;
+            for (int i = 0; i < token.length(); i++) {
+                node = node.children.computeIfAbsent(token.charAt(i), c -> new TrieNode());
+                node.prefixIds.add(id);
+            }
+            node.terminalIds.add(id);
+        }
+
+        void delete(String token, int id) {
+            TrieNode node = this;
+            for (int i = 0; i < token.length() && node != null; i++) {
+                TrieNode child = node.children.get(token.charAt(i));
+                if (child == null) {
+                    return;
+                }
+                child.prefixIds.remove(id);
+                if (child.prefixIds.isEmpty()) {
+                    node.children.remove(token.charAt(i));
+                    return;
+                }
+                node = child;
+            }
+            if (node != null) {
+                node.terminalIds.remove(id);
+            }
+        }
+
+        TrieNode find(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        /**
+         * Collects the IDs of tokens within {@code maxEdits} edits of the query, counting insertions,
+         * deletions, substitutions and transpositions of adjacent letters. Branches whose
+         * edit-distance row already exceeds the bound are pruned.
+         */
+        void collectWithinDistance(String query, int maxEdits, Map<Integer, Integer> matches) {
+            int[] firstRow = new int[query.length() + 1];
+            for (int i = 0; i < firstRow.length; i++) {
+                firstRow[i] = i;
+            }
+            children.forEach((letter, child) ->
+                    child.collectWithinDistance(letter, (char) 0, query, firstRow, null, maxEdits, matches));
+        }
+
+        private void collectWithinDistance(char letter, char previousLetter, String query, int[] previousRow,
+                                           int[] rowBeforePrevious, int maxEdits, Map<Integer, Integer> matches) {
+            int[] row = new int[previousRow.length];
+            row[0] = previousRow[0] + 1;
+            int rowMin = row[0];
+            for (int i = 1; i < row.length; i++) {
+                int cost = query.charAt(i - 1) == letter ? 0 : 1;
+                row[i] = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), previousRow[i - 1] + cost);
+                if (rowBeforePrevious != null && i > 1
+                        && query.charAt(i - 1) == previousLetter && query.charAt(i - 2) == letter) {
+                    row[i] = Math.min(row[i], rowBeforePrevious[i - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, row[i]);
+            }
+            int distance = row[row.length - 1];
+            if (distance <= maxEdits) {
+                terminalIds.forEach(id -> matches.merge(id, distance, Math::min));
+            }
+            if (rowMin <= maxEdits) {
+                children.forEach((next, child) ->
+                        child.collectWithinDistance(next, letter, query, row, previousRow, maxEdits, matches));
+            }
+        }
+    }
+}
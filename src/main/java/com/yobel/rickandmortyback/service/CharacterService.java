@@ -1,61 +1,144 @@
 package com.yobel.rickandmortyback.service;
 
+import com.yobel.rickandmortyback.client.CharacterApiClient;
+import com.yobel.rickandmortyback.client.CharacterBatchLoader;
+import com.yobel.rickandmortyback.client.CharacterPageChunk;
+import com.yobel.rickandmortyback.config.CharacterCatalogProperties;
+import com.yobel.rickandmortyback.config.CharacterSearchProperties;
+import com.yobel.rickandmortyback.exception.BadRequestException;
 import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
-import com.yobel.rickandmortyback.model.response.CharacterResponse;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import com.yobel.rickandmortyback.model.Character;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntFunction;
 
 /**
  * Service for handling character-related operations with the Rick and Morty API.
  * <p>
  * This service provides methods to interact with the character endpoints of the Rick and Morty API.
- * It uses WebClient to make reactive HTTP requests and handle responses in a non-blocking way.
- * All methods incorporate error handling, request timeouts, and appropriate transformations of API responses.
+ * Upstream requests are made through {@link CharacterApiClient}, which applies request timeouts and
+ * error translation. When the {@link CharacterMirror} is ready, requests are answered from the local
+ * mirror and the {@link CharacterSearchIndex} instead, and no upstream call is made on the request path.
+ * </p>
+ * <p>
+ * Responses obtained from the upstream are remembered by {@link StaleFallback} and served again, marked
+ * as stale, while the upstream circuit is open.
+ * </p>
+ * <p>
+ * When several instances run side by side, lookups by ID that miss the cache are routed through the
+ * {@link CharacterPeerCache} to the instance owning the ID, so each character is loaded from the
+ * upstream once for the whole cluster.
+ * </p>
+ * <p>
+ * Lookups by ID and name searches that the {@link CharacterNegativeCache} knows find nothing fail with
+ * {@link ResourceNotFoundException} straight away, so probing unknown IDs or names costs no upstream call.
  * </p>
  */
 @Service
 @Log4j2
 public class CharacterService {
-    private final WebClient webClient;
+    private final CharacterApiClient apiClient;
+    private final CharacterBatchLoader batchLoader;
+    private final CharacterCache characterCache;
+    private final CharacterMirror characterMirror;
+    private final CharacterSearchIndex searchIndex;
+    private final CharacterCatalogProperties catalogProperties;
+    private final CharacterSearchProperties searchProperties;
+    private final StaleFallback staleFallback;
+    private final CharacterPeerCache peerCache;
+    private final CharacterNegativeCache negativeCache;
+
     /**
-     * Path to the character endpoint in the Rick and Morty API
+     * Constructs a new CharacterService.
+     *
+     * @param apiClient         The client used for upstream API requests
+     * @param batchLoader       The loader merging concurrent lookups by ID into multi-ID requests
+     * @param characterCache    The cache used for lookups by ID
+     * @param characterMirror   The local mirror of the full catalog
+     * @param searchIndex       The local name index built from the mirror
+     * @param catalogProperties The settings used when walking the full catalog
+     * @param searchProperties  The default search settings
+     * @param staleFallback     The fallback serving previous responses while the upstream is unavailable
+     * @param peerCache         The cache routing lookups by ID to the instance that owns them
+     * @param negativeCache     The cache of lookups known to find nothing
      */
-    private static final String CHARACTER_API_PATH = "/character";
+    public CharacterService(CharacterApiClient apiClient, CharacterBatchLoader batchLoader,
+                            CharacterCache characterCache, CharacterMirror characterMirror,
+                            CharacterSearchIndex searchIndex, CharacterCatalogProperties catalogProperties,
+                            CharacterSearchProperties searchProperties, StaleFallback staleFallback,
+                            CharacterPeerCache peerCache, CharacterNegativeCache negativeCache) {
+        this.apiClient = apiClient;
+        this.batchLoader = batchLoader;
+        this.characterCache = characterCache;
+        this.characterMirror = characterMirror;
+        this.searchIndex = searchIndex;
+        this.catalogProperties = catalogProperties;
+        this.searchProperties = searchProperties;
+        this.staleFallback = staleFallback;
+        this.peerCache = peerCache;
+        this.negativeCache = negativeCache;
+    }
+
     /**
-     * Timeout duration for API requests
+     * Indicates whether reads are currently answered from the local mirror, in which case every
+     * method returns data that is already in memory.
+     *
+     * @return true if the mirror holds a complete snapshot
      */
-    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    public boolean isServedFromMirror() {
+        return characterMirror.isReady();
+    }
 
     /**
-     * Constructs a new CharacterService with the provided WebClient.
+     * Retrieves all characters from the Rick and Morty API, using the configured ordering.
      *
-     * @param webClient The WebClient to use for making API requests
+     * @return A Flux of Character objects containing all available characters
+     * @see #getAllCharacters(boolean)
      */
-    public CharacterService(WebClient webClient) {
-        this.webClient = webClient;
+    public Flux<Character> getAllCharacters() {
+        return getAllCharacters(catalogProperties.isOrdered());
     }
 
     /**
-     * Retrieves all characters from the Rick and Morty API.
+     * Retrieves all characters from the Rick and Morty API by walking every upstream page.
+     * <p>
+     * The first page is streamed, and as soon as its {@code info} block has been decoded the
+     * remaining pages are fetched concurrently, bounded by
+     * {@link CharacterCatalogProperties#getPageConcurrency()}. Characters are emitted as soon as
+     * they are decoded, so the first elements are available after a single round trip.
+     * </p>
      *
+     * @param ordered Whether characters must be emitted in page order; when false, pages are
+     *                emitted in arrival order
      * @return A Flux of Character objects containing all available characters
      */
-    public Flux<Character> getAllCharacters() {
-        return webClient.get()
-                .uri(CHARACTER_API_PATH)
-                .retrieve()
-                .bodyToMono(CharacterResponse.class)
-                .timeout(REQUEST_TIMEOUT)
-                .onErrorMap(this::handleApiError)
-                .flatMapMany(response -> Flux.fromIterable(response.getResults()));
+    public Flux<Character> getAllCharacters(boolean ordered) {
+        if (characterMirror.isReady()) {
+            return characterMirror.current().all();
+        }
+        int concurrency = catalogProperties.getPageConcurrency();
+        // The whole catalog is too large to be remembered by the stale fallback
+        return observeCount(apiClient.streamFirstPage())
+                .publish(first -> {
+                    Flux<Character> firstPage = CharacterPageChunk.characters(first);
+                    Flux<Character> remaining = first.ofType(CharacterPageChunk.InfoChunk.class)
+                            .take(1)
+                            .flatMap(chunk -> {
+                                Flux<Integer> pages = Flux.range(2, Math.max(0, CharacterApiClient.totalPages(chunk.info()) - 1));
+                                return ordered
+                                        ? pages.flatMapSequential(this::streamCharacters, concurrency)
+                                        : pages.flatMap(this::streamCharacters, concurrency);
+                            });
+                    return ordered
+                            ? Flux.mergeSequential(firstPage, remaining)
+                            : Flux.merge(firstPage, remaining);
+                });
     }
 
     /**
@@ -63,95 +146,150 @@ public class CharacterService {
      *
      * @param page The page number to retrieve
      * @return A Flux of Character objects from the specified page
+     * @throws ResourceNotFoundException if the page does not exist
      */
     public Flux<Character> getCharactersByPage(int page) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path(CHARACTER_API_PATH)
-                        .queryParam("page", page)
-                        .build())
-                .retrieve()
-                .bodyToMono(CharacterResponse.class)
-                .timeout(REQUEST_TIMEOUT)
-                .onErrorMap(this::handleApiError)
-                .flatMapMany(response -> Flux.fromIterable(response.getResults()));
+        if (characterMirror.isReady()) {
+            List<Character> characters = characterMirror.current().page(page);
+            if (characters == null) {
+                return Flux.error(new ResourceNotFoundException("Page " + page + " not found"));
+            }
+            return Flux.fromIterable(characters);
+        }
+        return staleFallback.remember("characters:page:" + page, streamCharacters(page));
+    }
+
+    /**
+     * Streams the characters of an upstream page as they are decoded.
+     *
+     * @param page The page number to fetch
+     * @return A Flux of Character objects from the specified page
+     */
+    private Flux<Character> streamCharacters(int page) {
+        return CharacterPageChunk.characters(observeCount(apiClient.streamPage(page)));
+    }
+
+    /**
+     * Records the character count of the upstream pages flowing through, which bounds the valid IDs.
+     *
+     * @param chunks The chunks of an upstream page
+     * @return The same chunks
+     */
+    private Flux<CharacterPageChunk> observeCount(Flux<CharacterPageChunk> chunks) {
+        return chunks.doOnNext(chunk -> {
+            if (chunk instanceof CharacterPageChunk.InfoChunk infoChunk && infoChunk.info() != null) {
+                negativeCache.recordCount(infoChunk.info().getCount());
+            }
+        });
     }
 
     /**
-     * Retrieves a specific character by its ID from the Rick and Morty API.
+     * Retrieves a specific character by its ID, served from the mirror or the character cache
+     * when possible. Cache misses are sent to the owning instance by the {@link CharacterPeerCache}, or
+     * go through the {@link CharacterBatchLoader} when this instance owns the ID, so concurrent misses
+     * for different IDs share one upstream request.
      *
      * @param id The ID of the character to retrieve
      * @return A Mono containing the Character if found
      * @throws ResourceNotFoundException if the character with the given ID is not found
      */
     public Mono<Character> getCharacterById(int id) {
-        return webClient.get()
-                .uri(CHARACTER_API_PATH + "/{id}", id)
-                .retrieve()
-                .bodyToMono(Character.class)
-                .timeout(REQUEST_TIMEOUT)
-                .onErrorResume(WebClientResponseException.class, ex -> {
-                    if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
-                        return Mono.error(new ResourceNotFoundException("Character with ID " + id + " not found"));
-                    }
-                    return Mono.error(ex);
-                })
-                .onErrorMap(throwable -> {
-                    if (!(throwable instanceof ResourceNotFoundException)) {
-                        return handleApiError(throwable);
-                    }
-                    return throwable;
-                });
+        return getCharacterById(id, key -> peerCache.load(key, batchLoader::load));
+    }
+
+    /**
+     * Retrieves a character on behalf of a peer that routed the lookup to this instance. It is served
+     * like {@link #getCharacterById(int)}, except that misses are always loaded here and never
+     * forwarded again, so members that disagree on ownership cannot bounce a request between them.
+     *
+     * @param id The ID of the character to retrieve
+     * @return A Mono containing the Character if found
+     * @throws ResourceNotFoundException if the character with the given ID is not found
+     */
+    public Mono<Character> getOwnedCharacterById(int id) {
+        return getCharacterById(id, batchLoader::load);
+    }
+
+    /**
+     * Retrieves several characters by ID. Each ID is looked up like {@link #getCharacterById(int)}, so
+     * cached characters cost nothing and the misses, requested together, are merged by the
+     * {@link CharacterBatchLoader} into multi-ID upstream requests. IDs that do not exist are skipped.
+     *
+     * @param ids The distinct IDs of the characters to retrieve
+     * @return A Flux of the characters that were found, in no particular order
+     */
+    public Flux<Character> getCharactersByIds(Collection<Integer> ids) {
+        return Flux.fromIterable(ids)
+                .flatMap(id -> getCharacterById(id)
+                        .onErrorResume(ResourceNotFoundException.class, ex -> Mono.empty()));
+    }
+
+    private Mono<Character> getCharacterById(int id, IntFunction<Mono<Character>> loader) {
+        if (characterMirror.isReady()) {
+            Character character = characterMirror.current().get(id);
+            if (character == null) {
+                return Mono.error(new ResourceNotFoundException("Character with ID " + id + " not found"));
+            }
+            return Mono.just(character);
+        }
+        if (negativeCache.isMissing(id)) {
+            return Mono.error(new ResourceNotFoundException("Character with ID " + id + " not found"));
+        }
+        return staleFallback.remember("characters:id:" + id, characterCache.get(id, loader)
+                .doOnNext(character -> negativeCache.recordFound(id))
+                .doOnError(ResourceNotFoundException.class, ex -> negativeCache.recordMissing(id)));
     }
 
     /**
-     * Searches for characters by name in the Rick and Morty API.
+     * Searches for characters by name, using the default limit and matching mode.
      *
      * @param name The name to search for
      * @return A Flux of Character objects that match the search criteria
      * @throws ResourceNotFoundException if no characters are found with the given name
+     * @see #getCharactersByName(String, Integer, Boolean)
      */
     public Flux<Character> getCharactersByName(String name) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path(CHARACTER_API_PATH)
-                        .queryParam("name", name)
-                        .build())
-                .retrieve()
-                .bodyToMono(CharacterResponse.class)
-                .timeout(REQUEST_TIMEOUT)
-                .onErrorResume(WebClientResponseException.class, ex -> {
-                    if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
-                        return Mono.error(new ResourceNotFoundException("No characters found with the name: " + name));
-                    }
-                    return Mono.error(ex);
-                })
-                .onErrorMap(throwable -> {
-                    if (!(throwable instanceof ResourceNotFoundException)) {
-                        return handleApiError(throwable);
-                    }
-                    return throwable;
-                })
-                .flatMapMany(response -> Flux.fromIterable(response.getResults()));
+        return getCharactersByName(name, null, null);
     }
 
     /**
-     * Handles API errors and converts them to appropriate exceptions.
+     * Searches for characters by name.
+     * <p>
+     * When the {@link CharacterSearchIndex} is ready, the search is answered locally and results
+     * are ranked by match quality. Otherwise the query is forwarded to the upstream {@code name}
+     * filter, which returns at most one page of results.
+     * </p>
      *
-     * @param ex The throwable that occurred during the API request
-     * @return A transformed throwable with more specific error information
+     * @param name  The name to search for
+     * @param limit Maximum number of results, or null for the configured default
+     * @param fuzzy Whether typo-tolerant matching is used, or null for the configured default
+     * @return A Flux of Character objects that match the search criteria
+     * @throws ResourceNotFoundException if no characters are found with the given name
+     * @throws BadRequestException       if the limit is not positive
      */
-    private Throwable handleApiError(Throwable ex) {
-        if (ex instanceof WebClientResponseException) {
-            WebClientResponseException wcre = (WebClientResponseException) ex;
-            log.error("Error in external API: {}. Response: {}", wcre.getStatusCode(), wcre.getResponseBodyAsString());
-
-            if (wcre.getStatusCode() == HttpStatus.NOT_FOUND) {
-                return new ResourceNotFoundException("Resource not found in Rick and Morty API");
+    public Flux<Character> getCharactersByName(String name, Integer limit, Boolean fuzzy) {
+        if (limit != null && limit < 1) {
+            return Flux.error(new BadRequestException("limit must be greater than zero"));
+        }
+        int effectiveLimit = Math.min(limit != null ? limit : searchProperties.getDefaultLimit(),
+                searchProperties.getMaxLimit());
+        CharacterMirror.Snapshot snapshot = characterMirror.current();
+        if (searchIndex.isReady() && snapshot != null) {
+            boolean effectiveFuzzy = fuzzy != null ? fuzzy : searchProperties.isFuzzy();
+            List<Character> matches = searchIndex.search(name, effectiveLimit, effectiveFuzzy).stream()
+                    .map(snapshot::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (matches.isEmpty()) {
+                return Flux.error(new ResourceNotFoundException("No characters found with the name: " + name));
             }
+            return Flux.fromIterable(matches);
         }
-
-        log.error("Error consuming Rick and Morty API", ex);
-        return new RuntimeException("Error processing request to external API: " + ex.getMessage());
+        if (negativeCache.hasNoMatch(name)) {
+            return Flux.error(new ResourceNotFoundException("No characters found with the name: " + name));
+        }
+        return staleFallback.remember("characters:name:" + CharacterNegativeCache.normalizedName(name) + ":" + effectiveLimit,
+                CharacterPageChunk.characters(apiClient.searchByName(name)).take(effectiveLimit)
+                        .doOnError(ResourceNotFoundException.class, ex -> negativeCache.recordNoMatch(name)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,392 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.config.CharacterMirrorProperties;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Persists the character catalog of the {@link CharacterMirror} to a local snapshot file, so a restarted
+ * instance is warm before it takes traffic.
+ * <p>
+ * The file is a compact binary image of a {@link CharacterMirror.Snapshot}. A fixed header carries a magic
+ * number, the format version, the body length and a CRC-32C of the body. The body starts with the snapshot
+ * version, count and refresh time and a table of the distinct strings of the catalog, written once each;
+ * characters follow page by page and refer to strings by index, so repeated values such as statuses,
+ * places and episode URLs take four bytes.
+ * </p>
+ * <p>
+ * A snapshot is written to a temporary file in the same directory, flushed to disk and then moved over
+ * the previous one atomically, so a crash never leaves a partially written file in place. It is read
+ * through a memory-mapped buffer. A missing file, an unknown format version, a checksum mismatch or a
+ * truncated body are all reported as no snapshot, and the mirror then starts cold as it would without
+ * one.
+ * </p>
+ */
+@Component
+@Log4j2
+public class CharacterSnapshotStore {
+    /**
+     * "RMMS", Rick and Morty mirror snapshot
+     */
+    static final int MAGIC = 0x524D4D53;
+
+    /**
+     * Version of the file layout, bumped whenever it changes
+     */
+    static final int FORMAT_VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+
+    private static final int NO_STRING = -1;
+    private static final int HAS_ORIGIN = 1;
+    private static final int HAS_LOCATION = 1 << 1;
+    private static final int HAS_EPISODES = 1 << 2;
+    private static final int HAS_CREATED = 1 << 3;
+
+    private final Path path;
+    private long savedVersion;
+
+    /**
+     * Constructs a new CharacterSnapshotStore.
+     *
+     * @param properties The mirror configuration holding the snapshot path
+     */
+    public CharacterSnapshotStore(CharacterMirrorProperties properties) {
+        this.path = properties.getSnapshotPath();
+    }
+
+    /**
+     * Indicates whether a snapshot path is configured.
+     *
+     * @return true if snapshots are loaded and saved
+     */
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    /**
+     * Catalog read back from a snapshot file.
+     *
+     * @param version     Version of the snapshot that was saved
+     * @param count       Total number of characters advertised by the upstream API
+     * @param refreshedAt When the saved snapshot was built
+     * @param pages       Characters grouped by upstream page, in page order
+     */
+    public record Contents(long version, int count, Instant refreshedAt, List<List<Character>> pages) {
+    }
+
+    /**
+     * Loads the snapshot file.
+     * <p>
+     * Loading does not change which snapshots {@link #save} accepts: a file that is read but not restored,
+     * e.g. because it is too old, is replaced by the next snapshot saved, whatever its version. Callers
+     * report a snapshot they actually restored with {@link #restored(long)}.
+     * </p>
+     *
+     * @return The saved catalog, or null if snapshots are disabled or no valid file exists
+     */
+    public synchronized Contents load() {
+        if (path == null) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        } catch (NoSuchFileException ex) {
+            log.info("No character snapshot at {}", path);
+            return null;
+        } catch (IOException ex) {
+            log.warn("Could not read character snapshot {}", path, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Records that the snapshot of the given version was restored from the file, so saves of older
+     * versions no longer replace it.
+     *
+     * @param version The version of the restored snapshot
+     */
+    public synchronized void restored(long version) {
+        savedVersion = Math.max(savedVersion, version);
+    }
+
+    /**
+     * Saves a snapshot, replacing the previous file atomically. Snapshots older than the last one saved
+     * are skipped, so saves completing out of order never roll the file back.
+     *
+     * @param snapshot The snapshot to save
+     */
+    public synchronized void save(CharacterMirror.Snapshot snapshot) {
+        if (path == null || snapshot.version() <= savedVersion) {
+            return;
+        }
+        try {
+            byte[] file = write(snapshot);
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(file);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(true);
+                }
+                move(temporary, path);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+            savedVersion = snapshot.version();
+            log.info("Character snapshot version {} saved to {} ({} bytes)", snapshot.version(), path, file.length);
+        } catch (IOException ex) {
+            log.warn("Could not save character snapshot version {} to {}", snapshot.version(), path, ex);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Serializes a snapshot into the file layout, header included.
+     *
+     * @param snapshot The snapshot
+     * @return The bytes of the file
+     * @throws IOException if the body cannot be written
+     */
+    static byte[] write(CharacterMirror.Snapshot snapshot) throws IOException {
+        List<List<Character>> pages = new ArrayList<>(snapshot.pageCount());
+        for (int page = 1; page <= snapshot.pageCount(); page++) {
+            pages.add(snapshot.page(page));
+        }
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        pages.forEach(page -> page.forEach(character -> collectStrings(character, strings)));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream body = new DataOutputStream(bytes);
+        // Placeholder for the header, filled in once the body is complete
+        body.write(new byte[HEADER_SIZE]);
+        body.writeLong(snapshot.version());
+        body.writeInt(snapshot.count());
+        body.writeLong(snapshot.refreshedAt().toEpochMilli());
+        body.writeInt(strings.size());
+        for (String value : strings.keySet()) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            body.writeInt(utf8.length);
+            body.write(utf8);
+        }
+        body.writeInt(pages.size());
+        for (List<Character> page : pages) {
+            body.writeInt(page.size());
+            for (Character character : page) {
+                writeCharacter(body, character, strings);
+            }
+        }
+        body.flush();
+
+        byte[] file = bytes.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(file, HEADER_SIZE, file.length - HEADER_SIZE);
+        ByteBuffer.wrap(file)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(file.length - HEADER_SIZE)
+                .putInt((int) crc.getValue());
+        return file;
+    }
+
+    /**
+     * Parses a file, validating its header and checksum.
+     *
+     * @param buffer The content of the file
+     * @return The catalog, or null if the file is not a valid snapshot
+     */
+    Contents read(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            log.warn("Ignoring character snapshot {}: not a snapshot file", path);
+            return null;
+        }
+        int formatVersion = buffer.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            log.warn("Ignoring character snapshot {}: format version {} instead of {}",
+                    path, formatVersion, FORMAT_VERSION);
+            return null;
+        }
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length != buffer.remaining()) {
+            log.warn("Ignoring character snapshot {}: {} bytes instead of {}", path, buffer.remaining(), length);
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice());
+        if ((int) crc.getValue() != checksum) {
+            log.warn("Ignoring character snapshot {}: checksum mismatch", path);
+            return null;
+        }
+        try {
+            long version = buffer.getLong();
+            int count = buffer.getInt();
+            Instant refreshedAt = Instant.ofEpochMilli(buffer.getLong());
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] utf8 = new byte[buffer.getInt()];
+                buffer.get(utf8);
+                strings[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+            int pageCount = buffer.getInt();
+            List<List<Character>> pages = new ArrayList<>(pageCount);
+            for (int page = 0; page < pageCount; page++) {
+                int size = buffer.getInt();
+                List<Character> characters = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    characters.add(readCharacter(buffer, strings));
+                }
+                pages.add(characters);
+            }
+            return new Contents(version, count, refreshedAt, pages);
+        } catch (RuntimeException ex) {
+            // Underflows, bad string indexes or timestamps: only reachable if a file with a matching
+            // checksum was written by a faulty writer
+            log.warn("Ignoring character snapshot {}: malformed body", path, ex);
+            return null;
+        }
+    }
+
+    private static void collectStrings(Character character, Map<String, Integer> strings) {
+        intern(character.getName(), strings);
+        intern(character.getStatus(), strings);
+        intern(character.getSpecies(), strings);
+        intern(character.getType(), strings);
+        intern(character.getGender(), strings);
+        if (character.getOrigin() != null) {
+            intern(character.getOrigin().getName(), strings);
+            intern(character.getOrigin().getUrl(), strings);
+        }
+        if (character.getLocation() != null) {
+            intern(character.getLocation().getName(), strings);
+            intern(character.getLocation().getUrl(), strings);
+        }
+        intern(character.getImage(), strings);
+        intern(character.getUrl(), strings);
+        if (character.getEpisode() != null) {
+            character.getEpisode().forEach(episode -> intern(episode, strings));
+        }
+    }
+
+    private static void intern(String value, Map<String, Integer> strings) {
+        if (value != null) {
+            strings.putIfAbsent(value, strings.size());
+        }
+    }
+
+    private static void writeCharacter(DataOutputStream body, Character character, Map<String, Integer> strings)
+            throws IOException {
+        body.writeInt(character.getId());
+        writeString(body, character.getName(), strings);
+        writeString(body, character.getStatus(), strings);
+        writeString(body, character.getSpecies(), strings);
+        writeString(body, character.getType(), strings);
+        writeString(body, character.getGender(), strings);
+        int flags = (character.getOrigin() != null ? HAS_ORIGIN : 0)
+                | (character.getLocation() != null ? HAS_LOCATION : 0)
+                | (character.getEpisode() != null ? HAS_EPISODES : 0)
+                | (character.getCreated() != null ? HAS_CREATED : 0);
+        body.writeByte(flags);
+        if (character.getOrigin() != null) {
+            writeString(body, character.getOrigin().getName(), strings);
+            writeString(body, character.getOrigin().getUrl(), strings);
+        }
+        // Characters only embed the name and URL of their location, as in the mirror
+        if (character.getLocation() != null) {
+            writeString(body, character.getLocation().getName(), strings);
+            writeString(body, character.getLocation().getUrl(), strings);
+        }
+        writeString(body, character.getImage(), strings);
+        writeString(body, character.getUrl(), strings);
+        if (character.getEpisode() != null) {
+            body.writeInt(character.getEpisode().size());
+            for (String episode : character.getEpisode()) {
+                writeString(body, episode, strings);
+            }
+        }
+        if (character.getCreated() != null) {
+            body.writeLong(character.getCreated().toEpochSecond(ZoneOffset.UTC));
+            body.writeInt(character.getCreated().getNano());
+        }
+    }
+
+    private static Character readCharacter(ByteBuffer buffer, String[] strings) {
+        Character character = new Character();
+        character.setId(buffer.getInt());
+        character.setName(readString(buffer, strings));
+        character.setStatus(readString(buffer, strings));
+        character.setSpecies(readString(buffer, strings));
+        character.setType(readString(buffer, strings));
+        character.setGender(readString(buffer, strings));
+        int flags = buffer.get();
+        if ((flags & HAS_ORIGIN) != 0) {
+            character.setOrigin(new Origin(readString(buffer, strings), readString(buffer, strings)));
+        }
+        if ((flags & HAS_LOCATION) != 0) {
+            character.setLocation(new Location(null, readString(buffer, strings), readString(buffer, strings),
+                    null, null, null, null));
+        }
+        character.setImage(readString(buffer, strings));
+        character.setUrl(readString(buffer, strings));
+        if ((flags & HAS_EPISODES) != 0) {
+            int size = buffer.getInt();
+            List<String> episodes = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                episodes.add(readString(buffer, strings));
+            }
+            character.setEpisode(episodes);
+        }
+        if ((flags & HAS_CREATED) != 0) {
+            long seconds = buffer.getLong();
+            character.setCreated(LocalDateTime.ofEpochSecond(seconds, buffer.getInt(), ZoneOffset.UTC));
+        }
+        return character;
+    }
+
+    private static void writeString(DataOutputStream body, String value, Map<String, Integer> strings)
+            throws IOException {
+        body.writeInt(value == null ? NO_STRING : strings.get(value));
+    }
+
+    private static String readString(ByteBuffer buffer, String[] strings) {
+        int index = buffer.getInt();
+        return index == NO_STRING ? null : strings[index];
+    }
+}
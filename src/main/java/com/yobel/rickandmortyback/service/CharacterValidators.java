@@ -0,0 +1,170 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Computes HTTP validators for character responses.
+ * <p>
+ * The entity tag is a 64-bit FNV-1a fingerprint of every field of the characters, in response order.
+ * It only depends on the content, so every instance produces the same tag for the same data, whether
+ * it was served from the mirror or fetched from the upstream, and a shared cache can revalidate
+ * against any of them. Computing it walks the fields once, which is far cheaper than serializing
+ * the response.
+ * </p>
+ * <p>
+ * No {@code Last-Modified} is computed. The upstream only records when a character was created, and
+ * edits do not move that timestamp, so a date-based validator would answer {@code If-Modified-Since}
+ * with 304 for edited content; clients revalidate with {@code If-None-Match} instead.
+ * </p>
+ */
+@Component
+public class CharacterValidators {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Validators of a response body.
+     *
+     * @param etag The entity tag, quoted, and strong unless {@link #weak()} was applied
+     */
+    public record Validators(String etag) {
+
+        /**
+         * Returns the validators of another representation of the same content.
+         *
+         * @param variant Suffix naming the representation, or an empty string for the default one
+         * @return The validators, with the suffix appended inside the entity tag
+         */
+        public Validators forVariant(String variant) {
+            if (variant.isEmpty()) {
+                return this;
+            }
+            return new Validators(etag.substring(0, etag.length() - 1) + "-" + variant + "\"");
+        }
+
+        /**
+         * Returns weak validators of the same content, for a representation whose bytes also depend on
+         * something the entity tag does not name, such as the content-coding chosen by the server.
+         *
+         * @return The validators, with a weak entity tag
+         */
+        public Validators weak() {
+            return etag.startsWith("W/") ? this : new Validators("W/" + etag);
+        }
+    }
+
+    /**
+     * Computes the validators of a single character.
+     *
+     * @param character The character
+     * @return The validators
+     */
+    public Validators of(Character character) {
+        return new Validators(etag(fingerprint(character)));
+    }
+
+    /**
+     * Computes the validators of a list of characters.
+     *
+     * @param characters The characters, in response order
+     * @return The validators
+     */
+    public Validators of(List<Character> characters) {
+        long hash = mix(FNV_OFFSET_BASIS, characters.size());
+        for (Character character : characters) {
+            hash = mix(hash, fingerprint(character));
+        }
+        return new Validators(etag(hash));
+    }
+
+    /**
+     * Computes the content fingerprint of a character.
+     *
+     * @param character The character
+     * @return A 64-bit hash of every field
+     */
+    static long fingerprint(Character character) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, character.getId() == null ? -1 : character.getId());
+        hash = mix(hash, character.getName());
+        hash = mix(hash, character.getStatus());
+        hash = mix(hash, character.getSpecies());
+        hash = mix(hash, character.getType());
+        hash = mix(hash, character.getGender());
+        Origin origin = character.getOrigin();
+        hash = mix(hash, origin == null ? 0 : 1);
+        if (origin != null) {
+            hash = mix(hash, origin.getName());
+            hash = mix(hash, origin.getUrl());
+        }
+        Location location = character.getLocation();
+        hash = mix(hash, location == null ? 0 : 1);
+        if (location != null) {
+            // Characters only embed the name and URL of their location; the other fields are
+            // folded in for completeness
+            hash = mix(hash, location.getId() == null ? -1 : location.getId());
+            hash = mix(hash, location.getName());
+            hash = mix(hash, location.getUrl());
+            hash = mix(hash, location.getType());
+            hash = mix(hash, location.getDimension());
+            hash = mix(hash, location.getResidents() == null ? -1 : location.getResidents().size());
+            if (location.getResidents() != null) {
+                for (String resident : location.getResidents()) {
+                    hash = mix(hash, resident);
+                }
+            }
+        }
+        hash = mix(hash, character.getImage());
+        List<String> episodes = character.getEpisode();
+        hash = mix(hash, episodes == null ? -1 : episodes.size());
+        if (episodes != null) {
+            for (String episode : episodes) {
+                hash = mix(hash, episode);
+            }
+        }
+        hash = mix(hash, character.getUrl());
+        LocalDateTime created = character.getCreated();
+        if (created == null) {
+            hash = mix(hash, -1);
+        } else {
+            hash = mix(hash, created.toEpochSecond(ZoneOffset.UTC));
+            hash = mix(hash, created.getNano());
+        }
+        return hash;
+    }
+
+    /**
+     * Folds a string into the hash, prefixed by its length so that adjacent fields cannot be confused.
+     */
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return mix(hash, -1);
+        }
+        hash = mix(hash, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Folds the eight bytes of a long into the hash.
+     */
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static String etag(long hash) {
+        return "\"" + String.format("%016x", hash) + "\"";
+    }
+}
@@ -0,0 +1,92 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.client.EpisodeApiClient;
+import com.yobel.rickandmortyback.config.CharacterExpandProperties;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.model.Episode;
+import com.yobel.rickandmortyback.model.response.EpisodeResponse;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service for handling episode-related operations with the Rick and Morty API.
+ */
+@Service
+public class EpisodeService {
+    private final EpisodeApiClient apiClient;
+    private final CharacterExpandProperties expandProperties;
+    private final StaleFallback staleFallback;
+
+    /**
+     * Constructs a new EpisodeService.
+     *
+     * @param apiClient        The client used for upstream API requests
+     * @param expandProperties The limits applied to multi-ID requests
+     * @param staleFallback    The fallback serving previous responses while the upstream is unavailable
+     */
+    public EpisodeService(EpisodeApiClient apiClient, CharacterExpandProperties expandProperties,
+                          StaleFallback staleFallback) {
+        this.apiClient = apiClient;
+        this.expandProperties = expandProperties;
+        this.staleFallback = staleFallback;
+    }
+
+    /**
+     * Retrieves the episodes of a specific page.
+     *
+     * @param page The page number to retrieve
+     * @return A Flux of Episode objects from the specified page
+     * @throws ResourceNotFoundException if the page does not exist
+     */
+    public Flux<Episode> getEpisodesByPage(int page) {
+        return staleFallback.remember("episodes:page:" + page, apiClient.fetchPage(page))
+                .flatMapIterable(EpisodeResponse::getResults);
+    }
+
+    /**
+     * Retrieves a specific episode by its ID.
+     *
+     * @param id The ID of the episode to retrieve
+     * @return A Mono containing the Episode if found
+     * @throws ResourceNotFoundException if the episode with the given ID is not found
+     */
+    public Mono<Episode> getEpisodeById(int id) {
+        return staleFallback.remember("episodes:id:" + id, apiClient.fetchById(id));
+    }
+
+    /**
+     * Retrieves several episodes with as few upstream requests as possible.
+     * <p>
+     * The IDs are split into chunks of at most {@link CharacterExpandProperties#getMaxIdsPerRequest()}
+     * and each chunk is fetched with one multi-ID request. IDs that do not exist are skipped.
+     * </p>
+     *
+     * @param ids The distinct IDs of the episodes to retrieve
+     * @return A Flux of the episodes that were found, in no particular order
+     */
+    public Flux<Episode> getEpisodesByIds(Collection<Integer> ids) {
+        return Flux.fromIterable(chunks(ids, expandProperties.getMaxIdsPerRequest()))
+                .flatMap(apiClient::fetchByIds, expandProperties.getConcurrency());
+    }
+
+    /**
+     * Splits IDs into consecutive chunks of at most {@code size} elements.
+     *
+     * @param ids  The IDs to split
+     * @param size The maximum chunk size
+     * @return The chunks, in iteration order of the IDs
+     */
+    static List<List<Integer>> chunks(Collection<Integer> ids, int size) {
+        List<Integer> all = List.copyOf(ids);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += size) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + size)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,51 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.exception.BadRequestException;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Relationships of a character that can be resolved inline with the {@code expand} query parameter.
+ */
+public enum Expansion {
+    /**
+     * The episodes the character appears in
+     */
+    EPISODES,
+    /**
+     * The full origin location
+     */
+    ORIGIN,
+    /**
+     * The full last known location
+     */
+    LOCATION;
+
+    /**
+     * Parses a comma-separated list such as {@code episodes,origin}.
+     *
+     * @param value The raw parameter value, may be null or blank
+     * @return The requested expansions, empty if none
+     * @throws BadRequestException if a value is not a known expansion
+     */
+    public static Set<Expansion> parse(String value) {
+        Set<Expansion> expansions = EnumSet.noneOf(Expansion.class);
+        if (value == null) {
+            return expansions;
+        }
+        for (String part : value.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                expansions.add(valueOf(name.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new BadRequestException("Unknown expand value: " + name);
+            }
+        }
+        return expansions;
+    }
+}
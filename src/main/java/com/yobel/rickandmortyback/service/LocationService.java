@@ -0,0 +1,74 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.client.LocationApiClient;
+import com.yobel.rickandmortyback.config.CharacterExpandProperties;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.response.LocationResponse;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Service for handling location-related operations with the Rick and Morty API.
+ */
+@Service
+public class LocationService {
+    private final LocationApiClient apiClient;
+    private final CharacterExpandProperties expandProperties;
+    private final StaleFallback staleFallback;
+
+    /**
+     * Constructs a new LocationService.
+     *
+     * @param apiClient        The client used for upstream API requests
+     * @param expandProperties The limits applied to multi-ID requests
+     * @param staleFallback    The fallback serving previous responses while the upstream is unavailable
+     */
+    public LocationService(LocationApiClient apiClient, CharacterExpandProperties expandProperties,
+                           StaleFallback staleFallback) {
+        this.apiClient = apiClient;
+        this.expandProperties = expandProperties;
+        this.staleFallback = staleFallback;
+    }
+
+    /**
+     * Retrieves the locations of a specific page.
+     *
+     * @param page The page number to retrieve
+     * @return A Flux of Location objects from the specified page
+     * @throws ResourceNotFoundException if the page does not exist
+     */
+    public Flux<Location> getLocationsByPage(int page) {
+        return staleFallback.remember("locations:page:" + page, apiClient.fetchPage(page))
+                .flatMapIterable(LocationResponse::getResults);
+    }
+
+    /**
+     * Retrieves a specific location by its ID.
+     *
+     * @param id The ID of the location to retrieve
+     * @return A Mono containing the Location if found
+     * @throws ResourceNotFoundException if the location with the given ID is not found
+     */
+    public Mono<Location> getLocationById(int id) {
+        return staleFallback.remember("locations:id:" + id, apiClient.fetchById(id));
+    }
+
+    /**
+     * Retrieves several locations with as few upstream requests as possible.
+     * <p>
+     * The IDs are split into chunks of at most {@link CharacterExpandProperties#getMaxIdsPerRequest()}
+     * and each chunk is fetched with one multi-ID request. IDs that do not exist are skipped.
+     * </p>
+     *
+     * @param ids The distinct IDs of the locations to retrieve
+     * @return A Flux of the locations that were found, in no particular order
+     */
+    public Flux<Location> getLocationsByIds(Collection<Integer> ids) {
+        return Flux.fromIterable(EpisodeService.chunks(ids, expandProperties.getMaxIdsPerRequest()))
+                .flatMap(apiClient::fetchByIds, expandProperties.getConcurrency());
+    }
+}
@@ -0,0 +1,139 @@
+package com.yobel.rickandmortyback.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yobel.rickandmortyback.config.UpstreamResilienceProperties;
+import com.yobel.rickandmortyback.exception.UpstreamUnavailableException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Remembers the last successful response of each upstream-backed operation and serves it while the
+ * upstream is unavailable.
+ * <p>
+ * Responses are remembered under a caller-chosen key. When a later call for the same key fails with
+ * {@link UpstreamUnavailableException}, i.e. the circuit breaker is open or the bulkhead is full, the
+ * remembered response is returned instead and the request's {@link StalenessMarker} is marked, so the
+ * HTTP response can carry a staleness warning. Any other failure is propagated unchanged.
+ * </p>
+ * <p>
+ * Streamed responses are buffered while they are received, up to
+ * {@link UpstreamResilienceProperties.Stale#getMaxElements()} elements; a longer stream is passed
+ * through without being remembered, so the fallback never holds a whole catalog.
+ * </p>
+ */
+@Component
+@Log4j2
+public class StaleFallback {
+    private final Cache<String, Entry> responses;
+    private final boolean enabled;
+    private final int maxElements;
+
+    /**
+     * Constructs a new StaleFallback.
+     *
+     * @param properties The resilience configuration
+     */
+    public StaleFallback(UpstreamResilienceProperties properties) {
+        UpstreamResilienceProperties.Stale stale = properties.getStale();
+        this.enabled = stale.isEnabled();
+        this.maxElements = stale.getMaxElements();
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(stale.getMaximumSize())
+                .expireAfterWrite(stale.getMaxAge())
+                .build();
+    }
+
+    /**
+     * Remembers the value of a successful call and falls back to it while the upstream is unavailable.
+     *
+     * @param key  The key identifying the operation and its arguments
+     * @param call The upstream-backed call
+     * @param <T>  The type of the value
+     * @return The value of the call, or the remembered value if the upstream is unavailable
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> remember(String key, Mono<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return call
+                .doOnNext(value -> responses.put(key, new Entry(value, Instant.now())))
+                .onErrorResume(UpstreamUnavailableException.class, ex -> {
+                    Entry entry = responses.getIfPresent(key);
+                    if (entry == null) {
+                        return Mono.error(ex);
+                    }
+                    return markStale(key, entry).thenReturn((T) entry.value());
+                });
+    }
+
+    /**
+     * Remembers the elements of a successful streamed call and falls back to them while the upstream
+     * is unavailable. The fallback is only used if the call failed before emitting any element, and
+     * streams longer than the configured maximum are not remembered.
+     *
+     * @param key  The key identifying the operation and its arguments
+     * @param call The upstream-backed call
+     * @param <T>  The type of the elements
+     * @return The elements of the call, or the remembered elements if the upstream is unavailable
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> remember(String key, Flux<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return Flux.defer(() -> {
+            List<T> received = new ArrayList<>();
+            AtomicBoolean emitted = new AtomicBoolean();
+            AtomicBoolean tooLong = new AtomicBoolean();
+            return call
+                    .doOnNext(element -> {
+                        emitted.set(true);
+                        if (tooLong.get()) {
+                            return;
+                        }
+                        if (received.size() >= maxElements) {
+                            tooLong.set(true);
+                            received.clear();
+                            return;
+                        }
+                        received.add(element);
+                    })
+                    .doOnComplete(() -> {
+                        if (!tooLong.get()) {
+                            responses.put(key, new Entry(List.copyOf(received), Instant.now()));
+                        }
+                    })
+                    .onErrorResume(UpstreamUnavailableException.class, ex -> {
+                        Entry entry = responses.getIfPresent(key);
+                        if (entry == null || emitted.get()) {
+                            return Flux.error(ex);
+                        }
+                        return markStale(key, entry).thenMany(Flux.fromIterable((List<T>) entry.value()));
+                    });
+        });
+    }
+
+    private Mono<Void> markStale(String key, Entry entry) {
+        return Mono.deferContextual(context -> {
+            log.debug("Upstream unavailable, serving {} fetched at {}", key, entry.fetchedAt());
+            context.<StalenessMarker>getOrEmpty(StalenessMarker.class)
+                    .ifPresent(marker -> marker.markStale(entry.fetchedAt()));
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * Remembered response together with the time it was fetched.
+     */
+    private record Entry(Object value, Instant fetchedAt) {
+    }
+}
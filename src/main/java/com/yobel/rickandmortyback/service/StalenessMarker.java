@@ -0,0 +1,44 @@
+package com.yobel.rickandmortyback.service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-request record of whether any part of the response was served from stale data.
+ * <p>
+ * An instance is placed in the Reactor context of every request by
+ * {@link com.yobel.rickandmortyback.config.StaleResponseWebFilter}; {@link StaleFallback} marks it
+ * when it answers with a remembered response instead of calling the upstream API.
+ * </p>
+ */
+public class StalenessMarker {
+    private final AtomicReference<Instant> oldestFetchedAt = new AtomicReference<>();
+
+    /**
+     * Records that stale data fetched at the given time was served.
+     *
+     * @param fetchedAt When the stale data was last fetched successfully
+     */
+    public void markStale(Instant fetchedAt) {
+        oldestFetchedAt.accumulateAndGet(fetchedAt,
+                (current, candidate) -> current == null || candidate.isBefore(current) ? candidate : current);
+    }
+
+    /**
+     * Indicates whether any stale data was served.
+     *
+     * @return true if the response contains stale data
+     */
+    public boolean isStale() {
+        return oldestFetchedAt.get() != null;
+    }
+
+    /**
+     * Returns when the oldest stale data in the response was fetched.
+     *
+     * @return The fetch time, or null if nothing stale was served
+     */
+    public Instant oldestFetchedAt() {
+        return oldestFetchedAt.get();
+    }
+}
@@ -0,0 +1,151 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.config.CharacterBatchProperties;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.model.Character;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CharacterBatchLoaderTest {
+
+    @Mock
+    private CharacterApiClient apiClient;
+
+    private CharacterBatchLoader batchLoader;
+
+    @BeforeEach
+    public void setup() {
+        // A wide window keeps the lookups of each test in one batch even on a slow, cold JVM
+        CharacterBatchProperties properties = new CharacterBatchProperties();
+        properties.setWindow(Duration.ofMillis(100));
+        batchLoader = new CharacterBatchLoader(apiClient, properties);
+    }
+
+    @Test
+    public void load_ConcurrentLookupsShareOneRequest() {
+        // Arrange
+        when(apiClient.fetchCharactersByIds(anyCollection())).thenReturn(Flux.just(character(1), character(2)));
+
+        // Act & Assert
+        StepVerifier.create(Mono.zip(batchLoader.load(1), batchLoader.load(2), batchLoader.load(1)))
+                .expectNextMatches(result -> result.getT1().getId() == 1
+                        && result.getT2().getId() == 2
+                        && result.getT3().getId() == 1)
+                .verifyComplete();
+        verify(apiClient, times(1)).fetchCharactersByIds(List.of(1, 2));
+        verify(apiClient, never()).fetchCharacterById(anyInt());
+    }
+
+    @Test
+    public void load_MissingIdFailsOnlyItsCaller() {
+        // Arrange
+        when(apiClient.fetchCharactersByIds(anyCollection())).thenReturn(Flux.just(character(1)));
+
+        // Act
+        Mono<Character> found = batchLoader.load(1);
+        Mono<Character> missing = batchLoader.load(9999);
+
+        // Assert
+        StepVerifier.create(Flux.merge(found, missing.onErrorResume(ResourceNotFoundException.class,
+                        ex -> Mono.just(character(-1)))).map(Character::getId).collectList())
+                .expectNextMatches(ids -> ids.containsAll(List.of(1, -1)))
+                .verifyComplete();
+    }
+
+    @Test
+    public void load_SingleLookupUsesSingleIdEndpoint() {
+        // Arrange
+        when(apiClient.fetchCharacterById(7)).thenReturn(Mono.just(character(7)));
+
+        // Act & Assert
+        StepVerifier.create(batchLoader.load(7))
+                .expectNextMatches(character -> character.getId() == 7)
+                .verifyComplete();
+        verify(apiClient, never()).fetchCharactersByIds(anyCollection());
+    }
+
+    @Test
+    public void load_CallerPriorityReachesTheClient() {
+        // Arrange
+        AtomicReference<UpstreamPriority> single = new AtomicReference<>();
+        AtomicReference<UpstreamPriority> batched = new AtomicReference<>();
+        when(apiClient.fetchCharacterById(7)).thenReturn(Mono.deferContextual(context -> {
+            single.set(context.getOrDefault(UpstreamPriority.class, null));
+            return Mono.just(character(7));
+        }));
+        when(apiClient.fetchCharactersByIds(anyCollection())).thenReturn(Flux.deferContextual(context -> {
+            batched.set(context.getOrDefault(UpstreamPriority.class, null));
+            return Flux.just(character(1), character(2));
+        }));
+
+        // Act
+        batchLoader.load(7).contextWrite(UpstreamPriority.BACKGROUND.context()).block();
+        Mono.zip(batchLoader.load(1).contextWrite(UpstreamPriority.BACKGROUND.context()),
+                batchLoader.load(2).contextWrite(UpstreamPriority.INTERACTIVE.context())).block();
+
+        // Assert
+        assertEquals(UpstreamPriority.BACKGROUND, single.get());
+        // An interactive caller joining a background batch is not queued behind background work
+        assertEquals(UpstreamPriority.INTERACTIVE, batched.get());
+    }
+
+    @Test
+    public void load_BatchLeftByEveryCallerIsNotSent() throws InterruptedException {
+        // Act
+        Disposable first = batchLoader.load(1).subscribe();
+        Disposable second = batchLoader.load(2).subscribe();
+        first.dispose();
+        second.dispose();
+        Thread.sleep(200);
+
+        // Assert
+        verify(apiClient, never()).fetchCharacterById(anyInt());
+        verify(apiClient, never()).fetchCharactersByIds(anyCollection());
+    }
+
+    @Test
+    public void load_RequestIsCancelledWhenEveryCallerLeaves() throws InterruptedException {
+        // Arrange
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when(apiClient.fetchCharactersByIds(anyCollection()))
+                .thenReturn(Flux.<Character>never().doOnCancel(() -> cancelled.set(true)));
+        Disposable first = batchLoader.load(1).subscribe();
+        Disposable second = batchLoader.load(2).subscribe();
+        Thread.sleep(200);
+
+        // Act
+        first.dispose();
+        boolean cancelledWithOneCallerLeft = cancelled.get();
+        second.dispose();
+
+        // Assert
+        verify(apiClient, times(1)).fetchCharactersByIds(List.of(1, 2));
+        assertFalse(cancelledWithOneCallerLeft);
+        assertTrue(cancelled.get());
+    }
+
+    private static Character character(int id) {
+        Character character = new Character();
+        character.setId(id);
+        return character;
+    }
+}
@@ -0,0 +1,88 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.model.Character;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CharacterPageDecoderTest {
+
+    private static final String PAGE = """
+            {"info":{"count":826,"pages":42,"next":"https://rickandmortyapi.com/api/character?page=2","prev":null},
+             "results":[
+              {"id":1,"name":"Rick Sanchez","status":"Alive","species":"Human","type":"","gender":"Male",
+               "origin":{"name":"Earth (C-137)","url":"https://rickandmortyapi.com/api/location/1"},
+               "location":{"name":"Citadel of Ricks","url":"https://rickandmortyapi.com/api/location/3"},
+               "image":"https://rickandmortyapi.com/api/character/avatar/1.jpeg",
+               "episode":["https://rickandmortyapi.com/api/episode/1","https://rickandmortyapi.com/api/episode/2"],
+               "url":"https://rickandmortyapi.com/api/character/1","created":"2017-11-04T18:48:46.250Z"},
+              {"id":2,"name":"Morty Smith","status":"Alive","species":"Human","type":"","gender":"Male",
+               "origin":{"name":"unknown","url":""},"location":{"name":"Citadel of Ricks","url":""},
+               "image":"","episode":[],"url":"","created":"2017-11-04T18:50:21.651Z"}
+             ]}
+            """;
+
+    private final CharacterPageDecoder decoder = new CharacterPageDecoder(Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    public void decode_EmitsInfoAndCharactersAcrossArbitraryChunkBoundaries() {
+        StepVerifier.create(decoder.decode(chunked(PAGE, 7)))
+                .expectNextMatches(chunk -> chunk instanceof CharacterPageChunk.InfoChunk info
+                        && info.info().getPages() == 42 && info.info().getCount() == 826)
+                .expectNextMatches(chunk -> chunk instanceof CharacterPageChunk.CharacterChunk c
+                        && c.character().getName().equals("Rick Sanchez")
+                        && c.character().getEpisode().size() == 2
+                        && c.character().getCreated().equals(LocalDateTime.of(2017, 11, 4, 18, 48, 46, 250_000_000)))
+                .expectNextMatches(chunk -> chunk instanceof CharacterPageChunk.CharacterChunk c
+                        && c.character().getId() == 2)
+                .verifyComplete();
+    }
+
+    @Test
+    public void decode_EmitsFirstCharacterBeforeBodyIsComplete() {
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+        int endOfFirstCharacter = PAGE.indexOf("{\"id\":2");
+
+        StepVerifier.create(CharacterPageChunk.characters(decoder.decode(body.asFlux())).map(Character::getId))
+                .then(() -> body.tryEmitNext(buffer(PAGE.substring(0, endOfFirstCharacter))))
+                .expectNext(1)
+                .then(() -> {
+                    body.tryEmitNext(buffer(PAGE.substring(endOfFirstCharacter)));
+                    body.tryEmitComplete();
+                })
+                .expectNext(2)
+                .verifyComplete();
+    }
+
+    @Test
+    public void decode_TruncatedBodyFails() {
+        StepVerifier.create(decoder.decode(Flux.just(buffer(PAGE.substring(0, PAGE.length() / 2)))))
+                .thenConsumeWhile(chunk -> true)
+                .expectError()
+                .verify();
+    }
+
+    private static Flux<DataBuffer> chunked(String json, int size) {
+        List<DataBuffer> buffers = new ArrayList<>();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += size) {
+            byte[] slice = new byte[Math.min(size, bytes.length - i)];
+            System.arraycopy(bytes, i, slice, 0, slice.length);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(slice));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    private static DataBuffer buffer(String json) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,67 @@
+package com.yobel.rickandmortyback.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CharacterPeerRingTest {
+
+    private static final String A = "http://localhost:8081";
+    private static final String B = "http://localhost:8082";
+    private static final String C = "http://localhost:8083";
+
+    @Test
+    public void owner_IsTheSameWhateverTheMemberOrder() {
+        // Arrange
+        CharacterPeerRing ring = new CharacterPeerRing(List.of(A, B, C), 128);
+        CharacterPeerRing reordered = new CharacterPeerRing(List.of(C, A, B), 128);
+
+        // Act & Assert
+        for (int id = 1; id <= 1000; id++) {
+            assertEquals(ring.owner("character:" + id), reordered.owner("character:" + id));
+        }
+    }
+
+    @Test
+    public void owner_SpreadsKeysEvenly() {
+        // Arrange
+        CharacterPeerRing ring = new CharacterPeerRing(List.of(A, B, C), 128);
+        Map<String, Integer> counts = new HashMap<>();
+
+        // Act
+        for (int id = 1; id <= 10_000; id++) {
+            counts.merge(ring.owner("character:" + id), 1, Integer::sum);
+        }
+
+        // Assert
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 2_500 && count < 4_200, counts.toString()));
+    }
+
+    @Test
+    public void owner_RemovingAMemberOnlyMovesItsKeys() {
+        // Arrange
+        CharacterPeerRing ring = new CharacterPeerRing(List.of(A, B, C), 128);
+        CharacterPeerRing shrunk = new CharacterPeerRing(List.of(A, B), 128);
+
+        // Act & Assert
+        for (int id = 1; id <= 10_000; id++) {
+            String owner = ring.owner("character:" + id);
+            if (!owner.equals(C)) {
+                assertEquals(owner, shrunk.owner("character:" + id));
+            }
+        }
+    }
+
+    @Test
+    public void owner_EmptyRingHasNoOwner() {
+        // Act & Assert
+        assertNull(new CharacterPeerRing(List.of(), 128).owner("character:1"));
+    }
+}
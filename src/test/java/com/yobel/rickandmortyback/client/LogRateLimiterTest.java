@@ -0,0 +1,28 @@
+package com.yobel.rickandmortyback.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LogRateLimiterTest {
+
+    @Test
+    public void tryAcquire_SuppressesBeyondPermitsAndReportsCount() {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        LogRateLimiter limiter = new LogRateLimiter(2, Duration.ofSeconds(1), now::get);
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(-1, limiter.tryAcquire());
+        assertEquals(-1, limiter.tryAcquire());
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(2, limiter.tryAcquire());
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(-1, limiter.tryAcquire());
+    }
+}
@@ -0,0 +1,152 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.config.UpstreamHedgingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class UpstreamHedgingTest {
+
+    private static final String ROUTE = "/character/{id}";
+
+    private UpstreamHedgingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        properties = new UpstreamHedgingProperties();
+        properties.setEnabled(true);
+        properties.setMinSamples(5);
+        properties.setMinDelay(Duration.ofMillis(20));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void hedge_SlowFirstAttemptIsHedgedAndFastestWins() {
+        // Arrange
+        properties.setBudget(1.0);
+        UpstreamHedging hedging = warmedUp(new UpstreamHedging(properties, meterRegistry));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(5)).thenReturn("slow")
+                : Mono.just("fast"));
+
+        // Act & Assert
+        StepVerifier.create(hedging.hedge(ROUTE, call))
+                .expectNext("fast")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertEquals(2, attempts.get());
+        assertEquals(1, meterRegistry.get("upstream.hedging.hedges").counter().count());
+        assertEquals(1, meterRegistry.get("upstream.hedging.wins").counter().count());
+    }
+
+    @Test
+    public void hedge_FailedHedgeDoesNotCancelFirstAttempt() {
+        // Arrange
+        properties.setBudget(1.0);
+        UpstreamHedging hedging = warmedUp(new UpstreamHedging(properties, meterRegistry));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(200)).thenReturn("slow")
+                : Mono.error(new IllegalStateException("hedge failed")));
+
+        // Act & Assert
+        StepVerifier.create(hedging.hedge(ROUTE, call))
+                .expectNext("slow")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertEquals(2, attempts.get());
+        assertEquals(0, meterRegistry.get("upstream.hedging.wins").counter().count());
+    }
+
+    @Test
+    public void hedge_BudgetLimitsExtraRequests() {
+        // Arrange
+        UpstreamHedging hedging = warmedUp(new UpstreamHedging(properties, meterRegistry));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(200)).thenReturn("slow")
+                : Mono.just("fast"));
+
+        // Act & Assert
+        StepVerifier.create(hedging.hedge(ROUTE, call))
+                .expectNext("slow")
+                .verifyComplete();
+        // Six calls at 5% have not saved enough for a whole extra request
+        assertEquals(1, attempts.get());
+        assertEquals(1, meterRegistry.get("upstream.hedging.budget-exhausted").counter().count());
+    }
+
+    @Test
+    public void hedge_NotHedgedUntilEnoughLatenciesAreKnown() {
+        // Arrange
+        properties.setBudget(1.0);
+        UpstreamHedging hedging = new UpstreamHedging(properties, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100)).thenReturn("slow");
+        });
+
+        // Act & Assert
+        StepVerifier.create(hedging.hedge(ROUTE, call))
+                .expectNext("slow")
+                .verifyComplete();
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void hedge_NotHedgedAfterTheWindowEmpties() throws InterruptedException {
+        // Arrange
+        properties.setBudget(1.0);
+        properties.setWindow(Duration.ofMillis(200));
+        UpstreamHedging hedging = warmedUp(new UpstreamHedging(properties, meterRegistry));
+        Thread.sleep(400);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(300)).thenReturn("slow")
+                : Mono.just("fast"));
+
+        // Act & Assert
+        StepVerifier.create(hedging.hedge(ROUTE, call))
+                .expectNext("slow")
+                .verifyComplete();
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void hedge_FastFailureIsNotHedged() {
+        // Arrange
+        properties.setBudget(1.0);
+        UpstreamHedging hedging = warmedUp(new UpstreamHedging(properties, meterRegistry));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IllegalStateException("circuit open"));
+        });
+
+        // Act & Assert
+        StepVerifier.create(hedging.hedge(ROUTE, call))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(Mono.delay(Duration.ofMillis(50)))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(1, attempts.get());
+    }
+
+    private UpstreamHedging warmedUp(UpstreamHedging hedging) {
+        for (int i = 0; i < properties.getMinSamples(); i++) {
+            hedging.hedge(ROUTE, Mono.just("fast")).block();
+        }
+        return hedging;
+    }
+}
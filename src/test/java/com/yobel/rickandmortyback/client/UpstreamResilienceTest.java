@@ -0,0 +1,168 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.config.UpstreamResilienceProperties;
+import com.yobel.rickandmortyback.config.UpstreamSchedulerProperties;
+import com.yobel.rickandmortyback.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class UpstreamResilienceTest {
+
+    private UpstreamResilienceProperties properties;
+    private UpstreamSchedulerProperties schedulerProperties;
+    private UpstreamScheduler scheduler;
+
+    @BeforeEach
+    public void setup() {
+        properties = new UpstreamResilienceProperties();
+        properties.getRetry().setMinBackoff(Duration.ofMillis(1));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(5));
+        schedulerProperties = new UpstreamSchedulerProperties();
+        scheduler = new UpstreamScheduler(schedulerProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void guard_RetriesTransientFailures() {
+        // Arrange
+        UpstreamResilience resilience = new UpstreamResilience(properties, scheduler);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> attempts.incrementAndGet() < 3
+                ? Mono.error(error(HttpStatus.SERVICE_UNAVAILABLE))
+                : Mono.just("ok"));
+
+        // Act & Assert
+        StepVerifier.create(resilience.guard(call))
+                .expectNext("ok")
+                .verifyComplete();
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void guard_DoesNotRetryClientErrors() {
+        // Arrange
+        UpstreamResilience resilience = new UpstreamResilience(properties, scheduler);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(error(HttpStatus.NOT_FOUND));
+        });
+
+        // Act & Assert
+        StepVerifier.create(resilience.guard(call))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void guard_DoesNotRetryStreamsAfterFirstElement() {
+        // Arrange
+        UpstreamResilience resilience = new UpstreamResilience(properties, scheduler);
+        AtomicInteger attempts = new AtomicInteger();
+        Flux<String> call = Flux.defer(() -> {
+            attempts.incrementAndGet();
+            return Flux.concat(Flux.just("first"), Flux.error(error(HttpStatus.BAD_GATEWAY)));
+        });
+
+        // Act & Assert
+        StepVerifier.create(resilience.guard(call))
+                .expectNext("first")
+                .expectError(WebClientResponseException.BadGateway.class)
+                .verify();
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void guard_FailsFastWhileCircuitIsOpen() {
+        // Arrange
+        properties.getRetry().setMaxRetries(0);
+        properties.getCircuitBreaker().setSlidingWindowSize(4);
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(4);
+        UpstreamResilience resilience = new UpstreamResilience(properties, scheduler);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(error(HttpStatus.INTERNAL_SERVER_ERROR));
+        });
+        for (int i = 0; i < 4; i++) {
+            resilience.guard(call).onErrorResume(ex -> Mono.empty()).block();
+        }
+
+        // Act & Assert
+        StepVerifier.create(resilience.guard(call))
+                .expectError(UpstreamUnavailableException.class)
+                .verify();
+        assertEquals(4, attempts.get());
+    }
+
+    @Test
+    public void guard_TimeWaitingForTheSchedulerIsNotPartOfTheCall() {
+        // Arrange
+        schedulerProperties.setRate(5);
+        schedulerProperties.setBurst(1);
+        scheduler = new UpstreamScheduler(schedulerProperties, new SimpleMeterRegistry());
+        scheduler.acquire().block();
+        properties.getCircuitBreaker().setSlowCallDuration(Duration.ofMillis(100));
+        UpstreamResilience resilience = new UpstreamResilience(properties, scheduler);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.just("ok");
+        }).timeout(Duration.ofMillis(50));
+
+        // Act & Assert
+        StepVerifier.create(resilience.guard(call))
+                .expectNext("ok")
+                .verifyComplete();
+        assertEquals(1, attempts.get());
+        assertEquals(0, resilience.circuitBreaker().getMetrics().getNumberOfSlowCalls());
+    }
+
+    @Test
+    public void guard_DeadlineBoundsAllAttempts() {
+        // Arrange
+        properties.setDeadline(Duration.ofMillis(150));
+        UpstreamResilience resilience = new UpstreamResilience(properties, scheduler);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.<String>never();
+        }).timeout(Duration.ofMillis(100));
+
+        // Act & Assert
+        StepVerifier.create(resilience.guard(call))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(1));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void guard_BulkheadRejectionsAreNotCountedByTheCircuitBreaker() {
+        // Arrange
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        UpstreamResilience resilience = new UpstreamResilience(properties, scheduler);
+        resilience.guard(Mono.never()).subscribe();
+
+        // Act & Assert
+        StepVerifier.create(resilience.guard(Mono.just("ok")))
+                .expectError(UpstreamUnavailableException.class)
+                .verify();
+        assertEquals(0, resilience.circuitBreaker().getMetrics().getNumberOfBufferedCalls());
+    }
+
+    private static WebClientResponseException error(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), null, null, null);
+    }
+}
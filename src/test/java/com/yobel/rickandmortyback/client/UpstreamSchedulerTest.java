@@ -0,0 +1,163 @@
+package com.yobel.rickandmortyback.client;
+
+import com.yobel.rickandmortyback.config.UpstreamSchedulerProperties;
+import com.yobel.rickandmortyback.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UpstreamSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UpstreamSchedulerProperties properties;
+
+    @BeforeEach
+    public void setup() {
+        properties = new UpstreamSchedulerProperties();
+        properties.setRate(20);
+        properties.setBurst(2);
+    }
+
+    @Test
+    public void acquire_SendsTheBurstAtOnceThenPacesAtTheRate() {
+        // Arrange
+        UpstreamScheduler scheduler = new UpstreamScheduler(properties, meterRegistry);
+        long start = System.nanoTime();
+
+        // Act
+        Flux.range(0, 6).flatMap(i -> scheduler.acquire(UpstreamPriority.INTERACTIVE)).blockLast();
+
+        // Assert
+        // Two requests go out with the burst, the four others are spaced 50 ms apart
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        assertTrue(elapsedMillis >= 180 && elapsedMillis < 1000, "elapsed " + elapsedMillis + " ms");
+        assertEquals(6, meterRegistry.get("upstream.scheduler.wait").tag("priority", "interactive").timer().count());
+    }
+
+    @Test
+    public void acquire_InteractiveRequestsGoBeforeBackgroundOnes() {
+        // Arrange
+        properties.setBurst(1);
+        UpstreamScheduler scheduler = new UpstreamScheduler(properties, meterRegistry);
+        scheduler.acquire(UpstreamPriority.INTERACTIVE).block();
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Act
+        Mono<Void> background = scheduler.acquire(UpstreamPriority.BACKGROUND).doOnSuccess(v -> order.add("background"));
+        Mono<Void> interactive = scheduler.acquire(UpstreamPriority.INTERACTIVE).doOnSuccess(v -> order.add("interactive"));
+        Mono.when(background, interactive).block(Duration.ofSeconds(2));
+
+        // Assert
+        assertEquals(List.of("interactive", "background"), order);
+    }
+
+    @Test
+    public void acquire_FullQueueIsRejectedImmediately() {
+        // Arrange
+        properties.setBurst(1);
+        properties.getInteractive().setCapacity(1);
+        UpstreamScheduler scheduler = new UpstreamScheduler(properties, meterRegistry);
+        scheduler.acquire(UpstreamPriority.INTERACTIVE).block();
+        scheduler.acquire(UpstreamPriority.INTERACTIVE).subscribe();
+
+        // Act & Assert
+        StepVerifier.create(scheduler.acquire(UpstreamPriority.INTERACTIVE))
+                .expectError(UpstreamUnavailableException.class)
+                .verify(Duration.ofMillis(20));
+        assertEquals(1.0, meterRegistry.get("upstream.scheduler.rejections").tag("priority", "interactive")
+                .counter().count());
+    }
+
+    @Test
+    public void acquire_RequestWaitingTooLongIsRejected() {
+        // Arrange
+        properties.setRate(1);
+        properties.setBurst(1);
+        properties.getInteractive().setMaxWait(Duration.ofMillis(50));
+        UpstreamScheduler scheduler = new UpstreamScheduler(properties, meterRegistry);
+        scheduler.acquire(UpstreamPriority.INTERACTIVE).block();
+
+        // Act & Assert
+        StepVerifier.create(scheduler.acquire(UpstreamPriority.INTERACTIVE))
+                .expectError(UpstreamUnavailableException.class)
+                .verify(Duration.ofMillis(500));
+        assertEquals(0.0, meterRegistry.get("upstream.scheduler.queue.depth").tag("priority", "interactive")
+                .gauge().value());
+    }
+
+    @Test
+    public void filter_TooManyRequestsPausesAndLowersTheRate() {
+        // Arrange
+        properties.setBurst(10);
+        UpstreamScheduler scheduler = new UpstreamScheduler(properties, meterRegistry);
+        ClientResponse throttled = ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+
+        // Act
+        scheduler.filter(request(), req -> Mono.just(throttled)).block();
+        long start = System.nanoTime();
+        scheduler.acquire(UpstreamPriority.INTERACTIVE).block();
+
+        // Assert
+        long waitedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        assertTrue(waitedMillis >= 900, "waited " + waitedMillis + " ms");
+        assertTrue(scheduler.currentRate() < 20);
+    }
+
+    @Test
+    public void filter_ExhaustedRateLimitPausesWithoutLoweringTheRate() {
+        // Arrange
+        UpstreamScheduler scheduler = new UpstreamScheduler(properties, meterRegistry);
+        ClientResponse exhausted = ClientResponse.create(HttpStatus.OK)
+                .header("X-RateLimit-Remaining", "0")
+                .header("X-RateLimit-Reset", "1")
+                .build();
+
+        // Act
+        scheduler.filter(request(), req -> Mono.just(exhausted)).block();
+
+        // Assert
+        StepVerifier.create(scheduler.acquire(UpstreamPriority.INTERACTIVE))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(500))
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        assertEquals(20.0, scheduler.currentRate());
+    }
+
+    @Test
+    public void retryAfter_ParsesSecondsAndDates() {
+        // Arrange
+        Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(120), UpstreamScheduler.retryAfter("120", now));
+        assertEquals(Duration.ofSeconds(30), UpstreamScheduler.retryAfter("Thu, 01 Jan 2026 00:00:30 GMT", now));
+        assertNull(UpstreamScheduler.retryAfter("soon", now));
+        assertEquals(Duration.ofSeconds(15), UpstreamScheduler.resetDelay(
+                Long.toString(now.plusSeconds(15).getEpochSecond()), now));
+    }
+
+    private static ClientRequest request() {
+        return ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/api/character")).build();
+    }
+}
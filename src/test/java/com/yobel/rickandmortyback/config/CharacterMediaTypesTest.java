@@ -0,0 +1,40 @@
+package com.yobel.rickandmortyback.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CharacterMediaTypesTest {
+
+    @Test
+    public void negotiate_DefaultsToJson() {
+        assertEquals(MediaType.APPLICATION_JSON, negotiate(""));
+        assertEquals(MediaType.APPLICATION_JSON, negotiate("*/*"));
+        assertEquals(MediaType.APPLICATION_JSON, negotiate("application/*"));
+        assertEquals(MediaType.APPLICATION_JSON, negotiate("text/html, */*;q=0.8"));
+    }
+
+    @Test
+    public void negotiate_HonorsExplicitAndPreferredTypes() {
+        assertEquals(MediaType.APPLICATION_CBOR, negotiate("application/cbor"));
+        assertEquals(CharacterMediaTypes.APPLICATION_SMILE, negotiate("application/x-jackson-smile, */*;q=0.1"));
+        assertEquals(CharacterMediaTypes.APPLICATION_PROTOBUF,
+                negotiate("application/json;q=0.5, application/x-protobuf"));
+    }
+
+    @Test
+    public void variant_IsEmptyOnlyForJson() {
+        assertEquals("", CharacterMediaTypes.variant(MediaType.APPLICATION_JSON));
+        assertEquals("cbor", CharacterMediaTypes.variant(MediaType.APPLICATION_CBOR));
+        assertEquals("smile", CharacterMediaTypes.variant(CharacterMediaTypes.APPLICATION_SMILE));
+        assertEquals("protobuf", CharacterMediaTypes.variant(CharacterMediaTypes.APPLICATION_PROTOBUF));
+    }
+
+    private static MediaType negotiate(String accept) {
+        List<MediaType> acceptable = accept.isEmpty() ? List.of() : MediaType.parseMediaTypes(accept);
+        return CharacterMediaTypes.negotiate(acceptable, CharacterMediaTypes.CHARACTER_TYPES);
+    }
+}
@@ -0,0 +1,133 @@
+package com.yobel.rickandmortyback.config;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+import com.yobel.rickandmortyback.service.CharacterField;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CharacterProtobufEncoderTest {
+
+    private final CharacterProtobufEncoder encoder = new CharacterProtobufEncoder();
+
+    @Test
+    public void toByteArray_FollowsSchema() throws IOException {
+        // Arrange
+        LocalDateTime created = LocalDateTime.of(2017, 11, 4, 18, 48, 46, 250_000_000);
+        Character character = new Character(1, "Rick Sanchez", "Alive", "Human", "", "Male",
+                new Origin("Earth (C-137)", "https://rickandmortyapi.com/api/location/1"),
+                new Location(null, "Citadel of Ricks", "https://rickandmortyapi.com/api/location/3",
+                        null, null, null, null),
+                "https://rickandmortyapi.com/api/character/avatar/1.jpeg",
+                List.of("https://rickandmortyapi.com/api/episode/1", "https://rickandmortyapi.com/api/episode/2"),
+                "https://rickandmortyapi.com/api/character/1", created);
+
+        // Act
+        CodedInputStream input = CodedInputStream.newInstance(encoder.toByteArray(character));
+
+        // Assert
+        List<Integer> fields = new ArrayList<>();
+        List<String> episodes = new ArrayList<>();
+        while (!input.isAtEnd()) {
+            int tag = input.readTag();
+            int field = WireFormat.getTagFieldNumber(tag);
+            fields.add(field);
+            switch (field) {
+                case 1 -> assertEquals(1, input.readInt32());
+                case 2 -> assertEquals("Rick Sanchez", input.readString());
+                case 7 -> assertEquals(List.of("Earth (C-137)", "https://rickandmortyapi.com/api/location/1"),
+                        strings(input.readByteArray()));
+                case 8 -> assertEquals(List.of("Citadel of Ricks", "https://rickandmortyapi.com/api/location/3"),
+                        strings(input.readByteArray()));
+                case 10 -> episodes.add(input.readString());
+                case 12 -> {
+                    CodedInputStream timestamp = CodedInputStream.newInstance(input.readByteArray());
+                    assertEquals(1, WireFormat.getTagFieldNumber(timestamp.readTag()));
+                    assertEquals(created.toEpochSecond(ZoneOffset.UTC), timestamp.readInt64());
+                    assertEquals(2, WireFormat.getTagFieldNumber(timestamp.readTag()));
+                    assertEquals(250_000_000, timestamp.readInt32());
+                }
+                default -> input.skipField(tag);
+            }
+        }
+        // The empty type is omitted, as proto3 does not tell it apart from a missing one
+        assertFalse(fields.contains(5));
+        assertEquals(List.of(1, 2, 3, 4, 6, 7, 8, 9, 10, 10, 11, 12), fields);
+        assertEquals(character.getEpisode(), episodes);
+    }
+
+    @Test
+    public void encode_WritesStreamAsCharacterList() {
+        // Arrange
+        List<Character> characters = List.of(
+                new Character(1, "Rick Sanchez", null, null, null, null, null, null, null, null, null, null),
+                new Character(2, "Morty Smith", null, null, null, null, null, null, null, null, null, null));
+
+        // Act
+        byte[] streamed = DataBufferUtils.join(encoder.encode(Flux.fromIterable(characters),
+                        DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(Character.class),
+                        CharacterMediaTypes.APPLICATION_PROTOBUF, null))
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    return bytes;
+                })
+                .block();
+
+        // Assert
+        assertArrayEquals(encoder.toByteArray(characters), streamed);
+        assertTrue(encoder.canEncode(ResolvableType.forClass(Character.class),
+                CharacterMediaTypes.APPLICATION_PROTOBUF));
+        assertFalse(encoder.canEncode(ResolvableType.forClass(Origin.class),
+                CharacterMediaTypes.APPLICATION_PROTOBUF));
+    }
+
+    @Test
+    public void toByteArray_WritesSelectedFieldsOnly() throws IOException {
+        // Arrange
+        Character character = new Character(1, "Rick Sanchez", "Alive", "Human", "", "Male", null, null,
+                "https://rickandmortyapi.com/api/character/avatar/1.jpeg",
+                List.of("https://rickandmortyapi.com/api/episode/1"), null, null);
+
+        // Act
+        CodedInputStream input = CodedInputStream.newInstance(encoder.toByteArray(character,
+                EnumSet.of(CharacterField.ID, CharacterField.NAME, CharacterField.IMAGE)));
+
+        // Assert
+        List<Integer> fields = new ArrayList<>();
+        while (!input.isAtEnd()) {
+            int tag = input.readTag();
+            fields.add(WireFormat.getTagFieldNumber(tag));
+            input.skipField(tag);
+        }
+        assertEquals(List.of(1, 2, 9), fields);
+    }
+
+    private static List<String> strings(byte[] message) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(message);
+        List<String> values = new ArrayList<>();
+        while (!input.isAtEnd()) {
+            input.readTag();
+            values.add(input.readString());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,37 @@
+package com.yobel.rickandmortyback.config;
+
+import com.yobel.rickandmortyback.exception.ApiError;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Origin;
+import com.yobel.rickandmortyback.model.response.CharacterResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CharacterRuntimeHintsTest {
+
+    @Test
+    public void registerHints_BindsModelsAndNestedTypes() throws Exception {
+        // Arrange
+        RuntimeHints hints = new RuntimeHints();
+
+        // Act
+        new CharacterRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Character.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Character.class.getMethod("getName")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(Character.class.getMethod("setName", String.class)).test(hints));
+        // Reached through the properties of the registered types
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Origin.class.getMethod("getUrl")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(CharacterResponse.Info.class.getMethod("getPages")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(ApiError.class.getMethod("getTimestamp")).test(hints));
+    }
+}
@@ -0,0 +1,17 @@
+package com.yobel.rickandmortyback.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class UpstreamObservationConventionTest {
+
+    @Test
+    public void normalize_ReplacesIdsWithPlaceholders() {
+        assertEquals("/api/character", UpstreamObservationConvention.normalize("/api/character"));
+        assertEquals("/api/character/{id}", UpstreamObservationConvention.normalize("/api/character/42"));
+        assertEquals("/api/character/{ids}", UpstreamObservationConvention.normalize("/api/character/1,2,3"));
+        assertEquals("/api/character/avatar/{id}.jpeg",
+                UpstreamObservationConvention.normalize("/api/character/avatar/{id}.jpeg"));
+    }
+}
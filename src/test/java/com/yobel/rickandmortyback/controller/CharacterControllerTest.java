@@ -1,20 +1,48 @@
 package com.yobel.rickandmortyback.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.yobel.rickandmortyback.config.CharacterCodecsConfig;
+import com.yobel.rickandmortyback.config.CharacterFeedProperties;
+import com.yobel.rickandmortyback.config.CharacterHttpCacheProperties;
+import com.yobel.rickandmortyback.exception.GlobalExceptionHandler;
 import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
 import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.ExpandedCharacter;
+import com.yobel.rickandmortyback.service.CharacterExpander;
+import com.yobel.rickandmortyback.service.CharacterFeed;
 import com.yobel.rickandmortyback.service.CharacterService;
+import com.yobel.rickandmortyback.service.CharacterValidators;
+import com.yobel.rickandmortyback.service.Expansion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,9 +51,20 @@ public class CharacterControllerTest {
     @Mock
     private CharacterService characterService;
 
-    @InjectMocks
+    @Mock
+    private CharacterExpander characterExpander;
+
+    @Mock
+    private CharacterFeed characterFeed;
+
     private CharacterController characterController;
 
+    @BeforeEach
+    public void setup() {
+        characterController = new CharacterController(characterService, characterExpander,
+                new CharacterValidators(), new CharacterHttpCacheProperties(), characterFeed);
+    }
+
     @Test
     public void getCharacterById_Success() {
         // Arrange
@@ -94,7 +133,7 @@ public class CharacterControllerTest {
         character.setId(1);
         character.setName("Rick Sanchez");
 
-        when(characterService.getCharactersByName(anyString())).thenReturn(Flux.just(character));
+        when(characterService.getCharactersByName(anyString(), any(), any())).thenReturn(Flux.just(character));
 
         WebTestClient testClient = WebTestClient.bindToController(characterController).build();
 
@@ -111,7 +150,7 @@ public class CharacterControllerTest {
     @Test
     public void searchCharactersByName_NotFound() {
         // Arrange
-        when(characterService.getCharactersByName(anyString()))
+        when(characterService.getCharactersByName(anyString(), any(), any()))
                 .thenReturn(Flux.error(new ResourceNotFoundException("No characters found with this name")));
 
         WebTestClient testClient = WebTestClient.bindToController(characterController).build();
@@ -123,4 +162,264 @@ public class CharacterControllerTest {
                 .exchange()
                 .expectStatus().isNotFound();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getCharacterById_Expanded() {
+        // Arrange
+        Character character = new Character();
+        character.setId(1);
+        character.setName("Rick Sanchez");
+        Mono<Character> found = Mono.just(character);
+        when(characterService.getCharacterById(1)).thenReturn(found);
+        when(characterExpander.expand(eq(found), eq(Set.of(Expansion.EPISODES))))
+                .thenReturn(Mono.just(new ExpandedCharacter(character, List.of(), null, null)));
+
+        WebTestClient testClient = WebTestClient.bindToController(characterController).build();
+
+        // Act & Assert
+        testClient.get()
+                .uri("/api/characters/1?expand=episodes")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Rick Sanchez")
+                .jsonPath("$.episodes").isArray()
+                .jsonPath("$.originDetails").doesNotExist();
+    }
+
+    @Test
+    public void getCharacterById_SendsValidatorsAndCacheControl() {
+        // Arrange
+        Character character = new Character();
+        character.setId(1);
+        character.setName("Rick Sanchez");
+        character.setCreated(LocalDateTime.of(2017, 11, 4, 18, 48, 46, 250_000_000));
+        when(characterService.getCharacterById(1)).thenReturn(Mono.just(character));
+
+        WebTestClient testClient = WebTestClient.bindToController(characterController).build();
+
+        // Act & Assert
+        testClient.get()
+                .uri("/api/characters/1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, etag -> etag.matches("\"[0-9a-f]{16}\""))
+                .expectHeader().doesNotExist(HttpHeaders.LAST_MODIFIED)
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofMinutes(5))
+                        .staleWhileRevalidate(Duration.ofHours(1))
+                        .staleIfError(Duration.ofDays(1))
+                        .cachePublic());
+    }
+
+    @Test
+    public void getCharactersByPage_NotModified() {
+        // Arrange
+        Character character = new Character();
+        character.setId(1);
+        character.setName("Rick Sanchez");
+        when(characterService.getCharactersByPage(1)).thenReturn(Flux.just(character));
+
+        WebTestClient testClient = WebTestClient.bindToController(characterController).build();
+        String etag = testClient.get()
+                .uri("/api/characters/page/1")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Character.class)
+                .getResponseHeaders()
+                .getETag();
+
+        // Act & Assert
+        testClient.get()
+                .uri("/api/characters/page/1")
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    public void getCharactersByPage_CompressibleResponseHasWeakETag() {
+        // Arrange
+        Character character = new Character();
+        character.setId(1);
+        character.setName("Rick Sanchez");
+        when(characterService.getCharactersByPage(1)).thenReturn(Flux.just(character));
+
+        WebTestClient testClient = WebTestClient.bindToController(characterController).build();
+        String etag = testClient.get()
+                .uri("/api/characters/page/1")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, br")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, value -> value.matches("W/\"[0-9a-f]{16}\""))
+                .returnResult(Character.class)
+                .getResponseHeaders()
+                .getETag();
+
+        // Act & Assert
+        testClient.get()
+                .uri("/api/characters/page/1")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, br")
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified();
+        testClient.get()
+                .uri("/api/characters/page/1")
+                .header(HttpHeaders.ACCEPT_ENCODING, "identity, gzip;q=0")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, value -> value.matches("\"[0-9a-f]{16}\""));
+    }
+
+    @Test
+    public void getCharactersByPage_NegotiatesCbor() throws IOException {
+        // Arrange
+        Character character = new Character();
+        character.setId(1);
+        character.setName("Rick Sanchez");
+        when(characterService.getCharactersByPage(1)).thenReturn(Flux.just(character));
+
+        CharacterCodecsConfig codecs = new CharacterCodecsConfig(new Jackson2ObjectMapperBuilder());
+        WebTestClient testClient = WebTestClient.bindToController(characterController)
+                .httpMessageCodecs(codecs::configureHttpMessageCodecs)
+                .build();
+
+        // Act
+        byte[] body = testClient.get()
+                .uri("/api/characters/page/1")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectHeader().value(HttpHeaders.ETAG, etag -> etag.matches("\"[0-9a-f]{16}-cbor\""))
+                .expectHeader().valueEquals(HttpHeaders.VARY, "Accept, Accept-Encoding")
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        // Assert
+        JsonNode characters = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals(1, characters.size());
+        assertEquals("Rick Sanchez", characters.get(0).get("name").asText());
+    }
+
+    @Test
+    public void getCharactersByPage_FiltersSortsAndProjects() throws IOException {
+        // Arrange
+        Character rick = new Character();
+        rick.setId(1);
+        rick.setName("Rick Sanchez");
+        rick.setStatus("Alive");
+        rick.setEpisode(List.of("https://rickandmortyapi.com/api/episode/1"));
+        Character birdperson = new Character();
+        birdperson.setId(47);
+        birdperson.setName("Birdperson");
+        birdperson.setStatus("Dead");
+        Character abradolf = new Character();
+        abradolf.setId(7);
+        abradolf.setName("Abradolf Lincler");
+        abradolf.setStatus("alive");
+        when(characterService.getCharactersByPage(1)).thenReturn(Flux.just(rick, birdperson, abradolf));
+
+        CharacterCodecsConfig codecs = new CharacterCodecsConfig(new Jackson2ObjectMapperBuilder());
+        WebTestClient testClient = WebTestClient.bindToController(characterController)
+                .httpMessageCodecs(codecs::configureHttpMessageCodecs)
+                .build();
+
+        // Act
+        byte[] body = testClient.get()
+                .uri("/api/characters/page/1?status=ALIVE&sort=name&limit=5&fields=id,name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, etag -> etag.matches("\"[0-9a-f]{16}-f3\""))
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        // Assert
+        JsonNode characters = new ObjectMapper().readTree(body);
+        assertEquals(2, characters.size());
+        assertEquals("Abradolf Lincler", characters.get(0).get("name").asText());
+        assertEquals(1, characters.get(1).get("id").asInt());
+        assertEquals(2, characters.get(1).size());
+        assertFalse(characters.get(1).has("episode"));
+    }
+
+    @Test
+    public void getCharactersByPage_UnknownField() {
+        // Arrange
+        WebTestClient testClient = WebTestClient.bindToController(characterController)
+                .controllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+
+        // Act & Assert
+        testClient.get()
+                .uri("/api/characters/page/1?fields=id,height")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void searchCharactersByName_LimitBelowOneIsRejected() {
+        // Arrange
+        WebTestClient testClient = WebTestClient.bindToController(characterController)
+                .controllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+
+        // Act & Assert
+        testClient.get()
+                .uri("/api/characters/search?name=Rick&limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("limit must be greater than or equal to 1");
+        testClient.get()
+                .uri("/api/characters/search?name=Rick&limit=-1")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(characterService);
+    }
+
+    @Test
+    public void streamCharacterChanges_ResumesWithTheRequestedPolicy() {
+        // Arrange
+        ServerSentEvent<String> event = ServerSentEvent.builder("{\"fromVersion\":7,\"toVersion\":8}")
+                .id("8")
+                .event(CharacterFeed.CHANGE_EVENT)
+                .build();
+        when(characterFeed.changes("7", CharacterFeedProperties.Overflow.DROP)).thenReturn(Flux.just(event));
+
+        WebTestClient testClient = WebTestClient.bindToController(characterController).build();
+
+        // Act
+        String body = testClient.get()
+                .uri("/api/characters/changes?overflow=drop")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        // Assert
+        assertEquals("id:8\nevent:change\ndata:{\"fromVersion\":7,\"toVersion\":8}\n\n", body);
+    }
+
+    @Test
+    public void streamCharacterChanges_UnknownOverflowPolicy() {
+        // Arrange
+        WebTestClient testClient = WebTestClient.bindToController(characterController)
+                .controllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+
+        // Act & Assert
+        testClient.get()
+                .uri("/api/characters/changes?overflow=block")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
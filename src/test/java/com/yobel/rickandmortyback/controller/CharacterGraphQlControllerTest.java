@@ -0,0 +1,205 @@
+package com.yobel.rickandmortyback.controller;
+
+import com.yobel.rickandmortyback.config.CharacterGraphQlConfig;
+import com.yobel.rickandmortyback.config.CharacterGraphQlProperties;
+import com.yobel.rickandmortyback.config.CharacterSearchProperties;
+import com.yobel.rickandmortyback.exception.GraphQlExceptionResolver;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Episode;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+import com.yobel.rickandmortyback.service.CharacterService;
+import com.yobel.rickandmortyback.service.EpisodeService;
+import com.yobel.rickandmortyback.service.LocationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.graphql.GraphQlTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@GraphQlTest(controllers = CharacterGraphQlController.class,
+        properties = {"character.graphql.max-complexity=1000", "character.graphql.max-ids=5"})
+@Import({CharacterGraphQlConfig.class, GraphQlExceptionResolver.class, CharacterGraphQlControllerTest.Beans.class})
+public class CharacterGraphQlControllerTest {
+
+    private static final String API = "https://rickandmortyapi.com/api";
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @MockitoBean
+    private CharacterService characterService;
+
+    @MockitoBean
+    private EpisodeService episodeService;
+
+    @MockitoBean
+    private LocationService locationService;
+
+    @Test
+    public void characters_NestedReferencesAreLoadedOncePerLevel() {
+        // Arrange
+        when(characterService.getCharactersByIds(anyCollection()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<Collection<Integer>>getArgument(0))
+                        .map(id -> character(id, List.of(1, 2), 3)));
+        when(episodeService.getEpisodesByIds(anyCollection()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<Collection<Integer>>getArgument(0))
+                        .map(id -> episode(id, List.of(1, 4))));
+
+        // Act & Assert
+        graphQlTester.document("""
+                        {
+                          characters(ids: [1, 2]) {
+                            name
+                            episodes { name characters { name } }
+                          }
+                        }""")
+                .execute()
+                .path("characters[*].name").entityList(String.class).containsExactly("Character 1", "Character 2")
+                .path("characters[1].episodes[*].name").entityList(String.class)
+                .containsExactly("Episode 1", "Episode 2")
+                .path("characters[0].episodes[1].characters[*].name").entityList(String.class)
+                .containsExactly("Character 1", "Character 4");
+        // Episodes 1 and 2 are shared by both characters, and characters 1 and 2 are already loaded
+        verify(episodeService, times(1)).getEpisodesByIds(Set.of(1, 2));
+        verify(characterService, times(1)).getCharactersByIds(Set.of(1, 2));
+        verify(characterService, times(1)).getCharactersByIds(Set.of(4));
+    }
+
+    @Test
+    public void character_ResolvesOriginWithoutRestCallsForUnknownLocations() {
+        // Arrange
+        Character character = character(1, List.of(), 3);
+        character.setOrigin(new Origin("unknown", ""));
+        when(characterService.getCharacterById(1)).thenReturn(Mono.just(character));
+        when(locationService.getLocationsByIds(anyCollection()))
+                .thenReturn(Flux.just(new Location(3, "Citadel of Ricks", API + "/location/3", "Space station",
+                        "unknown", List.of(), null)));
+
+        // Act & Assert
+        graphQlTester.document("{ character(id: 1) { origin { name } originDetails { name } locationDetails { name } } }")
+                .execute()
+                .path("character.origin.name").entity(String.class).isEqualTo("unknown")
+                .path("character.originDetails").valueIsNull()
+                .path("character.locationDetails.name").entity(String.class).isEqualTo("Citadel of Ricks");
+        verify(locationService, times(1)).getLocationsByIds(Set.of(3));
+    }
+
+    @Test
+    public void character_NotFoundIsReportedAsError() {
+        // Arrange
+        when(characterService.getCharacterById(999))
+                .thenReturn(Mono.error(new ResourceNotFoundException("Character with ID 999 not found")));
+
+        // Act & Assert
+        graphQlTester.document("{ character(id: 999) { name } }")
+                .execute()
+                .errors()
+                .expect(error -> error.getErrorType() == ErrorType.NOT_FOUND
+                        && error.getMessage().equals("Character with ID 999 not found"))
+                .verify()
+                .path("character").valueIsNull();
+    }
+
+    @Test
+    public void query_TooDeepIsRejectedBeforeFetching() {
+        // Act & Assert
+        graphQlTester.document("""
+                        {
+                          character(id: 1) {
+                            episodes { characters { episodes { characters { episodes { name } } } } }
+                          }
+                        }""")
+                .execute()
+                .errors()
+                .expect(error -> error.getMessage().contains("maximum query depth exceeded"))
+                .verify();
+        verify(characterService, never()).getCharacterById(any(Integer.class));
+    }
+
+    @Test
+    public void query_TooComplexIsRejectedBeforeFetching() {
+        // Act & Assert
+        graphQlTester.document("""
+                        {
+                          charactersPage(page: 1) {
+                            episodes { characters { name } }
+                          }
+                        }""")
+                .execute()
+                .errors()
+                .expect(error -> error.getMessage().contains("maximum query complexity exceeded"))
+                .verify();
+        verify(characterService, never()).getCharactersByPage(any(Integer.class));
+    }
+
+    @Test
+    public void query_ComplexityFollowsTheLimitArgument() {
+        // Act & Assert
+        graphQlTester.document("{ searchCharacters(name: \"Rick\", limit: 60) { episodes { name } } }")
+                .execute()
+                .errors()
+                .expect(error -> error.getMessage().contains("maximum query complexity exceeded"))
+                .verify();
+        verify(characterService, never()).getCharactersByName(any(), any(), any());
+    }
+
+    @Test
+    public void characters_TooManyIdsIsBadRequest() {
+        // Act & Assert
+        graphQlTester.document("{ characters(ids: [1, 2, 3, 4, 5, 6]) { name } }")
+                .execute()
+                .errors()
+                .expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST)
+                .verify();
+        verify(characterService, never()).getCharactersByIds(anyCollection());
+    }
+
+    private static Character character(int id, List<Integer> episodes, int location) {
+        Character character = new Character();
+        character.setId(id);
+        character.setName("Character " + id);
+        character.setEpisode(episodes.stream().map(episode -> API + "/episode/" + episode).toList());
+        character.setLocation(new Location(null, "Location " + location,
+                API + "/location/" + location, null, null, null, null));
+        return character;
+    }
+
+    private static Episode episode(int id, List<Integer> characters) {
+        Episode episode = new Episode();
+        episode.setId(id);
+        episode.setName("Episode " + id);
+        episode.setCharacters(characters.stream().map(character -> API + "/character/" + character).toList());
+        return episode;
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties({CharacterGraphQlProperties.class, CharacterSearchProperties.class})
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
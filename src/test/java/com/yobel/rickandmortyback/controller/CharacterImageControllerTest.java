@@ -0,0 +1,77 @@
+package com.yobel.rickandmortyback.controller;
+
+import com.yobel.rickandmortyback.config.CharacterImageProperties;
+import com.yobel.rickandmortyback.exception.GlobalExceptionHandler;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.service.CharacterImageStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CharacterImageControllerTest {
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private CharacterImageStore imageStore;
+
+    private WebTestClient testClient;
+
+    @BeforeEach
+    public void setup() {
+        testClient = WebTestClient.bindToController(new CharacterImageController(imageStore,
+                        new CharacterImageProperties()))
+                .controllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+    }
+
+    @Test
+    public void getCharacterImage_ServesTheStoredFile() throws IOException {
+        // Arrange
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xD9};
+        Path path = Files.write(directory.resolve("1-64.jpeg"), jpeg);
+        Instant storedAt = Instant.parse("2026-01-01T00:00:00Z");
+        when(imageStore.get(1, 64)).thenReturn(Mono.just(new CharacterImageStore.Image(path, jpeg.length, storedAt)));
+
+        // Act & Assert
+        testClient.get()
+                .uri("/api/characters/1/image?size=64")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.IMAGE_JPEG)
+                .expectHeader().contentLength(jpeg.length)
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=2592000, public, immutable")
+                .expectHeader().lastModified(storedAt.toEpochMilli())
+                .expectBody(byte[].class).isEqualTo(jpeg);
+    }
+
+    @Test
+    public void getCharacterImage_NotFound() {
+        // Arrange
+        when(imageStore.get(9999, null))
+                .thenReturn(Mono.error(new ResourceNotFoundException("Image of character with ID 9999 not found")));
+
+        // Act & Assert
+        testClient.get()
+                .uri("/api/characters/9999/image")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,53 @@
+package com.yobel.rickandmortyback.exception;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(meterRegistry);
+
+    @Test
+    public void handleResourceNotFoundException_CountsError() {
+        // Act
+        StepVerifier.create(handler.handleResourceNotFoundException(new ResourceNotFoundException("Character not found")))
+                .expectNextMatches(response -> response.getStatusCode() == HttpStatus.NOT_FOUND)
+                .verifyComplete();
+        handler.handleResourceNotFoundException(new ResourceNotFoundException("Character not found")).block();
+
+        // Assert
+        assertEquals(2, meterRegistry.get("api.errors")
+                .tag("exception", "ResourceNotFoundException")
+                .tag("status", "404")
+                .counter()
+                .count());
+    }
+
+    @Test
+    public void handleBadRequestException_ReturnsBadRequest() {
+        // Act & Assert
+        StepVerifier.create(handler.handleBadRequestException(new BadRequestException("Unknown sort value: height")))
+                .expectNextMatches(response -> response.getStatusCode() == HttpStatus.BAD_REQUEST
+                        && "Unknown sort value: height".equals(response.getBody().getMessage()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void handleGenericException_IllegalArgumentIsAnInternalError() {
+        // Act & Assert
+        StepVerifier.create(handler.handleGenericException(new IllegalArgumentException("bug")))
+                .expectNextMatches(response -> response.getStatusCode() == HttpStatus.INTERNAL_SERVER_ERROR)
+                .verifyComplete();
+        assertEquals(1, meterRegistry.get("api.errors")
+                .tag("exception", "IllegalArgumentException")
+                .tag("status", "500")
+                .counter()
+                .count());
+    }
+}
@@ -0,0 +1,158 @@
+package com.yobel.rickandmortyback.model.compact;
+
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactCharacterCodecTest {
+
+    private static final String API = "https://rickandmortyapi.com/api";
+    private static final String[] STATUSES = {"Alive", "Dead", "unknown"};
+    private static final String[] SPECIES = {"Human", "Alien", "Humanoid", "Poopybutthole", "Mythological Creature",
+            "Animal", "Robot", "Cronenberg", "Disease", "unknown"};
+    private static final String[] TYPES = {"", "", "", "", "", "Parasite", "Genetic experiment", "Superhuman", "Clone"};
+    private static final String[] GENDERS = {"Female", "Male", "Genderless", "unknown"};
+
+    private final CompactCharacterCodec codec = new CompactCharacterCodec();
+
+    @Test
+    public void decode_RoundTripsEveryField() {
+        // Arrange
+        List<Character> catalog = syntheticCatalog(826);
+
+        // Act & Assert
+        for (Character character : catalog) {
+            assertEquals(character, codec.decode(codec.encode(character)));
+        }
+    }
+
+    @Test
+    public void encode_StoresEpisodeReferencesAsIds() {
+        // Arrange
+        Character character = character(1, List.of(API + "/episode/1", API + "/episode/12"));
+
+        // Act
+        CompactCharacter compact = codec.encode(character);
+
+        // Assert
+        assertEquals(2, compact.getEpisodeIds().length);
+        assertEquals(12, compact.getEpisodeIds()[1]);
+    }
+
+    @Test
+    public void encode_KeepsUrlsThatDoNotFollowTheUpstreamPattern() {
+        // Arrange
+        Character character = character(7, List.of(API + "/episode/1", "https://example.org/special"));
+        character.setImage("https://cdn.example.org/avatar.png");
+        character.setOrigin(new Origin("unknown", ""));
+        character.setLocation(null);
+
+        // Act
+        CompactCharacter compact = codec.encode(character);
+        Character decoded = codec.decode(compact);
+
+        // Assert
+        assertNull(compact.getEpisodeIds());
+        assertEquals(character, decoded);
+    }
+
+    @Test
+    public void decode_ReturnsIndependentCopies() {
+        // Arrange
+        CompactCharacter compact = codec.encode(character(3, List.of(API + "/episode/5")));
+        Character first = codec.decode(compact);
+
+        // Act
+        first.getEpisode().clear();
+        first.getOrigin().setName("Changed");
+
+        // Assert
+        Character second = codec.decode(compact);
+        assertNotSame(first, second);
+        assertEquals(1, second.getEpisode().size());
+        assertEquals("Earth (C-137)", second.getOrigin().getName());
+    }
+
+    @Test
+    public void equals_DetectsChangedContent() {
+        // Arrange
+        Character character = character(4, List.of(API + "/episode/1"));
+        CompactCharacter before = codec.encode(character);
+
+        // Act
+        character.setStatus("Dead");
+
+        // Assert
+        assertEquals(before, codec.encode(character(4, List.of(API + "/episode/1"))));
+        assertNotEquals(before, codec.encode(character));
+    }
+
+    @Test
+    public void encode_FullCatalogUsesLessThanAThirdOfTheHeap() {
+        // Arrange
+        List<Character> catalog = syntheticCatalog(826);
+
+        // Act
+        List<CompactCharacter> compact = catalog.stream().map(codec::encode).toList();
+        long beanBytes = GraphLayout.parseInstance(catalog).totalSize();
+        long compactBytes = GraphLayout.parseInstance(compact, codec).totalSize();
+
+        // Assert
+        assertTrue(compactBytes * 3 < beanBytes, "compact=" + compactBytes + " bean=" + beanBytes);
+    }
+
+    private static Character character(int id, List<String> episodes) {
+        return new Character(id, "Rick Sanchez", "Alive", "Human", "", "Male",
+                new Origin("Earth (C-137)", API + "/location/1"),
+                new Location(null, "Citadel of Ricks", API + "/location/3", null, null, null, null),
+                API + "/character/avatar/" + id + ".jpeg", new ArrayList<>(episodes), API + "/character/" + id,
+                LocalDateTime.of(2017, 11, 4, 18, 48, 46, 250_000_000));
+    }
+
+    /**
+     * Builds a catalog shaped like the upstream one. Every string is a distinct instance, as it would
+     * be after JSON decoding.
+     */
+    static List<Character> syntheticCatalog(int size) {
+        Random random = new Random(42);
+        List<Character> catalog = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            int episodeCount = id <= 5 ? 51 : 1 + random.nextInt(random.nextInt(10) == 0 ? 30 : 3);
+            List<String> episodes = new ArrayList<>(episodeCount);
+            int firstEpisode = 1 + random.nextInt(51 - Math.min(episodeCount, 50));
+            for (int i = 0; i < episodeCount; i++) {
+                episodes.add(new String(API + "/episode/" + (firstEpisode + i)));
+            }
+            int origin = 1 + random.nextInt(126);
+            int location = 1 + random.nextInt(126);
+            catalog.add(new Character(
+                    id,
+                    new String("Character " + id + " of dimension C-" + random.nextInt(1000)),
+                    new String(STATUSES[random.nextInt(STATUSES.length)]),
+                    new String(SPECIES[random.nextInt(SPECIES.length)]),
+                    new String(TYPES[random.nextInt(TYPES.length)]),
+                    new String(GENDERS[random.nextInt(GENDERS.length)]),
+                    new Origin(new String("Location " + origin), new String(API + "/location/" + origin)),
+                    new Location(null, new String("Location " + location), new String(API + "/location/" + location),
+                            null, null, null, null),
+                    new String(API + "/character/avatar/" + id + ".jpeg"),
+                    episodes,
+                    new String(API + "/character/" + id),
+                    LocalDateTime.of(2017, 11, 4, 18, 48).plusSeconds(id * 97L).plusNanos(random.nextInt(1000) * 1_000_000L)));
+        }
+        return catalog;
+    }
+}
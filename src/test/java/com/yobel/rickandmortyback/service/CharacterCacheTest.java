@@ -0,0 +1,74 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.config.CharacterCacheProperties;
+import com.yobel.rickandmortyback.model.Character;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CharacterCacheTest {
+
+    private CharacterCache characterCache;
+
+    @BeforeEach
+    public void setup() {
+        characterCache = new CharacterCache(new CharacterCacheProperties());
+    }
+
+    @Test
+    public void get_ConcurrentMissesShareOneLoad() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        Sinks.One<Character> upstream = Sinks.one();
+        Character rick = new Character();
+        rick.setId(1);
+
+        // Act
+        Mono<Character> first = characterCache.get(1, id -> {
+            loads.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<Character> second = characterCache.get(1, id -> {
+            loads.incrementAndGet();
+            return upstream.asMono();
+        });
+
+        // Assert
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> upstream.tryEmitValue(rick))
+                .expectNextMatches(pair -> pair.getT1() == rick && pair.getT2() == rick)
+                .verifyComplete();
+        assertEquals(1, loads.get());
+        assertEquals(1, characterCache.stats().missCount());
+        assertEquals(1, characterCache.stats().hitCount());
+    }
+
+    @Test
+    public void get_FailedLoadIsNotCached() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        Character rick = new Character();
+        rick.setId(1);
+
+        // Act & Assert
+        StepVerifier.create(characterCache.get(1, id -> {
+                    loads.incrementAndGet();
+                    return Mono.error(new RuntimeException("API Error"));
+                }))
+                .expectError(RuntimeException.class)
+                .verify();
+        StepVerifier.create(characterCache.get(1, id -> {
+                    loads.incrementAndGet();
+                    return Mono.just(rick);
+                }))
+                .expectNext(rick)
+                .verifyComplete();
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,116 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.exception.BadRequestException;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Episode;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CharacterExpanderTest {
+
+    private static final String API = "https://rickandmortyapi.com/api";
+
+    @Mock
+    private EpisodeService episodeService;
+
+    @Mock
+    private LocationService locationService;
+
+    private CharacterExpander characterExpander;
+
+    @BeforeEach
+    public void setup() {
+        characterExpander = new CharacterExpander(episodeService, locationService);
+    }
+
+    @Test
+    public void expand_ResolvesDistinctReferencesOnce() {
+        // Arrange
+        Character rick = character(1, 1, 3, 1, 2);
+        Character morty = character(2, 1, 20, 2, 3);
+        when(episodeService.getEpisodesByIds(Set.of(1, 2, 3)))
+                .thenReturn(Flux.just(episode(1), episode(2), episode(3)));
+        when(locationService.getLocationsByIds(Set.of(1, 3, 20)))
+                .thenReturn(Flux.just(location(1), location(3), location(20)));
+
+        // Act & Assert
+        StepVerifier.create(characterExpander.expand(Flux.just(rick, morty), EnumSet.allOf(Expansion.class)))
+                .assertNext(expanded -> {
+                    assertEquals(rick, expanded.getCharacter());
+                    assertEquals(List.of(1, 2), expanded.getEpisodes().stream().map(Episode::getId).toList());
+                    assertEquals(1, expanded.getOriginDetails().getId());
+                    assertEquals(3, expanded.getLocationDetails().getId());
+                })
+                .assertNext(expanded -> assertEquals(20, expanded.getLocationDetails().getId()))
+                .verifyComplete();
+        verify(episodeService, times(1)).getEpisodesByIds(any());
+        verify(locationService, times(1)).getLocationsByIds(any());
+    }
+
+    @Test
+    public void expand_SkipsUnknownAndUnrequestedReferences() {
+        // Arrange
+        Character character = character(1, 1, 3, 1);
+        character.setOrigin(new Origin("unknown", ""));
+        when(episodeService.getEpisodesByIds(Set.of())).thenReturn(Flux.empty());
+        when(locationService.getLocationsByIds(Set.of())).thenReturn(Flux.empty());
+
+        // Act & Assert
+        StepVerifier.create(characterExpander.expand(Flux.just(character), EnumSet.of(Expansion.ORIGIN)))
+                .assertNext(expanded -> {
+                    assertNull(expanded.getEpisodes());
+                    assertNull(expanded.getOriginDetails());
+                    assertNull(expanded.getLocationDetails());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void parse_RejectsUnknownValues() {
+        assertEquals(EnumSet.of(Expansion.EPISODES, Expansion.ORIGIN), Expansion.parse("episodes, Origin"));
+        assertThrows(BadRequestException.class, () -> Expansion.parse("episodes,friends"));
+    }
+
+    private static Character character(int id, int origin, int location, int... episodes) {
+        Character character = new Character();
+        character.setId(id);
+        character.setName("Character " + id);
+        character.setOrigin(new Origin("Location " + origin, API + "/location/" + origin));
+        character.setLocation(new Location(null, "Location " + location, API + "/location/" + location,
+                null, null, null, null));
+        character.setEpisode(Arrays.stream(episodes).mapToObj(episode -> API + "/episode/" + episode).toList());
+        return character;
+    }
+
+    private static Episode episode(int id) {
+        Episode episode = new Episode();
+        episode.setId(id);
+        episode.setName("Episode " + id);
+        return episode;
+    }
+
+    private static Location location(int id) {
+        Location location = new Location();
+        location.setId(id);
+        location.setName("Location " + id);
+        return location;
+    }
+}
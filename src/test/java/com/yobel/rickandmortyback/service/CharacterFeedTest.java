@@ -0,0 +1,176 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.client.CharacterApiClient;
+import com.yobel.rickandmortyback.config.CharacterCatalogProperties;
+import com.yobel.rickandmortyback.config.CharacterFeedProperties;
+import com.yobel.rickandmortyback.config.CharacterMirrorProperties;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.response.CharacterResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CharacterFeedTest {
+
+    @Mock
+    private CharacterApiClient apiClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CharacterMirrorProperties mirrorProperties;
+    private CharacterFeedProperties feedProperties;
+    private CharacterMirror characterMirror;
+
+    @BeforeEach
+    public void setup() {
+        mirrorProperties = new CharacterMirrorProperties();
+        mirrorProperties.setEnabled(true);
+        feedProperties = new CharacterFeedProperties();
+        characterMirror = new CharacterMirror(apiClient, mirrorProperties, new CharacterCatalogProperties(),
+                new CharacterSnapshotStore(mirrorProperties));
+    }
+
+    @Test
+    public void changes_NewSubscriberStartsWithTheWholeCatalog() {
+        // Arrange
+        CharacterFeed feed = feed();
+        refreshTo(2);
+
+        // Act & Assert
+        StepVerifier.create(feed.changes(null, null))
+                .assertNext(event -> {
+                    assertEquals(CharacterFeed.RESET_EVENT, event.event());
+                    assertEquals("1", event.id());
+                    assertTrue(event.data().contains("\"name\":\"Character 2\""));
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void changes_StreamsTheDifferenceOfLaterRefreshes() {
+        // Arrange
+        CharacterFeed feed = feed();
+        refreshTo(2);
+
+        // Act & Assert
+        StepVerifier.create(feed.changes("1", null))
+                .then(() -> refreshTo(3))
+                .assertNext(event -> {
+                    assertEquals(CharacterFeed.CHANGE_EVENT, event.event());
+                    assertEquals("2", event.id());
+                    assertTrue(event.data().startsWith("{\"fromVersion\":1,\"toVersion\":2,\"added\":[{\"id\":3,"));
+                    assertTrue(event.data().endsWith("\"changed\":[],\"removed\":[]}"));
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void changes_ResumesFromLastEventId() {
+        // Arrange
+        CharacterFeed feed = feed();
+        refreshTo(2);
+        refreshTo(3);
+        refreshTo(4);
+
+        // Act & Assert
+        StepVerifier.create(feed.changes("2", null))
+                .assertNext(event -> assertEquals(CharacterFeed.CHANGE_EVENT, event.event()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+        StepVerifier.create(feed.changes("42", null))
+                .assertNext(event -> {
+                    assertEquals(CharacterFeed.RESET_EVENT, event.event());
+                    assertEquals("3", event.id());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void changes_SlowSubscriberReceivesMergedChanges() {
+        // Arrange
+        CharacterFeed feed = feed();
+        refreshTo(2);
+
+        // Act & Assert
+        StepVerifier.create(feed.changes("1", CharacterFeedProperties.Overflow.COALESCE), 0)
+                .then(() -> IntStream.rangeClosed(3, 6).forEach(this::refreshTo))
+                .thenRequest(2)
+                // The first change was already handed over when the subscriber stopped reading
+                .assertNext(event -> assertEquals("2", event.id()))
+                .assertNext(event -> {
+                    assertEquals("5", event.id());
+                    assertTrue(event.data().startsWith("{\"fromVersion\":2,\"toVersion\":5,\"added\":[{\"id\":4,"));
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+        assertTrue(meterRegistry.get("character.feed.coalesced").counter().count() >= 2);
+    }
+
+    @Test
+    public void changes_SlowSubscriberDropsTheOldestChanges() {
+        // Arrange
+        feedProperties.setBufferSize(1);
+        CharacterFeed feed = feed();
+        refreshTo(2);
+
+        // Act & Assert
+        StepVerifier.create(feed.changes("1", CharacterFeedProperties.Overflow.DROP), 0)
+                .then(() -> IntStream.rangeClosed(3, 6).forEach(this::refreshTo))
+                .thenRequest(2)
+                .assertNext(event -> assertEquals("2", event.id()))
+                .assertNext(event -> assertEquals("5", event.id()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+        assertEquals(2.0, meterRegistry.get("character.feed.dropped").counter().count());
+    }
+
+    @Test
+    public void changes_DisabledMirrorIsNotFound() {
+        // Arrange
+        mirrorProperties.setEnabled(false);
+
+        // Act & Assert
+        StepVerifier.create(feed().changes(null, null))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    private CharacterFeed feed() {
+        return new CharacterFeed(characterMirror, mirrorProperties, feedProperties,
+                Jackson2ObjectMapperBuilder.json().build(), meterRegistry);
+    }
+
+    private void refreshTo(int count) {
+        List<Character> characters = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            Character character = new Character();
+            character.setId(id);
+            character.setName("Character " + id);
+            character.setCreated(LocalDateTime.of(2017, 11, 4, 18, 48).plusMinutes(id));
+            characters.add(character);
+        }
+        when(apiClient.fetchFirstPage()).thenReturn(Mono.just(
+                new CharacterResponse(new CharacterResponse.Info(count, 1, null, null), characters)));
+        characterMirror.refresh().block();
+    }
+}
@@ -0,0 +1,196 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.client.CharacterApiClient;
+import com.yobel.rickandmortyback.config.CharacterImageProperties;
+import com.yobel.rickandmortyback.exception.BadRequestException;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CharacterImageStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private CharacterApiClient apiClient;
+
+    private CharacterImageProperties properties;
+    private byte[] avatar;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        properties = new CharacterImageProperties();
+        properties.setDirectory(directory);
+        properties.setThumbnailSizes(List.of(64));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB), "jpeg", out);
+        avatar = out.toByteArray();
+    }
+
+    @Test
+    public void get_DownloadsOnceAndGeneratesThumbnails() throws IOException {
+        // Arrange
+        when(apiClient.streamAvatar(1)).thenReturn(avatar().delaySubscription(Duration.ofMillis(50)));
+        CharacterImageStore store = new CharacterImageStore(apiClient, properties);
+
+        // Act
+        List<CharacterImageStore.Image> images = Flux.merge(store.get(1, null), store.get(1, null), store.get(1, 64))
+                .collectList()
+                .block();
+
+        // Assert
+        verify(apiClient, times(1)).streamAvatar(1);
+        CharacterImageStore.Image original = variant(images, "1.jpeg");
+        assertArrayEquals(avatar, Files.readAllBytes(original.path()));
+        assertEquals(avatar.length, original.length());
+        BufferedImage thumbnail = ImageIO.read(variant(images, "1-64.jpeg").path().toFile());
+        assertEquals(64, thumbnail.getWidth());
+        assertEquals(64, thumbnail.getHeight());
+    }
+
+    @Test
+    public void get_UnsupportedSizeIsRejected() {
+        // Arrange
+        CharacterImageStore store = new CharacterImageStore(apiClient, properties);
+
+        // Act & Assert
+        StepVerifier.create(store.get(1, 100))
+                .expectError(BadRequestException.class)
+                .verify();
+        verifyNoInteractions(apiClient);
+    }
+
+    @Test
+    public void get_MissingAvatarIsNotCached() {
+        // Arrange
+        when(apiClient.streamAvatar(9999))
+                .thenReturn(Flux.error(new ResourceNotFoundException("Image of character with ID 9999 not found")));
+        CharacterImageStore store = new CharacterImageStore(apiClient, properties);
+
+        // Act & Assert
+        StepVerifier.create(store.get(9999, null)).expectError(ResourceNotFoundException.class).verify();
+        StepVerifier.create(store.get(9999, null)).expectError(ResourceNotFoundException.class).verify();
+        verify(apiClient, times(2)).streamAvatar(9999);
+        assertFalse(Files.exists(directory.resolve("9999.jpeg.tmp")));
+    }
+
+    @Test
+    public void get_EvictedAvatarsAreDeleted() throws IOException, InterruptedException {
+        // Arrange
+        properties.setThumbnailSizes(List.of());
+        properties.setMaxSize(DataSize.ofBytes(avatar.length * 2L));
+        properties.setEvictionGrace(Duration.ZERO);
+        when(apiClient.streamAvatar(anyInt())).thenAnswer(invocation -> avatar());
+        CharacterImageStore store = new CharacterImageStore(apiClient, properties);
+
+        // Act
+        for (int id = 1; id <= 5; id++) {
+            store.get(id, null).block();
+        }
+
+        // Assert
+        // Weights are recorded when the loads complete, and evictions follow asynchronously
+        long stored = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < 50 && stored > 2; attempt++) {
+            store.cleanUp();
+            try (Stream<Path> files = Files.list(directory)) {
+                stored = files.count();
+            }
+            Thread.sleep(20);
+        }
+        assertEquals(2, stored);
+    }
+
+    @Test
+    public void get_EvictedAvatarIsKeptDuringGracePeriod() throws IOException, InterruptedException {
+        // Arrange
+        properties.setThumbnailSizes(List.of());
+        properties.setMaxSize(DataSize.ofBytes(avatar.length));
+        when(apiClient.streamAvatar(anyInt())).thenAnswer(invocation -> avatar());
+        CharacterImageStore store = new CharacterImageStore(apiClient, properties);
+        CharacterImageStore.Image first = store.get(1, null).block();
+
+        // Act
+        store.get(2, null).block();
+        store.cleanUp();
+        Thread.sleep(100);
+
+        // Assert
+        assertArrayEquals(avatar, Files.readAllBytes(first.path()));
+    }
+
+    @Test
+    public void get_FailedThumbnailLeavesNoFiles() throws IOException {
+        // Arrange
+        when(apiClient.streamAvatar(1)).thenReturn(avatar());
+        Files.createDirectory(directory.resolve("1-64.jpeg"));
+        Files.createFile(directory.resolve("1-64.jpeg").resolve("occupied"));
+        CharacterImageStore store = new CharacterImageStore(apiClient, properties);
+
+        // Act & Assert
+        StepVerifier.create(store.get(1, null)).expectError(IOException.class).verify();
+        assertFalse(Files.exists(directory.resolve("1.jpeg")));
+        assertFalse(Files.exists(directory.resolve("1.jpeg.tmp")));
+        assertFalse(Files.exists(directory.resolve("1-64.jpeg.tmp")));
+    }
+
+    @Test
+    public void constructor_IndexesStoredAvatars() {
+        // Arrange
+        when(apiClient.streamAvatar(1)).thenReturn(avatar());
+        new CharacterImageStore(apiClient, properties).get(1, 64).block();
+
+        // Act
+        CharacterImageStore restarted = new CharacterImageStore(apiClient, properties);
+
+        // Assert
+        StepVerifier.create(restarted.get(1, null))
+                .expectNextMatches(image -> image.path().endsWith("1.jpeg") && image.length() == avatar.length)
+                .verifyComplete();
+        verify(apiClient, times(1)).streamAvatar(1);
+        assertTrue(Files.exists(directory.resolve("1-64.jpeg")));
+    }
+
+    private static CharacterImageStore.Image variant(List<CharacterImageStore.Image> images, String fileName) {
+        return images.stream()
+                .filter(image -> image.path().endsWith(fileName))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Flux<DataBuffer> avatar() {
+        DefaultDataBufferFactory factory = DefaultDataBufferFactory.sharedInstance;
+        int half = avatar.length / 2;
+        return Flux.defer(() -> Flux.just(
+                factory.wrap(Arrays.copyOfRange(avatar, 0, half)),
+                factory.wrap(Arrays.copyOfRange(avatar, half, avatar.length))));
+    }
+}
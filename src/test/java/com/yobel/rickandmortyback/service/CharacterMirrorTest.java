@@ -0,0 +1,266 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.client.CharacterApiClient;
+import com.yobel.rickandmortyback.config.CharacterCatalogProperties;
+import com.yobel.rickandmortyback.config.CharacterMirrorProperties;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.response.CharacterResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CharacterMirrorTest {
+
+    @Mock
+    private CharacterApiClient apiClient;
+
+    private CharacterMirrorProperties properties;
+    private CharacterMirror characterMirror;
+
+    @BeforeEach
+    public void setup() {
+        properties = new CharacterMirrorProperties();
+        properties.setEnabled(true);
+        characterMirror = new CharacterMirror(apiClient, properties, new CharacterCatalogProperties(),
+                new CharacterSnapshotStore(properties));
+    }
+
+    @Test
+    public void refresh_BuildsFullSnapshot() {
+        // Arrange
+        when(apiClient.fetchFirstPage()).thenReturn(Mono.just(pageOf(5, 3, 1, 2)));
+        when(apiClient.fetchPage(2)).thenReturn(Mono.just(pageOf(5, 3, 3, 4)));
+        when(apiClient.fetchPage(3)).thenReturn(Mono.just(pageOf(5, 3, 5)));
+
+        // Act & Assert
+        StepVerifier.create(characterMirror.refresh())
+                .expectNextMatches(snapshot -> snapshot.version() == 1 && snapshot.pageCount() == 3)
+                .verifyComplete();
+        assertTrue(characterMirror.isReady());
+        assertEquals("Character 4", characterMirror.current().get(4).getName());
+    }
+
+    @Test
+    public void refresh_UnchangedCatalogFetchesOnlyFirstPage() {
+        // Arrange
+        when(apiClient.fetchFirstPage()).thenReturn(Mono.just(pageOf(3, 2, 1, 2)), Mono.just(pageOf(3, 2, 1, 2)));
+        when(apiClient.fetchPage(2)).thenReturn(Mono.just(pageOf(3, 2, 3)));
+        CharacterMirror.Snapshot first = characterMirror.refresh().block();
+
+        // Act
+        CharacterMirror.Snapshot second = characterMirror.refresh().block();
+
+        // Assert
+        assertSame(first, second);
+        verify(apiClient, times(1)).fetchPage(2);
+    }
+
+    @Test
+    public void refresh_AppendedCharactersRefetchOnlyTrailingPages() {
+        // Arrange
+        when(apiClient.fetchFirstPage()).thenReturn(Mono.just(pageOf(5, 3, 1, 2)), Mono.just(pageOf(6, 3, 1, 2)));
+        when(apiClient.fetchPage(2)).thenReturn(Mono.just(pageOf(5, 3, 3, 4)));
+        when(apiClient.fetchPage(3)).thenReturn(Mono.just(pageOf(5, 3, 5)), Mono.just(pageOf(6, 3, 5, 6)));
+        characterMirror.refresh().block();
+
+        // Act
+        CharacterMirror.Snapshot snapshot = characterMirror.refresh().block();
+
+        // Assert
+        assertEquals(2, snapshot.version());
+        assertEquals(6, snapshot.byId().size());
+        verify(apiClient, times(1)).fetchPage(2);
+        verify(apiClient, times(2)).fetchPage(3);
+    }
+
+    @Test
+    public void refresh_EditOnFirstPageIsPickedUp() {
+        // Arrange
+        CharacterResponse edited = pageOf(3, 2, 1, 2);
+        edited.getResults().get(0).setStatus("Dead");
+        when(apiClient.fetchFirstPage()).thenReturn(Mono.just(pageOf(3, 2, 1, 2)), Mono.just(edited));
+        when(apiClient.fetchPage(2)).thenReturn(Mono.just(pageOf(3, 2, 3)));
+        characterMirror.refresh().block();
+
+        // Act
+        CharacterMirror.Snapshot snapshot = characterMirror.refresh().block();
+
+        // Assert
+        assertEquals(2, snapshot.version());
+        assertEquals("Dead", snapshot.get(1).getStatus());
+    }
+
+    @Test
+    public void refresh_FullRefreshPicksUpEditsBeyondFirstPage() {
+        // Arrange
+        properties.setFullRefreshInterval(Duration.ZERO);
+        CharacterResponse edited = pageOf(3, 2, 3);
+        edited.getResults().get(0).setName("Edited");
+        when(apiClient.fetchFirstPage()).thenReturn(Mono.just(pageOf(3, 2, 1, 2)));
+        when(apiClient.fetchPage(2)).thenReturn(Mono.just(pageOf(3, 2, 3)), Mono.just(edited));
+        characterMirror.refresh().block();
+
+        // Act
+        CharacterMirror.Snapshot snapshot = characterMirror.refresh().block();
+
+        // Assert
+        assertEquals(2, snapshot.version());
+        assertEquals("Edited", snapshot.get(3).getName());
+    }
+
+    @Test
+    public void refresh_FullRefreshOfUnchangedCatalogKeepsSnapshot() {
+        // Arrange
+        properties.setFullRefreshInterval(Duration.ZERO);
+        when(apiClient.fetchFirstPage()).thenReturn(Mono.just(pageOf(3, 2, 1, 2)), Mono.just(pageOf(3, 2, 1, 2)));
+        when(apiClient.fetchPage(2)).thenReturn(Mono.just(pageOf(3, 2, 3)), Mono.just(pageOf(3, 2, 3)));
+        CharacterMirror.Snapshot first = characterMirror.refresh().block();
+
+        // Act
+        CharacterMirror.Snapshot second = characterMirror.refresh().block();
+
+        // Assert
+        assertSame(first, second);
+        verify(apiClient, times(2)).fetchPage(2);
+    }
+
+    @Test
+    public void restore_ServesSavedSnapshotUntilFullyRevalidated(@TempDir Path directory) {
+        // Arrange
+        CharacterMirrorProperties properties = new CharacterMirrorProperties();
+        properties.setEnabled(true);
+        properties.setSnapshotPath(directory.resolve("mirror.snapshot"));
+        when(apiClient.fetchFirstPage()).thenReturn(Mono.just(pageOf(3, 2, 1, 2)));
+        when(apiClient.fetchPage(2)).thenReturn(Mono.just(pageOf(3, 2, 3)));
+        CharacterSnapshotStore store = new CharacterSnapshotStore(properties);
+        CharacterMirror previousInstance = new CharacterMirror(apiClient, properties,
+                new CharacterCatalogProperties(), store);
+        store.save(previousInstance.refresh().block());
+        CharacterMirror restarted = new CharacterMirror(apiClient, properties, new CharacterCatalogProperties(),
+                new CharacterSnapshotStore(properties));
+
+        // Act
+        boolean restored = restarted.restore();
+
+        // Assert
+        assertTrue(restored);
+        assertTrue(restarted.isReady());
+        assertEquals(1, restarted.current().version());
+        assertEquals("Character 3", restarted.current().get(3).getName());
+        assertSame(restarted.current(), restarted.refresh().block());
+        verify(apiClient, times(2)).fetchPage(2);
+    }
+
+    @Test
+    public void restore_IgnoresSnapshotOlderThanMaxAge(@TempDir Path directory) {
+        // Arrange
+        CharacterMirrorProperties properties = new CharacterMirrorProperties();
+        properties.setEnabled(true);
+        properties.setSnapshotPath(directory.resolve("mirror.snapshot"));
+        when(apiClient.fetchFirstPage()).thenReturn(Mono.just(pageOf(3, 2, 1, 2)));
+        when(apiClient.fetchPage(2)).thenReturn(Mono.just(pageOf(3, 2, 3)));
+        CharacterSnapshotStore store = new CharacterSnapshotStore(properties);
+        store.save(new CharacterMirror(apiClient, properties, new CharacterCatalogProperties(), store)
+                .refresh().block());
+        properties.setSnapshotMaxAge(Duration.ZERO);
+        CharacterMirror restarted = new CharacterMirror(apiClient, properties, new CharacterCatalogProperties(),
+                new CharacterSnapshotStore(properties));
+
+        // Act
+        boolean restored = restarted.restore();
+
+        // Assert
+        assertFalse(restored);
+        assertFalse(restarted.isReady());
+    }
+
+    @Test
+    public void restore_ExpiredSnapshotIsReplacedByNextColdRefresh(@TempDir Path directory) throws InterruptedException {
+        // Arrange
+        CharacterMirrorProperties properties = new CharacterMirrorProperties();
+        properties.setEnabled(true);
+        properties.setSnapshotPath(directory.resolve("mirror.snapshot"));
+        CharacterResponse edited = pageOf(3, 2, 1, 2);
+        edited.getResults().get(0).setStatus("Dead");
+        when(apiClient.fetchFirstPage()).thenReturn(Mono.just(pageOf(3, 2, 1, 2)), Mono.just(edited));
+        when(apiClient.fetchPage(2)).thenReturn(Mono.just(pageOf(3, 2, 3)));
+        CharacterSnapshotStore store = new CharacterSnapshotStore(properties);
+        CharacterMirror previousInstance = new CharacterMirror(apiClient, properties,
+                new CharacterCatalogProperties(), store);
+        previousInstance.refresh().block();
+        store.save(previousInstance.refresh().block());
+        properties.setSnapshotMaxAge(Duration.ZERO);
+        CharacterMirror restarted = new CharacterMirror(apiClient, properties, new CharacterCatalogProperties(),
+                new CharacterSnapshotStore(properties));
+
+        // Act
+        boolean restored = restarted.restore();
+        restarted.refresh().block();
+
+        // Assert
+        assertFalse(restored);
+        // The cold refresh starts again at version 1, below the rejected file, and is saved asynchronously
+        long saved = 2;
+        for (int attempt = 0; attempt < 50 && saved != 1; attempt++) {
+            Thread.sleep(20);
+            saved = new CharacterSnapshotStore(properties).load().version();
+        }
+        assertEquals(1, saved);
+    }
+
+    @Test
+    public void change_ThenCombinesConsecutiveChanges() {
+        // Arrange
+        CharacterMirror.Change first = new CharacterMirror.Change(1, 2,
+                List.of(character(4)), List.of(character(1)), List.of(2));
+        CharacterMirror.Change second = new CharacterMirror.Change(2, 3,
+                List.of(character(2), character(5)), List.of(character(4)), List.of(1, 5, 3));
+
+        // Act
+        CharacterMirror.Change combined = first.then(second);
+
+        // Assert
+        assertEquals(1, combined.fromVersion());
+        assertEquals(3, combined.toVersion());
+        assertEquals(List.of(4), combined.added().stream().map(Character::getId).toList());
+        assertEquals(List.of(2), combined.changed().stream().map(Character::getId).toList());
+        assertEquals(List.of(1, 3), combined.removed());
+    }
+
+    private static Character character(int id) {
+        Character character = new Character();
+        character.setId(id);
+        character.setName("Character " + id);
+        return character;
+    }
+
+    private static CharacterResponse pageOf(int count, int pages, int... ids) {
+        List<Character> characters = new ArrayList<>();
+        for (int id : ids) {
+            Character character = new Character();
+            character.setId(id);
+            character.setName("Character " + id);
+            character.setCreated(LocalDateTime.of(2017, 11, 4, 18, 48).plusMinutes(id));
+            characters.add(character);
+        }
+        return new CharacterResponse(new CharacterResponse.Info(count, pages, null, null), characters);
+    }
+}
@@ -0,0 +1,104 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.config.CharacterNegativeCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CharacterNegativeCacheTest {
+
+    @Test
+    public void isMissing_RemembersIdsNotFoundUpstream() {
+        // Arrange
+        CharacterNegativeCache negativeCache = new CharacterNegativeCache(new CharacterNegativeCacheProperties());
+
+        // Act
+        negativeCache.recordMissing(5000);
+
+        // Assert
+        assertTrue(negativeCache.isMissing(5000));
+        assertFalse(negativeCache.isMissing(5001));
+    }
+
+    @Test
+    public void isMissing_RejectsIdsOutsideKnownCount() {
+        // Arrange
+        CharacterNegativeCache negativeCache = new CharacterNegativeCache(new CharacterNegativeCacheProperties());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        negativeCache.bindTo(registry);
+
+        // Act & Assert
+        assertTrue(negativeCache.isMissing(0));
+        assertTrue(negativeCache.isMissing(-3));
+        assertFalse(negativeCache.isMissing(900));
+        negativeCache.recordCount(826);
+        assertFalse(negativeCache.isMissing(826));
+        assertFalse(negativeCache.isMissing(846));
+        assertTrue(negativeCache.isMissing(847));
+        assertEquals(3, registry.get("character.negative-cache.out-of-range").functionCounter().count());
+    }
+
+    @Test
+    public void isMissing_ExpiredCountIsNotTrusted() {
+        // Arrange
+        CharacterNegativeCacheProperties properties = new CharacterNegativeCacheProperties();
+        properties.setCountTtl(Duration.ZERO);
+        CharacterNegativeCache negativeCache = new CharacterNegativeCache(properties);
+
+        // Act
+        negativeCache.recordCount(826);
+
+        // Assert
+        assertFalse(negativeCache.isMissing(900));
+    }
+
+    @Test
+    public void isMissing_FoundIdAboveKnownCountRaisesIt() {
+        // Arrange
+        CharacterNegativeCache negativeCache = new CharacterNegativeCache(new CharacterNegativeCacheProperties());
+        negativeCache.recordCount(826);
+
+        // Act
+        negativeCache.recordFound(840);
+
+        // Assert
+        assertFalse(negativeCache.isMissing(860));
+        assertTrue(negativeCache.isMissing(861));
+    }
+
+    @Test
+    public void hasNoMatch_IgnoresCase() {
+        // Arrange
+        CharacterNegativeCache negativeCache = new CharacterNegativeCache(new CharacterNegativeCacheProperties());
+
+        // Act
+        negativeCache.recordNoMatch("Xyzzy");
+
+        // Assert
+        assertTrue(negativeCache.hasNoMatch("xYZZY"));
+        assertFalse(negativeCache.hasNoMatch("Rick"));
+    }
+
+    @Test
+    public void disabled_NothingIsRejected() {
+        // Arrange
+        CharacterNegativeCacheProperties properties = new CharacterNegativeCacheProperties();
+        properties.setEnabled(false);
+        CharacterNegativeCache negativeCache = new CharacterNegativeCache(properties);
+
+        // Act
+        negativeCache.recordMissing(5000);
+        negativeCache.recordNoMatch("Xyzzy");
+        negativeCache.recordCount(826);
+
+        // Assert
+        assertFalse(negativeCache.isMissing(5000));
+        assertFalse(negativeCache.isMissing(900));
+        assertFalse(negativeCache.hasNoMatch("Xyzzy"));
+    }
+}
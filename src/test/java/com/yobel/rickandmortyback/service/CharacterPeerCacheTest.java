@@ -0,0 +1,179 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.client.CharacterPeerClient;
+import com.yobel.rickandmortyback.client.CharacterPeerRing;
+import com.yobel.rickandmortyback.config.CharacterPeerProperties;
+import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
+import com.yobel.rickandmortyback.model.Character;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CharacterPeerCacheTest {
+
+    private static final String SELF = "http://localhost:8081";
+    private static final String PEER = "http://localhost:8082";
+
+    @Mock
+    private CharacterPeerClient peerClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger localLoads = new AtomicInteger();
+    private final IntFunction<Mono<Character>> local = id -> {
+        localLoads.incrementAndGet();
+        return Mono.just(character(id, "local"));
+    };
+
+    private CharacterPeerProperties properties;
+    private CharacterPeerCache peerCache;
+
+    @BeforeEach
+    public void setup() {
+        properties = new CharacterPeerProperties();
+        properties.setEnabled(true);
+        properties.setSelf(SELF);
+        properties.setMembers(List.of(SELF, PEER));
+        properties.setDownCooldown(Duration.ofMinutes(1));
+        peerCache = new CharacterPeerCache(peerClient, properties, meterRegistry);
+    }
+
+    @Test
+    public void load_OwnedKeyIsLoadedLocally() {
+        // Arrange
+        int id = idOwnedBy(SELF);
+
+        // Act & Assert
+        StepVerifier.create(peerCache.load(id, local))
+                .expectNextMatches(character -> "local".equals(character.getName()))
+                .verifyComplete();
+        verifyNoInteractions(peerClient);
+        assertEquals(1.0, loads("local"));
+    }
+
+    @Test
+    public void load_OtherKeyIsFetchedFromItsOwner() {
+        // Arrange
+        int id = idOwnedBy(PEER);
+        when(peerClient.fetchCharacterById(PEER, id)).thenReturn(Mono.just(character(id, "peer")));
+
+        // Act & Assert
+        StepVerifier.create(peerCache.load(id, local))
+                .expectNextMatches(character -> "peer".equals(character.getName()))
+                .verifyComplete();
+        assertEquals(0, localLoads.get());
+        assertEquals(1.0, loads("peer"));
+    }
+
+    @Test
+    public void load_UnreachablePeerFallsBackAndIsSkippedDuringCooldown() {
+        // Arrange
+        int id = idOwnedBy(PEER);
+        when(peerClient.fetchCharacterById(PEER, id)).thenReturn(Mono.error(new ConnectException("refused")));
+
+        // Act
+        StepVerifier.create(peerCache.load(id, local))
+                .expectNextMatches(character -> "local".equals(character.getName()))
+                .verifyComplete();
+        StepVerifier.create(peerCache.load(id, local))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Assert
+        verify(peerClient, times(1)).fetchCharacterById(PEER, id);
+        assertEquals(2, localLoads.get());
+        assertEquals(1.0, loads("fallback"));
+    }
+
+    @Test
+    public void load_ErrorResponseFallsBackWithoutSkippingThePeer() {
+        // Arrange
+        int id = idOwnedBy(PEER);
+        when(peerClient.fetchCharacterById(PEER, id)).thenReturn(Mono.error(
+                WebClientResponseException.create(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable",
+                        null, null, null)));
+
+        // Act
+        peerCache.load(id, local).block();
+        peerCache.load(id, local).block();
+
+        // Assert
+        verify(peerClient, times(2)).fetchCharacterById(PEER, id);
+        assertEquals(2.0, loads("fallback"));
+    }
+
+    @Test
+    public void load_NotFoundFromOwnerIsReturned() {
+        // Arrange
+        int id = idOwnedBy(PEER);
+        when(peerClient.fetchCharacterById(PEER, id))
+                .thenReturn(Mono.error(new ResourceNotFoundException("Character with ID " + id + " not found")));
+
+        // Act & Assert
+        StepVerifier.create(peerCache.load(id, local))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        assertEquals(0, localLoads.get());
+    }
+
+    @Test
+    public void load_DisabledLoadsEverythingLocally() {
+        // Arrange
+        properties.setEnabled(false);
+        peerCache = new CharacterPeerCache(peerClient, properties, meterRegistry);
+
+        // Act
+        IntStream.rangeClosed(1, 20).forEach(id -> peerCache.load(id, local).block());
+
+        // Assert
+        verifyNoInteractions(peerClient);
+        assertEquals(20, localLoads.get());
+    }
+
+    @Test
+    public void constructor_SelfMustBeAMember() {
+        // Arrange
+        properties.setMembers(List.of(PEER));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> new CharacterPeerCache(peerClient, properties, meterRegistry));
+    }
+
+    private int idOwnedBy(String member) {
+        CharacterPeerRing ring = new CharacterPeerRing(properties.getMembers(), properties.getVirtualNodes());
+        return IntStream.rangeClosed(1, 100)
+                .filter(id -> member.equals(ring.owner("character:" + id)))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private double loads(String source) {
+        return meterRegistry.get("character.peer.loads").tag("source", source).counter().count();
+    }
+
+    private static Character character(int id, String name) {
+        Character character = new Character();
+        character.setId(id);
+        character.setName(name);
+        return character;
+    }
+}
@@ -0,0 +1,81 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.exception.BadRequestException;
+import com.yobel.rickandmortyback.model.Character;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CharacterQueryTest {
+
+    @Test
+    public void apply_FiltersIgnoringCase() {
+        // Arrange
+        CharacterQuery query = CharacterQuery.of("alive, unknown", "human", null, null, null);
+
+        // Act & Assert
+        StepVerifier.create(query.apply(Flux.just(
+                        character(1, "Rick Sanchez", "Alive", "Human"),
+                        character(47, "Birdperson", "Dead", "Bird-Person"),
+                        character(5, "Jerry Smith", "unknown", "Human"),
+                        character(6, "Squanchy", "Alive", "Cat-Person"))))
+                .expectNextMatches(character -> character.getId() == 1)
+                .expectNextMatches(character -> character.getId() == 5)
+                .verifyComplete();
+    }
+
+    @Test
+    public void apply_SortsThenLimits() {
+        // Arrange
+        CharacterQuery query = CharacterQuery.of(null, null, null, "-status,name", 3);
+
+        // Act & Assert
+        StepVerifier.create(query.apply(Flux.just(
+                        character(1, "Rick Sanchez", "Alive", "Human"),
+                        character(47, "Birdperson", "Dead", "Bird-Person"),
+                        character(2, "morty Smith", "Alive", "Human"),
+                        character(3, "Summer Smith", null, "Human"))))
+                .expectNextMatches(character -> character.getId() == 47)
+                .expectNextMatches(character -> character.getId() == 2)
+                .expectNextMatches(character -> character.getId() == 1)
+                .verifyComplete();
+    }
+
+    @Test
+    public void apply_LimitWithoutSortCancelsSource() {
+        // Arrange
+        AtomicInteger emitted = new AtomicInteger();
+        Flux<Character> source = Flux.range(1, 100)
+                .map(id -> character(id, "Character " + id, "Alive", "Human"))
+                .doOnNext(character -> emitted.incrementAndGet());
+
+        // Act & Assert
+        StepVerifier.create(CharacterQuery.of(null, null, null, null, 2).apply(source))
+                .expectNextCount(2)
+                .verifyComplete();
+        assertEquals(2, emitted.get());
+    }
+
+    @Test
+    public void of_InvalidParameters() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> CharacterQuery.of(null, null, null, "height", null));
+        assertThrows(BadRequestException.class, () -> CharacterQuery.of(null, null, null, "episode", null));
+        assertThrows(BadRequestException.class, () -> CharacterQuery.of(null, null, null, null, 0));
+        assertThrows(BadRequestException.class, () -> CharacterField.parse("id,height"));
+    }
+
+    private static Character character(int id, String name, String status, String species) {
+        Character character = new Character();
+        character.setId(id);
+        character.setName(name);
+        character.setStatus(status);
+        character.setSpecies(species);
+        return character;
+    }
+}
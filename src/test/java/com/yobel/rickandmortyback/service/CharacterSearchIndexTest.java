@@ -0,0 +1,69 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.model.Character;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class CharacterSearchIndexTest {
+
+    private CharacterSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup() {
+        searchIndex = new CharacterSearchIndex(mock(CharacterMirror.class));
+        searchIndex.apply(new CharacterMirror.Change(0, 1, List.of(
+                character(1, "Rick Sanchez"),
+                character(2, "Morty Smith"),
+                character(8, "Adjudicator Rick"),
+                character(15, "Alien Rick"),
+                character(19, "Antenna Rick"),
+                character(47, "Birdperson")
+        ), List.of(), List.of()));
+    }
+
+    @Test
+    public void search_RanksNamePrefixBeforeTokenPrefix() {
+        List<Integer> results = searchIndex.search("rick", 10, false);
+
+        assertEquals(4, results.size());
+        assertEquals(1, results.get(0));
+    }
+
+    @Test
+    public void search_MatchesSubstringsAndRespectsLimit() {
+        assertEquals(List.of(47), searchIndex.search("dperso", 10, false));
+        assertEquals(2, searchIndex.search("ri", 2, false).size());
+    }
+
+    @Test
+    public void search_FuzzyToleratesTypos() {
+        assertTrue(searchIndex.search("mroty", 10, false).isEmpty());
+        assertEquals(List.of(2), searchIndex.search("mroty", 10, true));
+    }
+
+    @Test
+    public void apply_UpdatesIndexIncrementally() {
+        // Act
+        searchIndex.apply(new CharacterMirror.Change(1, 2, List.of(character(100, "Squanchy")),
+                List.of(character(2, "Evil Morty")), List.of(47)));
+
+        // Assert
+        assertTrue(searchIndex.search("bird", 10, false).isEmpty());
+        assertEquals(List.of(100), searchIndex.search("squ", 10, false));
+        assertEquals(List.of(2), searchIndex.search("evil", 10, false));
+        assertTrue(searchIndex.search("smith", 10, false).isEmpty());
+    }
+
+    private static Character character(int id, String name) {
+        Character character = new Character();
+        character.setId(id);
+        character.setName(name);
+        return character;
+    }
+}
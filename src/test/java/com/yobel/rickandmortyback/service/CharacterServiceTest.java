@@ -1,22 +1,49 @@
 package com.yobel.rickandmortyback.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yobel.rickandmortyback.client.CharacterApiClient;
+import com.yobel.rickandmortyback.client.CharacterBatchLoader;
+import com.yobel.rickandmortyback.client.CharacterPageDecoder;
+import com.yobel.rickandmortyback.client.CharacterPeerClient;
+import com.yobel.rickandmortyback.client.UpstreamHedging;
+import com.yobel.rickandmortyback.client.UpstreamResilience;
+import com.yobel.rickandmortyback.client.UpstreamScheduler;
+import com.yobel.rickandmortyback.config.CharacterBatchProperties;
+import com.yobel.rickandmortyback.config.CharacterCacheProperties;
+import com.yobel.rickandmortyback.config.CharacterCatalogProperties;
+import com.yobel.rickandmortyback.config.CharacterMirrorProperties;
+import com.yobel.rickandmortyback.config.CharacterNegativeCacheProperties;
+import com.yobel.rickandmortyback.config.CharacterPeerProperties;
+import com.yobel.rickandmortyback.config.CharacterSearchProperties;
+import com.yobel.rickandmortyback.config.UpstreamHedgingProperties;
+import com.yobel.rickandmortyback.config.UpstreamResilienceProperties;
+import com.yobel.rickandmortyback.config.UpstreamSchedulerProperties;
+import com.yobel.rickandmortyback.exception.BadRequestException;
 import com.yobel.rickandmortyback.exception.ResourceNotFoundException;
 import com.yobel.rickandmortyback.model.Character;
 import com.yobel.rickandmortyback.model.response.CharacterResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -35,11 +62,32 @@ public class CharacterServiceTest {
     @Mock
     private WebClient.ResponseSpec responseSpec;
 
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
     private CharacterService characterService;
 
     @BeforeEach
     public void setup() {
-        characterService = new CharacterService(webClient);
+        UpstreamResilienceProperties resilienceProperties = new UpstreamResilienceProperties();
+        UpstreamSchedulerProperties schedulerProperties = new UpstreamSchedulerProperties();
+        schedulerProperties.setEnabled(false);
+        CharacterApiClient apiClient = new CharacterApiClient(webClient, new CharacterPageDecoder(objectMapper),
+                new UpstreamResilience(resilienceProperties,
+                        new UpstreamScheduler(schedulerProperties, new SimpleMeterRegistry())),
+                new UpstreamHedging(new UpstreamHedgingProperties(), new SimpleMeterRegistry()));
+        CharacterCatalogProperties catalogProperties = new CharacterCatalogProperties();
+        CharacterMirrorProperties mirrorProperties = new CharacterMirrorProperties();
+        CharacterMirror characterMirror = new CharacterMirror(apiClient, mirrorProperties, catalogProperties,
+                new CharacterSnapshotStore(mirrorProperties));
+        CharacterPeerProperties peerProperties = new CharacterPeerProperties();
+        characterService = new CharacterService(apiClient,
+                new CharacterBatchLoader(apiClient, new CharacterBatchProperties()),
+                new CharacterCache(new CharacterCacheProperties()), characterMirror,
+                new CharacterSearchIndex(characterMirror), catalogProperties, new CharacterSearchProperties(),
+                new StaleFallback(resilienceProperties), new CharacterPeerCache(
+                        new CharacterPeerClient(WebClient.builder(), peerProperties), peerProperties,
+                        new SimpleMeterRegistry()),
+                new CharacterNegativeCache(new CharacterNegativeCacheProperties()));
     }
 
     @Test
@@ -61,6 +109,30 @@ public class CharacterServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    public void getCharacterById_CachedAfterFirstLookup() {
+        // Arrange
+        int characterId = 1;
+        Character mockCharacter = new Character();
+        mockCharacter.setId(characterId);
+        mockCharacter.setName("Rick Sanchez");
+
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), eq(characterId))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(Character.class)).thenReturn(Mono.just(mockCharacter));
+
+        // Act & Assert
+        StepVerifier.create(characterService.getCharacterById(characterId))
+                .expectNext(mockCharacter)
+                .verifyComplete();
+        StepVerifier.create(characterService.getCharacterById(characterId))
+                .expectNext(mockCharacter)
+                .verifyComplete();
+
+        verify(webClient, times(1)).get();
+    }
+
     @Test
     public void getCharacterById_NotFound() {
         // Arrange
@@ -82,6 +154,57 @@ public class CharacterServiceTest {
                 .verify();
     }
 
+    @Test
+    public void getCharacterById_NotFoundIsNotRequestedAgain() {
+        // Arrange
+        int characterId = 5000;
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), eq(characterId))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(Character.class)).thenReturn(Mono.error(WebClientResponseException.create(
+                HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND.getReasonPhrase(), null, null, null)));
+
+        // Act & Assert
+        StepVerifier.create(characterService.getCharacterById(characterId))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        StepVerifier.create(characterService.getCharacterById(characterId))
+                .expectErrorMessage("Character with ID 5000 not found")
+                .verify();
+        verify(webClient, times(1)).get();
+    }
+
+    @Test
+    public void getCharacterById_AboveKnownCountIsRejectedLocally() {
+        // Arrange
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(DataBuffer.class)).thenReturn(json(pageOf(1, 1, 2, 3, 4, 5)));
+        StepVerifier.create(characterService.getCharactersByPage(1))
+                .expectNextCount(5)
+                .verifyComplete();
+
+        // Act & Assert
+        // IDs up to the default margin of 20 above the count are still looked up upstream
+        StepVerifier.create(characterService.getCharacterById(26))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+        verify(webClient, times(1)).get();
+    }
+
+    @Test
+    public void getCharactersByName_LimitBelowOneIsRejected() {
+        // Act & Assert
+        StepVerifier.create(characterService.getCharactersByName("Rick", -1, null))
+                .expectError(BadRequestException.class)
+                .verify();
+        StepVerifier.create(characterService.getCharactersByName("Rick", 0, null))
+                .expectError(BadRequestException.class)
+                .verify();
+        verifyNoInteractions(webClient);
+    }
+
     @Test
     public void getAllCharacters_Success() {
         // Arrange
@@ -102,7 +225,7 @@ public class CharacterServiceTest {
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(CharacterResponse.class)).thenReturn(Mono.just(response));
+        when(responseSpec.bodyToFlux(DataBuffer.class)).thenReturn(json(response));
 
         // Act & Assert
         StepVerifier.create(characterService.getAllCharacters())
@@ -110,6 +233,27 @@ public class CharacterServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    public void getAllCharacters_WalksEveryPage() {
+        // Arrange
+        CharacterResponse firstPage = pageOf(3, 1, 2);
+        CharacterResponse secondPage = pageOf(3, 3, 4);
+        CharacterResponse thirdPage = pageOf(3, 5);
+
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(DataBuffer.class))
+                .thenReturn(json(firstPage), json(secondPage), json(thirdPage));
+
+        // Act & Assert
+        StepVerifier.create(characterService.getAllCharacters(true).map(Character::getId))
+                .expectNext(1, 2, 3, 4, 5)
+                .verifyComplete();
+        verify(webClient, times(3)).get();
+    }
+
     @Test
     public void getAllCharacters_Error() {
         // Arrange
@@ -118,11 +262,29 @@ public class CharacterServiceTest {
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(CharacterResponse.class)).thenReturn(Mono.error(mockException));
+        when(responseSpec.bodyToFlux(DataBuffer.class)).thenReturn(Flux.error(mockException));
 
         // Act & Assert
         StepVerifier.create(characterService.getAllCharacters())
                 .expectError(RuntimeException.class)
                 .verify();
     }
+
+    private Flux<DataBuffer> json(CharacterResponse response) {
+        try {
+            return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(objectMapper.writeValueAsBytes(response)));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static CharacterResponse pageOf(int pages, int... ids) {
+        List<Character> characters = new ArrayList<>();
+        for (int id : ids) {
+            Character character = new Character();
+            character.setId(id);
+            characters.add(character);
+        }
+        return new CharacterResponse(new CharacterResponse.Info(5, pages, null, null), characters);
+    }
 }
@@ -0,0 +1,131 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.config.CharacterMirrorProperties;
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+import com.yobel.rickandmortyback.model.compact.CompactCharacterCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CharacterSnapshotStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    private Path path;
+    private CharacterSnapshotStore store;
+
+    @BeforeEach
+    public void setup() {
+        path = directory.resolve("mirror.snapshot");
+        store = store(path);
+    }
+
+    @Test
+    public void save_RoundTripsEveryField() {
+        // Arrange
+        Character rick = new Character(1, "Rick Sanchez", "Alive", "Human", "", "Male",
+                new Origin("Earth (C-137)", "https://rickandmortyapi.com/api/location/1"),
+                new Location(null, "Citadel of Ricks", "https://rickandmortyapi.com/api/location/3",
+                        null, null, null, null),
+                "https://rickandmortyapi.com/api/character/avatar/1.jpeg",
+                List.of("https://rickandmortyapi.com/api/episode/1", "https://rickandmortyapi.com/api/episode/2"),
+                "https://rickandmortyapi.com/api/character/1",
+                LocalDateTime.of(2017, 11, 4, 18, 48, 46, 250_000_000));
+        Character unknown = new Character(2, "Morty Smith", null, null, null, null, null, null, null, null, null,
+                null);
+        Instant refreshedAt = Instant.parse("2026-01-01T00:00:00Z");
+
+        // Act
+        store.save(snapshot(7, List.of(List.of(rick), List.of(unknown)), refreshedAt));
+        CharacterSnapshotStore.Contents contents = store(path).load();
+
+        // Assert
+        assertEquals(7, contents.version());
+        assertEquals(2, contents.count());
+        assertEquals(refreshedAt, contents.refreshedAt());
+        assertEquals(List.of(List.of(rick), List.of(unknown)), contents.pages());
+    }
+
+    @Test
+    public void load_CorruptFileIsIgnored() throws IOException {
+        // Arrange
+        store.save(snapshot(1, List.of(List.of(character(1))), Instant.now()));
+        byte[] file = Files.readAllBytes(path);
+        file[file.length - 3] ^= 0x40;
+        Files.write(path, file);
+
+        // Act & Assert
+        assertNull(store(path).load());
+    }
+
+    @Test
+    public void load_OtherFormatVersionIsIgnored() throws IOException {
+        // Arrange
+        store.save(snapshot(1, List.of(List.of(character(1))), Instant.now()));
+        byte[] file = Files.readAllBytes(path);
+        ByteBuffer.wrap(file).putInt(4, CharacterSnapshotStore.FORMAT_VERSION + 1);
+        Files.write(path, file);
+
+        // Act & Assert
+        assertNull(store(path).load());
+    }
+
+    @Test
+    public void load_TruncatedOrMissingFileIsIgnored() throws IOException {
+        // Arrange
+        store.save(snapshot(1, List.of(List.of(character(1))), Instant.now()));
+        byte[] file = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(file, file.length - 10));
+
+        // Act & Assert
+        assertNull(store(path).load());
+        assertNull(store(directory.resolve("missing.snapshot")).load());
+    }
+
+    @Test
+    public void save_SkipsOlderVersions() {
+        // Arrange
+        store.save(snapshot(2, List.of(List.of(character(1), character(2))), Instant.now()));
+
+        // Act
+        store.save(snapshot(1, List.of(List.of(character(1))), Instant.now()));
+
+        // Assert
+        assertEquals(2, store(path).load().version());
+    }
+
+    private static CharacterSnapshotStore store(Path path) {
+        CharacterMirrorProperties properties = new CharacterMirrorProperties();
+        properties.setSnapshotPath(path);
+        return new CharacterSnapshotStore(properties);
+    }
+
+    private static CharacterMirror.Snapshot snapshot(long version, List<List<Character>> pages, Instant refreshedAt) {
+        CompactCharacterCodec codec = new CompactCharacterCodec();
+        int count = pages.stream().mapToInt(List::size).sum();
+        return CharacterMirror.Snapshot.of(version, count,
+                pages.stream().map(page -> page.stream().map(codec::encode).toList()).toList(), codec, refreshedAt);
+    }
+
+    private static Character character(int id) {
+        Character character = new Character();
+        character.setId(id);
+        character.setName("Character " + id);
+        return character;
+    }
+}
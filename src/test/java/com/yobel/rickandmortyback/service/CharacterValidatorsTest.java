@@ -0,0 +1,52 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.model.Character;
+import com.yobel.rickandmortyback.model.Location;
+import com.yobel.rickandmortyback.model.Origin;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class CharacterValidatorsTest {
+
+    private final CharacterValidators validators = new CharacterValidators();
+
+    @Test
+    public void of_SameContentGivesSameEtag() {
+        // Arrange
+        Character first = character(1, "Rick Sanchez", LocalDateTime.of(2017, 11, 4, 18, 48, 46));
+        Character copy = character(1, "Rick Sanchez", LocalDateTime.of(2017, 11, 4, 18, 48, 46));
+
+        // Act & Assert
+        assertEquals(validators.of(first).etag(), validators.of(copy).etag());
+        assertEquals(validators.of(List.of(first)).etag(), validators.of(List.of(copy)).etag());
+    }
+
+    @Test
+    public void of_ChangedFieldOrOrderChangesEtag() {
+        // Arrange
+        Character rick = character(1, "Rick Sanchez", LocalDateTime.of(2017, 11, 4, 18, 48, 46));
+        Character morty = character(2, "Morty Smith", LocalDateTime.of(2017, 11, 4, 18, 50, 21));
+        Character deadRick = character(1, "Rick Sanchez", LocalDateTime.of(2017, 11, 4, 18, 48, 46));
+        deadRick.setStatus("Dead");
+
+        // Act & Assert
+        assertNotEquals(validators.of(rick).etag(), validators.of(deadRick).etag());
+        assertNotEquals(validators.of(List.of(rick, morty)).etag(), validators.of(List.of(morty, rick)).etag());
+        assertNotEquals(validators.of(List.of(rick)).etag(), validators.of(List.of(rick, morty)).etag());
+    }
+
+    private static Character character(int id, String name, LocalDateTime created) {
+        return new Character(id, name, "Alive", "Human", "", "Male",
+                new Origin("Earth (C-137)", "https://rickandmortyapi.com/api/location/1"),
+                new Location(null, "Citadel of Ricks", "https://rickandmortyapi.com/api/location/3", null, null, null, null),
+                "https://rickandmortyapi.com/api/character/avatar/" + id + ".jpeg",
+                new ArrayList<>(List.of("https://rickandmortyapi.com/api/episode/1")),
+                "https://rickandmortyapi.com/api/character/" + id, created);
+    }
+}
@@ -0,0 +1,70 @@
+package com.yobel.rickandmortyback.service;
+
+import com.yobel.rickandmortyback.config.UpstreamResilienceProperties;
+import com.yobel.rickandmortyback.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StaleFallbackTest {
+
+    private final StaleFallback staleFallback = new StaleFallback(new UpstreamResilienceProperties());
+
+    @Test
+    public void remember_ServesLastValueWhileUpstreamIsUnavailable() {
+        // Arrange
+        staleFallback.remember("characters:id:1", Mono.just("Rick")).block();
+        StalenessMarker marker = new StalenessMarker();
+
+        // Act & Assert
+        StepVerifier.create(staleFallback.remember("characters:id:1", Mono.<String>error(unavailable()))
+                        .contextWrite(context -> context.put(StalenessMarker.class, marker)))
+                .expectNext("Rick")
+                .verifyComplete();
+        assertTrue(marker.isStale());
+    }
+
+    @Test
+    public void remember_PropagatesWhenNothingWasRemembered() {
+        StalenessMarker marker = new StalenessMarker();
+
+        StepVerifier.create(staleFallback.remember("characters:id:2", Mono.<String>error(unavailable()))
+                        .contextWrite(context -> context.put(StalenessMarker.class, marker)))
+                .expectError(UpstreamUnavailableException.class)
+                .verify();
+        assertFalse(marker.isStale());
+    }
+
+    @Test
+    public void remember_ReplaysCompletedStreams() {
+        // Arrange
+        staleFallback.remember("characters:page:1", Flux.just("Rick", "Morty")).blockLast();
+
+        // Act & Assert
+        StepVerifier.create(staleFallback.remember("characters:page:1", Flux.<String>error(unavailable())))
+                .expectNext("Rick", "Morty")
+                .verifyComplete();
+    }
+
+    @Test
+    public void remember_DoesNotRememberStreamsAboveTheLimit() {
+        // Arrange
+        UpstreamResilienceProperties properties = new UpstreamResilienceProperties();
+        properties.getStale().setMaxElements(2);
+        StaleFallback limited = new StaleFallback(properties);
+        limited.remember("characters:page:1", Flux.just("Rick", "Morty", "Summer")).blockLast();
+
+        // Act & Assert
+        StepVerifier.create(limited.remember("characters:page:1", Flux.<String>error(unavailable())))
+                .expectError(UpstreamUnavailableException.class)
+                .verify();
+    }
+
+    private static UpstreamUnavailableException unavailable() {
+        return new UpstreamUnavailableException("Rick and Morty API circuit is open", null);
+    }
+}